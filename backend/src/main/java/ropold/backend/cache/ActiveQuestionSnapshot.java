@@ -0,0 +1,222 @@
+package ropold.backend.cache;
+
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.QuestionModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable view of all active questions, partitioned by category and difficulty.
+ * Every change produces a new snapshot; only the partitions touched by the change are rebuilt.
+ */
+public final class ActiveQuestionSnapshot {
+
+    private static final int CATEGORIES = CategoryEnum.values().length;
+    private static final int DIFFICULTIES = DifficultyEnum.values().length;
+    // Questions without category or difficulty end up in this extra slot
+    private static final int UNPARTITIONED = CATEGORIES * DIFFICULTIES;
+
+    private final long version;
+    private final List<List<QuestionModel>> partitions;
+    private final Map<String, QuestionModel> questionsById;
+    private final List<QuestionModel> all;
+    private final List<QuestionModel> kangaroo;
+    private final List<QuestionModel> withoutKangaroo;
+
+    private ActiveQuestionSnapshot(long version, List<List<QuestionModel>> partitions, Map<String, QuestionModel> questionsById) {
+        this.version = version;
+        this.partitions = partitions;
+        this.questionsById = questionsById;
+
+        List<QuestionModel> allQuestions = new ArrayList<>(questionsById.size());
+        List<QuestionModel> kangarooQuestions = new ArrayList<>();
+        List<QuestionModel> otherQuestions = new ArrayList<>(questionsById.size());
+        for (int slot = 0; slot < partitions.size(); slot++) {
+            List<QuestionModel> partition = partitions.get(slot);
+            allQuestions.addAll(partition);
+            if (slot != UNPARTITIONED && slot / DIFFICULTIES == CategoryEnum.KANGAROO.ordinal()) {
+                kangarooQuestions.addAll(partition);
+            } else {
+                otherQuestions.addAll(partition);
+            }
+        }
+        this.all = List.copyOf(allQuestions);
+        this.kangaroo = List.copyOf(kangarooQuestions);
+        this.withoutKangaroo = List.copyOf(otherQuestions);
+    }
+
+    public static ActiveQuestionSnapshot empty() {
+        return of(List.of(), 0);
+    }
+
+    public static ActiveQuestionSnapshot of(Collection<QuestionModel> questions, long version) {
+        List<List<QuestionModel>> buckets = new ArrayList<>(UNPARTITIONED + 1);
+        for (int slot = 0; slot <= UNPARTITIONED; slot++) {
+            buckets.add(new ArrayList<>());
+        }
+        Map<String, QuestionModel> byId = new HashMap<>();
+        for (QuestionModel question : questions) {
+            if (question.isActive() && byId.put(question.id(), question) == null) {
+                buckets.get(slotOf(question)).add(question);
+            }
+        }
+        return new ActiveQuestionSnapshot(version, buckets.stream().map(List::copyOf).toList(), Map.copyOf(byId));
+    }
+
+    /**
+     * Returns a new snapshot in which the given questions replace their previous versions.
+     * Questions that are no longer active are dropped, ids in {@code removedIds} are removed.
+     */
+    public ActiveQuestionSnapshot withChanges(Collection<QuestionModel> changedQuestions, Collection<String> removedIds) {
+        Map<String, QuestionModel> byId = new HashMap<>(questionsById);
+        Set<Integer> touchedSlots = new HashSet<>();
+        Set<String> touchedIds = new HashSet<>();
+
+        for (String id : removedIds) {
+            QuestionModel previous = byId.remove(id);
+            if (previous != null) {
+                touchedSlots.add(slotOf(previous));
+                touchedIds.add(id);
+            }
+        }
+        for (QuestionModel question : changedQuestions) {
+            QuestionModel previous = question.isActive() ? byId.put(question.id(), question) : byId.remove(question.id());
+            if (previous != null) {
+                touchedSlots.add(slotOf(previous));
+            }
+            if (question.isActive()) {
+                touchedSlots.add(slotOf(question));
+            }
+            touchedIds.add(question.id());
+        }
+        if (touchedSlots.isEmpty()) {
+            return this;
+        }
+
+        List<List<QuestionModel>> newPartitions = new ArrayList<>(partitions);
+        for (int slot : touchedSlots) {
+            List<QuestionModel> rebuilt = new ArrayList<>();
+            for (QuestionModel question : partitions.get(slot)) {
+                if (!touchedIds.contains(question.id())) {
+                    rebuilt.add(question);
+                }
+            }
+            newPartitions.set(slot, rebuilt);
+        }
+        for (QuestionModel question : changedQuestions) {
+            if (question.isActive() && byId.get(question.id()) == question) {
+                newPartitions.get(slotOf(question)).add(question);
+            }
+        }
+        for (int slot : touchedSlots) {
+            newPartitions.set(slot, List.copyOf(newPartitions.get(slot)));
+        }
+        return new ActiveQuestionSnapshot(version + 1, List.copyOf(newPartitions), Map.copyOf(byId));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return questionsById.size();
+    }
+
+    public QuestionModel get(String id) {
+        return questionsById.get(id);
+    }
+
+    public List<QuestionModel> all() {
+        return all;
+    }
+
+    public List<QuestionModel> kangaroo() {
+        return kangaroo;
+    }
+
+    public List<QuestionModel> withoutKangaroo() {
+        return withoutKangaroo;
+    }
+
+    public List<QuestionModel> partition(CategoryEnum categoryEnum, DifficultyEnum difficultyEnum) {
+        return partitions.get(categoryEnum.ordinal() * DIFFICULTIES + difficultyEnum.ordinal());
+    }
+
+    /**
+     * Draws up to {@code size} distinct questions uniformly at random, using the same rules as the game:
+     * KANGAROO picks from the kangaroo category, everything else excludes it and optionally narrows
+     * down by difficulty (RANDOM = any) and category (null = any).
+     */
+    public List<QuestionModel> sample(DifficultyEnum difficultyEnum, CategoryEnum categoryEnum, int size, RandomGenerator random) {
+        List<List<QuestionModel>> pool = matchingPartitions(difficultyEnum, categoryEnum);
+        int total = pool.stream().mapToInt(List::size).sum();
+        int count = Math.min(size, total);
+
+        // Floyd: zieht count verschiedene Indizes aus [0, total) in O(count)
+        Set<Integer> picked = new HashSet<>(count * 2);
+        List<QuestionModel> result = new ArrayList<>(count);
+        for (int upper = total - count; upper < total; upper++) {
+            int candidate = random.nextInt(upper + 1);
+            int index = picked.add(candidate) ? candidate : upper;
+            picked.add(index);
+            result.add(questionAt(pool, index));
+        }
+        // Floyd liefert eine zufällige Menge, aber keine zufällige Reihenfolge
+        for (int i = result.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            result.set(i, result.set(j, result.get(i)));
+        }
+        return result;
+    }
+
+    private List<List<QuestionModel>> matchingPartitions(DifficultyEnum difficultyEnum, CategoryEnum categoryEnum) {
+        List<List<QuestionModel>> pool = new ArrayList<>();
+        if (difficultyEnum == DifficultyEnum.KANGAROO) {
+            for (DifficultyEnum difficulty : DifficultyEnum.values()) {
+                pool.add(partition(CategoryEnum.KANGAROO, difficulty));
+            }
+            return pool;
+        }
+        boolean anyDifficulty = difficultyEnum == null || difficultyEnum == DifficultyEnum.RANDOM;
+        for (CategoryEnum category : CategoryEnum.values()) {
+            if (category == CategoryEnum.KANGAROO || (categoryEnum != null && category != categoryEnum)) {
+                continue;
+            }
+            for (DifficultyEnum difficulty : DifficultyEnum.values()) {
+                if (anyDifficulty || difficulty == difficultyEnum) {
+                    pool.add(partition(category, difficulty));
+                }
+            }
+        }
+        if (anyDifficulty && categoryEnum == null) {
+            pool.add(partitions.get(UNPARTITIONED));
+        }
+        return pool;
+    }
+
+    private static QuestionModel questionAt(List<List<QuestionModel>> pool, int index) {
+        int remaining = index;
+        for (List<QuestionModel> partition : pool) {
+            if (remaining < partition.size()) {
+                return partition.get(remaining);
+            }
+            remaining -= partition.size();
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    private static int slotOf(QuestionModel question) {
+        if (question.categoryEnum() == null || question.difficultyEnum() == null) {
+            return UNPARTITIONED;
+        }
+        return question.categoryEnum().ordinal() * DIFFICULTIES + question.difficultyEnum().ordinal();
+    }
+}
@@ -0,0 +1,65 @@
+package ropold.backend.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small bounded cache: least recently used entries are dropped once {@code maxSize} is exceeded, and every
+ * entry expires after its own time to live. A single lock is enough because callers look up whole batches
+ * per call, not single keys in a hot loop.
+ */
+public final class ExpiringLruCache<K, V> {
+
+    private record Entry<V>(V value, Instant expiresAt) {
+    }
+
+    private final int maxSize;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public ExpiringLruCache(int maxSize, Clock clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringLruCache.this.maxSize;
+            }
+        };
+    }
+
+    /** Returns the live entries for the given keys; expired entries are removed on the way. */
+    public synchronized Map<K, V> getAll(Collection<K> keys) {
+        Instant now = clock.instant();
+        Map<K, V> found = new HashMap<>();
+        for (K key : keys) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.expiresAt().isAfter(now)) {
+                found.put(key, entry.value());
+            } else {
+                entries.remove(key);
+            }
+        }
+        return found;
+    }
+
+    public synchronized void put(K key, V value, Duration timeToLive) {
+        entries.put(key, new Entry<>(value, clock.instant().plus(timeToLive)));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,27 @@
+package ropold.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ropold.backend.model.BootstrapResponse;
+import ropold.backend.service.BootstrapService;
+
+@RestController
+@RequestMapping("/api/bootstrap")
+@RequiredArgsConstructor
+public class BootstrapController {
+
+    private final BootstrapService bootstrapService;
+
+    @GetMapping
+    public BootstrapResponse bootstrap(@AuthenticationPrincipal OAuth2User user) {
+        // Authentifizierung gehört zum Request-Thread und wird deshalb hier aufgelöst
+        return bootstrapService.bootstrap(
+                SecurityContextHolder.getContext().getAuthentication().getName(),
+                user == null ? null : user.getAttributes());
+    }
+}
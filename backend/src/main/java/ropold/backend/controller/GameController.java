@@ -0,0 +1,62 @@
+package ropold.backend.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.GameAnswer;
+import ropold.backend.model.GameAnswerResult;
+import ropold.backend.model.GameHighScoreRequest;
+import ropold.backend.model.GameRound;
+import ropold.backend.model.GameRoundResult;
+import ropold.backend.model.GameRoundSubmission;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.service.GameService;
+
+@RestController
+@RequestMapping("/api/game")
+@RequiredArgsConstructor
+public class GameController {
+
+    private final GameService gameService;
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/sessions")
+    public GameRound startRound(
+            @RequestParam DifficultyEnum difficulty,
+            @RequestParam(required = false) CategoryEnum category,
+            @RequestParam(defaultValue = "10") int size) {
+        return gameService.startRound(difficulty, category, size);
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/sessions/{sessionId}/restart")
+    public GameRound restartRound(@PathVariable String sessionId) {
+        return gameService.restartRound(sessionId);
+    }
+
+    @PostMapping("/sessions/{sessionId}/answers")
+    public GameAnswerResult answer(@PathVariable String sessionId, @RequestBody GameAnswer gameAnswer) {
+        return gameService.answer(sessionId, gameAnswer.questionIndex(), gameAnswer.answerIndex());
+    }
+
+    // Ganze Runde in einem Request statt einer Anfrage pro Klick
+    @PostMapping("/sessions/{sessionId}/round")
+    public GameRoundResult submitRound(@PathVariable String sessionId, @RequestBody @Valid GameRoundSubmission submission) {
+        return gameService.submitRound(sessionId, submission.answers(), submission.playerName(), currentUserId());
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/sessions/{sessionId}/high-score")
+    public HighScoreModel submitHighScore(@PathVariable String sessionId, @RequestBody @Valid GameHighScoreRequest request) {
+        return gameService.submitHighScore(sessionId, request.playerName(), currentUserId());
+    }
+
+    // Gäste werden wie bisher als "anonymousUser" gespeichert
+    private static String currentUserId() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
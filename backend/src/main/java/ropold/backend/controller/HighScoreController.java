@@ -1,12 +1,17 @@
 package ropold.backend.controller;
 
-import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ropold.backend.leaderboard.LeaderboardBroadcaster;
 import ropold.backend.model.DifficultyEnum;
-import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.HighScoreEntry;
+import ropold.backend.model.HighScoreRank;
+import ropold.backend.model.LeaderboardWindow;
 import ropold.backend.service.HighScoreService;
+import ropold.backend.service.UserProfileService;
 
 import java.util.List;
 
@@ -15,16 +20,44 @@ import java.util.List;
 @RequiredArgsConstructor
 public class HighScoreController {
     private final HighScoreService highScoreService;
+    private final UserProfileService userProfileService;
+    private final LeaderboardBroadcaster leaderboardBroadcaster;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboards(@RequestParam(required = false) List<DifficultyEnum> difficulty) {
+        return leaderboardBroadcaster.subscribe(difficulty == null || difficulty.isEmpty()
+                ? List.of(DifficultyEnum.values())
+                : difficulty);
+    }
 
     @GetMapping("/{difficultyEnum}")
-    public List<HighScoreModel> getHighScoresByDifficulty(@PathVariable DifficultyEnum difficultyEnum) {
-        return highScoreService.getHighScoresByDifficulty(difficultyEnum);
+    public List<HighScoreEntry> getHighScoresByDifficulty(
+            @PathVariable DifficultyEnum difficultyEnum,
+            @RequestParam(defaultValue = "ALL_TIME") LeaderboardWindow window) {
+        return userProfileService.enrich(highScoreService.getHighScoresByDifficulty(difficultyEnum, window));
+    }
+
+    @GetMapping("/{difficultyEnum}/{categoryEnum}")
+    public List<HighScoreEntry> getHighScoresByDifficultyAndCategory(
+            @PathVariable DifficultyEnum difficultyEnum,
+            @PathVariable String categoryEnum,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return userProfileService.enrich(highScoreService.getHighScoresByDifficultyAndCategory(difficultyEnum, categoryEnum, page, size));
+    }
+
+    @GetMapping("/{difficultyEnum}/{categoryEnum}/rank")
+    public HighScoreRank getRankFor(
+            @PathVariable DifficultyEnum difficultyEnum,
+            @PathVariable String categoryEnum,
+            @RequestParam int wrongAnswerCount,
+            @RequestParam double scoreTime) {
+        return highScoreService.getRankFor(difficultyEnum, categoryEnum, wrongAnswerCount, scoreTime);
     }
 
-    @ResponseStatus(HttpStatus.CREATED)
-    @PostMapping()
-    public HighScoreModel addHighScore(@RequestBody @Valid HighScoreModel highScoreModel) {
-        return highScoreService.addHighScore(highScoreModel);
+    @GetMapping("/rank/{id}")
+    public HighScoreRank getRankOf(@PathVariable String id) {
+        return highScoreService.getRankOf(id);
     }
 
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -2,20 +2,42 @@ package ropold.backend.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 import ropold.backend.exception.QuestionNotFoundException;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.ImageVariant;
+import ropold.backend.model.PublicQuestion;
+import ropold.backend.model.QuestionFilter;
+import ropold.backend.model.QuestionImportReport;
 import ropold.backend.model.QuestionModel;
+import ropold.backend.model.QuestionPage;
+import ropold.backend.model.QuestionSearchResult;
+import ropold.backend.model.QuestionSummary;
 import ropold.backend.model.QuestionModelDto;
-import ropold.backend.service.CloudinaryService;
+import ropold.backend.service.PendingImageService;
+import ropold.backend.service.QuestionExportService;
+import ropold.backend.service.QuestionImportService;
 import ropold.backend.service.QuestionService;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+import static ropold.backend.controller.ConditionalResponses.withETag;
 
 @RestController
 @RequestMapping("/api/quiz-hub")
@@ -23,63 +45,161 @@ import java.util.List;
 public class QuestionController {
 
     private final QuestionService questionService;
-    private final CloudinaryService cloudinaryService;
+    private final PendingImageService pendingImageService;
+    private final QuestionExportService questionExportService;
+    private final QuestionImportService questionImportService;
 
+    // Alle öffentlichen Lesezugriffe liefern Fragen ohne richtige Antwort; die volle Frage sieht nur der Ersteller
     @GetMapping
-    public List<QuestionModel> getAllQuestions() {
-        return questionService.getAllQuestions();
+    public ResponseEntity<List<PublicQuestion>> getAllQuestions(WebRequest webRequest) {
+        return withETag(webRequest, questionService.getContentETag(),
+                () -> PublicQuestion.listOf(questionService.getAllQuestions()));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<List<QuestionSummary>> getAllQuestionSummaries(WebRequest webRequest) {
+        return withETag(webRequest, questionService.getSummaryETag(), questionService::getAllQuestionSummaries);
+    }
+
+    @GetMapping("/summary/active")
+    public ResponseEntity<List<QuestionSummary>> getActiveQuestionSummaries(WebRequest webRequest) {
+        return withETag(webRequest, questionService.getSummaryETag(), questionService::getActiveQuestionSummaries);
+    }
+
+    @GetMapping("/summary/active/kangaroo")
+    public ResponseEntity<List<QuestionSummary>> getActiveKangarooQuestionSummaries(WebRequest webRequest) {
+        return withETag(webRequest, questionService.getSummaryETag(), questionService::getActiveKangarooQuestionSummaries);
+    }
+
+    @GetMapping("/summary/active-all")
+    public ResponseEntity<List<QuestionSummary>> getActiveAllQuestionSummaries(WebRequest webRequest) {
+        return withETag(webRequest, questionService.getSummaryETag(), questionService::getAllActiveQuestionSummaries);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<QuestionPage> getQuestionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) DifficultyEnum difficulty,
+            @RequestParam(required = false) CategoryEnum category,
+            @RequestParam(required = false) Boolean active,
+            WebRequest webRequest) {
+        QuestionFilter filter = new QuestionFilter(search, difficulty, category, active);
+        return withETag(webRequest, questionService.getContentETag(),
+                () -> questionService.getQuestionPage(cursor, size, filter));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<QuestionSearchResult> searchQuestions(
+            @RequestParam String q,
+            @RequestParam(required = false) DifficultyEnum difficulty,
+            @RequestParam(required = false) CategoryEnum category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        return withETag(webRequest, questionService.getContentETag(),
+                () -> questionService.searchQuestions(q, difficulty, category, page, size));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportQuestions(
+            @RequestParam(required = false) DifficultyEnum difficulty,
+            @RequestParam(required = false) CategoryEnum category,
+            @RequestParam(required = false) Boolean active,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        QuestionFilter filter = new QuestionFilter(null, difficulty, category, active);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"questions.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(outputStream -> questionExportService.exportNdjson(filter, outputStream));
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(outputStream -> {
+                    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 64 * 1024);
+                    questionExportService.exportNdjson(filter, gzipOutputStream);
+                    gzipOutputStream.finish();
+                });
     }
 
     @GetMapping("/active")
-    public List<QuestionModel> getActiveQuestions() {
-        return questionService.getActiveQuestions();
+    public ResponseEntity<List<PublicQuestion>> getActiveQuestions(WebRequest webRequest) {
+        return withETag(webRequest, questionService.getContentETag(),
+                () -> PublicQuestion.listOf(questionService.getActiveQuestions()));
     }
 
     @GetMapping("/active/kangaroo")
-    public List<QuestionModel> getActiveKangarooQuestions() {return questionService.getActiveKangarooQuestions();
+    public ResponseEntity<List<PublicQuestion>> getActiveKangarooQuestions(WebRequest webRequest) {
+        return withETag(webRequest, questionService.getContentETag(),
+                () -> PublicQuestion.listOf(questionService.getActiveKangarooQuestions()));
     }
 
     @GetMapping("/active-all")
-    public List<QuestionModel> getActiveAllQuestions() {
-        return questionService.getAllActiveQuestions();
+    public ResponseEntity<List<PublicQuestion>> getActiveAllQuestions(WebRequest webRequest) {
+        return withETag(webRequest, questionService.getContentETag(),
+                () -> PublicQuestion.listOf(questionService.getAllActiveQuestions()));
+    }
+
+    @GetMapping("/round")
+    public List<PublicQuestion> getRandomRound(
+            @RequestParam DifficultyEnum difficulty,
+            @RequestParam(required = false) CategoryEnum category,
+            @RequestParam(defaultValue = "10") int size) {
+        return PublicQuestion.listOf(questionService.getRandomRound(difficulty, category, size));
     }
 
     @GetMapping("/{id}")
-    public QuestionModel getQuestionById(@PathVariable String id) {
-        QuestionModel questionModel = questionService.getQuestionById(id);
-        if (questionModel == null) {
-            throw new QuestionNotFoundException("No Question found with id: " + id);
-        }
-        return questionModel;
+    public ResponseEntity<PublicQuestion> getQuestionById(@PathVariable String id, WebRequest webRequest) {
+        return withETag(webRequest, questionService.getContentETag(), () -> {
+            QuestionModel questionModel = questionService.getQuestionById(id);
+            if (questionModel == null) {
+                throw new QuestionNotFoundException("No Question found with id: " + id);
+            }
+            return PublicQuestion.of(questionModel);
+        });
     }
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping()
-    public QuestionModel addQuestion(
+    public CompletableFuture<QuestionModel> addQuestion(
             @RequestPart("questionModelDto") @Valid QuestionModelDto questionModelDto,
             @RequestPart(value = "image", required = false) MultipartFile image,
-            @AuthenticationPrincipal OAuth2User authentication) throws IOException {
+            @AuthenticationPrincipal OAuth2User authentication) {
 
         String authenticatedUserId = authentication.getName();
 
-        String imageUrl = null;
-        if (image != null && !image.isEmpty()) {
-            imageUrl = cloudinaryService.uploadImage(image);
+        if (image == null || image.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    questionService.addQuestion(newQuestion(questionModelDto, authenticatedUserId, null, null, null)));
         }
+        // Upload läuft im Upload-Pool, der Tomcat-Thread ist sofort wieder frei
+        return pendingImageService.saveWithImage(image,
+                stored -> questionService.addQuestion(newQuestion(questionModelDto, authenticatedUserId, stored.imageUrl(), stored.variants(), null)),
+                uploadId -> questionService.addQuestion(newQuestion(questionModelDto, authenticatedUserId, null, null, uploadId)));
+    }
 
-        return questionService.addQuestion(
-                new QuestionModel(
-                        null,
-                        questionModelDto.title(),
-                        questionModelDto.difficultyEnum(),
-                        questionModelDto.categoryEnum(),
-                        questionModelDto.questionText(),
-                        questionModelDto.options(),
-                        questionModelDto.answerExplanation(),
-                        questionModelDto.isActive(),
-                        authenticatedUserId,
-                        imageUrl
-                )
+    private static QuestionModel newQuestion(QuestionModelDto questionModelDto, String githubId,
+                                             String imageUrl, List<ImageVariant> imageVariants, String pendingImageId) {
+        return new QuestionModel(
+                null,
+                questionModelDto.title(),
+                questionModelDto.difficultyEnum(),
+                questionModelDto.categoryEnum(),
+                questionModelDto.questionText(),
+                questionModelDto.options(),
+                questionModelDto.answerExplanation(),
+                questionModelDto.isActive(),
+                githubId,
+                imageUrl,
+                imageVariants,
+                pendingImageId != null,
+                null,
+                pendingImageId
         );
     }
 
@@ -99,40 +219,27 @@ public class QuestionController {
                         questionModelDto.answerExplanation(),
                         questionModelDto.isActive(),
                         questionModelDto.githubId(),
+                        null,
+                        null,
+                        false,
                         null
                 )
         );
     }
 
-    @ResponseStatus(HttpStatus.CREATED)
-    @PostMapping("/batch-no-login")
-    public List<QuestionModel> addQuestionsWithNoLogin(
-            @RequestBody List<QuestionModelDto> questionModelDtos) {
-
-        return questionService.addQuestions(
-                questionModelDtos.stream()
-                        .map(questionModelDto -> new QuestionModel(
-                                null,
-                                questionModelDto.title(),
-                                questionModelDto.difficultyEnum(),
-                                questionModelDto.categoryEnum(),
-                                questionModelDto.questionText(),
-                                questionModelDto.options(),
-                                questionModelDto.answerExplanation(),
-                                questionModelDto.isActive(),
-                                questionModelDto.githubId(),
-                                null
-                        )).toList()
-        );
+    @PostMapping(value = "/batch-no-login", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<QuestionImportReport> addQuestionsWithNoLogin(InputStream body) throws IOException {
+        QuestionImportReport report = questionImportService.importQuestions(body);
+        boolean nothingImported = report.imported() == 0 && (report.received() > 0 || report.error() != null);
+        return ResponseEntity.status(nothingImported ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED).body(report);
     }
 
-
     @PutMapping("/{id}")
-    public QuestionModel updateQuestion(
+    public CompletableFuture<QuestionModel> updateQuestion(
             @PathVariable String id,
             @RequestPart("questionModelDto") @Valid QuestionModelDto questionModelDto,
             @RequestPart(value = "image", required = false) MultipartFile image,
-            @AuthenticationPrincipal OAuth2User authentication) throws IOException {
+            @AuthenticationPrincipal OAuth2User authentication) {
 
         String authenticatedUserId = authentication.getName();
         QuestionModel existingQuestion = questionService.getQuestionById(id);
@@ -141,17 +248,27 @@ public class QuestionController {
             throw new AccessDeniedException("You do not have permission to update this question.");
         }
 
-        String newImageUrl;
-
         if (image != null && !image.isEmpty()) {
-            newImageUrl = cloudinaryService.uploadImage(image);
+            return pendingImageService.saveWithImage(image,
+                    stored -> questionService.updateQuestion(updatedQuestion(id, questionModelDto, stored.imageUrl(), stored.variants(), null)),
+                    uploadId -> questionService.updateQuestion(updatedQuestion(id, questionModelDto, null, null, uploadId)));
+        }
+
+        QuestionModel updatedQuestion;
+        if (existingQuestion.imagePending() && questionModelDto.imageUrl() == null) {
+            // Das Bild wartet noch auf den Upload; nur ein ausdrücklich entferntes Bild ("") verwirft es
+            updatedQuestion = updatedQuestion(id, questionModelDto, null, null, existingQuestion.pendingImageId());
         } else if (questionModelDto.imageUrl() == null || questionModelDto.imageUrl().isBlank()) {
-            newImageUrl = null;
+            updatedQuestion = updatedQuestion(id, questionModelDto, null, null, null);
         } else {
-            newImageUrl = existingQuestion.imageUrl();
+            updatedQuestion = updatedQuestion(id, questionModelDto, existingQuestion.imageUrl(), existingQuestion.imageVariants(), null);
         }
+        return CompletableFuture.completedFuture(questionService.updateQuestion(updatedQuestion));
+    }
 
-        QuestionModel updatedQuestion = new QuestionModel(
+    private static QuestionModel updatedQuestion(String id, QuestionModelDto questionModelDto,
+                                                 String imageUrl, List<ImageVariant> imageVariants, String pendingImageId) {
+        return new QuestionModel(
                 id,
                 questionModelDto.title(),
                 questionModelDto.difficultyEnum(),
@@ -161,13 +278,14 @@ public class QuestionController {
                 questionModelDto.answerExplanation(),
                 questionModelDto.isActive(),
                 questionModelDto.githubId(),
-                newImageUrl
+                imageUrl,
+                imageVariants,
+                pendingImageId != null,
+                null,
+                pendingImageId
         );
-
-        return questionService.updateQuestion(updatedQuestion);
     }
 
-
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteQuestion(@PathVariable String id, @AuthenticationPrincipal OAuth2User authentication) {
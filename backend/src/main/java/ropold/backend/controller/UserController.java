@@ -2,18 +2,24 @@ package ropold.backend.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ropold.backend.exception.AccessDeniedException;
+import ropold.backend.model.PublicQuestion;
 import ropold.backend.model.QuestionModel;
+import ropold.backend.model.QuestionSummary;
 import ropold.backend.service.AppUserService;
 import ropold.backend.service.QuestionService;
 
 import java.util.List;
 import java.util.Map;
 
+import static ropold.backend.controller.ConditionalResponses.withETag;
+
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/users")
@@ -36,14 +42,39 @@ public class UserController {
     }
 
     @GetMapping("/favorites")
-    public List<QuestionModel> getUserFavorites(@AuthenticationPrincipal OAuth2User authentication) {
-        List<String> favoritePieceImageIds = appUserService.getUserFavoriteQuestions(authentication.getName());
-        return questionService.getQuestionsByIds(favoritePieceImageIds);
+    public ResponseEntity<List<PublicQuestion>> getUserFavorites(@AuthenticationPrincipal OAuth2User authentication, WebRequest webRequest) {
+        String userId = authentication.getName();
+        return withETag(webRequest, favoritesETag(userId), () -> {
+            List<String> favoritePieceImageIds = appUserService.getUserFavoriteQuestions(userId);
+            return PublicQuestion.listOf(questionService.getQuestionsByIds(favoritePieceImageIds));
+        });
+    }
+
+    @GetMapping("/favorites/summary")
+    public ResponseEntity<List<QuestionSummary>> getUserFavoriteSummaries(@AuthenticationPrincipal OAuth2User authentication, WebRequest webRequest) {
+        String userId = authentication.getName();
+        return withETag(webRequest, favoritesETag(userId), () -> {
+            List<String> favoriteQuestionIds = appUserService.getUserFavoriteQuestions(userId);
+            return questionService.getQuestionSummariesByIds(favoriteQuestionIds);
+        });
+    }
+
+    @GetMapping("/me/my-questions/{githubId}/summary")
+    public ResponseEntity<List<QuestionSummary>> getQuestionSummariesForGithubUser(@PathVariable String githubId, WebRequest webRequest) {
+        return withETag(webRequest, questionService.getSummaryETag(),
+                () -> questionService.getQuestionSummariesForGithubUser(githubId));
     }
 
+    // Volle Fragen mit richtigen Antworten bekommt nur ihr Ersteller, z.B. zum Bearbeiten
     @GetMapping("/me/my-questions/{githubId}")
-    public List<QuestionModel> getQuestionsForGithubUser(@PathVariable String githubId) {
-        return questionService.getQuestionsForGithubUser(githubId);
+    public ResponseEntity<List<QuestionModel>> getQuestionsForGithubUser(@PathVariable String githubId,
+                                                                         @AuthenticationPrincipal OAuth2User authentication,
+                                                                         WebRequest webRequest) {
+        if (!authentication.getName().equals(githubId)) {
+            throw new AccessDeniedException("You do not have permission to view these questions.");
+        }
+        return withETag(webRequest, questionService.getContentETag(),
+                () -> questionService.getQuestionsForGithubUser(githubId));
     }
 
     @PostMapping("/favorites/{questionId}")
@@ -72,5 +103,8 @@ public class UserController {
 
     }
 
-
+    // Favoriten hängen vom Fragenbestand und von den Favoritenlisten ab, und sind pro Nutzer verschieden
+    private String favoritesETag(String userId) {
+        return "\"" + questionService.getContentVersionTag() + "-" + appUserService.getFavoritesVersion() + "-" + userId + "\"";
+    }
 }
@@ -0,0 +1,7 @@
+package ropold.backend.exception;
+
+public class GameSessionLimitException extends RuntimeException {
+    public GameSessionLimitException(String message) {
+        super(message);
+    }
+}
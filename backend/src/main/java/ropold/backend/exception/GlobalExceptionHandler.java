@@ -21,6 +21,70 @@ public class GlobalExceptionHandler {
         return new QuestionError(e.getMessage());
     }
 
+    @ExceptionHandler(HighScoreNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public QuestionError handleHighScoreNotFoundException(HighScoreNotFoundException e) {
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public QuestionError handleInvalidCursorException(InvalidCursorException e) {
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(GameSessionNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public QuestionError handleGameSessionNotFoundException(GameSessionNotFoundException e) {
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidGameActionException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public QuestionError handleInvalidGameActionException(InvalidGameActionException e) {
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(GameSessionLimitException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public QuestionError handleGameSessionLimitException(GameSessionLimitException e) {
+        log.warn("GameSessionLimitException: {}", e.getMessage());
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidImageException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public QuestionError handleInvalidImageException(InvalidImageException e) {
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(ImageUploadLimitException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public QuestionError handleImageUploadLimitException(ImageUploadLimitException e) {
+        log.warn("ImageUploadLimitException: {}", e.getMessage());
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(ImageStorageUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public QuestionError handleImageStorageUnavailableException(ImageStorageUnavailableException e) {
+        log.warn("ImageStorageUnavailableException: {}", e.getMessage());
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(ImageNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public QuestionError handleImageNotFoundException(ImageNotFoundException e) {
+        return new QuestionError(e.getMessage());
+    }
+
+    @ExceptionHandler(ImageOriginException.class)
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public QuestionError handleImageOriginException(ImageOriginException e) {
+        log.warn("ImageOriginException: {}", e.getMessage());
+        return new QuestionError(e.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public QuestionError handleRuntimeException(RuntimeException e) {
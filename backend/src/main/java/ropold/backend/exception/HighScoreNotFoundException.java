@@ -0,0 +1,7 @@
+package ropold.backend.exception;
+
+public class HighScoreNotFoundException extends RuntimeException {
+    public HighScoreNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package ropold.backend.exception;
+
+public class ImageOriginException extends RuntimeException {
+    public ImageOriginException(String message) {
+        super(message);
+    }
+
+    public ImageOriginException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
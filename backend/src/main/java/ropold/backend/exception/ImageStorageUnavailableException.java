@@ -0,0 +1,7 @@
+package ropold.backend.exception;
+
+public class ImageStorageUnavailableException extends RuntimeException {
+    public ImageStorageUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ropold.backend.exception;
+
+public class ImageUploadLimitException extends RuntimeException {
+    public ImageUploadLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ropold.backend.exception;
+
+public class InvalidGameActionException extends RuntimeException {
+    public InvalidGameActionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ropold.backend.exception;
+
+public class InvalidImageException extends RuntimeException {
+    public InvalidImageException(String message) {
+        super(message);
+    }
+}
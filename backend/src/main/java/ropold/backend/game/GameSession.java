@@ -0,0 +1,101 @@
+package ropold.backend.game;
+
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+
+/**
+ * State of one running round. Kept deliberately small: questions are int references into the store's id table,
+ * answers are a bit mask, and difficulty and category are stored as ordinals.
+ */
+public final class GameSession {
+
+    private static final DifficultyEnum[] DIFFICULTIES = DifficultyEnum.values();
+    private static final CategoryEnum[] CATEGORIES = CategoryEnum.values();
+    private static final byte NO_CATEGORY = -1;
+
+    private final long id;
+    private final int[] questionRefs;
+    private final long startedAtMillis;
+    private final byte difficulty;
+    private final byte category;
+    private long answeredMask;
+    private byte wrongAnswers;
+    private int finishedAfterMillis = -1;
+
+    GameSession(long id, int[] questionRefs, long startedAtMillis, DifficultyEnum difficultyEnum, CategoryEnum categoryEnum) {
+        if (questionRefs.length > Long.SIZE) {
+            throw new IllegalArgumentException("A round has at most " + Long.SIZE + " questions");
+        }
+        this.id = id;
+        this.questionRefs = questionRefs;
+        this.startedAtMillis = startedAtMillis;
+        this.difficulty = (byte) difficultyEnum.ordinal();
+        this.category = categoryEnum == null ? NO_CATEGORY : (byte) categoryEnum.ordinal();
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public int questionCount() {
+        return questionRefs.length;
+    }
+
+    int questionRef(int index) {
+        return questionRefs[index];
+    }
+
+    int[] questionRefs() {
+        return questionRefs;
+    }
+
+    public long startedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public DifficultyEnum difficultyEnum() {
+        return DIFFICULTIES[difficulty];
+    }
+
+    /** The chosen category, or null for a round across all categories. */
+    public CategoryEnum categoryEnum() {
+        return category == NO_CATEGORY ? null : CATEGORIES[category];
+    }
+
+    /** Records the answer to one question; false if that question was already answered. */
+    public synchronized boolean answer(int index, boolean correct, long nowMillis) {
+        long bit = 1L << index;
+        if ((answeredMask & bit) != 0) {
+            return false;
+        }
+        answeredMask |= bit;
+        if (!correct) {
+            wrongAnswers++;
+        }
+        if (Long.bitCount(answeredMask) == questionRefs.length) {
+            finishedAfterMillis = (int) Math.min(Integer.MAX_VALUE, nowMillis - startedAtMillis);
+        }
+        return true;
+    }
+
+    public synchronized boolean isAnswered(int index) {
+        return (answeredMask & (1L << index)) != 0;
+    }
+
+    public synchronized int answeredCount() {
+        return Long.bitCount(answeredMask);
+    }
+
+    public synchronized int wrongAnswerCount() {
+        return wrongAnswers;
+    }
+
+    public synchronized boolean isFinished() {
+        return finishedAfterMillis >= 0;
+    }
+
+    /** Time from the start of the round to its last answer, -1 while the round is still running. */
+    public synchronized int finishedAfterMillis() {
+        return finishedAfterMillis;
+    }
+}
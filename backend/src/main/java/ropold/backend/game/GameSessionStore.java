@@ -0,0 +1,124 @@
+package ropold.backend.game;
+
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store for running game sessions with a fixed time to live.
+ * <p>
+ * Question ids are interned once into an int table, so a session holds an {@code int[]} instead of references to
+ * id strings, and sessions are keyed by a random 64 bit number rather than a UUID string. With ten questions a
+ * session costs roughly 200 bytes including its map entry. Expired sessions are dropped lazily on lookup and in
+ * bulk by {@link #sweep()}; the store refuses new sessions beyond {@code maxSessions}.
+ */
+public final class GameSessionStore {
+
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> refsByQuestionId = new ConcurrentHashMap<>();
+    private final Object internLock = new Object();
+    private volatile String[] questionIdsByRef = new String[64];
+    private int nextRef;
+    private final SecureRandom random = new SecureRandom();
+    private final int maxSessions;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    public GameSessionStore(int maxSessions, Duration ttl, Clock clock) {
+        this.maxSessions = maxSessions;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /** Opens a session for the given questions; null if the store is full even after dropping expired sessions. */
+    public GameSession create(List<String> questionIds, DifficultyEnum difficultyEnum, CategoryEnum categoryEnum) {
+        if (sessions.size() >= maxSessions) {
+            sweep();
+            if (sessions.size() >= maxSessions) {
+                return null;
+            }
+        }
+        int[] refs = questionIds.stream().mapToInt(this::intern).toArray();
+        while (true) {
+            long id = random.nextLong();
+            GameSession session = new GameSession(id, refs, clock.millis(), difficultyEnum, categoryEnum);
+            if (sessions.putIfAbsent(id, session) == null) {
+                return session;
+            }
+        }
+    }
+
+    /** The running session with this id, or null if there is none or it has expired. */
+    public GameSession get(long id) {
+        GameSession session = sessions.get(id);
+        if (session != null && isExpired(session, clock.millis())) {
+            sessions.remove(id, session);
+            return null;
+        }
+        return session;
+    }
+
+    /** Removes exactly this session; false if it was already removed, e.g. by a concurrent submit. */
+    public boolean remove(GameSession session) {
+        return sessions.remove(session.id(), session);
+    }
+
+    public String questionId(GameSession session, int index) {
+        return questionIdsByRef[session.questionRef(index)];
+    }
+
+    public List<String> questionIds(GameSession session) {
+        String[] table = questionIdsByRef;
+        return Arrays.stream(session.questionRefs()).mapToObj(ref -> table[ref]).toList();
+    }
+
+    /** Drops all expired sessions and returns how many were removed. */
+    public int sweep() {
+        long now = clock.millis();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> isExpired(session, now));
+        return Math.max(0, before - sessions.size());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public long expiresAtMillis(GameSession session) {
+        return session.startedAtMillis() + ttlMillis;
+    }
+
+    private boolean isExpired(GameSession session, long now) {
+        return now >= expiresAtMillis(session);
+    }
+
+    // Jede Frage-ID wird einmal abgelegt; Sessions halten nur den Index
+    private int intern(String questionId) {
+        Integer ref = refsByQuestionId.get(questionId);
+        if (ref != null) {
+            return ref;
+        }
+        synchronized (internLock) {
+            ref = refsByQuestionId.get(questionId);
+            if (ref != null) {
+                return ref;
+            }
+            String[] table = questionIdsByRef;
+            if (nextRef == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[nextRef] = questionId;
+            // Tabelle vor der Map veröffentlichen, damit jeder vergebene Index lesbar ist
+            questionIdsByRef = table;
+            refsByQuestionId.put(questionId, nextRef);
+            return nextRef++;
+        }
+    }
+}
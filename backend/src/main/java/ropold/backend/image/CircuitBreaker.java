@@ -0,0 +1,76 @@
+package ropold.backend.image;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker. After {@code failureThreshold} consecutive failures it opens and rejects calls
+ * for {@code openDuration}; then a single trial call decides whether it closes again or stays open.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openUntil = Instant.MIN;
+    private boolean trialRunning;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /** Returns whether a call may go through. Every permitted call must end in exactly one of the on-methods. */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && !clock.instant().isBefore(openUntil)) {
+            state = State.HALF_OPEN;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                // Nur ein Probeaufruf, damit ein gerade erholter Dienst nicht sofort wieder überrannt wird
+                if (trialRunning) {
+                    yield false;
+                }
+                trialRunning = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        trialRunning = false;
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        trialRunning = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntil = clock.instant().plus(openDuration);
+        }
+    }
+
+    /** Ends a permitted call that says nothing about the health of the service, e.g. when it was never started. */
+    public synchronized void onIgnored() {
+        trialRunning = false;
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && !clock.instant().isBefore(openUntil)) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+}
@@ -0,0 +1,231 @@
+package ropold.backend.image;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Bounded LRU cache of images on the local disk. The file name carries the key and the image type, so the index
+ * can be rebuilt from the directory after a restart; least recently used files leave the index once the total size
+ * exceeds {@code maxBytes} and are deleted from disk after {@link #RETIRED_FILE_GRACE}.
+ */
+@Slf4j
+public final class DiskImageCache {
+
+    // Nur Rasterformate: SVG könnte im Kontext der eigenen Domain Skripte ausführen
+    public static final Set<String> IMAGE_TYPES = Set.of("jpeg", "png", "gif", "webp", "avif");
+    private static final String PARTIAL_SUFFIX = ".part";
+    // Ein Request kann eine eben verdrängte Datei noch ausliefern (mit sendfile öffnet Tomcat sie erst nach dem
+    // Controller), deshalb wird sie erst nach dieser Frist gelöscht
+    static final Duration RETIRED_FILE_GRACE = Duration.ofMinutes(1);
+
+    public record CachedImage(String key, Path path, String contentType, long size) {
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final Clock clock;
+    private final LinkedHashMap<String, CachedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayDeque<RetiredFile> retiredFiles = new ArrayDeque<>();
+    private long totalBytes;
+
+    private record RetiredFile(CachedImage image, Instant deleteAfter) {
+    }
+
+    public DiskImageCache(Path directory, long maxBytes) {
+        this(directory, maxBytes, Clock.systemUTC());
+    }
+
+    public DiskImageCache(Path directory, long maxBytes, Clock clock) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+        try {
+            Files.createDirectories(this.directory);
+            loadIndex();
+            // Beim Start liest noch niemand: verdrängte Dateien sofort löschen
+            deleteRetiredFiles(Instant.MAX);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open image cache in " + this.directory, e);
+        }
+    }
+
+    public synchronized CachedImage get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Writes the image under a temporary name and moves it into place, so a reader never sees a partial file.
+     * Fails if the content is larger than {@code maxImageBytes}.
+     */
+    public CachedImage put(String key, String contentType, InputStream content, long maxImageBytes) throws IOException {
+        String type = imageType(contentType);
+        if (type == null) {
+            throw new IOException("Unsupported image type: " + contentType);
+        }
+        Path partial = directory.resolve(key + "." + UUID.randomUUID() + PARTIAL_SUFFIX);
+        try {
+            long size = copy(content, partial, maxImageBytes);
+            Path target = directory.resolve(key + "." + type);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return register(new CachedImage(key, target, "image/" + type, size));
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    public synchronized void evict(String key) {
+        deleteRetiredFiles(clock.instant());
+        CachedImage removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.size();
+            retire(removed);
+        }
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Returns the image subtype for a supported content type, e.g. {@code jpeg} for {@code image/jpeg}. */
+    public static String imageType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        if (!mediaType.startsWith("image/")) {
+            return null;
+        }
+        String type = mediaType.substring("image/".length());
+        return IMAGE_TYPES.contains(type) ? type : null;
+    }
+
+    private synchronized CachedImage register(CachedImage image) {
+        deleteRetiredFiles(clock.instant());
+        CachedImage previous = entries.put(image.key(), image);
+        if (previous != null) {
+            totalBytes -= previous.size();
+            if (!previous.path().equals(image.path())) {
+                retire(previous);
+            }
+        }
+        totalBytes += image.size();
+        evictOverflow();
+        return image;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CachedImage>> eldest = entries.entrySet().iterator();
+        // Der zuletzt benutzte Eintrag bleibt immer, auch wenn er allein zu groß ist
+        while (totalBytes > maxBytes && entries.size() > 1 && eldest.hasNext()) {
+            CachedImage evicted = eldest.next().getValue();
+            eldest.remove();
+            totalBytes -= evicted.size();
+            retire(evicted);
+        }
+    }
+
+    private void retire(CachedImage image) {
+        retiredFiles.add(new RetiredFile(image, clock.instant().plus(RETIRED_FILE_GRACE)));
+    }
+
+    private void deleteRetiredFiles(Instant now) {
+        while (!retiredFiles.isEmpty() && !retiredFiles.peek().deleteAfter().isAfter(now)) {
+            CachedImage image = retiredFiles.poll().image();
+            CachedImage current = entries.get(image.key());
+            // Inzwischen unter demselben Namen neu geladen: die Datei gehört wieder dem Index
+            if (current == null || !current.path().equals(image.path())) {
+                deleteQuietly(image.path());
+            }
+        }
+    }
+
+    private static long copy(InputStream content, Path target, long maxImageBytes) throws IOException {
+        long size = 0;
+        byte[] buffer = new byte[8192];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (size > maxImageBytes) {
+                    throw new IOException("Image is larger than " + maxImageBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    // Reihenfolge nach letzter Änderung ist nach einem Neustart die beste Näherung für "zuletzt benutzt"
+    private void loadIndex() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile).toList();
+        }
+        files.stream()
+                .sorted(Comparator.comparing(DiskImageCache::lastModified))
+                .forEach(this::loadEntry);
+        evictOverflow();
+    }
+
+    private void loadEntry(Path path) {
+        String fileName = path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String type = dot < 0 ? null : fileName.substring(dot + 1);
+        if (fileName.endsWith(PARTIAL_SUFFIX)) {
+            // Rest eines abgebrochenen Downloads
+            deleteQuietly(path);
+            return;
+        }
+        if (type == null || !IMAGE_TYPES.contains(type)) {
+            return;
+        }
+        try {
+            long size = Files.size(path);
+            entries.put(fileName.substring(0, dot), new CachedImage(fileName.substring(0, dot), path, "image/" + type, size));
+            totalBytes += size;
+        } catch (IOException e) {
+            log.warn("Skipping unreadable cached image {}", path, e);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete cached image {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package ropold.backend.image;
+
+import ropold.backend.exception.InvalidImageException;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Decodes an uploaded image once and renders it in a few widths as progressive JPEG. Uses JDK ImageIO only,
+ * which has no WebP or AVIF encoder; JPEG at reduced width is what keeps the download small.
+ */
+public final class ImageProcessor {
+
+    public static final int[] VARIANT_WIDTHS = {320, 640, 1280};
+    public static final long MAX_SOURCE_PIXELS = 50_000_000L;
+    static final float JPEG_QUALITY = 0.8f;
+    private static final int MAX_WIDTH = VARIANT_WIDTHS[VARIANT_WIDTHS.length - 1];
+
+    public record EncodedVariant(int width, int height, byte[] jpeg) {
+    }
+
+    /** Returns the variants in ascending width, or an empty list if ImageIO cannot read the data. */
+    public List<EncodedVariant> createVariants(byte[] data) throws IOException {
+        BufferedImage source = decode(data);
+        if (source == null) {
+            return List.of();
+        }
+        int[] widths = targetWidths(source.getWidth());
+        List<EncodedVariant> variants = new ArrayList<>(widths.length);
+        // Von groß nach klein: jede Stufe entsteht aus der vorherigen, das Original wird nur einmal dekodiert
+        BufferedImage current = toRgb(source);
+        for (int i = widths.length - 1; i >= 0; i--) {
+            current = scaleToWidth(current, widths[i]);
+            variants.addFirst(new EncodedVariant(current.getWidth(), current.getHeight(), encodeJpeg(current)));
+        }
+        return variants;
+    }
+
+    static int[] targetWidths(int sourceWidth) {
+        List<Integer> widths = new ArrayList<>();
+        for (int width : VARIANT_WIDTHS) {
+            if (width < sourceWidth) {
+                widths.add(width);
+            }
+        }
+        // Kleinere Bilder werden nicht hochskaliert, sondern in Originalbreite neu komprimiert
+        if (sourceWidth <= MAX_WIDTH) {
+            widths.add(sourceWidth);
+        }
+        return widths.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static BufferedImage decode(byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Größe aus dem Header prüfen, bevor ein riesiges Bild in den Speicher dekodiert wird
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new InvalidImageException("Image is too large: " + width + "x" + height + " pixels");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, width / (MAX_WIDTH * 2));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } catch (IIOException e) {
+                // Beschädigte oder exotische Varianten eines Formats: wie ein unbekanntes Format behandeln
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage toRgb(BufferedImage source) {
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            // JPEG kennt keine Transparenz
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            graphics.drawImage(source, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static BufferedImage scaleToWidth(BufferedImage image, int targetWidth) {
+        BufferedImage current = image;
+        // Schrittweise halbieren; bilinear in einem großen Schritt ergibt sonst Treppen und Flimmern
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = resize(current, current.getWidth() / 2);
+        }
+        return current.getWidth() == targetWidth ? current : resize(current, targetWidth);
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width) {
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            // Progressiv: auf langsamen Verbindungen erscheint schnell eine grobe Vorschau
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
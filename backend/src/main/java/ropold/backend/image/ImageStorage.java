@@ -0,0 +1,16 @@
+package ropold.backend.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Backend that stores question images. Implementations read the upload directly from the given stream and
+ * must not buffer it on disk; closing the stream is left to the caller.
+ */
+public interface ImageStorage {
+
+    /** Stores the image and returns the URL under which it is served. */
+    String uploadImage(InputStream content, String filename) throws IOException;
+
+    void deleteImage(String imageUrl);
+}
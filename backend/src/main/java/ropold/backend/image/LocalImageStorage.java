@@ -0,0 +1,79 @@
+package ropold.backend.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Stores images in a local directory. Meant for tests and local development without a Cloudinary account.
+ */
+@Component
+@ConditionalOnProperty(name = "app.image-storage", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+
+    private final Path directory;
+
+    public LocalImageStorage(@Value("${app.image-storage.local-dir:${java.io.tmpdir}/quiz-hub-images}") Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String uploadImage(InputStream content, String filename) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(UUID.randomUUID() + extension(filename));
+        // Erst unter temporärem Namen schreiben, damit nie ein halbes Bild unter der URL liegt
+        Path partial = directory.resolve(target.getFileName() + ".part");
+        try {
+            Files.copy(content, partial);
+            Files.move(partial, target);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        return target.toUri().toString();
+    }
+
+    @Override
+    public void deleteImage(String imageUrl) {
+        Path path = resolve(imageUrl);
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error deleting local image: " + imageUrl, e);
+        }
+    }
+
+    // Nur Dateien innerhalb des eigenen Verzeichnisses werden angefasst
+    Path resolve(String imageUrl) {
+        try {
+            URI uri = URI.create(imageUrl);
+            if (!"file".equals(uri.getScheme())) {
+                return null;
+            }
+            Path path = Path.of(uri).toAbsolutePath().normalize();
+            return path.startsWith(directory) ? path : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String extension(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : filename.substring(dot).toLowerCase(Locale.ROOT);
+        return extension.matches("\\.[a-z0-9]{1,5}") ? extension : "";
+    }
+}
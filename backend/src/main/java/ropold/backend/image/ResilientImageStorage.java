@@ -0,0 +1,182 @@
+package ropold.backend.image;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ropold.backend.exception.ImageStorageUnavailableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps the configured image storage with a timeout per operation, a bulkhead that bounds the concurrent calls
+ * and a circuit breaker. A slow or failing image host then costs a bounded number of threads and fails fast,
+ * instead of blocking every caller until its socket gives up.
+ */
+@Slf4j
+@Primary
+@Component
+public class ResilientImageStorage implements ImageStorage {
+
+    public static final Duration UPLOAD_TIMEOUT = Duration.ofSeconds(30);
+    public static final Duration DELETE_TIMEOUT = Duration.ofSeconds(10);
+    public static final int MAX_CONCURRENT_CALLS = 4;
+    public static final int FAILURE_THRESHOLD = 5;
+    public static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final ImageStorage delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Duration uploadTimeout;
+    private final Duration deleteTimeout;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private interface StorageCall<T> {
+        T call() throws IOException;
+    }
+
+    // Spring lässt die Bean selbst als Kandidat aus; injiziert wird der eigentliche Speicher (Cloudinary oder lokal)
+    @Autowired
+    public ResilientImageStorage(ImageStorage delegate, MeterRegistry meterRegistry) {
+        this(delegate, meterRegistry, new CircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION, Clock.systemUTC()),
+                MAX_CONCURRENT_CALLS, UPLOAD_TIMEOUT, DELETE_TIMEOUT);
+    }
+
+    public ResilientImageStorage(ImageStorage delegate, MeterRegistry meterRegistry, CircuitBreaker circuitBreaker,
+                                 int maxConcurrentCalls, Duration uploadTimeout, Duration deleteTimeout) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.uploadTimeout = uploadTimeout;
+        this.deleteTimeout = deleteTimeout;
+        this.meterRegistry = meterRegistry;
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("image.storage.circuit.state", circuitBreaker, breaker -> breaker.state() == state ? 1 : 0)
+                    .tag("state", state.name().toLowerCase(Locale.ROOT))
+                    .description("1 for the current state of the image storage circuit breaker")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("image.storage.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free slots for concurrent image storage calls")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String uploadImage(InputStream content, String filename) throws IOException {
+        return call("upload", uploadTimeout, () -> delegate.uploadImage(content, filename));
+    }
+
+    @Override
+    public void deleteImage(String imageUrl) {
+        try {
+            call("delete", deleteTimeout, () -> {
+                delegate.deleteImage(imageUrl);
+                return null;
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected IOException deleting image " + imageUrl, e);
+        }
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private <T> T call(String operation, Duration timeout, StorageCall<T> storageCall) throws IOException {
+        // Ein Aufruf, der nach dem Timeout noch hängt, behält seinen Platz, bis er wirklich endet
+        if (!bulkhead.tryAcquire()) {
+            record(operation, "rejected");
+            throw new ImageStorageUnavailableException("Too many concurrent image storage calls");
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            record(operation, "short_circuited");
+            throw new ImageStorageUnavailableException("Image storage is unavailable, circuit is open");
+        }
+        // Den Platz gibt genau einer frei: der Aufruf selbst oder, falls er nie gestartet ist, der Abbruch
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return storageCall.call();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            circuitBreaker.onIgnored();
+            throw e;
+        }
+        try {
+            T result = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            record(operation, "success");
+            return result;
+        } catch (TimeoutException e) {
+            cancel(future, started);
+            circuitBreaker.onFailure();
+            record(operation, "timeout");
+            log.warn("Image storage {} timed out after {}", operation, timeout);
+            throw new ImageStorageUnavailableException("Image storage " + operation + " timed out after " + timeout);
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            record(operation, "failure");
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            cancel(future, started);
+            circuitBreaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new ImageStorageUnavailableException("Interrupted while waiting for image storage " + operation);
+        }
+    }
+
+    private void cancel(Future<?> future, AtomicBoolean started) {
+        future.cancel(true);
+        if (started.compareAndSet(false, true)) {
+            bulkhead.release();
+        }
+    }
+
+    private static IOException rethrow(Throwable cause) {
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException(cause);
+    }
+
+    private void record(String operation, String outcome) {
+        meterRegistry.counter("image.storage.calls", "operation", operation, "outcome", outcome).increment();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+}
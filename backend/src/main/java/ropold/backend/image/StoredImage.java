@@ -0,0 +1,23 @@
+package ropold.backend.image;
+
+import ropold.backend.model.ImageVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Ergebnis eines Uploads: imageUrl ist die größte Variante oder, ohne Varianten, das unveränderte Original
+public record StoredImage(
+        String imageUrl,
+        List<ImageVariant> variants
+) {
+    public List<String> urls() {
+        List<String> urls = new ArrayList<>();
+        urls.add(imageUrl);
+        for (ImageVariant variant : variants) {
+            if (!variant.url().equals(imageUrl)) {
+                urls.add(variant.url());
+            }
+        }
+        return urls;
+    }
+}
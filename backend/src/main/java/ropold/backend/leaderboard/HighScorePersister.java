@@ -0,0 +1,106 @@
+package ropold.backend.leaderboard;
+
+import lombok.extern.slf4j.Slf4j;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.repository.HighScoreRepository;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Writes leaderboard changes to Mongo on a single background thread.
+ * <p>
+ * Callers only mark a score as dirty. When the worker picks it up it compares against the live
+ * leaderboard: scores still on it are saved, all others are deleted. Because the decision is made
+ * from the current state and not from the order of events, an accept racing with an eviction of the
+ * same score always ends with the correct document state.
+ */
+@Slf4j
+public final class HighScorePersister implements AutoCloseable {
+
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final Consumer<HighScoreModel> save;
+    private final Consumer<String> delete;
+    private final Predicate<HighScoreModel> isLive;
+    private final Map<String, HighScoreModel> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+
+    public HighScorePersister(HighScoreRepository highScoreRepository, Predicate<HighScoreModel> isLive) {
+        this("high-score-persister", highScoreRepository::save, highScoreRepository::deleteById, isLive);
+    }
+
+    public HighScorePersister(String threadName, Consumer<HighScoreModel> save, Consumer<String> delete, Predicate<HighScoreModel> isLive) {
+        this.save = save;
+        this.delete = delete;
+        this.isLive = isLive;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void markDirty(HighScoreModel score) {
+        dirty.put(score.id(), score);
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /** Blocks until everything marked so far has been written. */
+    public void flush() {
+        try {
+            executor.submit(this::drain).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Flushing high scores failed", e.getCause());
+        }
+    }
+
+    public int pendingWrites() {
+        return dirty.size();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        executor.shutdown();
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        Iterator<HighScoreModel> iterator = dirty.values().iterator();
+        while (iterator.hasNext()) {
+            HighScoreModel score = iterator.next();
+            // Entfernen vor dem Prüfen: eine spätere Markierung löst einen weiteren Durchlauf aus
+            if (!dirty.remove(score.id(), score)) {
+                continue;
+            }
+            try {
+                if (isLive.test(score)) {
+                    save.accept(score);
+                } else {
+                    delete.accept(score.id());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Persisting high score {} failed, retrying: {}", score.id(), e.getMessage());
+                dirty.putIfAbsent(score.id(), score);
+                if (drainScheduled.compareAndSet(false, true)) {
+                    executor.schedule(this::drain, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+    }
+}
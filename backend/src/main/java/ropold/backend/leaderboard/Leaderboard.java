@@ -0,0 +1,115 @@
+package ropold.backend.leaderboard;
+
+import ropold.backend.model.HighScoreModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, lock-free top-N list ordered by (wrongAnswerCount, scoreTime).
+ * <p>
+ * A new score is inserted first; every insert that pushes the board over capacity then claims exactly
+ * one eviction via CAS on the size counter and removes the current worst entry. The board therefore
+ * settles on exactly the best {@code capacity} scores ever offered, no matter how submissions interleave.
+ */
+public final class Leaderboard {
+
+    // Bei Gleichstand gewinnt der ältere Eintrag, die id macht die Ordnung total
+    public static final Comparator<HighScoreModel> RANKING = Comparator
+            .comparingInt(HighScoreModel::wrongAnswerCount)
+            .thenComparingDouble(HighScoreModel::scoreTime)
+            .thenComparing(HighScoreModel::date, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(HighScoreModel::id, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final int capacity;
+    private final ConcurrentSkipListSet<HighScoreModel> scores = new ConcurrentSkipListSet<>(RANKING);
+    private final AtomicInteger size = new AtomicInteger();
+
+    public Leaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public record OfferResult(boolean accepted, List<HighScoreModel> evicted) {
+    }
+
+    /** Offers a score; losing scores are rejected without any side effect. */
+    public OfferResult offer(HighScoreModel score) {
+        if (isLosing(score)) {
+            return new OfferResult(false, List.of());
+        }
+        if (!scores.add(score)) {
+            return new OfferResult(false, List.of());
+        }
+        size.incrementAndGet();
+        List<HighScoreModel> evicted = evictOverflow();
+        boolean accepted = evicted.stream().noneMatch(score::equals);
+        return new OfferResult(accepted, evicted);
+    }
+
+    /** Replaces the content, keeping only the best {@code capacity} scores; returns the ones that did not fit. */
+    public List<HighScoreModel> reset(Collection<HighScoreModel> initialScores) {
+        scores.clear();
+        size.set(0);
+        List<HighScoreModel> sorted = initialScores.stream().sorted(RANKING).toList();
+        for (HighScoreModel score : sorted.subList(0, Math.min(capacity, sorted.size()))) {
+            if (scores.add(score)) {
+                size.incrementAndGet();
+            }
+        }
+        return sorted.size() > capacity ? sorted.subList(capacity, sorted.size()) : List.of();
+    }
+
+    public boolean remove(HighScoreModel score) {
+        if (scores.remove(score)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean contains(HighScoreModel score) {
+        return scores.contains(score);
+    }
+
+    public List<HighScoreModel> snapshot() {
+        return List.copyOf(scores);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private boolean isLosing(HighScoreModel score) {
+        if (size.get() < capacity) {
+            return false;
+        }
+        try {
+            HighScoreModel worst = scores.last();
+            return score.wrongAnswerCount() > worst.wrongAnswerCount()
+                    || (score.wrongAnswerCount() == worst.wrongAnswerCount() && score.scoreTime() >= worst.scoreTime());
+        } catch (NoSuchElementException e) {
+            return false;
+        }
+    }
+
+    private List<HighScoreModel> evictOverflow() {
+        List<HighScoreModel> evicted = new ArrayList<>(1);
+        int current;
+        while ((current = size.get()) > capacity) {
+            // Erst die Verdrängung reservieren, dann den aktuell schlechtesten Eintrag entfernen
+            if (size.compareAndSet(current, current - 1)) {
+                HighScoreModel worst = scores.pollLast();
+                if (worst != null) {
+                    evicted.add(worst);
+                }
+            }
+        }
+        return evicted;
+    }
+}
@@ -0,0 +1,362 @@
+package ropold.backend.leaderboard;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreEntry;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.LeaderboardUpdate;
+import ropold.backend.model.RankChange;
+import ropold.backend.service.HighScoreService;
+import ropold.backend.service.UserProfileService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Pushes leaderboard rank changes to Server-Sent Events subscribers.
+ * <p>
+ * Connections are held by the servlet container in async mode, so idle subscribers cost no thread.
+ * A change reloads and enriches the board once per difficulty; subscribers then only get a dirty bit,
+ * and a sender thread diffs the subscriber's last sent board against that shared one. A slow client
+ * therefore never builds up a backlog: whatever happened while its previous write was in flight
+ * collapses into one update against the latest state.
+ * <p>
+ * Sends run on a small fixed pool, with at most one queued task per subscriber. A subscriber whose
+ * write takes longer than the send timeout is dropped and its sender thread interrupted.
+ */
+@Slf4j
+@Component
+public class LeaderboardBroadcaster {
+
+    public static final String EVENT_NAME = "leaderboard";
+    private static final long HEARTBEAT_SECONDS = 25;
+    static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+    static final int SENDER_THREADS = 8;
+
+    private final HighScoreService highScoreService;
+    private final UserProfileService userProfileService;
+    private final Map<DifficultyEnum, Set<Subscriber>> subscribers = new EnumMap<>(DifficultyEnum.class);
+    private final Map<DifficultyEnum, Board> boards = new EnumMap<>(DifficultyEnum.class);
+    // Fest begrenzt, unabhängig von der Zahl der Subscriber. Ein hängendes send() belegt einen Thread nur bis zum
+    // Send-Timeout, dann unterbricht es der Watchdog. Virtuelle Threads helfen hier nicht, ResponseBodyEmitter.send
+    // ist synchronized und würde den Träger blockieren
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("leaderboard-sse-heartbeat"));
+    private final long sendTimeoutNanos;
+
+    @Autowired
+    public LeaderboardBroadcaster(HighScoreService highScoreService, UserProfileService userProfileService) {
+        this(highScoreService, userProfileService, SEND_TIMEOUT, SENDER_THREADS);
+    }
+
+    LeaderboardBroadcaster(HighScoreService highScoreService, UserProfileService userProfileService,
+                           Duration sendTimeout, int senderThreads) {
+        this.highScoreService = highScoreService;
+        this.userProfileService = userProfileService;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.sender = Executors.newFixedThreadPool(senderThreads, daemonThreads("leaderboard-sse"));
+        for (DifficultyEnum difficultyEnum : DifficultyEnum.values()) {
+            subscribers.put(difficultyEnum, ConcurrentHashMap.newKeySet());
+            boards.put(difficultyEnum, new Board(difficultyEnum));
+        }
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        long checkMillis = Math.max(1, sendTimeout.toMillis() / 2);
+        heartbeat.scheduleWithFixedDelay(this::dropStalledSubscribers, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(Collection<DifficultyEnum> difficulties) {
+        // Kein Timeout: tote Verbindungen fallen beim nächsten Heartbeat auf
+        return subscribe(new SseEmitter(0L), difficulties);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Collection<DifficultyEnum> difficulties) {
+        Subscriber subscriber = new Subscriber(emitter, difficulties);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(error -> unregister(subscriber));
+        difficulties.forEach(difficultyEnum -> subscribers.get(difficultyEnum).add(subscriber));
+        // Erster Stand: Diff gegen eine leere Liste, also die komplette Bestenliste
+        for (DifficultyEnum difficultyEnum : difficulties) {
+            Board board = boards.get(difficultyEnum);
+            if (board.snapshot == null) {
+                // Das Laden markiert danach alle Subscriber, auch diesen
+                board.markStale();
+            } else {
+                subscriber.markDirty(difficultyEnum);
+            }
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onLeaderboardChanged(LeaderboardChangedEvent event) {
+        Board board = boards.get(event.difficultyEnum());
+        // Ohne Subscriber wird nichts geladen; der nächste lädt dann selbst. Erst verwerfen, dann prüfen,
+        // sonst könnte ein gleichzeitig hinzukommender Subscriber den alten Stand behalten
+        board.snapshot = null;
+        if (!subscribers.get(event.difficultyEnum()).isEmpty()) {
+            board.markStale();
+        }
+    }
+
+    public int subscriberCount() {
+        return allSubscribers().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    static LeaderboardUpdate diff(DifficultyEnum difficultyEnum, List<HighScoreModel> previous, List<HighScoreModel> current,
+                                  Function<List<HighScoreModel>, List<HighScoreEntry>> enrich) {
+        Map<String, Integer> previousRanks = new HashMap<>();
+        for (int i = 0; i < previous.size(); i++) {
+            previousRanks.put(previous.get(i).id(), i);
+        }
+        List<Integer> changedRanks = new ArrayList<>();
+        Set<String> currentIds = new HashSet<>();
+        for (int i = 0; i < current.size(); i++) {
+            HighScoreModel score = current.get(i);
+            currentIds.add(score.id());
+            Integer previousRank = previousRanks.get(score.id());
+            if (previousRank == null || previousRank != i) {
+                changedRanks.add(i);
+            }
+        }
+        // Profile nur für die geänderten Plätze auflösen, in einem Rutsch
+        List<HighScoreEntry> entries = enrich.apply(changedRanks.stream().map(current::get).toList());
+        List<RankChange> changes = new ArrayList<>(changedRanks.size());
+        for (int i = 0; i < changedRanks.size(); i++) {
+            changes.add(new RankChange(changedRanks.get(i) + 1, entries.get(i)));
+        }
+        List<String> removedIds = previous.stream()
+                .map(HighScoreModel::id)
+                .filter(id -> !currentIds.contains(id))
+                .toList();
+        return new LeaderboardUpdate(difficultyEnum, changes, removedIds, current.size());
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscriber.difficulties.forEach(difficultyEnum -> subscribers.get(difficultyEnum).remove(subscriber));
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : allSubscribers()) {
+            subscriber.markHeartbeat();
+        }
+    }
+
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : allSubscribers()) {
+            if (subscriber.isStalled(now)) {
+                log.debug("Dropping leaderboard subscriber: send took longer than {} ms", sendTimeoutNanos / 1_000_000);
+                subscriber.drop();
+            }
+        }
+    }
+
+    private Set<Subscriber> allSubscribers() {
+        Set<Subscriber> all = new HashSet<>();
+        subscribers.values().forEach(all::addAll);
+        return all;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record BoardSnapshot(List<HighScoreModel> scores, Map<String, HighScoreEntry> entries) {
+
+        List<HighScoreEntry> entriesFor(List<HighScoreModel> changed) {
+            return changed.stream().map(score -> entries.get(score.id())).toList();
+        }
+    }
+
+    private final class Board {
+        private final DifficultyEnum difficultyEnum;
+        private final AtomicBoolean stale = new AtomicBoolean();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Null, solange nicht (wieder) geladen
+        private volatile BoardSnapshot snapshot;
+
+        private Board(DifficultyEnum difficultyEnum) {
+            this.difficultyEnum = difficultyEnum;
+        }
+
+        void markStale() {
+            stale.set(true);
+            if (scheduled.compareAndSet(false, true)) {
+                sender.execute(this::refresh);
+            }
+        }
+
+        // Einmal laden und anreichern pro Änderung, egal wie viele Subscriber; schnelle Folgeänderungen fallen zusammen
+        private void refresh() {
+            do {
+                stale.set(false);
+                try {
+                    List<HighScoreModel> scores = highScoreService.getHighScoresByDifficulty(difficultyEnum);
+                    List<HighScoreEntry> enriched = userProfileService.enrich(scores);
+                    Map<String, HighScoreEntry> entries = new HashMap<>();
+                    for (int i = 0; i < scores.size(); i++) {
+                        entries.put(scores.get(i).id(), enriched.get(i));
+                    }
+                    snapshot = new BoardSnapshot(scores, entries);
+                    for (Subscriber subscriber : subscribers.get(difficultyEnum)) {
+                        subscriber.markDirty(difficultyEnum);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not load {} leaderboard: {}", difficultyEnum, e.getMessage());
+                }
+                scheduled.set(false);
+            } while (stale.get() && scheduled.compareAndSet(false, true));
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<DifficultyEnum> difficulties;
+        // Bitmaske der Schwierigkeitsgrade mit ungesendeten Änderungen
+        private final AtomicInteger dirtyMask = new AtomicInteger();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Map<DifficultyEnum, List<HighScoreModel>> lastSent = new EnumMap<>(DifficultyEnum.class);
+        // Bewacht sendingThread, damit der Watchdog nie einen Thread unterbricht, der schon etwas anderes tut
+        private final Object sendingThreadLock = new Object();
+        private Thread sendingThread;
+        private volatile long sendStartedNanos;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Collection<DifficultyEnum> difficulties) {
+            this.emitter = emitter;
+            this.difficulties = Set.copyOf(difficulties);
+        }
+
+        void markDirty(DifficultyEnum difficultyEnum) {
+            dirtyMask.getAndUpdate(mask -> mask | (1 << difficultyEnum.ordinal()));
+            schedule();
+        }
+
+        void markHeartbeat() {
+            heartbeatDue.set(true);
+            schedule();
+        }
+
+        // Höchstens eine Aufgabe je Subscriber in der Warteschlange des Pools
+        private void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // Läuft nie parallel für denselben Subscriber; lastSent braucht daher keine Synchronisation
+        private void drain() {
+            do {
+                int mask = dirtyMask.getAndSet(0);
+                boolean sent = false;
+                for (DifficultyEnum difficultyEnum : DifficultyEnum.values()) {
+                    if (!closed && (mask & (1 << difficultyEnum.ordinal())) != 0) {
+                        sent |= sendUpdate(difficultyEnum);
+                    }
+                }
+                // Ging gerade ein Update raus, ist die Verbindung ohnehin nicht untätig
+                if (heartbeatDue.getAndSet(false) && !sent && !closed) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+                scheduled.set(false);
+            } while ((dirtyMask.get() != 0 || heartbeatDue.get()) && !closed && scheduled.compareAndSet(false, true));
+        }
+
+        private boolean sendUpdate(DifficultyEnum difficultyEnum) {
+            BoardSnapshot current = boards.get(difficultyEnum).snapshot;
+            if (current == null) {
+                // Wird gerade neu geladen und markiert danach erneut
+                return false;
+            }
+            List<HighScoreModel> previous = lastSent.getOrDefault(difficultyEnum, List.of());
+            LeaderboardUpdate update = diff(difficultyEnum, previous, current.scores(), current::entriesFor);
+            if (lastSent.containsKey(difficultyEnum) && update.changes().isEmpty() && update.removedIds().isEmpty()) {
+                return false;
+            }
+            send(SseEmitter.event().name(EVENT_NAME).data(update, MediaType.APPLICATION_JSON));
+            lastSent.put(difficultyEnum, current.scores());
+            return true;
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            synchronized (sendingThreadLock) {
+                sendStartedNanos = System.nanoTime();
+                sendingThread = Thread.currentThread();
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping leaderboard subscriber: {}", e.getMessage());
+                drop();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                synchronized (sendingThreadLock) {
+                    sendingThread = null;
+                }
+                // Eine Unterbrechung durch den Watchdog gilt nur diesem send(), nicht der nächsten Aufgabe des Threads
+                Thread.interrupted();
+            }
+            if (closed) {
+                // Wegen Zeitüberschreitung verworfen, das send() kam aber doch noch durch
+                emitter.complete();
+            }
+        }
+
+        boolean isStalled(long now) {
+            synchronized (sendingThreadLock) {
+                return sendingThread != null && !closed && now - sendStartedNanos > sendTimeoutNanos;
+            }
+        }
+
+        // completeWithError von hier aus würde am Monitor des Emitters auf genau dieses send() warten. Die Unterbrechung
+        // gibt den Pool-Thread frei, sofern der Container blockierende Schreibvorgänge abbricht; sonst endet das send()
+        // spätestens mit dem Schreib-Timeout des Containers und schließt dann den Emitter
+        void drop() {
+            closed = true;
+            unregister(this);
+            synchronized (sendingThreadLock) {
+                if (sendingThread != null && sendingThread != Thread.currentThread()) {
+                    sendingThread.interrupt();
+                }
+            }
+        }
+    }
+}
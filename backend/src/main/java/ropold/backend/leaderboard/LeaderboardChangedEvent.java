@@ -0,0 +1,6 @@
+package ropold.backend.leaderboard;
+
+import ropold.backend.model.DifficultyEnum;
+
+public record LeaderboardChangedEvent(DifficultyEnum difficultyEnum) {
+}
@@ -0,0 +1,290 @@
+package ropold.backend.leaderboard;
+
+import ropold.backend.model.HighScoreModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bounded leaderboard with rank queries, backed by an order-statistic treap.
+ * <p>
+ * Each node stores the size of its subtree, so insert, remove, "rank of this entry", "rank a score would get"
+ * and "k-th entry" are all O(log n) expected, and a page of k entries costs O(log n + k). Ordering follows
+ * {@link Leaderboard#RANKING}. Reads share a read lock; writes are exclusive per board.
+ */
+public final class RankedLeaderboard {
+
+    private static final class Node {
+        final HighScoreModel score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(HighScoreModel score) {
+            this.score = score;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final int capacity;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+
+    public RankedLeaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /** Offers a score; if the board is full, the worst entry is evicted (possibly the offered one, which is then rejected). */
+    public Leaderboard.OfferResult offer(HighScoreModel score) {
+        lock.writeLock().lock();
+        try {
+            if (size(root) >= capacity && Leaderboard.RANKING.compare(score, last(root).score) >= 0) {
+                return new Leaderboard.OfferResult(false, List.of());
+            }
+            if (find(score) != null) {
+                return new Leaderboard.OfferResult(false, List.of());
+            }
+            root = insert(root, new Node(score));
+            if (size(root) > capacity) {
+                HighScoreModel worst = last(root).score;
+                root = delete(root, worst);
+                return new Leaderboard.OfferResult(true, List.of(worst));
+            }
+            return new Leaderboard.OfferResult(true, List.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces the content, keeping only the best {@code capacity} scores; returns the ones that did not fit. */
+    public List<HighScoreModel> reset(Collection<HighScoreModel> initialScores) {
+        List<HighScoreModel> sorted = initialScores.stream().distinct().sorted(Leaderboard.RANKING).toList();
+        int kept = Math.min(capacity, sorted.size());
+        lock.writeLock().lock();
+        try {
+            root = null;
+            for (HighScoreModel score : sorted.subList(0, kept)) {
+                root = insert(root, new Node(score));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return sorted.subList(kept, sorted.size());
+    }
+
+    public boolean remove(HighScoreModel score) {
+        lock.writeLock().lock();
+        try {
+            if (find(score) == null) {
+                return false;
+            }
+            root = delete(root, score);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(HighScoreModel score) {
+        lock.readLock().lock();
+        try {
+            return find(score) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 1-based rank of an entry on this board, or -1 if it is not listed. */
+    public int rankOf(HighScoreModel score) {
+        lock.readLock().lock();
+        try {
+            return find(score) == null ? -1 : countBefore(score) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 1-based rank a new result would get: one behind every listed entry that is strictly better or tied. */
+    public int rankFor(int wrongAnswerCount, double scoreTime) {
+        lock.readLock().lock();
+        try {
+            int better = 0;
+            Node node = root;
+            while (node != null) {
+                if (isAtLeastAsGood(node.score, wrongAnswerCount, scoreTime)) {
+                    better += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return better + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Entries ranked {@code offset + 1} to {@code offset + limit}, best first. */
+    public List<HighScoreModel> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int end = (int) Math.min((long) offset + limit, size(root));
+            List<HighScoreModel> page = new ArrayList<>(Math.max(0, end - offset));
+            collect(root, offset, end, 0, page);
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static boolean isAtLeastAsGood(HighScoreModel score, int wrongAnswerCount, double scoreTime) {
+        return score.wrongAnswerCount() < wrongAnswerCount
+                || (score.wrongAnswerCount() == wrongAnswerCount && score.scoreTime() <= scoreTime);
+    }
+
+    private Node find(HighScoreModel score) {
+        Node node = root;
+        while (node != null) {
+            int cmp = Leaderboard.RANKING.compare(score, node.score);
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private int countBefore(HighScoreModel score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = Leaderboard.RANKING.compare(score, node.score);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    // In-order-Durchlauf, der ganze Teilbäume außerhalb von [from, to) überspringt
+    private static void collect(Node node, int from, int to, int offset, List<HighScoreModel> out) {
+        while (node != null && offset < to) {
+            int leftSize = size(node.left);
+            int index = offset + leftSize;
+            if (from < index) {
+                collect(node.left, from, to, offset, out);
+            }
+            if (index >= from && index < to) {
+                out.add(node.score);
+            }
+            offset = index + 1;
+            node = node.right;
+        }
+    }
+
+    private static Node last(Node node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted.score);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            update(inserted);
+            return inserted;
+        }
+        if (Leaderboard.RANKING.compare(inserted.score, node.score) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, HighScoreModel score) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = Leaderboard.RANKING.compare(score, node.score);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, score);
+        } else {
+            node.right = delete(node.right, score);
+        }
+        update(node);
+        return node;
+    }
+
+    // Teilt in (< score, >= score)
+    private static Node[] split(Node node, HighScoreModel score) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (Leaderboard.RANKING.compare(node.score, score) < 0) {
+            Node[] parts = split(node.right, score);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, score);
+        node.left = parts[1];
+        update(node);
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+}
@@ -0,0 +1,174 @@
+package ropold.backend.leaderboard;
+
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.LeaderboardWindow;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Rolling daily, weekly and monthly top lists per difficulty.
+ * <p>
+ * Scores go into time buckets: hourly buckets for the daily window, daily buckets for the weekly and monthly
+ * windows. Each bucket is a small bounded {@link Leaderboard}. A window's top list is the merge of its
+ * buckets' top lists, which is exact because a score outside its bucket's top N cannot be in the window's
+ * top N. Expiry never scans the buckets. When the clock reaches a new bucket, buckets older than the longest
+ * window are dropped as whole map entries, and their scores leave the bucket index in one pass.
+ * <p>
+ * A score's bucket is fixed when it is offered and remembered by id. Removal and lookup use that bucket,
+ * so they do not depend on the clock, even for future dates that were clamped to the current hour.
+ */
+public final class WindowedLeaderboards {
+
+    private static final int HOURLY_BUCKETS = 24;
+    private static final int DAILY_BUCKETS = 30;
+    private static final LocalDateTime BUCKET_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final int capacity;
+    private final Clock clock;
+    private final Map<DifficultyEnum, BucketRing> hourly = new EnumMap<>(DifficultyEnum.class);
+    private final Map<DifficultyEnum, BucketRing> daily = new EnumMap<>(DifficultyEnum.class);
+
+    public WindowedLeaderboards(int capacity, Clock clock) {
+        this.capacity = capacity;
+        this.clock = clock;
+        for (DifficultyEnum difficultyEnum : DifficultyEnum.values()) {
+            hourly.put(difficultyEnum, new BucketRing(ChronoUnit.HOURS, HOURLY_BUCKETS));
+            daily.put(difficultyEnum, new BucketRing(ChronoUnit.DAYS, DAILY_BUCKETS));
+        }
+    }
+
+    /** Offers a score to every window it falls into; returns the scores pushed out of a bucket. */
+    public List<HighScoreModel> offer(HighScoreModel score) {
+        List<HighScoreModel> evicted = new ArrayList<>();
+        evicted.addAll(hourly.get(score.difficultyEnum()).offer(score));
+        evicted.addAll(daily.get(score.difficultyEnum()).offer(score));
+        return evicted;
+    }
+
+    public void remove(HighScoreModel score) {
+        hourly.get(score.difficultyEnum()).remove(score);
+        daily.get(score.difficultyEnum()).remove(score);
+    }
+
+    public boolean contains(HighScoreModel score) {
+        return hourly.get(score.difficultyEnum()).contains(score) || daily.get(score.difficultyEnum()).contains(score);
+    }
+
+    public List<HighScoreModel> top(LeaderboardWindow window, DifficultyEnum difficultyEnum) {
+        return switch (window) {
+            case DAILY -> hourly.get(difficultyEnum).top(HOURLY_BUCKETS);
+            case WEEKLY -> daily.get(difficultyEnum).top(7);
+            case MONTHLY -> daily.get(difficultyEnum).top(DAILY_BUCKETS);
+            case ALL_TIME -> throw new IllegalArgumentException("ALL_TIME is not a rolling window");
+        };
+    }
+
+    /** Latest instant at which the score can still be on any window, used as the Mongo TTL. */
+    public Instant expiresAt(HighScoreModel score) {
+        long day = daily.get(score.difficultyEnum()).bucketFor(score);
+        return BUCKET_EPOCH.plusDays(day + DAILY_BUCKETS).atZone(clock.getZone()).toInstant();
+    }
+
+    public void clear() {
+        hourly.values().forEach(BucketRing::clear);
+        daily.values().forEach(BucketRing::clear);
+    }
+
+    private LocalDateTime clampToNow(LocalDateTime date) {
+        // Vom Client gesetzte Zeitpunkte in der Zukunft zählen für die aktuelle Stunde
+        LocalDateTime now = LocalDateTime.now(clock);
+        return date == null || date.isAfter(now) ? now : date;
+    }
+
+    private final class BucketRing {
+        private final ChronoUnit unit;
+        private final int retained;
+        private final ConcurrentMap<Long, Leaderboard> buckets = new ConcurrentHashMap<>();
+        // Bucket jedes gelisteten Scores, beim Einfügen festgelegt
+        private final ConcurrentMap<String, Long> bucketByScoreId = new ConcurrentHashMap<>();
+        private volatile long rotatedAt = Long.MIN_VALUE;
+
+        private BucketRing(ChronoUnit unit, int retained) {
+            this.unit = unit;
+            this.retained = retained;
+        }
+
+        List<HighScoreModel> offer(HighScoreModel score) {
+            long current = rotate();
+            long bucket = bucketOf(clampToNow(score.date()));
+            if (bucket <= current - retained) {
+                return List.of();
+            }
+            Leaderboard.OfferResult result = buckets.computeIfAbsent(bucket, key -> new Leaderboard(capacity)).offer(score);
+            if (result.accepted()) {
+                bucketByScoreId.put(score.id(), bucket);
+            }
+            result.evicted().forEach(evicted -> bucketByScoreId.remove(evicted.id(), bucket));
+            return result.evicted();
+        }
+
+        void remove(HighScoreModel score) {
+            Long bucket = bucketByScoreId.remove(score.id());
+            Leaderboard leaderboard = bucket == null ? null : buckets.get(bucket);
+            if (leaderboard != null) {
+                leaderboard.remove(score);
+            }
+        }
+
+        boolean contains(HighScoreModel score) {
+            Long bucket = bucketByScoreId.get(score.id());
+            Leaderboard leaderboard = bucket == null ? null : buckets.get(bucket);
+            return leaderboard != null && leaderboard.contains(score);
+        }
+
+        // Nicht gelistete Scores bekommen den Bucket, in den sie jetzt fallen würden
+        long bucketFor(HighScoreModel score) {
+            Long bucket = bucketByScoreId.get(score.id());
+            return bucket != null ? bucket : bucketOf(clampToNow(score.date()));
+        }
+
+        List<HighScoreModel> top(int bucketCount) {
+            long current = rotate();
+            List<HighScoreModel> candidates = new ArrayList<>();
+            for (long bucket = current - bucketCount + 1; bucket <= current; bucket++) {
+                Leaderboard leaderboard = buckets.get(bucket);
+                if (leaderboard != null) {
+                    candidates.addAll(leaderboard.snapshot());
+                }
+            }
+            candidates.sort(Leaderboard.RANKING);
+            return List.copyOf(candidates.subList(0, Math.min(capacity, candidates.size())));
+        }
+
+        void clear() {
+            buckets.clear();
+            bucketByScoreId.clear();
+        }
+
+        // Nur beim Wechsel in einen neuen Bucket werden die ältesten als Ganzes verworfen
+        private long rotate() {
+            long current = bucketOf(LocalDateTime.now(clock));
+            if (current != rotatedAt) {
+                buckets.keySet().removeIf(bucket -> bucket <= current - retained);
+                // Höchstens capacity Einträge je Bucket, und nur beim Bucketwechsel
+                bucketByScoreId.values().removeIf(bucket -> bucket <= current - retained);
+                rotatedAt = current;
+            }
+            return current;
+        }
+
+        private long bucketOf(LocalDateTime date) {
+            return unit.between(BUCKET_EPOCH, date);
+        }
+    }
+}
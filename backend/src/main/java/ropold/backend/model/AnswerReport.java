@@ -0,0 +1,7 @@
+package ropold.backend.model;
+
+public record AnswerReport(
+        String questionId,
+        boolean correct
+) {
+}
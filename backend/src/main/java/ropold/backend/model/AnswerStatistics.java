@@ -0,0 +1,19 @@
+package ropold.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record AnswerStatistics(
+        long answered,
+        long correct
+) {
+
+    public AnswerStatistics plus(AnswerStatistics delta) {
+        return new AnswerStatistics(answered + delta.answered, correct + delta.correct);
+    }
+
+    // Anteil richtiger Antworten, null solange die Frage noch nie beantwortet wurde
+    @JsonProperty
+    public Double correctRate() {
+        return answered == 0 ? null : (double) correct / answered;
+    }
+}
@@ -0,0 +1,16 @@
+package ropold.backend.model;
+
+import java.util.List;
+import java.util.Map;
+
+public record BootstrapResponse(
+        String user,
+        Map<String, Object> userDetails,
+        List<String> favorites,
+        // Einmal alle aktiven Fragen; der Client teilt sie selbst in Känguru- und übrige Fragen auf
+        List<PublicQuestion> allActiveQuestions,
+        Map<DifficultyEnum, List<HighScoreEntry>> highScores,
+        // Herkunft jedes Teils: Cache, Datenbank, übersprungen (Gast) oder fehlgeschlagen
+        Map<String, BootstrapSource> sources
+) {
+}
@@ -0,0 +1,8 @@
+package ropold.backend.model;
+
+public enum BootstrapSource {
+    CACHE,
+    DATABASE,
+    SKIPPED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package ropold.backend.model;
+
+public record GameAnswer(
+        int questionIndex,
+        int answerIndex
+) {
+}
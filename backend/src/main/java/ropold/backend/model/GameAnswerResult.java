@@ -0,0 +1,11 @@
+package ropold.backend.model;
+
+public record GameAnswerResult(
+        boolean correct,
+        int correctAnswerIndex,
+        String answerExplanation,
+        int answeredCount,
+        int wrongAnswerCount,
+        boolean finished
+) {
+}
@@ -0,0 +1,31 @@
+package ropold.backend.model;
+
+import java.util.List;
+
+// Frage ohne Lösung: welche Option richtig ist, entscheidet der Server beim Antworten
+public record GameQuestion(
+        String id,
+        String title,
+        DifficultyEnum difficultyEnum,
+        CategoryEnum categoryEnum,
+        String questionText,
+        List<String> options,
+        String imageUrl,
+        List<ImageVariant> imageVariants,
+        boolean imagePending
+) {
+
+    public static GameQuestion of(QuestionModel questionModel) {
+        return new GameQuestion(
+                questionModel.id(),
+                questionModel.title(),
+                questionModel.difficultyEnum(),
+                questionModel.categoryEnum(),
+                questionModel.questionText(),
+                questionModel.options().stream().map(AnswerOption::text).toList(),
+                questionModel.imageUrl(),
+                questionModel.imageVariants(),
+                questionModel.imagePending()
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package ropold.backend.model;
+
+public record GameQuestionResult(
+        int questionIndex,
+        String questionId,
+        boolean correct,
+        int correctAnswerIndex,
+        String answerExplanation
+) {
+}
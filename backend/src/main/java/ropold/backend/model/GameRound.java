@@ -0,0 +1,13 @@
+package ropold.backend.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public record GameRound(
+        String sessionId,
+        DifficultyEnum difficultyEnum,
+        CategoryEnum categoryEnum,
+        List<GameQuestion> questions,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,14 @@
+package ropold.backend.model;
+
+import java.util.List;
+
+public record GameRoundResult(
+        List<GameQuestionResult> results,
+        int answeredCount,
+        int wrongAnswerCount,
+        boolean finished,
+        Double scoreTime,
+        // Nur gesetzt, wenn ein Name mitgeschickt wurde und der Score in die Top 10 kommt
+        HighScoreModel highScore
+) {
+}
@@ -0,0 +1,15 @@
+package ropold.backend.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record GameRoundSubmission(
+        @NotNull(message = "Answers must not be null")
+        List<GameAnswer> answers,
+        // Optional: mit Namen wird der Highscore im selben Aufruf eingetragen
+        @Size(min = 3, message = "Name must contain at least 3 characters")
+        String playerName
+) {
+}
@@ -0,0 +1,32 @@
+package ropold.backend.model;
+
+import java.time.LocalDateTime;
+
+// Listeneintrag mit eingebettetem GitHub-Profil, damit der Client keine Einzelabfragen mehr braucht
+public record HighScoreEntry(
+        String id,
+        String playerName,
+        String githubId,
+        DifficultyEnum difficultyEnum,
+        String categoryEnum,
+        int wrongAnswerCount,
+        double scoreTime,
+        LocalDateTime date,
+        String githubUsername,
+        String avatarUrl
+) {
+    public static HighScoreEntry of(HighScoreModel highScore, UserProfile profile) {
+        return new HighScoreEntry(
+                highScore.id(),
+                highScore.playerName(),
+                highScore.githubId(),
+                highScore.difficultyEnum(),
+                highScore.categoryEnum(),
+                highScore.wrongAnswerCount(),
+                highScore.scoreTime(),
+                highScore.date(),
+                profile == null ? null : profile.username(),
+                profile == null ? null : profile.avatarUrl()
+        );
+    }
+}
@@ -3,9 +3,13 @@ package ropold.backend.model;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
+@Document
+@CompoundIndex(name = "difficulty_wrong_time", def = "{'difficultyEnum': 1, 'wrongAnswerCount': 1, 'scoreTime': 1}")
 public record HighScoreModel(
         String id,
         @NotBlank(message = "Player name must not be blank")
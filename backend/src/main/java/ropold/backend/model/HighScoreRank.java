@@ -0,0 +1,10 @@
+package ropold.backend.model;
+
+public record HighScoreRank(
+        DifficultyEnum difficultyEnum,
+        String categoryEnum,
+        int rank,
+        int total,
+        boolean listed
+) {
+}
@@ -0,0 +1,25 @@
+package ropold.backend.model;
+
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Outbox-Eintrag: ein Bild, das beim Bildspeicher noch gelöscht werden muss
+@Document
+public record ImageDeletion(
+        String id,
+        String imageUrl,
+        int attempts,
+        @Indexed Instant nextAttemptAt,
+        Instant createdAt,
+        String lastError
+) {
+    public static ImageDeletion of(String imageUrl, Instant now) {
+        return new ImageDeletion(null, imageUrl, 0, now, now, null);
+    }
+
+    public ImageDeletion retryAt(Instant nextAttemptAt, String error) {
+        return new ImageDeletion(id, imageUrl, attempts + 1, nextAttemptAt, createdAt, error);
+    }
+}
@@ -0,0 +1,8 @@
+package ropold.backend.model;
+
+// Verkleinerte Fassung eines Fragenbilds; der Client wählt per srcset die passende Breite
+public record ImageVariant(
+        int width,
+        String url
+) {
+}
@@ -0,0 +1,12 @@
+package ropold.backend.model;
+
+import java.util.List;
+
+// Nur die geänderten Plätze; unveränderte Einträge behält der Client an ihrer Position
+public record LeaderboardUpdate(
+        DifficultyEnum difficultyEnum,
+        List<RankChange> changes,
+        List<String> removedIds,
+        int size
+) {
+}
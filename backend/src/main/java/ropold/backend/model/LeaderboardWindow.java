@@ -0,0 +1,8 @@
+package ropold.backend.model;
+
+public enum LeaderboardWindow {
+    ALL_TIME,
+    DAILY,
+    WEEKLY,
+    MONTHLY
+}
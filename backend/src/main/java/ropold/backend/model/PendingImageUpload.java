@@ -0,0 +1,28 @@
+package ropold.backend.model;
+
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Ein angenommenes Bild, das beim Bildspeicher noch hochgeladen werden muss. Jeder Upload hat eine eigene Id,
+// die Frage merkt sich in pendingImageId, welcher Upload der aktuelle ist
+@Document
+public record PendingImageUpload(
+        String id,
+        String questionId,
+        byte[] data,
+        String filename,
+        int attempts,
+        @Indexed Instant nextAttemptAt,
+        Instant createdAt,
+        String lastError
+) {
+    public static PendingImageUpload of(String id, String questionId, byte[] data, String filename, Instant now) {
+        return new PendingImageUpload(id, questionId, data, filename, 0, now, now, null);
+    }
+
+    public PendingImageUpload retryAt(Instant nextAttemptAt, String error) {
+        return new PendingImageUpload(id, questionId, data, filename, attempts + 1, nextAttemptAt, createdAt, error);
+    }
+}
@@ -0,0 +1,46 @@
+package ropold.backend.model;
+
+import java.util.List;
+
+// Frage für öffentliche Listen und Detailseite: Antworttexte ohne Markierung der richtigen Antwort
+public record PublicQuestion(
+        String id,
+        String title,
+        DifficultyEnum difficultyEnum,
+        CategoryEnum categoryEnum,
+        String questionText,
+        List<Option> options,
+        String answerExplanation,
+        boolean isActive,
+        String githubId,
+        String imageUrl,
+        List<ImageVariant> imageVariants,
+        boolean imagePending,
+        AnswerStatistics answerStatistics
+) {
+
+    public record Option(String text) {
+    }
+
+    public static PublicQuestion of(QuestionModel questionModel) {
+        return new PublicQuestion(
+                questionModel.id(),
+                questionModel.title(),
+                questionModel.difficultyEnum(),
+                questionModel.categoryEnum(),
+                questionModel.questionText(),
+                questionModel.options().stream().map(option -> new Option(option.text())).toList(),
+                questionModel.answerExplanation(),
+                questionModel.isActive(),
+                questionModel.githubId(),
+                questionModel.imageUrl(),
+                questionModel.imageVariants(),
+                questionModel.imagePending(),
+                questionModel.answerStatistics()
+        );
+    }
+
+    public static List<PublicQuestion> listOf(List<QuestionModel> questionModels) {
+        return questionModels.stream().map(PublicQuestion::of).toList();
+    }
+}
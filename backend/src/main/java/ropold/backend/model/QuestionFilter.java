@@ -0,0 +1,9 @@
+package ropold.backend.model;
+
+public record QuestionFilter(
+        String search,
+        DifficultyEnum difficultyEnum,
+        CategoryEnum categoryEnum,
+        Boolean isActive
+) {
+}
@@ -0,0 +1,14 @@
+package ropold.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record QuestionImportItem(
+        int index,
+        boolean success,
+        String id,
+        List<String> errors
+) {
+}
@@ -0,0 +1,15 @@
+package ropold.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record QuestionImportReport(
+        int received,
+        int imported,
+        int rejected,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String error,
+        List<QuestionImportItem> items
+) {
+}
@@ -1,7 +1,21 @@
 package ropold.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
 import java.util.List;
 
+@Document
+@CompoundIndexes({
+        @CompoundIndex(name = "active_category_difficulty", def = "{'isActive': 1, 'categoryEnum': 1, 'difficultyEnum': 1}"),
+        @CompoundIndex(name = "github_id", def = "{'githubId': 1}"),
+        // Für die Prüfung vor dem Löschen eines Bildes (QuestionRepository.isImageReferenced)
+        @CompoundIndex(name = "image_url", def = "{'imageUrl': 1}", sparse = true),
+        @CompoundIndex(name = "image_variants_url", def = "{'imageVariants.url': 1}", sparse = true)
+})
 public record QuestionModel(
         String id,
         String title,
@@ -12,6 +26,29 @@ public record QuestionModel(
         String answerExplanation,
         boolean isActive,
         String githubId,
-        String imageUrl
+        String imageUrl,
+        List<ImageVariant> imageVariants,
+        // Bild wurde angenommen, liegt aber noch nicht beim Bildspeicher (siehe PendingImageService)
+        boolean imagePending,
+        AnswerStatistics answerStatistics,
+        // Upload, auf den die Frage wartet; nur dieser darf das Bild setzen. Bleibt serverintern
+        @JsonIgnore String pendingImageId
 ) {
+
+    @PersistenceCreator
+    public QuestionModel {
+    }
+
+    public QuestionModel(String id, String title, DifficultyEnum difficultyEnum, CategoryEnum categoryEnum,
+                         String questionText, List<AnswerOption> options, String answerExplanation, boolean isActive,
+                         String githubId, String imageUrl, List<ImageVariant> imageVariants, boolean imagePending,
+                         AnswerStatistics answerStatistics) {
+        this(id, title, difficultyEnum, categoryEnum, questionText, options, answerExplanation, isActive, githubId,
+                imageUrl, imageVariants, imagePending, answerStatistics, null);
+    }
+
+    public QuestionModel withAnswerStatistics(AnswerStatistics answerStatistics) {
+        return new QuestionModel(id, title, difficultyEnum, categoryEnum, questionText, options, answerExplanation,
+                isActive, githubId, imageUrl, imageVariants, imagePending, answerStatistics, pendingImageId);
+    }
 }
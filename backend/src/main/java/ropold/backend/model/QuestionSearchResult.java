@@ -0,0 +1,11 @@
+package ropold.backend.model;
+
+import java.util.List;
+
+public record QuestionSearchResult(
+        List<PublicQuestion> questions,
+        long totalHits,
+        int page,
+        int size
+) {
+}
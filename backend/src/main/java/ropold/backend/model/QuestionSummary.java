@@ -0,0 +1,28 @@
+package ropold.backend.model;
+
+import java.util.List;
+
+public record QuestionSummary(
+        String id,
+        String title,
+        CategoryEnum categoryEnum,
+        DifficultyEnum difficultyEnum,
+        boolean isActive,
+        String imageUrl,
+        List<ImageVariant> imageVariants,
+        boolean imagePending
+) {
+
+    public static QuestionSummary of(QuestionModel questionModel) {
+        return new QuestionSummary(
+                questionModel.id(),
+                questionModel.title(),
+                questionModel.categoryEnum(),
+                questionModel.difficultyEnum(),
+                questionModel.isActive(),
+                questionModel.imageUrl(),
+                questionModel.imageVariants(),
+                questionModel.imagePending()
+        );
+    }
+}
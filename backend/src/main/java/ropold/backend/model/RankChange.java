@@ -0,0 +1,7 @@
+package ropold.backend.model;
+
+public record RankChange(
+        int rank,
+        HighScoreEntry highScore
+) {
+}
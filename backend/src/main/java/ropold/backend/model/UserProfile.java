@@ -0,0 +1,11 @@
+package ropold.backend.model;
+
+public record UserProfile(
+        String githubId,
+        String username,
+        String avatarUrl
+) {
+    public static UserProfile unknown(String githubId) {
+        return new UserProfile(githubId, null, null);
+    }
+}
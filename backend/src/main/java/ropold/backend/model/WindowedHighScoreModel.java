@@ -0,0 +1,16 @@
+package ropold.backend.model;
+
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Kopie eines Scores für die Zeitfenster-Bestenlisten; Mongo löscht ihn selbst, sobald expireAt erreicht ist
+@Document("windowedHighScores")
+public record WindowedHighScoreModel(
+        String id,
+        HighScoreModel highScore,
+        @Indexed(name = "expire_at_ttl", expireAfter = "0s")
+        Instant expireAt
+) {
+}
@@ -0,0 +1,10 @@
+package ropold.backend.repository;
+
+public interface AppUserRepositoryCustom {
+
+    // Beide liefern false, wenn sich nichts geändert hat; unbekannte Nutzer führen zu einer Exception
+    boolean addFavoriteQuestion(String userId, String questionId);
+
+    boolean removeFavoriteQuestion(String userId, String questionId);
+
+}
@@ -0,0 +1,35 @@
+package ropold.backend.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import ropold.backend.model.AppUser;
+
+@RequiredArgsConstructor
+public class AppUserRepositoryCustomImpl implements AppUserRepositoryCustom {
+
+    private static final String FAVORITE_QUESTIONS = "favoriteQuestions";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean addFavoriteQuestion(String userId, String questionId) {
+        return apply(userId, new Update().addToSet(FAVORITE_QUESTIONS, questionId));
+    }
+
+    @Override
+    public boolean removeFavoriteQuestion(String userId, String questionId) {
+        return apply(userId, new Update().pull(FAVORITE_QUESTIONS, questionId));
+    }
+
+    private boolean apply(String userId, Update update) {
+        UpdateResult result = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)), update, AppUser.class);
+        if (result.getMatchedCount() == 0) {
+            throw new RuntimeException("User not found");
+        }
+        return result.getModifiedCount() > 0;
+    }
+}
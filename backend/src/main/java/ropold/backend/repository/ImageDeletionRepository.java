@@ -0,0 +1,7 @@
+package ropold.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import ropold.backend.model.ImageDeletion;
+
+public interface ImageDeletionRepository extends MongoRepository<ImageDeletion, String>, ImageDeletionRepositoryCustom {
+}
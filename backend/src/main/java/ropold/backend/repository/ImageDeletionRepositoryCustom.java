@@ -0,0 +1,12 @@
+package ropold.backend.repository;
+
+import ropold.backend.model.ImageDeletion;
+
+import java.time.Instant;
+
+public interface ImageDeletionRepositoryCustom {
+
+    // Holt den nächsten fälligen Eintrag und sperrt ihn bis leaseUntil für andere Worker; null, wenn nichts fällig ist
+    ImageDeletion claimNextDue(Instant now, Instant leaseUntil);
+
+}
@@ -0,0 +1,28 @@
+package ropold.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import ropold.backend.model.ImageDeletion;
+
+import java.time.Instant;
+
+@RequiredArgsConstructor
+public class ImageDeletionRepositoryCustomImpl implements ImageDeletionRepositoryCustom {
+
+    private static final String NEXT_ATTEMPT_AT = "nextAttemptAt";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public ImageDeletion claimNextDue(Instant now, Instant leaseUntil) {
+        Query query = Query.query(Criteria.where(NEXT_ATTEMPT_AT).lte(now))
+                .with(Sort.by(NEXT_ATTEMPT_AT));
+        return mongoTemplate.findAndModify(query, new Update().set(NEXT_ATTEMPT_AT, leaseUntil),
+                FindAndModifyOptions.options().returnNew(true), ImageDeletion.class);
+    }
+}
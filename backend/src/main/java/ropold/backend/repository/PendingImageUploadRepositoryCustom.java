@@ -0,0 +1,12 @@
+package ropold.backend.repository;
+
+import ropold.backend.model.PendingImageUpload;
+
+import java.time.Instant;
+
+public interface PendingImageUploadRepositoryCustom {
+
+    // Holt den nächsten fälligen Eintrag und sperrt ihn bis leaseUntil für andere Worker; null, wenn nichts fällig ist
+    PendingImageUpload claimNextDue(Instant now, Instant leaseUntil);
+
+}
@@ -2,6 +2,31 @@ package ropold.backend.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import ropold.backend.model.QuestionModel;
+import ropold.backend.model.QuestionSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface QuestionRepository extends MongoRepository<QuestionModel, String>, QuestionRepositoryCustom {
+
+    List<QuestionModel> findByIsActiveTrue();
+
+    List<QuestionModel> findByGithubId(String githubId);
+
+    boolean existsByImageUrlOrImageVariantsUrl(String imageUrl, String variantUrl);
+
+    // Hauptbild oder eine seiner Varianten
+    default boolean isImageReferenced(String url) {
+        return existsByImageUrlOrImageVariantsUrl(url, url);
+    }
+
+    // Projektionen: Mongo liefert nur die Felder von QuestionSummary
+    List<QuestionSummary> findSummaryBy();
+
+    List<QuestionSummary> findSummaryByIsActiveTrue();
+
+    List<QuestionSummary> findSummaryByGithubId(String githubId);
+
+    List<QuestionSummary> findSummaryByIdIn(Collection<String> ids);
 
-public interface QuestionRepository extends MongoRepository<QuestionModel, String> {
 }
@@ -0,0 +1,34 @@
+package ropold.backend.repository;
+
+import ropold.backend.model.AnswerStatistics;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.ImageVariant;
+import ropold.backend.model.QuestionFilter;
+import ropold.backend.model.QuestionModel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface QuestionRepositoryCustom {
+
+    List<QuestionModel> sampleActiveQuestions(DifficultyEnum difficultyEnum, CategoryEnum categoryEnum, int size);
+
+    List<QuestionModel> findPageAfter(String afterId, QuestionFilter filter, int limit);
+
+    // Negiert isActive serverseitig und liefert das geänderte Dokument zurück
+    Optional<QuestionModel> toggleActive(String id);
+
+    // Liest über einen Cursor; der Stream muss geschlossen werden
+    Stream<QuestionModel> streamAll(QuestionFilter filter);
+
+    // Addiert die Zähler per $inc in einem einzigen Bulk-Write
+    void incrementAnswerStatistics(Map<String, AnswerStatistics> deltasById);
+
+    // Setzt das Bild nur, solange die Frage noch auf genau diesen Upload wartet; leer, wenn sie gelöscht,
+    // anders gespeichert oder inzwischen mit einem neueren Upload verknüpft ist
+    Optional<QuestionModel> finishPendingImage(String id, String pendingImageId, String imageUrl, List<ImageVariant> imageVariants);
+
+}
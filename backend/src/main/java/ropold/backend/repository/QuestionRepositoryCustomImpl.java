@@ -0,0 +1,151 @@
+package ropold.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import ropold.backend.model.AnswerStatistics;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.ImageVariant;
+import ropold.backend.model.QuestionFilter;
+import ropold.backend.model.QuestionModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class QuestionRepositoryCustomImpl implements QuestionRepositoryCustom {
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<QuestionModel> sampleActiveQuestions(DifficultyEnum difficultyEnum, CategoryEnum categoryEnum, int size) {
+        Criteria criteria = Criteria.where("isActive").is(true);
+        if (difficultyEnum == DifficultyEnum.KANGAROO) {
+            criteria.and("categoryEnum").is(CategoryEnum.KANGAROO);
+        } else {
+            Criteria category = criteria.and("categoryEnum").nin(CategoryEnum.KANGAROO);
+            if (categoryEnum != null) {
+                category.in(categoryEnum);
+            }
+            if (difficultyEnum != null && difficultyEnum != DifficultyEnum.RANDOM) {
+                criteria.and("difficultyEnum").is(difficultyEnum);
+            }
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.sample(size)
+        );
+        return mongoTemplate.aggregate(aggregation, QuestionModel.class, QuestionModel.class).getMappedResults();
+    }
+
+    @Override
+    public List<QuestionModel> findPageAfter(String afterId, QuestionFilter filter, int limit) {
+        List<Criteria> criteria = new ArrayList<>(filterCriteria(filter));
+        if (afterId != null) {
+            criteria.add(Criteria.where("_id").gt(afterId));
+        }
+
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return mongoTemplate.find(query, QuestionModel.class);
+    }
+
+    @Override
+    public Optional<QuestionModel> toggleActive(String id) {
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("isActive").toValue(BooleanOperators.Not.not("$isActive"));
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                QuestionModel.class
+        ));
+    }
+
+    @Override
+    public Optional<QuestionModel> finishPendingImage(String id, String pendingImageId, String imageUrl, List<ImageVariant> imageVariants) {
+        Update update = new Update()
+                .set("imageUrl", imageUrl)
+                .set("imageVariants", imageVariants)
+                .set("imagePending", false)
+                .unset("pendingImageId");
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("pendingImageId").is(pendingImageId)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                QuestionModel.class
+        ));
+    }
+
+    @Override
+    public Stream<QuestionModel> streamAll(QuestionFilter filter) {
+        List<Criteria> criteria = filterCriteria(filter);
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, QuestionModel.class);
+    }
+
+    @Override
+    public void incrementAnswerStatistics(Map<String, AnswerStatistics> deltasById) {
+        if (deltasById.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, QuestionModel.class);
+        deltasById.forEach((id, delta) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update()
+                        .inc("answerStatistics.answered", delta.answered())
+                        .inc("answerStatistics.correct", delta.correct())
+        ));
+        bulk.execute();
+    }
+
+    private static List<Criteria> filterCriteria(QuestionFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter == null) {
+            return criteria;
+        }
+        if (filter.isActive() != null) {
+            criteria.add(Criteria.where("isActive").is(filter.isActive()));
+        }
+        if (filter.difficultyEnum() != null) {
+            criteria.add(Criteria.where("difficultyEnum").is(filter.difficultyEnum()));
+        }
+        if (filter.categoryEnum() != null) {
+            criteria.add(Criteria.where("categoryEnum").is(filter.categoryEnum()));
+        }
+        if (filter.search() != null && !filter.search().isBlank()) {
+            // Gleiche Felder wie die Suche im Frontend, ohne Regex-Sonderzeichen aus der Eingabe
+            Pattern pattern = Pattern.compile(Pattern.quote(filter.search().trim()), Pattern.CASE_INSENSITIVE);
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("title").regex(pattern),
+                    Criteria.where("questionText").regex(pattern),
+                    Criteria.where("options.text").regex(pattern),
+                    Criteria.where("answerExplanation").regex(pattern)
+            ));
+        }
+        return criteria;
+    }
+}
@@ -0,0 +1,13 @@
+package ropold.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import ropold.backend.model.WindowedHighScoreModel;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface WindowedHighScoreRepository extends MongoRepository<WindowedHighScoreModel, String> {
+
+    List<WindowedHighScoreModel> findByExpireAtAfter(Instant now);
+
+}
@@ -0,0 +1,312 @@
+package ropold.backend.search;
+
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.PublicQuestion;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.model.QuestionSearchResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over title, questionText and answerExplanation, ranked with BM25.
+ * <p>
+ * There is a single writer at a time (all mutating methods are synchronized); searches never lock.
+ * Every document gets a new, ever-increasing ordinal, so adding a document only appends to the
+ * posting lists of its terms. Removed documents are tombstoned and skipped during search until
+ * enough of them pile up to justify rebuilding the index.
+ */
+public final class QuestionSearchIndex {
+
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_QUERY_TOKENS = 16;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float PREFIX_MATCH_WEIGHT = 0.5f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private volatile Segment segment = new Segment(16);
+
+    public synchronized void rebuild(Collection<QuestionModel> questions) {
+        Segment rebuilt = new Segment(Math.max(16, questions.size()));
+        for (QuestionModel question : questions) {
+            if (question.isActive()) {
+                rebuilt.add(question);
+            }
+        }
+        segment = rebuilt;
+    }
+
+    /**
+     * Applies committed writes: changed questions replace their previous version (inactive ones are
+     * removed), {@code removedIds} are removed.
+     */
+    public synchronized void apply(Collection<QuestionModel> changedQuestions, Collection<String> removedIds) {
+        Segment current = segment;
+        removedIds.forEach(current::remove);
+        for (QuestionModel question : changedQuestions) {
+            current.remove(question.id());
+            if (question.isActive()) {
+                current.add(question);
+            }
+        }
+        if (current.tombstones > 1_000 && current.tombstones > current.liveDocuments / 4) {
+            rebuild(current.liveQuestions());
+        }
+    }
+
+    public int size() {
+        return segment.liveDocuments;
+    }
+
+    public QuestionSearchResult search(String query, DifficultyEnum difficultyEnum, CategoryEnum categoryEnum, int page, int size) {
+        List<String> tokens = tokenize(query).stream().distinct().limit(MAX_QUERY_TOKENS).toList();
+        int window = (page + 1) * size;
+        if (tokens.isEmpty() || window > MAX_RESULT_WINDOW) {
+            return new QuestionSearchResult(List.of(), 0, page, size);
+        }
+
+        Segment current = segment;
+        IndexedQuestion[] documents = current.documents;
+        Scratch scratch = SCRATCH.get();
+        scratch.ensureCapacity(documents.length);
+        try {
+            float averageLength = current.liveDocuments == 0 ? 1 : (float) current.totalLength / current.liveDocuments;
+            for (int tokenIndex = 0; tokenIndex < tokens.size(); tokenIndex++) {
+                scoreToken(current, documents, tokens.get(tokenIndex), tokenIndex, averageLength, scratch);
+            }
+            return collectPage(documents, tokens.size(), difficultyEnum, categoryEnum, page, size, scratch);
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    private static void scoreToken(Segment current, IndexedQuestion[] documents, String token, int tokenIndex,
+                                   float averageLength, Scratch scratch) {
+        List<Postings> exact = new ArrayList<>(1);
+        List<Postings> prefixed = new ArrayList<>();
+        Postings exactPostings = current.terms.get(token);
+        if (exactPostings != null) {
+            exact.add(exactPostings);
+        }
+        if (token.length() >= 2) {
+            NavigableMap<String, Postings> expansions = current.terms.subMap(token, false, token + Character.MAX_VALUE, false);
+            for (Postings postings : expansions.values()) {
+                if (prefixed.size() == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                prefixed.add(postings);
+            }
+        }
+        for (Postings postings : exact) {
+            scorePostings(postings, 1f, documents, tokenIndex, averageLength, current.liveDocuments, scratch);
+        }
+        for (Postings postings : prefixed) {
+            scorePostings(postings, PREFIX_MATCH_WEIGHT, documents, tokenIndex, averageLength, current.liveDocuments, scratch);
+        }
+    }
+
+    private static void scorePostings(Postings postings, float weight, IndexedQuestion[] documents, int tokenIndex,
+                                      float averageLength, int documentCount, Scratch scratch) {
+        float idf = (float) Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+        int[] ordinals = postings.ordinals;
+        short[] frequencies = postings.frequencies;
+        for (int i = 0; i < postings.size; i++) {
+            int ordinal = ordinals[i];
+            if (ordinal >= documents.length) {
+                continue;
+            }
+            IndexedQuestion document = documents[ordinal];
+            byte matched = scratch.matchedTokens[ordinal];
+            // Nur Dokumente, die alle bisherigen Suchbegriffe enthalten (UND-Verknüpfung)
+            if (document == null || (matched != tokenIndex && matched != tokenIndex + 1)) {
+                continue;
+            }
+            if (matched == 0) {
+                scratch.touch(ordinal);
+            }
+            float tf = frequencies[i];
+            float norm = K1 * (1 - B + B * document.length / averageLength);
+            scratch.scores[ordinal] += weight * idf * (tf * (K1 + 1)) / (tf + norm);
+            scratch.matchedTokens[ordinal] = (byte) (tokenIndex + 1);
+        }
+    }
+
+    private static QuestionSearchResult collectPage(IndexedQuestion[] documents, int tokenCount, DifficultyEnum difficultyEnum,
+                                                    CategoryEnum categoryEnum, int page, int size, Scratch scratch) {
+        int window = (page + 1) * size;
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).reversed().thenComparing(hit -> hit.question().id());
+        PriorityQueue<Hit> top = new PriorityQueue<>(window + 1, ranking.reversed());
+        long totalHits = 0;
+        for (int i = 0; i < scratch.touchedCount; i++) {
+            int ordinal = scratch.touched[i];
+            IndexedQuestion document = documents[ordinal];
+            if (scratch.matchedTokens[ordinal] != tokenCount || document == null) {
+                continue;
+            }
+            QuestionModel question = document.question;
+            if ((difficultyEnum != null && question.difficultyEnum() != difficultyEnum)
+                    || (categoryEnum != null && question.categoryEnum() != categoryEnum)) {
+                continue;
+            }
+            totalHits++;
+            float score = scratch.scores[ordinal];
+            if (top.size() == window) {
+                Hit worst = top.peek();
+                if (score < worst.score() || (score == worst.score() && question.id().compareTo(worst.question().id()) > 0)) {
+                    continue;
+                }
+                top.poll();
+            }
+            top.add(new Hit(question, score));
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        List<PublicQuestion> questions = ranked.stream()
+                .skip((long) page * size)
+                .map(hit -> PublicQuestion.of(hit.question()))
+                .toList();
+        return new QuestionSearchResult(questions, totalHits, page, size);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private record Hit(QuestionModel question, float score) {
+    }
+
+    private record IndexedQuestion(QuestionModel question, int length) {
+    }
+
+    /**
+     * Posting list of one term. Instances are immutable from the reader's point of view: the writer
+     * may append behind {@code size} in the shared arrays and then publishes a new instance.
+     */
+    private record Postings(int[] ordinals, short[] frequencies, int size) {
+
+        Postings append(int ordinal, int frequency) {
+            int[] newOrdinals = ordinals;
+            short[] newFrequencies = frequencies;
+            if (size == ordinals.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                newOrdinals = Arrays.copyOf(ordinals, capacity);
+                newFrequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            newOrdinals[size] = ordinal;
+            newFrequencies[size] = (short) Math.min(frequency, Short.MAX_VALUE);
+            return new Postings(newOrdinals, newFrequencies, size + 1);
+        }
+    }
+
+    private static final class Segment {
+
+        private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+        private final Map<String, Integer> ordinalsById = new ConcurrentHashMap<>();
+        private volatile IndexedQuestion[] documents;
+        private int nextOrdinal;
+        private volatile int liveDocuments;
+        private volatile long totalLength;
+        private int tombstones;
+
+        Segment(int capacity) {
+            documents = new IndexedQuestion[capacity];
+        }
+
+        void add(QuestionModel question) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokenize(question.title()).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+            tokenize(question.questionText()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            tokenize(question.answerExplanation()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+            int ordinal = nextOrdinal++;
+            if (ordinal == documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+            }
+            // Dokument zuerst eintragen, danach die Postings veröffentlichen
+            documents[ordinal] = new IndexedQuestion(question, length);
+            ordinalsById.put(question.id(), ordinal);
+            frequencies.forEach((term, frequency) -> terms.compute(term, (key, postings) ->
+                    (postings == null ? new Postings(new int[4], new short[4], 0) : postings).append(ordinal, frequency)));
+            liveDocuments++;
+            totalLength += length;
+        }
+
+        void remove(String id) {
+            Integer ordinal = ordinalsById.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            IndexedQuestion removed = documents[ordinal];
+            documents[ordinal] = null;
+            liveDocuments--;
+            totalLength -= removed.length;
+            tombstones++;
+        }
+
+        List<QuestionModel> liveQuestions() {
+            List<QuestionModel> questions = new ArrayList<>(liveDocuments);
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                if (documents[ordinal] != null) {
+                    questions.add(documents[ordinal].question);
+                }
+            }
+            return questions;
+        }
+    }
+
+    /** Per-thread score buffers; only the touched slots are cleared after each search. */
+    private static final class Scratch {
+
+        private float[] scores = new float[0];
+        private byte[] matchedTokens = new byte[0];
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new float[capacity];
+                matchedTokens = new byte[capacity];
+            }
+        }
+
+        void touch(int ordinal) {
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touched.length * 2);
+            }
+            touched[touchedCount++] = ordinal;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0;
+                matchedTokens[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+}
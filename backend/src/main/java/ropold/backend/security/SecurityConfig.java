@@ -18,6 +18,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import ropold.backend.model.AppUser;
 import ropold.backend.repository.AppUserRepository;
+import ropold.backend.service.UserProfileService;
 
 import java.util.Collections;
 
@@ -30,6 +31,7 @@ public class SecurityConfig {
     private String appUrl;
 
     private final AppUserRepository appUserRepository;
+    private final UserProfileService userProfileService;
     private static final String QUESTION = "/api/quiz-hub/**";
 
     @Bean
@@ -39,13 +41,19 @@ public class SecurityConfig {
                 .authorizeHttpRequests(a -> a
                         .requestMatchers(HttpMethod.POST, "/api/quiz-hub/no-login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/quiz-hub/batch-no-login").permitAll()
+                        // Der Export enthält die richtigen Antworten des ganzen Fragenbestands
+                        .requestMatchers(HttpMethod.GET, "/api/quiz-hub/export").authenticated()
                         .requestMatchers(HttpMethod.GET, QUESTION).permitAll()
                         .requestMatchers(HttpMethod.POST, QUESTION).authenticated()
                         .requestMatchers(HttpMethod.PUT, QUESTION).authenticated()
                         .requestMatchers(HttpMethod.DELETE, QUESTION).authenticated()
                         .requestMatchers("/api/users/me").permitAll()
                         .requestMatchers("/api/users/me/details").permitAll()
+                        // Nur der Ersteller sieht seine Fragen mit den richtigen Antworten
+                        .requestMatchers("/api/users/me/my-questions/*").authenticated()
                         .requestMatchers("/api/high-score").permitAll()
+                        // Metriken verraten Interna (Speicherzustand, Fehlerraten) und sind nur angemeldet abrufbar
+                        .requestMatchers("/actuator/metrics/**").authenticated()
                         .anyRequest().permitAll()
                 )
                 .logout(l -> l.logoutUrl("/api/users/logout")
@@ -76,7 +84,9 @@ public class SecurityConfig {
                                 Collections.emptyList()
                         );
                         // hier kannst du die Rolle des Users setzen, z.B. "ROLE_USER"
-                        return appUserRepository.save(newUser);
+                        AppUser saved = appUserRepository.save(newUser);
+                        userProfileService.evict(saved.id());
+                        return saved;
                     });
             return githubUser;
         };
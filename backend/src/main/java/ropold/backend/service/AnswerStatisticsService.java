@@ -0,0 +1,161 @@
+package ropold.backend.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.stereotype.Service;
+import ropold.backend.cache.ActiveQuestionSnapshot;
+import ropold.backend.model.AnswerReport;
+import ropold.backend.model.AnswerStatistics;
+import ropold.backend.repository.QuestionRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts answers per question in memory and writes them to Mongo in the background.
+ * <p>
+ * Reporting an answer only bumps two {@link LongAdder}s, so concurrent players do not contend on a shared
+ * counter and no request waits for the database. A single flusher thread periodically takes the accumulated
+ * deltas and applies them as one unordered bulk of {@code $inc} updates. Deltas are subtracted from the
+ * counters rather than reset, so answers arriving during a flush are never lost, and anything Mongo did not
+ * acknowledge is added back for the next run. The last flush happens on shutdown.
+ */
+@Slf4j
+@Service
+public class AnswerStatisticsService {
+
+    public static final Duration FLUSH_INTERVAL = Duration.ofSeconds(10);
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private record Counter(LongAdder answered, LongAdder correct) {
+
+        Counter() {
+            this(new LongAdder(), new LongAdder());
+        }
+
+        void add(AnswerStatistics delta) {
+            answered.add(delta.answered());
+            correct.add(delta.correct());
+        }
+    }
+
+    private final QuestionRepository questionRepository;
+    private final QuestionService questionService;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "answer-statistics-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public AnswerStatisticsService(QuestionRepository questionRepository, QuestionService questionService) {
+        this(questionRepository, questionService, FLUSH_INTERVAL);
+    }
+
+    public AnswerStatisticsService(QuestionRepository questionRepository, QuestionService questionService, Duration flushInterval) {
+        this.questionRepository = questionRepository;
+        this.questionService = questionService;
+        long millis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // Zählt nur Antworten auf aktive Fragen, damit beliebige IDs die Zählertabelle nicht aufblähen
+    public int recordAnswers(List<AnswerReport> reports) {
+        ActiveQuestionSnapshot snapshot = questionService.getActiveQuestionSnapshot();
+        int recorded = 0;
+        for (AnswerReport report : reports) {
+            if (report.questionId() == null || snapshot.get(report.questionId()) == null) {
+                continue;
+            }
+            Counter counter = counters.computeIfAbsent(report.questionId(), id -> new Counter());
+            // answered vor correct erhöhen: flush liest umgekehrt, so bleibt correct <= answered
+            counter.answered().increment();
+            if (report.correct()) {
+                counter.correct().increment();
+            }
+            recorded++;
+        }
+        return recorded;
+    }
+
+    public long pendingAnswers() {
+        return counters.values().stream().mapToLong(counter -> counter.answered().sum()).sum();
+    }
+
+    /** Writes all accumulated deltas; returns the number of questions updated. */
+    public int flush() {
+        synchronized (flushLock) {
+            Map<String, AnswerStatistics> deltas = new LinkedHashMap<>();
+            counters.forEach((id, counter) -> {
+                long correct = counter.correct().sum();
+                long answered = counter.answered().sum();
+                if (answered == 0 && correct == 0) {
+                    return;
+                }
+                AnswerStatistics delta = new AnswerStatistics(answered, correct);
+                // Abziehen statt zurücksetzen: Inkremente seit dem Lesen bleiben erhalten
+                counter.add(new AnswerStatistics(-answered, -correct));
+                deltas.put(id, delta);
+            });
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+
+            List<String> failedIds = write(deltas);
+            failedIds.forEach(id -> counters.computeIfAbsent(id, key -> new Counter()).add(deltas.remove(id)));
+            questionService.refreshAnswerStatistics(deltas.keySet());
+            return deltas.size();
+        }
+    }
+
+    private List<String> write(Map<String, AnswerStatistics> deltas) {
+        try {
+            questionRepository.incrementAnswerStatistics(deltas);
+            return List.of();
+        } catch (BulkOperationException e) {
+            // Unordered: nur die fehlgeschlagenen Updates wiederholen, der Index entspricht der Reihenfolge der Map
+            List<String> ids = new ArrayList<>(deltas.keySet());
+            log.warn("Answer statistics flush: {} of {} updates failed", e.getErrors().size(), ids.size());
+            return e.getErrors().stream().map(BulkWriteError::getIndex).map(ids::get).toList();
+        } catch (RuntimeException e) {
+            log.warn("Answer statistics flush failed, retrying with the next run", e);
+            return List.copyOf(deltas.keySet());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Answer statistics flush failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        long lost = pendingAnswers();
+        if (lost > 0) {
+            log.error("Answer statistics: {} answers could not be written on shutdown", lost);
+        }
+    }
+}
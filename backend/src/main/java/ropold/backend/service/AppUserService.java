@@ -6,12 +6,18 @@ import ropold.backend.model.AppUser;
 import ropold.backend.repository.AppUserRepository;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
 public class AppUserService {
 
     private final AppUserRepository appUserRepository;
+    private final AtomicLong favoritesVersion = new AtomicLong();
+
+    public long getFavoritesVersion() {
+        return favoritesVersion.get();
+    }
 
     public AppUser getUserById(String userId) {
         return appUserRepository.findById(userId)
@@ -24,20 +30,14 @@ public class AppUserService {
     }
 
     public void addQuestionToFavoriteQuestions(String authenticatedUserId, String questionId) {
-        AppUser user = getUserById(authenticatedUserId);
-
-        if (!user.favoriteQuestions().contains(questionId)) {
-            user.favoriteQuestions().add(questionId);
-            appUserRepository.save(user);
+        if (appUserRepository.addFavoriteQuestion(authenticatedUserId, questionId)) {
+            favoritesVersion.incrementAndGet();
         }
     }
 
     public void removeQuestionFromFavoriteQuestions(String authenticatedUserId, String questionId) {
-        AppUser user = getUserById(authenticatedUserId);
-
-        if (user.favoriteQuestions().contains(questionId)) {
-            user.favoriteQuestions().remove(questionId);
-            appUserRepository.save(user);
+        if (appUserRepository.removeFavoriteQuestion(authenticatedUserId, questionId)) {
+            favoritesVersion.incrementAndGet();
         }
     }
 }
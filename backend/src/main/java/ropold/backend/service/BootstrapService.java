@@ -0,0 +1,131 @@
+package ropold.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ropold.backend.model.BootstrapResponse;
+import ropold.backend.model.BootstrapSource;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreEntry;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.PublicQuestion;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collects everything the client needs on its first page load. The parts run concurrently on virtual threads,
+ * so the response takes about as long as the slowest part instead of the sum of all of them.
+ */
+@Slf4j
+@Service
+public class BootstrapService {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    private static final String ANONYMOUS_USER = "anonymousUser";
+
+    private final QuestionService questionService;
+    private final HighScoreService highScoreService;
+    private final AppUserService appUserService;
+    private final UserProfileService userProfileService;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public BootstrapService(QuestionService questionService, HighScoreService highScoreService,
+                            AppUserService appUserService, UserProfileService userProfileService) {
+        this(questionService, highScoreService, appUserService, userProfileService, DEFAULT_TIMEOUT);
+    }
+
+    public BootstrapService(QuestionService questionService, HighScoreService highScoreService,
+                            AppUserService appUserService, UserProfileService userProfileService, Duration timeout) {
+        this.questionService = questionService;
+        this.highScoreService = highScoreService;
+        this.appUserService = appUserService;
+        this.userProfileService = userProfileService;
+        this.timeout = timeout;
+    }
+
+    private record Part<T>(String name, BootstrapSource source, CompletableFuture<T> result) {
+    }
+
+    public BootstrapResponse bootstrap(String userId, Map<String, Object> userDetails) {
+        boolean guest = userId == null || userId.equals(ANONYMOUS_USER);
+        // Vor dem Start festhalten, ob die Teile aus dem Speicher kommen
+        BootstrapSource questionSource = questionService.isActiveQuestionSnapshotLoaded() ? BootstrapSource.CACHE : BootstrapSource.DATABASE;
+        BootstrapSource highScoreSource = highScoreService.isLoaded() ? BootstrapSource.CACHE : BootstrapSource.DATABASE;
+
+        Part<List<String>> favorites = guest
+                ? new Part<>("favorites", BootstrapSource.SKIPPED, CompletableFuture.completedFuture(List.of()))
+                : fork("favorites", BootstrapSource.DATABASE, () -> appUserService.getUserFavoriteQuestions(userId));
+        Part<List<PublicQuestion>> allActiveQuestions = fork("allActiveQuestions", questionSource,
+                () -> PublicQuestion.listOf(questionService.getAllActiveQuestions()));
+        Part<Map<DifficultyEnum, List<HighScoreEntry>>> highScores = fork("highScores", highScoreSource, this::getHighScores);
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<String, BootstrapSource> sources = new LinkedHashMap<>();
+        return new BootstrapResponse(
+                guest ? ANONYMOUS_USER : userId,
+                userDetails,
+                join(favorites, deadline, sources),
+                join(allActiveQuestions, deadline, sources),
+                join(highScores, deadline, sources),
+                sources
+        );
+    }
+
+    private Map<DifficultyEnum, List<HighScoreEntry>> getHighScores() {
+        List<HighScoreModel> all = new ArrayList<>();
+        for (DifficultyEnum difficultyEnum : DifficultyEnum.values()) {
+            all.addAll(highScoreService.getHighScoresByDifficulty(difficultyEnum));
+        }
+        // Profile aller Listen mit einer Abfrage auflösen
+        Map<DifficultyEnum, List<HighScoreEntry>> byDifficulty = new EnumMap<>(DifficultyEnum.class);
+        for (DifficultyEnum difficultyEnum : DifficultyEnum.values()) {
+            byDifficulty.put(difficultyEnum, new ArrayList<>());
+        }
+        for (HighScoreEntry entry : userProfileService.enrich(all)) {
+            byDifficulty.get(entry.difficultyEnum()).add(entry);
+        }
+        return byDifficulty;
+    }
+
+    private <T> Part<T> fork(String name, BootstrapSource source, Supplier<T> supplier) {
+        return new Part<>(name, source, CompletableFuture.supplyAsync(supplier, executor));
+    }
+
+    // Ein fehlender Teil soll die Startseite nicht verhindern; der Client lädt ihn bei Bedarf einzeln nach
+    private <T> T join(Part<T> part, long deadline, Map<String, BootstrapSource> sources) {
+        try {
+            T value = part.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            sources.put(part.name(), part.source());
+            return value;
+        } catch (TimeoutException e) {
+            part.result().cancel(true);
+            log.warn("Bootstrap part {} timed out", part.name());
+        } catch (ExecutionException e) {
+            log.warn("Bootstrap part {} failed", part.name(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sources.put(part.name(), BootstrapSource.FAILED);
+        return null;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+}
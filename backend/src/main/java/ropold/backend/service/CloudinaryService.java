@@ -2,26 +2,46 @@ package ropold.backend.service;
 
 import com.cloudinary.Cloudinary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import ropold.backend.image.ImageStorage;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.Collections;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@ConditionalOnProperty(name = "app.image-storage", havingValue = "cloudinary", matchIfMissing = true)
 @RequiredArgsConstructor
-public class CloudinaryService {
+public class CloudinaryService implements ImageStorage {
 
-    private final Cloudinary cloudinary;
+    // Kleinste von Cloudinary erlaubte Chunk-Größe; Bilder sind auf 5 MB begrenzt und passen in einen Chunk
+    static final int CHUNK_SIZE = 5 * 1024 * 1024;
+    // Socket-Timeouts in Millisekunden, knapp unter denen von ResilientImageStorage: ein abgebrochener Aufruf
+    // gibt seinen Thread so bald danach wirklich frei
+    static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    static final int UPLOAD_TIMEOUT_MILLIS = 25_000;
+    static final int DELETE_TIMEOUT_MILLIS = 8_000;
+
+    private static final Map<String, Object> DELETE_OPTIONS = Map.of(
+            "connect_timeout", CONNECT_TIMEOUT_MILLIS,
+            "timeout", DELETE_TIMEOUT_MILLIS);
 
-    public String uploadImage(MultipartFile image) throws IOException {
-        File fileToUpload = File.createTempFile("quiz-hub", "");
-        image.transferTo(fileToUpload);
+    private final Cloudinary cloudinary;
 
+    @Override
+    public String uploadImage(InputStream content, String filename) throws IOException {
+        Map<String, Object> options = new HashMap<>();
+        options.put("resource_type", "image");
+        options.put("connect_timeout", CONNECT_TIMEOUT_MILLIS);
+        options.put("timeout", UPLOAD_TIMEOUT_MILLIS);
+        if (filename != null && !filename.isBlank()) {
+            options.put("filename", filename);
+        }
+        // uploadLarge liest direkt aus dem Stream, ohne Zwischendatei
         @SuppressWarnings("unchecked")
-        Map<String, Object> uploadResult = cloudinary.uploader().upload(fileToUpload, Collections.emptyMap());
+        Map<String, Object> uploadResult = cloudinary.uploader().uploadLarge(content, options, CHUNK_SIZE);
         return uploadResult.get("secure_url").toString();
     }
 
@@ -30,11 +50,12 @@ public class CloudinaryService {
         return parts[parts.length - 1].split("\\.")[0];
     }
 
+    @Override
     public void deleteImage(String imageUrl) {
         String publicId = extractPublicIdFromUrl(imageUrl);
 
         try {
-            cloudinary.uploader().destroy(publicId, Collections.emptyMap());
+            cloudinary.uploader().destroy(publicId, DELETE_OPTIONS);
         } catch (IOException e) {
             throw new RuntimeException("Error deleting image from Cloudinary: " + publicId, e);
         }
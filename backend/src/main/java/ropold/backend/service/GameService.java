@@ -0,0 +1,272 @@
+package ropold.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ropold.backend.cache.ActiveQuestionSnapshot;
+import ropold.backend.exception.GameSessionLimitException;
+import ropold.backend.exception.GameSessionNotFoundException;
+import ropold.backend.exception.InvalidGameActionException;
+import ropold.backend.exception.QuestionNotFoundException;
+import ropold.backend.game.GameSession;
+import ropold.backend.game.GameSessionStore;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.AnswerReport;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.GameAnswer;
+import ropold.backend.model.GameAnswerResult;
+import ropold.backend.model.GameQuestion;
+import ropold.backend.model.GameQuestionResult;
+import ropold.backend.model.GameRound;
+import ropold.backend.model.GameRoundResult;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.QuestionModel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class GameService {
+
+    public static final Duration SESSION_TTL = Duration.ofMinutes(30);
+    public static final int MAX_SESSIONS = 200_000;
+    private static final long SWEEP_SECONDS = 60;
+    private static final String RANDOM_CATEGORY = "RANDOM";
+
+    private final QuestionService questionService;
+    private final HighScoreService highScoreService;
+    private final AnswerStatisticsService answerStatisticsService;
+    private final Clock clock;
+    private final GameSessionStore sessions;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-session-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public GameService(QuestionService questionService, HighScoreService highScoreService, AnswerStatisticsService answerStatisticsService) {
+        this(questionService, highScoreService, answerStatisticsService, Clock.systemDefaultZone());
+    }
+
+    public GameService(QuestionService questionService, HighScoreService highScoreService,
+                       AnswerStatisticsService answerStatisticsService, Clock clock) {
+        this.questionService = questionService;
+        this.highScoreService = highScoreService;
+        this.answerStatisticsService = answerStatisticsService;
+        this.clock = clock;
+        this.sessions = new GameSessionStore(MAX_SESSIONS, SESSION_TTL, clock);
+        sweeper.scheduleWithFixedDelay(sessions::sweep, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public GameRound startRound(DifficultyEnum difficultyEnum, CategoryEnum categoryEnum, int size) {
+        // Känguru-Runden kennen nur eine Kategorie
+        CategoryEnum roundCategory = difficultyEnum == DifficultyEnum.KANGAROO ? CategoryEnum.KANGAROO : categoryEnum;
+        List<QuestionModel> questions = questionService.getRandomRound(difficultyEnum, categoryEnum, size);
+        if (questions.isEmpty()) {
+            throw new QuestionNotFoundException("No active questions for this selection");
+        }
+        GameSession session = sessions.create(questions.stream().map(QuestionModel::id).toList(), difficultyEnum, roundCategory);
+        if (session == null) {
+            throw new GameSessionLimitException("Too many running games, please try again later");
+        }
+        return toRound(session, questions);
+    }
+
+    // Neustart zieht neue Fragen: bei denselben Fragen wären die eben aufgedeckten Lösungen bekannt
+    public GameRound restartRound(String sessionId) {
+        GameSession previous = getSession(sessionId);
+        GameRound round = startRound(previous.difficultyEnum(), previous.categoryEnum(), previous.questionCount());
+        sessions.remove(previous);
+        return round;
+    }
+
+    public GameAnswerResult answer(String sessionId, int questionIndex, int answerIndex) {
+        GameSession session = getSession(sessionId);
+        if (questionIndex < 0 || questionIndex >= session.questionCount()) {
+            throw new InvalidGameActionException("Invalid question index: " + questionIndex);
+        }
+        QuestionModel question = findQuestion(sessions.questionId(session, questionIndex));
+        int correctAnswerIndex = correctAnswerIndex(question.options());
+        boolean correct = answerIndex == correctAnswerIndex;
+        if (!session.answer(questionIndex, correct, clock.millis())) {
+            throw new InvalidGameActionException("Question " + questionIndex + " has already been answered");
+        }
+        answerStatisticsService.recordAnswers(List.of(new AnswerReport(question.id(), correct)));
+        return new GameAnswerResult(
+                correct,
+                correctAnswerIndex,
+                question.answerExplanation(),
+                session.answeredCount(),
+                session.wrongAnswerCount(),
+                session.isFinished()
+        );
+    }
+
+    // Alle Antworten einer Runde in einem Aufruf: erst vollständig prüfen, dann anwenden
+    public GameRoundResult submitRound(String sessionId, List<GameAnswer> answers, String playerName, String githubId) {
+        GameSession session = getSession(sessionId);
+        validateRound(session, answers, playerName != null);
+        List<String> questionIds = answers.stream()
+                .map(answer -> sessions.questionId(session, answer.questionIndex()))
+                .toList();
+        Map<String, QuestionModel> questionsById = findQuestions(questionIds);
+
+        long now = clock.millis();
+        List<GameQuestionResult> results = new ArrayList<>(answers.size());
+        List<AnswerReport> reports = new ArrayList<>(answers.size());
+        for (int i = 0; i < answers.size(); i++) {
+            GameAnswer answer = answers.get(i);
+            QuestionModel question = questionsById.get(questionIds.get(i));
+            int correctAnswerIndex = correctAnswerIndex(question.options());
+            boolean correct = answer.answerIndex() == correctAnswerIndex;
+            if (!session.answer(answer.questionIndex(), correct, now)) {
+                throw new InvalidGameActionException("Question " + answer.questionIndex() + " has already been answered");
+            }
+            results.add(new GameQuestionResult(answer.questionIndex(), question.id(), correct, correctAnswerIndex, question.answerExplanation()));
+            reports.add(new AnswerReport(question.id(), correct));
+        }
+        answerStatisticsService.recordAnswers(reports);
+
+        HighScoreModel highScore = playerName == null ? null : submitHighScore(session, playerName, githubId);
+        return new GameRoundResult(
+                results,
+                session.answeredCount(),
+                session.wrongAnswerCount(),
+                session.isFinished(),
+                session.isFinished() ? scoreTime(session) : null,
+                highScore
+        );
+    }
+
+    private static void validateRound(GameSession session, List<GameAnswer> answers, boolean withHighScore) {
+        long seen = 0;
+        for (GameAnswer answer : answers) {
+            int index = answer.questionIndex();
+            if (index < 0 || index >= session.questionCount()) {
+                throw new InvalidGameActionException("Invalid question index: " + index);
+            }
+            if ((seen & (1L << index)) != 0 || session.isAnswered(index)) {
+                throw new InvalidGameActionException("Question " + index + " has already been answered");
+            }
+            seen |= 1L << index;
+        }
+        if (withHighScore && session.answeredCount() + answers.size() != session.questionCount()) {
+            throw new InvalidGameActionException("A high score needs answers to all questions of the round");
+        }
+    }
+
+    public HighScoreModel submitHighScore(String sessionId, String playerName, String githubId) {
+        return submitHighScore(getSession(sessionId), playerName, githubId);
+    }
+
+    // Fehlerzahl und Zeit stammen aus der Session, nicht vom Client
+    private HighScoreModel submitHighScore(GameSession session, String playerName, String githubId) {
+        if (!session.isFinished()) {
+            throw new InvalidGameActionException("The round is not finished yet");
+        }
+        if (!sessions.remove(session)) {
+            throw new GameSessionNotFoundException("High score for this round has already been submitted");
+        }
+        CategoryEnum categoryEnum = session.categoryEnum();
+        return highScoreService.addHighScore(new HighScoreModel(
+                null,
+                playerName,
+                githubId,
+                session.difficultyEnum(),
+                categoryEnum == null ? RANDOM_CATEGORY : categoryEnum.name(),
+                session.wrongAnswerCount(),
+                scoreTime(session),
+                LocalDateTime.now(clock)
+        ));
+    }
+
+    private static double scoreTime(GameSession session) {
+        return Math.round(session.finishedAfterMillis() / 100.0) / 10.0;
+    }
+
+    public int runningSessions() {
+        return sessions.size();
+    }
+
+    public int sweepExpiredSessions() {
+        return sessions.sweep();
+    }
+
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private GameSession getSession(String sessionId) {
+        GameSession session = null;
+        try {
+            session = sessions.get(Long.parseUnsignedLong(sessionId, Character.MAX_RADIX));
+        } catch (NumberFormatException e) {
+            // ungültige ID: wie eine abgelaufene Session behandeln
+        }
+        if (session == null) {
+            throw new GameSessionNotFoundException("Game session not found or expired: " + sessionId);
+        }
+        return session;
+    }
+
+    private GameRound toRound(GameSession session, List<QuestionModel> questions) {
+        return new GameRound(
+                Long.toUnsignedString(session.id(), Character.MAX_RADIX),
+                session.difficultyEnum(),
+                session.categoryEnum(),
+                questions.stream().map(GameQuestion::of).toList(),
+                Instant.ofEpochMilli(sessions.expiresAtMillis(session))
+        );
+    }
+
+    // Bevorzugt den Snapshot; eine während des Spiels deaktivierte Frage kommt aus der DB
+    private QuestionModel findQuestion(String questionId) {
+        QuestionModel question = questionService.getActiveQuestionSnapshot().get(questionId);
+        return question != null ? question : questionService.getQuestionById(questionId);
+    }
+
+    // Wie findQuestion, aber alle Fehlenden mit einem einzigen findAllById
+    private Map<String, QuestionModel> findQuestions(List<String> questionIds) {
+        ActiveQuestionSnapshot snapshot = questionService.getActiveQuestionSnapshot();
+        Map<String, QuestionModel> questionsById = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String questionId : questionIds) {
+            QuestionModel question = snapshot.get(questionId);
+            if (question != null) {
+                questionsById.put(questionId, question);
+            } else if (!missing.contains(questionId)) {
+                missing.add(questionId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            questionService.getQuestionsByIds(missing).forEach(question -> questionsById.put(question.id(), question));
+        }
+        for (String questionId : questionIds) {
+            if (!questionsById.containsKey(questionId)) {
+                throw new QuestionNotFoundException("Question not found: " + questionId);
+            }
+        }
+        return questionsById;
+    }
+
+    private static int correctAnswerIndex(List<AnswerOption> options) {
+        for (int i = 0; i < options.size(); i++) {
+            if (options.get(i).isCorrect()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
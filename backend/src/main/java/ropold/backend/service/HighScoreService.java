@@ -1,23 +1,128 @@
 package ropold.backend.service;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import ropold.backend.exception.HighScoreNotFoundException;
+import ropold.backend.leaderboard.HighScorePersister;
+import ropold.backend.leaderboard.Leaderboard;
+import ropold.backend.leaderboard.LeaderboardChangedEvent;
+import ropold.backend.leaderboard.RankedLeaderboard;
+import ropold.backend.leaderboard.WindowedLeaderboards;
 import ropold.backend.model.DifficultyEnum;
 import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.HighScoreRank;
+import ropold.backend.model.LeaderboardWindow;
+import ropold.backend.model.WindowedHighScoreModel;
 import ropold.backend.repository.HighScoreRepository;
+import ropold.backend.repository.WindowedHighScoreRepository;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class HighScoreService {
 
+    public static final int LEADERBOARD_SIZE = 10;
+    public static final int CATEGORY_LEADERBOARD_SIZE = 10_000;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final HighScoreRepository highScoreRepository;
+    private final WindowedHighScoreRepository windowedHighScoreRepository;
     private final IdService idService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HighScorePersister highScorePersister;
+    private final HighScorePersister windowedHighScorePersister;
+    private final WindowedLeaderboards windowedLeaderboards;
+    private final Clock clock;
+
+    // Pro Schwierigkeitsgrad eine Bestenliste im Speicher; Mongo wird asynchron nachgezogen
+    private final Map<DifficultyEnum, Leaderboard> leaderboards = new EnumMap<>(DifficultyEnum.class);
+    // Tiefe Historie je (Schwierigkeit, Kategorie) mit Rangabfragen in O(log n)
+    private final Map<LeaderboardKey, RankedLeaderboard> categoryLeaderboards = new ConcurrentHashMap<>();
+    private final Map<String, HighScoreModel> listedScoresById = new ConcurrentHashMap<>();
+    private final Map<String, HighScoreModel> windowedScoresById = new ConcurrentHashMap<>();
+    private volatile boolean leaderboardsLoaded;
+
+    private record LeaderboardKey(DifficultyEnum difficultyEnum, String categoryEnum) {
+        static LeaderboardKey of(HighScoreModel score) {
+            return new LeaderboardKey(score.difficultyEnum(), score.categoryEnum());
+        }
+    }
+
+    @Autowired
+    public HighScoreService(HighScoreRepository highScoreRepository, WindowedHighScoreRepository windowedHighScoreRepository,
+                            IdService idService, ApplicationEventPublisher eventPublisher) {
+        this(highScoreRepository, windowedHighScoreRepository, idService, eventPublisher, Clock.systemDefaultZone());
+    }
+
+    public HighScoreService(HighScoreRepository highScoreRepository, WindowedHighScoreRepository windowedHighScoreRepository,
+                            IdService idService, ApplicationEventPublisher eventPublisher, Clock clock) {
+        this.highScoreRepository = highScoreRepository;
+        this.windowedHighScoreRepository = windowedHighScoreRepository;
+        this.idService = idService;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.highScorePersister = new HighScorePersister(highScoreRepository, this::isOnLeaderboard);
+        this.windowedLeaderboards = new WindowedLeaderboards(LEADERBOARD_SIZE, clock);
+        this.windowedHighScorePersister = new HighScorePersister("windowed-high-score-persister",
+                score -> windowedHighScoreRepository.save(
+                        new WindowedHighScoreModel(score.id(), score, windowedLeaderboards.expiresAt(score))),
+                windowedHighScoreRepository::deleteById,
+                windowedLeaderboards::contains);
+        for (DifficultyEnum difficultyEnum : DifficultyEnum.values()) {
+            leaderboards.put(difficultyEnum, new Leaderboard(LEADERBOARD_SIZE));
+        }
+    }
 
     public List<HighScoreModel> getHighScoresByDifficulty(DifficultyEnum difficultyEnum) {
-        return highScoreRepository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(difficultyEnum);
+        return leaderboard(difficultyEnum).snapshot();
+    }
+
+    public List<HighScoreModel> getHighScoresByDifficulty(DifficultyEnum difficultyEnum, LeaderboardWindow window) {
+        if (window == LeaderboardWindow.ALL_TIME) {
+            return getHighScoresByDifficulty(difficultyEnum);
+        }
+        leaderboard(difficultyEnum);
+        return windowedLeaderboards.top(window, difficultyEnum);
+    }
+
+    public List<HighScoreModel> getHighScoresByDifficultyAndCategory(DifficultyEnum difficultyEnum, String categoryEnum, int page, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        long offset = (long) Math.max(page, 0) * pageSize;
+        if (offset >= CATEGORY_LEADERBOARD_SIZE) {
+            return List.of();
+        }
+        return categoryLeaderboard(difficultyEnum, categoryEnum).page((int) offset, pageSize);
+    }
+
+    public HighScoreRank getRankFor(DifficultyEnum difficultyEnum, String categoryEnum, int wrongAnswerCount, double scoreTime) {
+        RankedLeaderboard leaderboard = categoryLeaderboard(difficultyEnum, categoryEnum);
+        int rank = leaderboard.rankFor(wrongAnswerCount, scoreTime);
+        return new HighScoreRank(difficultyEnum, categoryEnum, rank, leaderboard.size(), rank <= leaderboard.capacity());
+    }
+
+    public HighScoreRank getRankOf(String id) {
+        ensureLoaded();
+        HighScoreModel score = listedScoresById.get(id);
+        if (score == null) {
+            throw new HighScoreNotFoundException("High score not found: " + id);
+        }
+        RankedLeaderboard leaderboard = categoryLeaderboard(score.difficultyEnum(), score.categoryEnum());
+        int rank = leaderboard.rankOf(score);
+        if (rank < 0) {
+            throw new HighScoreNotFoundException("High score not found: " + id);
+        }
+        return new HighScoreRank(score.difficultyEnum(), score.categoryEnum(), rank, leaderboard.size(), true);
     }
 
     public HighScoreModel addHighScore(@Valid HighScoreModel highScoreModel) {
@@ -32,35 +137,163 @@ public class HighScoreService {
                 highScoreModel.date()
         );
 
-        // Hole alle bisherigen Scores für diesen Schwierigkeitsgrad, sortiert
-        List<HighScoreModel> existingScores = highScoreRepository
-                .findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(newHighScoreModel.difficultyEnum());
+        RankedLeaderboard categoryLeaderboard = categoryLeaderboard(newHighScoreModel.difficultyEnum(), newHighScoreModel.categoryEnum());
+        // Zeitfenster unabhängig davon: ein Score kann heute vorne liegen, ohne es in die ewige Historie zu schaffen
+        offerToWindows(newHighScoreModel, true);
 
-        // Wenn noch weniger als 10 vorhanden → einfach speichern
-        if (existingScores.size() < 10) {
-            return highScoreRepository.save(newHighScoreModel);
+        // Schlechtere Scores werden im Speicher abgelehnt, ohne Mongo zu berühren
+        listedScoresById.put(newHighScoreModel.id(), newHighScoreModel);
+        Leaderboard.OfferResult listed = categoryLeaderboard.offer(newHighScoreModel);
+        for (HighScoreModel evicted : listed.evicted()) {
+            listedScoresById.remove(evicted.id());
+            highScorePersister.markDirty(evicted);
         }
+        if (!listed.accepted()) {
+            listedScoresById.remove(newHighScoreModel.id());
+            return null;
+        }
+        highScorePersister.markDirty(newHighScoreModel);
 
-        // Prüfe, ob der neue Score besser ist als der schlechteste existierende
-        HighScoreModel worstScore = existingScores.get(9); // Platz 10
+        // Wer aus den Top 10 fällt, bleibt in der Kategorie-Historie gespeichert
+        boolean inTopTen = leaderboard(newHighScoreModel.difficultyEnum()).offer(newHighScoreModel).accepted();
+        if (!inTopTen) {
+            return null;
+        }
+        eventPublisher.publishEvent(new LeaderboardChangedEvent(newHighScoreModel.difficultyEnum()));
+        return newHighScoreModel;
+    }
 
-        boolean isWorse =
-                newHighScoreModel.wrongAnswerCount() > worstScore.wrongAnswerCount() ||
-                        (newHighScoreModel.wrongAnswerCount() == worstScore.wrongAnswerCount()
-                                && newHighScoreModel.scoreTime() >= worstScore.scoreTime());
+    public void deleteHighScore(String id) {
+        ensureLoaded();
+        HighScoreModel windowed = windowedScoresById.remove(id);
+        if (windowed != null) {
+            windowedLeaderboards.remove(windowed);
+        }
+        windowedHighScoreRepository.deleteById(id);
+        HighScoreModel score = listedScoresById.remove(id);
+        if (score != null) {
+            leaderboards.get(score.difficultyEnum()).remove(score);
+            categoryLeaderboard(score.difficultyEnum(), score.categoryEnum()).remove(score);
+            // Ein Platz in den Top 10 wurde frei: aus den Kategorie-Bestenlisten nachrücken lassen
+            refillTopTen(score.difficultyEnum());
+            eventPublisher.publishEvent(new LeaderboardChangedEvent(score.difficultyEnum()));
+        }
+        highScoreRepository.deleteById(id);
+    }
 
-        if (isWorse) {
-            // Neuer Score ist schlechter oder gleich → nicht speichern
-            return null;
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reloadLeaderboards() {
+        highScorePersister.flush();
+        categoryLeaderboards.clear();
+        listedScoresById.clear();
+        for (DifficultyEnum difficultyEnum : DifficultyEnum.values()) {
+            List<HighScoreModel> stored = highScoreRepository
+                    .findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(difficultyEnum);
+            Map<LeaderboardKey, List<HighScoreModel>> byCategory = stored.stream()
+                    .collect(Collectors.groupingBy(LeaderboardKey::of));
+            for (Map.Entry<LeaderboardKey, List<HighScoreModel>> entry : byCategory.entrySet()) {
+                List<HighScoreModel> categoryScores = entry.getValue();
+                RankedLeaderboard leaderboard = categoryLeaderboards.computeIfAbsent(entry.getKey(), key -> newCategoryLeaderboard());
+                // Überzählige Altbestände jenseits der Historientiefe werden aufgeräumt
+                leaderboard.reset(categoryScores).forEach(highScorePersister::markDirty);
+                leaderboard.page(0, leaderboard.size()).forEach(score -> listedScoresById.put(score.id(), score));
+            }
+            leaderboards.get(difficultyEnum).reset(List.of());
+            refillTopTen(difficultyEnum);
+        }
+        reloadWindowedLeaderboards();
+        leaderboardsLoaded = true;
+        for (DifficultyEnum difficultyEnum : DifficultyEnum.values()) {
+            eventPublisher.publishEvent(new LeaderboardChangedEvent(difficultyEnum));
         }
+    }
 
-        // Neuer Score ist besser → ersetze den schlechtesten
-        highScoreRepository.deleteById(worstScore.id());
-        return highScoreRepository.save(newHighScoreModel);
+    public void flushPendingWrites() {
+        highScorePersister.flush();
+        windowedHighScorePersister.flush();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        highScorePersister.close();
+        windowedHighScorePersister.close();
+    }
 
-    public void deleteHighScore(String id) {
-        highScoreRepository.deleteById(id);
+    // Abgelaufene Dokumente entfernt der TTL-Index; hier fallen nur die noch nicht gelöschten heraus
+    private void reloadWindowedLeaderboards() {
+        windowedHighScorePersister.flush();
+        windowedLeaderboards.clear();
+        windowedScoresById.clear();
+        windowedHighScoreRepository.findByExpireAtAfter(clock.instant())
+                .forEach(stored -> offerToWindows(stored.highScore(), false));
+    }
+
+    private void offerToWindows(HighScoreModel score, boolean persist) {
+        windowedScoresById.put(score.id(), score);
+        List<HighScoreModel> evicted = windowedLeaderboards.offer(score);
+        for (HighScoreModel evictedScore : evicted) {
+            if (!windowedLeaderboards.contains(evictedScore)) {
+                windowedScoresById.remove(evictedScore.id());
+            }
+            windowedHighScorePersister.markDirty(evictedScore);
+        }
+        // Neue Scores werden nur gespeichert, wenn sie gelistet sind; beim Nachladen fliegen nicht mehr gelistete raus
+        if (!windowedLeaderboards.contains(score)) {
+            windowedScoresById.remove(score.id());
+            if (!persist) {
+                windowedHighScorePersister.markDirty(score);
+            }
+        } else if (persist) {
+            windowedHighScorePersister.markDirty(score);
+        }
+    }
+
+    private Leaderboard leaderboard(DifficultyEnum difficultyEnum) {
+        if (difficultyEnum == null) {
+            throw new IllegalArgumentException("Difficulty is required");
+        }
+        ensureLoaded();
+        return leaderboards.get(difficultyEnum);
+    }
+
+    private RankedLeaderboard categoryLeaderboard(DifficultyEnum difficultyEnum, String categoryEnum) {
+        if (difficultyEnum == null) {
+            throw new IllegalArgumentException("Difficulty is required");
+        }
+        ensureLoaded();
+        return categoryLeaderboards.computeIfAbsent(new LeaderboardKey(difficultyEnum, categoryEnum), key -> newCategoryLeaderboard());
+    }
+
+    private RankedLeaderboard newCategoryLeaderboard() {
+        return new RankedLeaderboard(CATEGORY_LEADERBOARD_SIZE);
+    }
+
+    // Bestenlisten liegen im Speicher; bis zum ersten Laden kommt alles aus Mongo
+    public boolean isLoaded() {
+        return leaderboardsLoaded;
+    }
+
+    private void ensureLoaded() {
+        if (!leaderboardsLoaded) {
+            synchronized (this) {
+                if (!leaderboardsLoaded) {
+                    reloadLeaderboards();
+                }
+            }
+        }
+    }
+
+    // Die Top 10 je Schwierigkeit stammen immer aus den Top 10 der Kategorien; offer ist idempotent
+    private void refillTopTen(DifficultyEnum difficultyEnum) {
+        Leaderboard leaderboard = leaderboards.get(difficultyEnum);
+        categoryLeaderboards.entrySet().stream()
+                .filter(entry -> entry.getKey().difficultyEnum() == difficultyEnum)
+                .flatMap(entry -> entry.getValue().page(0, LEADERBOARD_SIZE).stream())
+                .forEach(leaderboard::offer);
+    }
+
+    private boolean isOnLeaderboard(HighScoreModel score) {
+        RankedLeaderboard leaderboard = categoryLeaderboards.get(LeaderboardKey.of(score));
+        return leaderboard != null && leaderboard.contains(score);
     }
 }
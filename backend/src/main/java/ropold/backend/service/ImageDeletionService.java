@@ -0,0 +1,145 @@
+package ropold.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ropold.backend.image.ImageStorage;
+import ropold.backend.model.ImageDeletion;
+import ropold.backend.repository.ImageDeletionRepository;
+import ropold.backend.repository.QuestionRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox for image deletions. Question writes only record which image has to go; a background worker removes
+ * it from the image storage later, in batches and with exponential backoff on failures.
+ * <p>
+ * The entry is not written atomically with the question: Mongo transactions need a replica set, so callers
+ * insert the entry first and write the question afterwards. If the question write fails, the image is still
+ * referenced. The worker then reschedules the entry with backoff until {@link #REFERENCED_GRACE} has passed
+ * since it was created, and drops it after that without touching the image. An image is never deleted while
+ * a question still points to it; a failed write costs at most a few rechecks.
+ */
+@Slf4j
+@Service
+public class ImageDeletionService {
+
+    public static final Duration DRAIN_INTERVAL = Duration.ofSeconds(5);
+    public static final int BATCH_SIZE = 50;
+    public static final int MAX_ATTEMPTS = 10;
+    static final Duration INITIAL_BACKOFF = Duration.ofSeconds(10);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    // Solange gilt ein geholter Eintrag als in Arbeit; stürzt der Worker ab, wird er danach erneut versucht
+    static final Duration LEASE = Duration.ofMinutes(5);
+    // So lange wird ein noch verwendetes Bild erneut geprüft, bevor der Eintrag verworfen wird
+    static final Duration REFERENCED_GRACE = Duration.ofMinutes(10);
+
+    private final ImageDeletionRepository imageDeletionRepository;
+    private final QuestionRepository questionRepository;
+    private final ImageStorage imageStorage;
+    private final ImageProxyService imageProxyService;
+    private final Clock clock;
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-deletion-drainer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public ImageDeletionService(ImageDeletionRepository imageDeletionRepository, QuestionRepository questionRepository,
+                                ImageStorage imageStorage, ImageProxyService imageProxyService) {
+        this(imageDeletionRepository, questionRepository, imageStorage, imageProxyService, Clock.systemUTC(), DRAIN_INTERVAL);
+    }
+
+    public ImageDeletionService(ImageDeletionRepository imageDeletionRepository, QuestionRepository questionRepository,
+                                ImageStorage imageStorage, ImageProxyService imageProxyService, Clock clock,
+                                Duration drainInterval) {
+        this.imageDeletionRepository = imageDeletionRepository;
+        this.questionRepository = questionRepository;
+        this.imageStorage = imageStorage;
+        this.imageProxyService = imageProxyService;
+        this.clock = clock;
+        long millis = drainInterval.toMillis();
+        drainer.scheduleWithFixedDelay(this::drainQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void scheduleDeletion(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return;
+        }
+        imageDeletionRepository.insert(ImageDeletion.of(imageUrl, clock.instant()));
+    }
+
+    public long pendingDeletions() {
+        return imageDeletionRepository.count();
+    }
+
+    /** Processes up to {@link #BATCH_SIZE} due entries and returns how many were taken from the outbox. */
+    public synchronized int drain() {
+        int processed = 0;
+        while (processed < BATCH_SIZE) {
+            Instant now = clock.instant();
+            ImageDeletion deletion = imageDeletionRepository.claimNextDue(now, now.plus(LEASE));
+            if (deletion == null) {
+                break;
+            }
+            process(deletion, now);
+            processed++;
+        }
+        return processed;
+    }
+
+    private void process(ImageDeletion deletion, Instant now) {
+        // Der Eintrag wird vor dem Schreiben der Frage angelegt: hängt das Bild noch an einer Frage, läuft das
+        // Schreiben vielleicht gerade noch. Erst nach REFERENCED_GRACE gilt es als gescheitert und das Bild bleibt.
+        if (questionRepository.isImageReferenced(deletion.imageUrl())) {
+            if (deletion.createdAt().plus(REFERENCED_GRACE).isAfter(now)) {
+                imageDeletionRepository.save(deletion.retryAt(now.plus(backoff(deletion.attempts() + 1)), "still referenced"));
+            } else {
+                imageDeletionRepository.deleteById(deletion.id());
+            }
+            return;
+        }
+        try {
+            imageStorage.deleteImage(deletion.imageUrl());
+            // Cache-Treffer prüfen nicht, ob das Bild noch verwendet wird
+            imageProxyService.evict(deletion.imageUrl());
+            imageDeletionRepository.deleteById(deletion.id());
+        } catch (RuntimeException e) {
+            if (deletion.attempts() + 1 >= MAX_ATTEMPTS) {
+                log.error("Giving up deleting image {} after {} attempts", deletion.imageUrl(), MAX_ATTEMPTS, e);
+                imageDeletionRepository.deleteById(deletion.id());
+            } else {
+                log.warn("Deleting image {} failed, attempt {}", deletion.imageUrl(), deletion.attempts() + 1, e);
+                imageDeletionRepository.save(deletion.retryAt(now.plus(backoff(deletion.attempts() + 1)), e.getMessage()));
+            }
+        }
+    }
+
+    static Duration backoff(int attempts) {
+        Duration backoff = INITIAL_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+
+    private void drainQuietly() {
+        try {
+            // Volle Batches direkt hintereinander abarbeiten
+            while (drain() == BATCH_SIZE) {
+                log.debug("Image deletion outbox still has due entries");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Draining image deletion outbox failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        drainer.shutdownNow();
+    }
+}
@@ -0,0 +1,176 @@
+package ropold.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ropold.backend.exception.ImageNotFoundException;
+import ropold.backend.exception.ImageOriginException;
+import ropold.backend.image.DiskImageCache;
+import ropold.backend.image.DiskImageCache.CachedImage;
+import ropold.backend.repository.QuestionRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves question images from a local disk cache. The image host is only asked on a miss, and concurrent misses
+ * for the same image share a single download. Only images that a question actually references are fetched, so
+ * the endpoint cannot be used to proxy arbitrary URLs.
+ */
+@Slf4j
+@Service
+public class ImageProxyService {
+
+    public static final long MAX_IMAGE_BYTES = 20L * 1024 * 1024;
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final QuestionRepository questionRepository;
+    private final DiskImageCache cache;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final ConcurrentHashMap<String, CompletableFuture<CachedImage>> loading = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImageProxyService(QuestionRepository questionRepository,
+                             @Value("${app.image-cache.dir:${java.io.tmpdir}/quiz-hub-image-cache}") Path directory,
+                             @Value("${app.image-cache.max-bytes:536870912}") long maxBytes) {
+        this(questionRepository, new DiskImageCache(directory, maxBytes),
+                HttpClient.newBuilder()
+                        .connectTimeout(CONNECT_TIMEOUT)
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .build(),
+                REQUEST_TIMEOUT);
+    }
+
+    public ImageProxyService(QuestionRepository questionRepository, DiskImageCache cache, HttpClient httpClient,
+                             Duration requestTimeout) {
+        this.questionRepository = questionRepository;
+        this.cache = cache;
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /** The id under which {@code /api/images/{id}} serves the image: the URL itself, Base64url-encoded. */
+    public static String idFor(String imageUrl) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(imageUrl.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public CachedImage getImage(String id) {
+        String imageUrl = decode(id);
+        String key = cacheKey(imageUrl);
+        CachedImage cached = cache.get(key);
+        return cached != null ? cached : load(imageUrl, key);
+    }
+
+    // Das Bild wurde beim Bildspeicher gelöscht und darf auch aus dem Cache nicht mehr ausgeliefert werden
+    public void evict(String imageUrl) {
+        cache.evict(cacheKey(imageUrl));
+    }
+
+    private CachedImage load(String imageUrl, String key) {
+        CompletableFuture<CachedImage> own = new CompletableFuture<>();
+        CompletableFuture<CachedImage> running = loading.putIfAbsent(key, own);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // Ein anderer Request kann den Download gerade beendet haben
+            CachedImage image = cache.get(key);
+            if (image == null) {
+                image = fetch(imageUrl, key);
+            }
+            own.complete(image);
+            return image;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, own);
+        }
+    }
+
+    private CachedImage fetch(String imageUrl, String key) {
+        URI uri = URI.create(imageUrl);
+        if (!"https".equals(uri.getScheme()) && !"http".equals(uri.getScheme())) {
+            throw new ImageNotFoundException("Image cannot be proxied: " + imageUrl);
+        }
+        if (!questionRepository.isImageReferenced(imageUrl)) {
+            throw new ImageNotFoundException("No question uses image: " + imageUrl);
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(requestTimeout).GET().build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 404 || response.statusCode() == 410) {
+                    throw new ImageNotFoundException("Image no longer exists at origin: " + imageUrl);
+                }
+                if (response.statusCode() != 200) {
+                    throw new ImageOriginException("Image origin answered " + response.statusCode() + " for " + imageUrl);
+                }
+                String contentType = response.headers().firstValue("Content-Type").orElse(null);
+                if (DiskImageCache.imageType(contentType) == null) {
+                    throw new ImageOriginException("Image origin sent unsupported content type " + contentType);
+                }
+                log.debug("Image cache miss, fetched {}", imageUrl);
+                return cache.put(key, contentType, body, MAX_IMAGE_BYTES);
+            }
+        } catch (IOException e) {
+            throw new ImageOriginException("Could not fetch image " + imageUrl, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImageOriginException("Interrupted while fetching image " + imageUrl, e);
+        }
+    }
+
+    private static CachedImage await(CompletableFuture<CachedImage> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String decode(String id) {
+        try {
+            String imageUrl = new String(Base64.getUrlDecoder().decode(id), StandardCharsets.UTF_8);
+            URI.create(imageUrl);
+            return imageUrl;
+        } catch (IllegalArgumentException e) {
+            throw new ImageNotFoundException("Invalid image id: " + id);
+        }
+    }
+
+    static String cacheKey(String imageUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(imageUrl.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClient.shutdownNow();
+    }
+}
@@ -0,0 +1,148 @@
+package ropold.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import ropold.backend.exception.ImageUploadLimitException;
+import ropold.backend.image.ImageProcessor;
+import ropold.backend.image.ImageStorage;
+import ropold.backend.image.StoredImage;
+import ropold.backend.model.ImageVariant;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs image uploads on a small bounded pool instead of the request thread. Each upload is decoded once and
+ * stored as a set of width variants. When pool and queue are full, new uploads are rejected right away rather
+ * than piling up behind a slow image backend.
+ */
+@Slf4j
+@Service
+public class ImageUploadService {
+
+    public static final int UPLOAD_THREADS = 4;
+    public static final int MAX_QUEUED_UPLOADS = 32;
+
+    private final ImageStorage imageStorage;
+    private final ImageProcessor imageProcessor = new ImageProcessor();
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ImageUploadService(ImageStorage imageStorage) {
+        this(imageStorage, UPLOAD_THREADS, MAX_QUEUED_UPLOADS);
+    }
+
+    public ImageUploadService(ImageStorage imageStorage, int threads, int maxQueued) {
+        this.imageStorage = imageStorage;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public CompletableFuture<StoredImage> upload(MultipartFile image) {
+        try {
+            return CompletableFuture.supplyAsync(() -> store(image), executor);
+        } catch (RejectedExecutionException e) {
+            throw new ImageUploadLimitException("Too many image uploads in progress, please try again later");
+        }
+    }
+
+    /**
+     * Uploads the image and passes the result on. If the follow-up step fails, the uploaded images are deleted
+     * again so that no orphaned images remain in the storage.
+     */
+    public <T> CompletableFuture<T> uploadAndThen(MultipartFile image, Function<StoredImage, T> next) {
+        return upload(image).thenApply(storedImage -> {
+            try {
+                return next.apply(storedImage);
+            } catch (RuntimeException e) {
+                storedImage.urls().forEach(this::discard);
+                throw e;
+            }
+        });
+    }
+
+    public int pendingUploads() {
+        return executor.getActiveCount() + executor.getQueue().size();
+    }
+
+    private StoredImage store(MultipartFile image) {
+        byte[] data;
+        // Der Stream wird auf jedem Weg geschlossen; eine eigene Zwischendatei gibt es nicht
+        try (InputStream content = image.getInputStream()) {
+            data = content.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading image: " + image.getOriginalFilename(), e);
+        }
+        return store(data, image.getOriginalFilename());
+    }
+
+    /** Decodes and stores the image on the calling thread; used for uploads that were deferred earlier. */
+    public StoredImage store(byte[] data, String filename) {
+        try {
+            List<ImageProcessor.EncodedVariant> encoded = imageProcessor.createVariants(data);
+            if (encoded.isEmpty()) {
+                // Formate, die ImageIO nicht lesen kann, werden wie bisher unverändert abgelegt
+                return new StoredImage(imageStorage.uploadImage(new ByteArrayInputStream(data), filename), List.of());
+            }
+            List<ImageVariant> variants = storeVariants(encoded, baseName(filename));
+            return new StoredImage(variants.getLast().url(), variants);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error uploading image: " + filename, e);
+        }
+    }
+
+    private List<ImageVariant> storeVariants(List<ImageProcessor.EncodedVariant> encoded, String baseName) throws IOException {
+        List<ImageVariant> variants = new ArrayList<>(encoded.size());
+        try {
+            for (ImageProcessor.EncodedVariant variant : encoded) {
+                String url = imageStorage.uploadImage(new ByteArrayInputStream(variant.jpeg()), baseName + "-" + variant.width() + "w.jpg");
+                variants.add(new ImageVariant(variant.width(), url));
+            }
+            return variants;
+        } catch (IOException | RuntimeException e) {
+            // Bereits hochgeladene Varianten nicht verwaist zurücklassen
+            variants.forEach(variant -> discard(variant.url()));
+            throw e;
+        }
+    }
+
+    private static String baseName(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return "image";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    private void discard(String imageUrl) {
+        try {
+            imageStorage.deleteImage(imageUrl);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete orphaned image {}", imageUrl, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
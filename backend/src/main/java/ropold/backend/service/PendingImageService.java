@@ -0,0 +1,183 @@
+package ropold.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import ropold.backend.exception.ImageStorageUnavailableException;
+import ropold.backend.image.StoredImage;
+import ropold.backend.model.PendingImageUpload;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.PendingImageUploadRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps question creation working while the image storage is down. The question is saved without its image and
+ * marked as image pending; the image itself waits in Mongo until a background worker can upload it.
+ */
+@Slf4j
+@Service
+public class PendingImageService {
+
+    public static final Duration DRAIN_INTERVAL = Duration.ofSeconds(15);
+    public static final int BATCH_SIZE = 10;
+    public static final int MAX_ATTEMPTS = 12;
+    static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final PendingImageUploadRepository pendingImageUploadRepository;
+    private final IdService idService;
+    private final QuestionService questionService;
+    private final ImageUploadService imageUploadService;
+    private final ImageDeletionService imageDeletionService;
+    private final Clock clock;
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pending-image-drainer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PendingImageService(PendingImageUploadRepository pendingImageUploadRepository, IdService idService,
+                               QuestionService questionService, ImageUploadService imageUploadService,
+                               ImageDeletionService imageDeletionService, MeterRegistry meterRegistry) {
+        this(pendingImageUploadRepository, idService, questionService, imageUploadService, imageDeletionService, meterRegistry,
+                Clock.systemUTC(), DRAIN_INTERVAL);
+    }
+
+    public PendingImageService(PendingImageUploadRepository pendingImageUploadRepository, IdService idService,
+                               QuestionService questionService, ImageUploadService imageUploadService,
+                               ImageDeletionService imageDeletionService, MeterRegistry meterRegistry,
+                               Clock clock, Duration drainInterval) {
+        this.pendingImageUploadRepository = pendingImageUploadRepository;
+        this.idService = idService;
+        this.questionService = questionService;
+        this.imageUploadService = imageUploadService;
+        this.imageDeletionService = imageDeletionService;
+        this.clock = clock;
+        Gauge.builder("image.uploads.pending", pendingImageUploadRepository, PendingImageUploadRepository::count)
+                .description("Images accepted while the image storage was unavailable and not yet uploaded")
+                .register(meterRegistry);
+        long millis = drainInterval.toMillis();
+        drainer.scheduleWithFixedDelay(this::drainQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Uploads the image and saves the question with it. If the image storage is unavailable, the question is
+     * saved through {@code saveImagePending} instead, linked to the id of the deferred upload it has to wait for.
+     */
+    public CompletableFuture<QuestionModel> saveWithImage(MultipartFile image, Function<StoredImage, QuestionModel> saveWithImage,
+                                                          Function<String, QuestionModel> saveImagePending) {
+        return imageUploadService.uploadAndThen(image, saveWithImage).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (!isStorageFailure(cause)) {
+                throw e instanceof CompletionException completionException ? completionException : new CompletionException(cause);
+            }
+            log.warn("Image storage unavailable, saving question with pending image: {}", cause.getMessage());
+            byte[] data;
+            try {
+                data = image.getBytes();
+            } catch (IOException readError) {
+                throw new UncheckedIOException("Error reading image: " + image.getOriginalFilename(), readError);
+            }
+            // Eigene Id je Upload: ein erneuter Upload derselben Frage überschreibt keinen laufenden Eintrag
+            String uploadId = idService.generateRandomId();
+            QuestionModel saved = saveImagePending.apply(uploadId);
+            pendingImageUploadRepository.save(PendingImageUpload.of(uploadId, saved.id(), data, image.getOriginalFilename(), clock.instant()));
+            return saved;
+        });
+    }
+
+    public long pendingUploads() {
+        return pendingImageUploadRepository.count();
+    }
+
+    /** Uploads up to {@link #BATCH_SIZE} due images and returns how many entries were processed. */
+    public synchronized int drain() {
+        int processed = 0;
+        while (processed < BATCH_SIZE) {
+            Instant now = clock.instant();
+            PendingImageUpload pending = pendingImageUploadRepository.claimNextDue(now, now.plus(LEASE));
+            if (pending == null) {
+                break;
+            }
+            processed++;
+            if (!process(pending, now)) {
+                // Speicher weiterhin nicht erreichbar: die übrigen Einträge würden genauso scheitern
+                break;
+            }
+        }
+        return processed;
+    }
+
+    private boolean process(PendingImageUpload pending, Instant now) {
+        if (!questionService.isWaitingForImage(pending.questionId(), pending.id())) {
+            // Frage gelöscht, inzwischen mit anderem Bild gespeichert oder durch einen neueren Upload abgelöst
+            pendingImageUploadRepository.deleteById(pending.id());
+            return true;
+        }
+        StoredImage stored;
+        try {
+            stored = imageUploadService.store(pending.data(), pending.filename());
+        } catch (RuntimeException e) {
+            retryOrGiveUp(pending, now, e);
+            return !isStorageFailure(e);
+        }
+        if (questionService.finishPendingImage(pending.questionId(), pending.id(), stored.imageUrl(), stored.variants()) == null) {
+            stored.urls().forEach(imageDeletionService::scheduleDeletion);
+        }
+        pendingImageUploadRepository.deleteById(pending.id());
+        return true;
+    }
+
+    private void retryOrGiveUp(PendingImageUpload pending, Instant now, RuntimeException e) {
+        if (pending.attempts() + 1 >= MAX_ATTEMPTS || !isStorageFailure(e)) {
+            // Ungültiges Bild oder dauerhaft kein Speicher: Frage bleibt ohne Bild
+            log.error("Giving up uploading pending image for question {}", pending.questionId(), e);
+            questionService.finishPendingImage(pending.questionId(), pending.id(), null, null);
+            pendingImageUploadRepository.deleteById(pending.id());
+        } else {
+            log.warn("Uploading pending image for question {} failed, attempt {}", pending.questionId(), pending.attempts() + 1);
+            pendingImageUploadRepository.save(pending.retryAt(now.plus(backoff(pending.attempts() + 1)), e.getMessage()));
+        }
+    }
+
+    static boolean isStorageFailure(Throwable e) {
+        return e instanceof ImageStorageUnavailableException || e instanceof UncheckedIOException;
+    }
+
+    static Duration backoff(int attempts) {
+        Duration backoff = INITIAL_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+
+    private void drainQuietly() {
+        try {
+            while (drain() == BATCH_SIZE) {
+                log.debug("Pending image uploads still have due entries");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Draining pending image uploads failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        drainer.shutdownNow();
+    }
+}
@@ -0,0 +1,43 @@
+package ropold.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ropold.backend.model.QuestionFilter;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.QuestionRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class QuestionExportService {
+
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+
+    // Eine Frage pro Zeile; es liegt immer nur ein Cursor-Batch im Speicher
+    public long exportNdjson(QuestionFilter filter, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(QuestionModel.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (Stream<QuestionModel> questions = questionRepository.streamAll(filter);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<QuestionModel> iterator = questions.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,151 @@
+package ropold.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import ropold.backend.model.QuestionImportItem;
+import ropold.backend.model.QuestionImportReport;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.model.QuestionModelDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class QuestionImportService {
+
+    public static final int CHUNK_SIZE = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MongoTemplate mongoTemplate;
+    private final IdService idService;
+    private final QuestionService questionService;
+
+    // Liest das Array Element für Element; im Speicher liegt höchstens ein Chunk plus der Bericht
+    public QuestionImportReport importQuestions(InputStream body) throws IOException {
+        ImportState state = new ImportState();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return state.report("Request body must be a JSON array of questions");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode node = parser.readValueAsTree();
+                acceptItem(state, state.received++, node);
+                if (state.chunk.size() == CHUNK_SIZE) {
+                    flush(state);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            flush(state);
+            return state.report("Malformed JSON after item " + state.received + ": " + e.getOriginalMessage());
+        }
+        flush(state);
+        return state.report(null);
+    }
+
+    private void acceptItem(ImportState state, int index, JsonNode node) {
+        QuestionModelDto dto;
+        try {
+            dto = objectMapper.treeToValue(node, QuestionModelDto.class);
+        } catch (JsonProcessingException e) {
+            state.items.add(new QuestionImportItem(index, false, null, List.of(e.getOriginalMessage())));
+            return;
+        }
+        if (dto == null) {
+            state.items.add(new QuestionImportItem(index, false, null, List.of("Question must not be null")));
+            return;
+        }
+
+        List<String> errors = validator.validate(dto).stream()
+                .map(QuestionImportService::describe)
+                .sorted()
+                .toList();
+        if (!errors.isEmpty()) {
+            state.items.add(new QuestionImportItem(index, false, null, errors));
+            return;
+        }
+
+        state.chunk.add(new QuestionModel(
+                idService.generateRandomId(),
+                dto.title(),
+                dto.difficultyEnum(),
+                dto.categoryEnum(),
+                dto.questionText(),
+                dto.options(),
+                dto.answerExplanation(),
+                dto.isActive(),
+                dto.githubId(),
+                null,
+                null,
+                false,
+                null
+        ));
+        state.chunkIndexes.add(index);
+    }
+
+    private void flush(ImportState state) {
+        if (state.chunk.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> failedPositions = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, QuestionModel.class)
+                    .insert(state.chunk)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Unordered: alle übrigen Dokumente des Chunks sind trotzdem geschrieben
+            e.getErrors().forEach(error -> failedPositions.put(error.getIndex(), error.getMessage()));
+        }
+
+        List<QuestionModel> inserted = new ArrayList<>(state.chunk.size());
+        for (int position = 0; position < state.chunk.size(); position++) {
+            QuestionModel question = state.chunk.get(position);
+            int index = state.chunkIndexes.get(position);
+            String failure = failedPositions.get(position);
+            if (failure == null) {
+                inserted.add(question);
+                state.items.add(new QuestionImportItem(index, true, question.id(), List.of()));
+            } else {
+                state.items.add(new QuestionImportItem(index, false, null, List.of(failure)));
+            }
+        }
+        state.imported += inserted.size();
+        questionService.registerImportedQuestions(inserted);
+        state.chunk = new ArrayList<>(CHUNK_SIZE);
+        state.chunkIndexes = new ArrayList<>(CHUNK_SIZE);
+    }
+
+    private static String describe(ConstraintViolation<QuestionModelDto> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private static final class ImportState {
+
+        private List<QuestionModel> chunk = new ArrayList<>(CHUNK_SIZE);
+        private List<Integer> chunkIndexes = new ArrayList<>(CHUNK_SIZE);
+        private final List<QuestionImportItem> items = new ArrayList<>();
+        private int received;
+        private int imported;
+
+        QuestionImportReport report(String error) {
+            items.sort(Comparator.comparingInt(QuestionImportItem::index));
+            return new QuestionImportReport(received, imported, received - imported, error, items);
+        }
+    }
+}
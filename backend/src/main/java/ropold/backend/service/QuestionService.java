@@ -1,42 +1,210 @@
 package ropold.backend.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import ropold.backend.cache.ActiveQuestionSnapshot;
+import ropold.backend.exception.InvalidCursorException;
 import ropold.backend.exception.QuestionNotFoundException;
 import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.ImageVariant;
+import ropold.backend.model.PublicQuestion;
+import ropold.backend.model.QuestionFilter;
 import ropold.backend.model.QuestionModel;
+import ropold.backend.model.QuestionPage;
+import ropold.backend.model.QuestionSearchResult;
+import ropold.backend.model.QuestionSummary;
 import ropold.backend.repository.QuestionRepository;
+import ropold.backend.search.QuestionSearchIndex;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 public class QuestionService {
 
+    public static final int MAX_ROUND_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final IdService idService;
     private final QuestionRepository questionRepository;
-    private final CloudinaryService cloudinaryService;
+    private final ImageDeletionService imageDeletionService;
+
+    // Lesende Zugriffe holen sich nur die Referenz, Schreibende ersetzen den Snapshot unter dem Lock
+    private final AtomicReference<ActiveQuestionSnapshot> activeQuestions = new AtomicReference<>();
+    private final Object activeQuestionsLock = new Object();
+    // Suchindex über die aktiven Fragen, wird zusammen mit dem Snapshot aktualisiert
+    private final QuestionSearchIndex searchIndex = new QuestionSearchIndex();
+    // Wird nach jedem Schreibzugriff erhöht; zusammen mit dem Startzeitpunkt die Basis der ETags
+    private final AtomicLong contentVersion = new AtomicLong();
+    // Wird nach jedem Flush der Antwortzähler erhöht; gehört nur in ETags von Antworten, die die Statistik enthalten
+    private final AtomicLong statisticsVersion = new AtomicLong();
+    private final long bootEpoch = System.currentTimeMillis();
 
     public List<QuestionModel> getAllQuestions() {return questionRepository.findAll();}
 
+    public long getContentVersion() {
+        return contentVersion.get();
+    }
+
+    public String getContentVersionTag() {
+        return Long.toString(bootEpoch, 36) + "-" + contentVersion.get() + "-" + statisticsVersion.get();
+    }
+
+    public String getContentETag() {
+        return "\"" + getContentVersionTag() + "\"";
+    }
+
+    // Zusammenfassungen enthalten keine Antwortstatistik und bleiben über deren Flushes hinweg gültig
+    public String getSummaryETag() {
+        return "\"" + Long.toString(bootEpoch, 36) + "-" + contentVersion.get() + "\"";
+    }
+
+    public QuestionPage getQuestionPage(String cursor, int size, QuestionFilter filter) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        String afterId = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        // Ein Element mehr laden, um zu wissen, ob es eine nächste Seite gibt
+        List<QuestionModel> questions = questionRepository.findPageAfter(afterId, filter, pageSize + 1);
+        if (questions.size() <= pageSize) {
+            return new QuestionPage(PublicQuestion.listOf(questions), null);
+        }
+        List<QuestionModel> page = questions.subList(0, pageSize);
+        return new QuestionPage(PublicQuestion.listOf(page), encodeCursor(page.getLast().id()));
+    }
+
+    private static String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
     public List<QuestionModel> getActiveQuestions() {
-        return questionRepository.findAll().stream()
-                .filter(QuestionModel::isActive)
-                .filter(question -> question.categoryEnum() != CategoryEnum.KANGAROO)
-                .toList();
+        return getActiveQuestionSnapshot().withoutKangaroo();
     }
 
     public List<QuestionModel> getActiveKangarooQuestions() {
-        return questionRepository.findAll().stream()
-                .filter(questionModel -> questionModel.categoryEnum() == CategoryEnum.KANGAROO)
-                .filter(QuestionModel::isActive)
-                .toList();
+        return getActiveQuestionSnapshot().kangaroo();
     }
 
     public List<QuestionModel> getAllActiveQuestions() {
-        return questionRepository.findAll().stream()
-                .filter(QuestionModel::isActive)
-                .toList();
+        return getActiveQuestionSnapshot().all();
+    }
+
+    public List<QuestionModel> getRandomRound(DifficultyEnum difficultyEnum, CategoryEnum categoryEnum, int size) {
+        int roundSize = Math.clamp(size, 1, MAX_ROUND_SIZE);
+        ActiveQuestionSnapshot snapshot = activeQuestions.get();
+        if (snapshot == null) {
+            // Snapshot noch nicht geladen: Mongo zieht die Stichprobe selbst
+            return questionRepository.sampleActiveQuestions(difficultyEnum, categoryEnum, roundSize);
+        }
+        return snapshot.sample(difficultyEnum, categoryEnum, roundSize, ThreadLocalRandom.current());
+    }
+
+    public List<QuestionSummary> getAllQuestionSummaries() {
+        return questionRepository.findSummaryBy();
+    }
+
+    public List<QuestionSummary> getActiveQuestionSummaries() {
+        return toSummaries(getActiveQuestions());
+    }
+
+    public List<QuestionSummary> getActiveKangarooQuestionSummaries() {
+        return toSummaries(getActiveKangarooQuestions());
+    }
+
+    public List<QuestionSummary> getAllActiveQuestionSummaries() {
+        return toSummaries(getAllActiveQuestions());
+    }
+
+    public List<QuestionSummary> getQuestionSummariesByIds(List<String> questionIds) {
+        return questionRepository.findSummaryByIdIn(questionIds);
+    }
+
+    public List<QuestionSummary> getQuestionSummariesForGithubUser(String githubId) {
+        return questionRepository.findSummaryByGithubId(githubId);
+    }
+
+    private static List<QuestionSummary> toSummaries(List<QuestionModel> questions) {
+        return questions.stream().map(QuestionSummary::of).toList();
+    }
+
+    public QuestionSearchResult searchQuestions(String query, DifficultyEnum difficultyEnum, CategoryEnum categoryEnum, int page, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+        getActiveQuestionSnapshot();
+        return searchIndex.search(query, difficultyEnum, categoryEnum, pageNumber, pageSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpActiveQuestions() {
+        getActiveQuestionSnapshot();
+    }
+
+    public boolean isActiveQuestionSnapshotLoaded() {
+        return activeQuestions.get() != null;
+    }
+
+    public ActiveQuestionSnapshot getActiveQuestionSnapshot() {
+        ActiveQuestionSnapshot snapshot = activeQuestions.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (activeQuestionsLock) {
+            snapshot = activeQuestions.get();
+            return snapshot != null ? snapshot : reloadActiveQuestions();
+        }
+    }
+
+    public ActiveQuestionSnapshot reloadActiveQuestions() {
+        synchronized (activeQuestionsLock) {
+            ActiveQuestionSnapshot previous = activeQuestions.get();
+            long version = previous == null ? 1 : previous.version() + 1;
+            List<QuestionModel> questions = questionRepository.findByIsActiveTrue();
+            ActiveQuestionSnapshot snapshot = ActiveQuestionSnapshot.of(questions, version);
+            searchIndex.rebuild(questions);
+            activeQuestions.set(snapshot);
+            contentVersion.incrementAndGet();
+            return snapshot;
+        }
+    }
+
+    // Die geänderten Fragen werden unter dem Lock neu gelesen: parallele Schreibzugriffe können in anderer
+    // Reihenfolge hier ankommen, als sie in Mongo committet wurden, der zuletzt Anwendende sieht aber immer
+    // den neuesten Stand. Nicht mehr gefundene IDs gelten als gelöscht.
+    private void updateActiveQuestions(Collection<String> changedIds) {
+        synchronized (activeQuestionsLock) {
+            ActiveQuestionSnapshot snapshot = activeQuestions.get();
+            // Noch nicht geladen: der erste Lesezugriff holt ohnehin den aktuellen Stand aus der DB
+            if (snapshot != null) {
+                List<QuestionModel> changedQuestions = questionRepository.findAllById(changedIds);
+                Set<String> removedIds = new HashSet<>(changedIds);
+                changedQuestions.forEach(question -> removedIds.remove(question.id()));
+                activeQuestions.set(snapshot.withChanges(changedQuestions, removedIds));
+                searchIndex.apply(changedQuestions, removedIds);
+            }
+            // Erst nach dem Snapshot erhöhen, damit ein neuer ETag nie zu alten Daten gehört
+            contentVersion.incrementAndGet();
+        }
     }
 
     public QuestionModel getQuestionById(String id) {
@@ -59,59 +227,121 @@ public class QuestionService {
                 questionModel.answerExplanation(),
                 questionModel.isActive(),
                 questionModel.githubId(),
-                questionModel.imageUrl()
+                questionModel.imageUrl(),
+                questionModel.imageVariants(),
+                questionModel.imagePending(),
+                null,
+                questionModel.pendingImageId()
         );
-        return questionRepository.save(newQuestionModel);
+        QuestionModel savedQuestionModel = questionRepository.save(newQuestionModel);
+        updateActiveQuestions(List.of(savedQuestionModel.id()));
+        return savedQuestionModel;
     }
 
     public QuestionModel updateQuestion(QuestionModel questionModel) {
         QuestionModel existingQuestion = getQuestionById(questionModel.id());
 
-        boolean oldHadImage = existingQuestion.imageUrl() != null && !existingQuestion.imageUrl().isBlank();
-        boolean nowNoImage = questionModel.imageUrl() == null || questionModel.imageUrl().isBlank();
-        boolean imageWasReplaced = oldHadImage && !existingQuestion.imageUrl().equals(questionModel.imageUrl());
+        // Alle Bilder (Original und Varianten), die nicht mehr an der Frage hängen, werden gelöscht. Der Outbox-Eintrag
+        // kommt vor dem Speichern; scheitert es, bleibt das Bild referenziert und der Eintrag verfällt (siehe ImageDeletionService)
+        Set<String> keptImageUrls = imageUrls(questionModel);
+        for (String oldImageUrl : imageUrls(existingQuestion)) {
+            if (!keptImageUrls.contains(oldImageUrl)) {
+                imageDeletionService.scheduleDeletion(oldImageUrl);
+            }
+        }
+
+        // Die Antwortstatistik gehört nicht zum bearbeitbaren Inhalt und wird übernommen
+        QuestionModel savedQuestionModel = questionRepository.save(
+                questionModel.withAnswerStatistics(existingQuestion.answerStatistics()));
+        updateActiveQuestions(List.of(savedQuestionModel.id()));
+        return savedQuestionModel;
+    }
+
+    public boolean isWaitingForImage(String id, String pendingImageId) {
+        return questionRepository.findById(id).map(question -> pendingImageId.equals(question.pendingImageId())).orElse(false);
+    }
 
-        if (oldHadImage && (nowNoImage || imageWasReplaced)) {
-            cloudinaryService.deleteImage(existingQuestion.imageUrl());
+    /**
+     * Sets the image of a question whose upload was deferred. Returns null if the question is gone or no longer
+     * waits for this upload, e.g. because it was edited or got a newer image in the meantime.
+     */
+    public QuestionModel finishPendingImage(String id, String pendingImageId, String imageUrl, List<ImageVariant> imageVariants) {
+        // Bedingtes $set statt Lesen und Zurückschreiben: eine Bearbeitung dazwischen wird nicht überschrieben
+        QuestionModel savedQuestionModel = questionRepository.finishPendingImage(id, pendingImageId, imageUrl, imageVariants).orElse(null);
+        if (savedQuestionModel != null) {
+            updateActiveQuestions(List.of(savedQuestionModel.id()));
         }
+        return savedQuestionModel;
+    }
 
-        return questionRepository.save(questionModel);
+    // Nach einem Flush der Antwortzähler: nur die Statistik der Fragen ersetzen, die der Snapshot gerade hält.
+    // Inhalt und Aktiv-Status bleiben unberührt, eine eben deaktivierte Frage kommt so nicht zurück. Nur die
+    // Statistikversion steigt: ETags mit Statistik werden ungültig, die der Zusammenfassungen nicht.
+    public void refreshAnswerStatistics(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        synchronized (activeQuestionsLock) {
+            ActiveQuestionSnapshot snapshot = activeQuestions.get();
+            if (snapshot != null) {
+                applyAnswerStatistics(snapshot, ids);
+            }
+            // Auch ohne Snapshot: die vollen Listen lesen die neuen Zähler direkt aus der DB
+            statisticsVersion.incrementAndGet();
+        }
+    }
+
+    private void applyAnswerStatistics(ActiveQuestionSnapshot snapshot, Collection<String> ids) {
+        List<QuestionModel> refreshed = new ArrayList<>();
+        for (QuestionModel stored : questionRepository.findAllById(ids)) {
+            QuestionModel current = snapshot.get(stored.id());
+            if (current != null && !Objects.equals(current.answerStatistics(), stored.answerStatistics())) {
+                refreshed.add(current.withAnswerStatistics(stored.answerStatistics()));
+            }
+        }
+        if (!refreshed.isEmpty()) {
+            activeQuestions.set(snapshot.withChanges(refreshed, List.of()));
+            searchIndex.apply(refreshed, List.of());
+        }
     }
 
     public void deleteQuestion(String id) {
         QuestionModel questionModel = questionRepository.findById(id)
                 .orElseThrow(() -> new QuestionNotFoundException("No Question found with id: " + id));
 
-        if (questionModel.imageUrl() != null) {
-            cloudinaryService.deleteImage(questionModel.imageUrl());
-        }
+        // Nicht in einer Transaktion: scheitert das Löschen, verwirft die Outbox den Eintrag, solange das Bild verwendet wird
+        imageUrls(questionModel).forEach(imageDeletionService::scheduleDeletion);
         questionRepository.deleteById(id);
+        updateActiveQuestions(List.of(id));
+    }
+
+    private static Set<String> imageUrls(QuestionModel questionModel) {
+        Set<String> urls = new LinkedHashSet<>();
+        if (questionModel.imageUrl() != null && !questionModel.imageUrl().isBlank()) {
+            urls.add(questionModel.imageUrl());
+        }
+        if (questionModel.imageVariants() != null) {
+            questionModel.imageVariants().forEach(variant -> urls.add(variant.url()));
+        }
+        return urls;
     }
 
-    //nicht getestet im questionServiceTest
     public List<QuestionModel> getQuestionsForGithubUser(String githubId) {
-        return questionRepository.findAll().stream()
-                .filter(questionModel -> questionModel.githubId().equals(githubId))
-                .toList();
+        return questionRepository.findByGithubId(githubId);
+    }
+
+    // Für Importe, die direkt per Bulk-Insert schreiben
+    public void registerImportedQuestions(List<QuestionModel> importedQuestions) {
+        if (!importedQuestions.isEmpty()) {
+            updateActiveQuestions(importedQuestions.stream().map(QuestionModel::id).toList());
+        }
     }
 
     public QuestionModel toggleQuestionActive(String id) {
-        QuestionModel questionModel = questionRepository.findById(id)
+        QuestionModel savedQuestionModel = questionRepository.toggleActive(id)
                 .orElseThrow(() -> new QuestionNotFoundException("No Question found with id: " + id));
-
-        QuestionModel updatedQuestionModel = new QuestionModel(
-                questionModel.id(),
-                questionModel.title(),
-                questionModel.difficultyEnum(),
-                questionModel.categoryEnum(),
-                questionModel.questionText(),
-                questionModel.options(),
-                questionModel.answerExplanation(),
-                !questionModel.isActive(),
-                questionModel.githubId(),
-                questionModel.imageUrl()
-        );
-        return questionRepository.save(updatedQuestionModel);
+        updateActiveQuestions(List.of(savedQuestionModel.id()));
+        return savedQuestionModel;
     }
 
     public List<QuestionModel> addQuestions(List<QuestionModel> questions) {
@@ -126,10 +356,15 @@ public class QuestionService {
                         q.answerExplanation(),
                         q.isActive(),
                         q.githubId(),
-                        q.imageUrl()
+                        q.imageUrl(),
+                        q.imageVariants(),
+                        false,
+                        null
                 ))
                 .toList();
 
-        return questionRepository.saveAll(questionsWithIds);
+        List<QuestionModel> savedQuestions = questionRepository.saveAll(questionsWithIds);
+        updateActiveQuestions(savedQuestions.stream().map(QuestionModel::id).toList());
+        return savedQuestions;
     }
 }
@@ -0,0 +1,86 @@
+package ropold.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ropold.backend.cache.ExpiringLruCache;
+import ropold.backend.model.AppUser;
+import ropold.backend.model.HighScoreEntry;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.UserProfile;
+import ropold.backend.repository.AppUserRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+public class UserProfileService {
+
+    public static final int MAX_CACHED_PROFILES = 10_000;
+    public static final Duration PROFILE_TTL = Duration.ofMinutes(10);
+    // Unbekannte IDs nur kurz merken, damit neu angemeldete Nutzer bald auftauchen
+    public static final Duration UNKNOWN_PROFILE_TTL = Duration.ofMinutes(1);
+    private static final String ANONYMOUS_USER = "anonymousUser";
+
+    private final AppUserRepository appUserRepository;
+    private final ExpiringLruCache<String, UserProfile> profiles;
+
+    @Autowired
+    public UserProfileService(AppUserRepository appUserRepository) {
+        this(appUserRepository, Clock.systemUTC());
+    }
+
+    public UserProfileService(AppUserRepository appUserRepository, Clock clock) {
+        this.appUserRepository = appUserRepository;
+        this.profiles = new ExpiringLruCache<>(MAX_CACHED_PROFILES, clock);
+    }
+
+    public List<HighScoreEntry> enrich(List<HighScoreModel> highScores) {
+        Map<String, UserProfile> resolved = getProfiles(highScores.stream().map(HighScoreModel::githubId).toList());
+        return highScores.stream()
+                .map(highScore -> HighScoreEntry.of(highScore, resolved.get(highScore.githubId())))
+                .toList();
+    }
+
+    /** Resolves all ids with at most one {@code $in} query for the ids not already cached. */
+    public Map<String, UserProfile> getProfiles(Collection<String> githubIds) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String githubId : githubIds) {
+            if (githubId != null && !githubId.equals(ANONYMOUS_USER)) {
+                wanted.add(githubId);
+            }
+        }
+        if (wanted.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, UserProfile> resolved = new HashMap<>(profiles.getAll(wanted));
+        List<String> missing = wanted.stream().filter(id -> !resolved.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            for (AppUser user : appUserRepository.findAllById(missing)) {
+                UserProfile profile = new UserProfile(user.id(), user.username(), user.avatarUrl());
+                profiles.put(user.id(), profile, PROFILE_TTL);
+                resolved.put(user.id(), profile);
+            }
+            for (String githubId : missing) {
+                if (!resolved.containsKey(githubId)) {
+                    UserProfile unknown = UserProfile.unknown(githubId);
+                    profiles.put(githubId, unknown, UNKNOWN_PROFILE_TTL);
+                    resolved.put(githubId, unknown);
+                }
+            }
+        }
+        resolved.values().removeIf(profile -> Objects.isNull(profile.username()));
+        return resolved;
+    }
+
+    public void evict(String githubId) {
+        profiles.invalidate(githubId);
+    }
+}
@@ -0,0 +1,150 @@
+package ropold.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.QuestionModel;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveQuestionSnapshotTest {
+
+    private static QuestionModel question(String id, CategoryEnum categoryEnum, DifficultyEnum difficultyEnum, boolean isActive) {
+        return new QuestionModel(
+                id,
+                "Titel " + id,
+                difficultyEnum,
+                categoryEnum,
+                "Frage " + id,
+                List.of(
+                        new AnswerOption("A", true),
+                        new AnswerOption("B", false),
+                        new AnswerOption("C", false),
+                        new AnswerOption("D", false)
+                ),
+                "Erklärung " + id,
+                isActive,
+                "user",
+                null,
+                null,
+                false,
+                null
+        );
+    }
+
+    @Test
+    void of_shouldKeepOnlyActiveQuestionsAndPartitionThem() {
+        ActiveQuestionSnapshot snapshot = ActiveQuestionSnapshot.of(List.of(
+                question("1", CategoryEnum.KANGAROO, DifficultyEnum.KANGAROO, true),
+                question("2", CategoryEnum.HISTORY, DifficultyEnum.EASY, true),
+                question("3", CategoryEnum.HISTORY, DifficultyEnum.EASY, false),
+                question("4", CategoryEnum.SCIENCE, DifficultyEnum.HARD, true)
+        ), 1);
+
+        assertEquals(3, snapshot.size());
+        assertEquals(List.of("1"), snapshot.kangaroo().stream().map(QuestionModel::id).toList());
+        assertEquals(List.of("2", "4"), snapshot.withoutKangaroo().stream().map(QuestionModel::id).toList());
+        assertEquals(List.of("2"), snapshot.partition(CategoryEnum.HISTORY, DifficultyEnum.EASY).stream().map(QuestionModel::id).toList());
+        assertTrue(snapshot.partition(CategoryEnum.ART, DifficultyEnum.MEDIUM).isEmpty());
+        assertNull(snapshot.get("3"));
+    }
+
+    @Test
+    void withChanges_shouldMoveUpdatedQuestionBetweenPartitions() {
+        ActiveQuestionSnapshot snapshot = ActiveQuestionSnapshot.of(List.of(
+                question("1", CategoryEnum.HISTORY, DifficultyEnum.EASY, true),
+                question("2", CategoryEnum.HISTORY, DifficultyEnum.EASY, true)
+        ), 1);
+
+        ActiveQuestionSnapshot updated = snapshot.withChanges(
+                List.of(question("1", CategoryEnum.MUSIC, DifficultyEnum.HARD, true)), List.of());
+
+        assertEquals(2, updated.version());
+        assertEquals(List.of("2"), updated.partition(CategoryEnum.HISTORY, DifficultyEnum.EASY).stream().map(QuestionModel::id).toList());
+        assertEquals(List.of("1"), updated.partition(CategoryEnum.MUSIC, DifficultyEnum.HARD).stream().map(QuestionModel::id).toList());
+        assertEquals(CategoryEnum.MUSIC, updated.get("1").categoryEnum());
+
+        // Der alte Snapshot bleibt unverändert
+        assertEquals(2, snapshot.partition(CategoryEnum.HISTORY, DifficultyEnum.EASY).size());
+        assertEquals(CategoryEnum.HISTORY, snapshot.get("1").categoryEnum());
+    }
+
+    @Test
+    void withChanges_shouldDropDeactivatedAndRemovedQuestions() {
+        ActiveQuestionSnapshot snapshot = ActiveQuestionSnapshot.of(List.of(
+                question("1", CategoryEnum.HISTORY, DifficultyEnum.EASY, true),
+                question("2", CategoryEnum.ART, DifficultyEnum.MEDIUM, true),
+                question("3", CategoryEnum.ART, DifficultyEnum.MEDIUM, true)
+        ), 1);
+
+        ActiveQuestionSnapshot updated = snapshot.withChanges(
+                List.of(question("1", CategoryEnum.HISTORY, DifficultyEnum.EASY, false)), List.of("2"));
+
+        assertEquals(List.of("3"), updated.all().stream().map(QuestionModel::id).toList());
+        assertNull(updated.get("1"));
+        assertNull(updated.get("2"));
+    }
+
+    @Test
+    void withChanges_withoutEffect_shouldReturnSameSnapshot() {
+        ActiveQuestionSnapshot snapshot = ActiveQuestionSnapshot.of(List.of(
+                question("1", CategoryEnum.HISTORY, DifficultyEnum.EASY, true)
+        ), 1);
+
+        assertSame(snapshot, snapshot.withChanges(List.of(), List.of("unknown")));
+    }
+
+    @Test
+    void sample_shouldRespectDifficultyAndCategoryFilters() {
+        ActiveQuestionSnapshot snapshot = ActiveQuestionSnapshot.of(List.of(
+                question("1", CategoryEnum.KANGAROO, DifficultyEnum.KANGAROO, true),
+                question("2", CategoryEnum.HISTORY, DifficultyEnum.EASY, true),
+                question("3", CategoryEnum.HISTORY, DifficultyEnum.HARD, true),
+                question("4", CategoryEnum.SCIENCE, DifficultyEnum.EASY, true)
+        ), 1);
+        Random random = new Random(42);
+
+        assertEquals(List.of("1"), ids(snapshot.sample(DifficultyEnum.KANGAROO, null, 10, random)));
+        assertEquals(Set.of("2", "4"), new HashSet<>(ids(snapshot.sample(DifficultyEnum.EASY, null, 10, random))));
+        assertEquals(List.of("3"), ids(snapshot.sample(DifficultyEnum.HARD, CategoryEnum.HISTORY, 10, random)));
+        assertEquals(Set.of("2", "3"), new HashSet<>(ids(snapshot.sample(DifficultyEnum.RANDOM, CategoryEnum.HISTORY, 10, random))));
+        assertTrue(snapshot.sample(DifficultyEnum.MEDIUM, null, 10, random).isEmpty());
+    }
+
+    @Test
+    void sample_shouldReturnDistinctQuestionsUniformly() {
+        List<QuestionModel> questions = List.of(
+                question("1", CategoryEnum.ART, DifficultyEnum.EASY, true),
+                question("2", CategoryEnum.ART, DifficultyEnum.EASY, true),
+                question("3", CategoryEnum.MUSIC, DifficultyEnum.EASY, true),
+                question("4", CategoryEnum.SPORTS, DifficultyEnum.EASY, true),
+                question("5", CategoryEnum.SPORTS, DifficultyEnum.EASY, true)
+        );
+        ActiveQuestionSnapshot snapshot = ActiveQuestionSnapshot.of(questions, 1);
+        Random random = new Random(7);
+        Map<String, Integer> hits = new HashMap<>();
+
+        int rounds = 50_000;
+        for (int i = 0; i < rounds; i++) {
+            List<QuestionModel> round = snapshot.sample(DifficultyEnum.EASY, null, 2, random);
+            assertEquals(2, new HashSet<>(round).size());
+            round.forEach(q -> hits.merge(q.id(), 1, Integer::sum));
+        }
+
+        // Jede Frage sollte in ca. 2/5 aller Runden vorkommen
+        double expected = rounds * 2 / 5.0;
+        hits.values().forEach(count -> assertEquals(expected, count, expected * 0.05));
+    }
+
+    private static List<String> ids(List<QuestionModel> questions) {
+        return questions.stream().map(QuestionModel::id).toList();
+    }
+}
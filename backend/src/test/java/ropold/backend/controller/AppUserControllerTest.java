@@ -26,6 +26,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -71,7 +72,10 @@ class AppUserControllerTest {
                 "2 + 2 ergibt 4, weil es eine einfache Addition ist.",
                 true,
                 "user",
-                "https://example.com/image.jpg"
+                "https://example.com/image.jpg",
+                null,
+                false,
+                null
         );
 
         QuestionModel questionModel2 = new QuestionModel(
@@ -89,7 +93,10 @@ class AppUserControllerTest {
                 "Die Berliner Mauer fiel im Jahr 1989, was das Ende der Teilung Deutschlands einleitete.",
                 false,
                 "user",
-                "https://example.com/image2.jpg"
+                "https://example.com/image2.jpg",
+                null,
+                false,
+                null
         );
 
         questionRepository.saveAll(List.of(questionModel1, questionModel2));
@@ -218,10 +225,10 @@ class AppUserControllerTest {
                     "difficultyEnum": "HARD",
                     "questionText": "In welchem Jahr fiel die Berliner Mauer?",
                     "options": [
-                        {"text": "1985", "isCorrect": false},
-                        {"text": "1987", "isCorrect": false},
-                        {"text": "1989", "isCorrect": true},
-                        {"text": "1991", "isCorrect": false}
+                        {"text": "1985"},
+                        {"text": "1987"},
+                        {"text": "1989"},
+                        {"text": "1991"}
                     ],
                     "answerExplanation": "Die Berliner Mauer fiel im Jahr 1989, was das Ende der Teilung Deutschlands einleitete.",
                     "isActive": false,
@@ -229,7 +236,81 @@ class AppUserControllerTest {
                     "imageUrl": "https://example.com/image2.jpg"
                 }
             ]
-        """));
+        """))
+                .andExpect(jsonPath("$[0].options[2].isCorrect").doesNotExist());
+    }
+
+    @Test
+    void getQuestionsForGithubUser_forOtherUser_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/api/users/me/my-questions/user")
+                                .with(oidcLogin().idToken(i -> i.claim("sub", "someone-else")))
+                )
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getQuestionsForGithubUser_withoutLogin_shouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/users/me/my-questions/user"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void getUserFavoriteSummaries_shouldReturnSummariesWithoutAnswers() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/api/users/favorites/summary")
+                                .with(oidcLogin().idToken(i -> i.claim("sub", "user")))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+            [
+                {
+                    "id": "2",
+                    "title": "Testfrage Geschichte",
+                    "categoryEnum": "HISTORY",
+                    "difficultyEnum": "HARD",
+                    "isActive": false,
+                    "imageUrl": "https://example.com/image2.jpg",
+                    "imageVariants": null,
+                    "imagePending": false
+                }
+            ]
+        """, true));
+    }
+
+    @Test
+    void getQuestionSummariesForGithubUser_shouldReturnSummaries() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/api/users/me/my-questions/user/summary")
+                                .with(oidcLogin().idToken(i -> i.claim("sub", "user")))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].options").doesNotExist())
+                .andExpect(jsonPath("$[0].answerExplanation").doesNotExist());
+    }
+
+    @Test
+    void getUserFavorites_withMatchingETag_shouldReturnNotModifiedUntilFavoritesChange() throws Exception {
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/favorites")
+                        .with(oidcLogin().idToken(i -> i.claim("sub", "user"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/users/favorites")
+                        .header("If-None-Match", eTag)
+                        .with(oidcLogin().idToken(i -> i.claim("sub", "user"))))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/users/favorites/1")
+                        .with(oidcLogin().idToken(i -> i.claim("sub", "user"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/users/favorites")
+                        .header("If-None-Match", eTag)
+                        .with(oidcLogin().idToken(i -> i.claim("sub", "user"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
     }
 
     @Test
@@ -0,0 +1,106 @@
+package ropold.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.AppUser;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.AppUserRepository;
+import ropold.backend.repository.HighScoreRepository;
+import ropold.backend.repository.QuestionRepository;
+import ropold.backend.service.HighScoreService;
+import ropold.backend.service.QuestionService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BootstrapControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private HighScoreRepository highScoreRepository;
+
+    @Autowired
+    private HighScoreService highScoreService;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        questionRepository.deleteAll();
+        appUserRepository.deleteAll();
+        highScoreService.flushPendingWrites();
+        highScoreRepository.deleteAll();
+
+        questionRepository.saveAll(List.of(
+                new QuestionModel("1", "Mathe", DifficultyEnum.EASY, CategoryEnum.MATHEMATICS, "Was ist 2 + 2?",
+                        List.of(new AnswerOption("4", true), new AnswerOption("5", false)),
+                        "Einfache Addition", true, "user", null, null, false, null),
+                new QuestionModel("2", "Känguru", DifficultyEnum.KANGAROO, CategoryEnum.KANGAROO, "Wie viele Beine?",
+                        List.of(new AnswerOption("2", true), new AnswerOption("4", false)),
+                        "Kängurus springen auf zwei Beinen", true, "user", null, null, false, null),
+                new QuestionModel("3", "Inaktiv", DifficultyEnum.HARD, CategoryEnum.HISTORY, "Wann fiel die Mauer?",
+                        List.of(new AnswerOption("1989", true), new AnswerOption("1991", false)),
+                        "1989", false, "user", null, null, false, null)
+        ));
+        appUserRepository.save(new AppUser("user", "username", "Max Mustermann",
+                "https://github.com/avatar", "https://github.com/mustermann", List.of("1")));
+        highScoreRepository.save(new HighScoreModel("h1", "player", "user", DifficultyEnum.EASY, "MATHEMATICS", 0, 12.5, LocalDateTime.now()));
+        questionService.reloadActiveQuestions();
+        highScoreService.reloadLeaderboards();
+    }
+
+    @Test
+    void bootstrap_asGuest_shouldReturnAllStartupDataInOneResponse() throws Exception {
+        mockMvc.perform(get("/api/bootstrap"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user").value("anonymousUser"))
+                .andExpect(jsonPath("$.userDetails").doesNotExist())
+                .andExpect(jsonPath("$.favorites.length()").value(0))
+                .andExpect(jsonPath("$.allActiveQuestions.length()").value(2))
+                .andExpect(jsonPath("$.activeQuestions").doesNotExist())
+                .andExpect(jsonPath("$.kangarooQuestions").doesNotExist())
+                .andExpect(jsonPath("$.allQuestions").doesNotExist())
+                .andExpect(jsonPath("$.highScores.EASY[0].playerName").value("player"))
+                .andExpect(jsonPath("$.highScores.HARD.length()").value(0))
+                .andExpect(jsonPath("$.sources.allActiveQuestions").value("CACHE"))
+                .andExpect(jsonPath("$.sources.highScores").value("CACHE"))
+                .andExpect(jsonPath("$.sources.favorites").value("SKIPPED"));
+    }
+
+    @Test
+    void bootstrap_withLoggedInUser_shouldIncludeDetailsAndFavorites() throws Exception {
+        mockMvc.perform(get("/api/bootstrap")
+                        .with(oidcLogin().idToken(token -> token.claim("sub", "user"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user").value("user"))
+                .andExpect(jsonPath("$.userDetails.sub").value("user"))
+                .andExpect(jsonPath("$.favorites[0]").value("1"))
+                .andExpect(jsonPath("$.sources.favorites").value("DATABASE"));
+    }
+}
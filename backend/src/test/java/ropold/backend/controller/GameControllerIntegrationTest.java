@@ -0,0 +1,199 @@
+package ropold.backend.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.HighScoreRepository;
+import ropold.backend.repository.QuestionRepository;
+import ropold.backend.service.HighScoreService;
+import ropold.backend.service.QuestionService;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GameControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private HighScoreRepository highScoreRepository;
+
+    @Autowired
+    private HighScoreService highScoreService;
+
+    @BeforeEach
+    void setUp() {
+        questionRepository.deleteAll();
+        highScoreService.flushPendingWrites();
+        highScoreRepository.deleteAll();
+
+        questionRepository.saveAll(List.of(
+                new QuestionModel("g1", "Hauptstadt", DifficultyEnum.EASY, CategoryEnum.GEOGRAPHY,
+                        "Hauptstadt von Frankreich?",
+                        List.of(new AnswerOption("Berlin", false), new AnswerOption("Paris", true)),
+                        "Paris", true, "user", null, null, false, null),
+                new QuestionModel("g2", "Fluss", DifficultyEnum.EASY, CategoryEnum.GEOGRAPHY,
+                        "Längster Fluss Europas?",
+                        List.of(new AnswerOption("Wolga", true), new AnswerOption("Rhein", false)),
+                        "Die Wolga", true, "user", null, null, false, null)
+        ));
+        questionService.reloadActiveQuestions();
+        highScoreService.reloadLeaderboards();
+    }
+
+    private String startRound() throws Exception {
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions")
+                        .param("difficulty", "EASY")
+                        .param("category", "GEOGRAPHY")
+                        .param("size", "2"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.questions.length()").value(2))
+                .andExpect(jsonPath("$.questions[0].options[0]").isString())
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertFalse(body.contains("isCorrect"));
+        Assertions.assertFalse(body.contains("answerExplanation"));
+        return body;
+    }
+
+    private int correctIndex(String questionId) {
+        List<AnswerOption> options = questionRepository.findById(questionId).orElseThrow().options();
+        for (int i = 0; i < options.size(); i++) {
+            if (options.get(i).isCorrect()) {
+                return i;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    @Test
+    void playRound_shouldCheckAnswersAndCreateHighScoreFromSession() throws Exception {
+        String round = startRound();
+        String sessionId = JsonPath.read(round, "$.sessionId");
+        List<String> questionIds = JsonPath.read(round, "$.questions[*].id");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/answers")
+                        .contentType("application/json")
+                        .content("{\"questionIndex\": 0, \"answerIndex\": " + (1 - correctIndex(questionIds.get(0))) + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.correct").value(false))
+                .andExpect(jsonPath("$.correctAnswerIndex").value(correctIndex(questionIds.get(0))))
+                .andExpect(jsonPath("$.wrongAnswerCount").value(1))
+                .andExpect(jsonPath("$.finished").value(false));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/high-score")
+                        .contentType("application/json")
+                        .content("{\"playerName\": \"player\"}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/answers")
+                        .contentType("application/json")
+                        .content("{\"questionIndex\": 1, \"answerIndex\": " + correctIndex(questionIds.get(1)) + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.correct").value(true))
+                .andExpect(jsonPath("$.finished").value(true));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/high-score")
+                        .contentType("application/json")
+                        .content("{\"playerName\": \"player\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.wrongAnswerCount").value(1))
+                .andExpect(jsonPath("$.categoryEnum").value("GEOGRAPHY"))
+                .andExpect(jsonPath("$.githubId").value("anonymousUser"));
+
+        highScoreService.flushPendingWrites();
+        List<HighScoreModel> stored = highScoreRepository.findAll();
+        Assertions.assertEquals(1, stored.size());
+        Assertions.assertEquals(1, stored.getFirst().wrongAnswerCount());
+        Assertions.assertTrue(stored.getFirst().scoreTime() < 60);
+
+        // Eine Session ergibt genau einen Highscore
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/high-score")
+                        .contentType("application/json")
+                        .content("{\"playerName\": \"player\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void answer_twice_shouldReturnConflict() throws Exception {
+        String sessionId = JsonPath.read(startRound(), "$.sessionId");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/answers")
+                        .contentType("application/json")
+                        .content("{\"questionIndex\": 0, \"answerIndex\": 0}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/answers")
+                        .contentType("application/json")
+                        .content("{\"questionIndex\": 0, \"answerIndex\": 1}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void submitHighScore_withShortName_shouldReturnBadRequest() throws Exception {
+        String sessionId = JsonPath.read(startRound(), "$.sessionId");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/high-score")
+                        .contentType("application/json")
+                        .content("{\"playerName\": \"ab\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.playerName").value("Name must contain at least 3 characters"));
+    }
+
+    @Test
+    void answer_withUnknownSession_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/unknown/answers")
+                        .contentType("application/json")
+                        .content("{\"questionIndex\": 0, \"answerIndex\": 0}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void submitRound_shouldAnswerWholeRoundAndSubmitHighScoreInOneRequest() throws Exception {
+        String round = startRound();
+        String sessionId = JsonPath.read(round, "$.sessionId");
+        List<String> questionIds = JsonPath.read(round, "$.questions[*].id");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/game/sessions/" + sessionId + "/round")
+                        .contentType("application/json")
+                        .content("""
+                                {
+                                  "playerName": "batcher",
+                                  "answers": [
+                                    {"questionIndex": 0, "answerIndex": %d},
+                                    {"questionIndex": 1, "answerIndex": %d}
+                                  ]
+                                }
+                                """.formatted(correctIndex(questionIds.get(0)), correctIndex(questionIds.get(1)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].correct").value(true))
+                .andExpect(jsonPath("$.results[0].answerExplanation").isString())
+                .andExpect(jsonPath("$.finished").value(true))
+                .andExpect(jsonPath("$.wrongAnswerCount").value(0))
+                .andExpect(jsonPath("$.highScore.playerName").value("batcher"));
+
+        highScoreService.flushPendingWrites();
+        Assertions.assertEquals(1, highScoreRepository.count());
+    }
+}
@@ -6,13 +6,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ropold.backend.model.AppUser;
 import ropold.backend.model.DifficultyEnum;
 import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.WindowedHighScoreModel;
+import ropold.backend.repository.AppUserRepository;
 import ropold.backend.repository.HighScoreRepository;
+import ropold.backend.repository.WindowedHighScoreRepository;
+import ropold.backend.service.HighScoreService;
+import ropold.backend.service.UserProfileService;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -28,9 +38,23 @@ class HighScoreControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private HighScoreService highScoreService;
+
+    @Autowired
+    private WindowedHighScoreRepository windowedHighScoreRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
     @BeforeEach
     void setUp() {
+        highScoreService.flushPendingWrites();
         highScoreRepository.deleteAll();
+        windowedHighScoreRepository.deleteAll();
 
         LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
 
@@ -41,6 +65,7 @@ class HighScoreControllerIntegrationTest {
                 "2", "player1", "123456", DifficultyEnum.MEDIUM, "Kangaroo",1,14.5, fixedDate.minusMinutes(5));
 
         highScoreRepository.saveAll(List.of(highScoreModel1, highScoreModel2));
+        highScoreService.reloadLeaderboards();
     }
 
     @Test
@@ -65,27 +90,36 @@ class HighScoreControllerIntegrationTest {
 
 
     @Test
-    void postHighScore_shouldReturnCreated() throws Exception {
-        highScoreRepository.deleteAll();
-
-        String highScoreJson = """
-                {
-                    "playerName": "player2",
-                    "githubId": "654321",
-                    "difficultyEnum": "HARD",
-                    "categoryEnum": "Kangaroo",
-                    "wrongAnswerCount": 1,
-                    "helpCount": 0,
-                    "scoreTime": 20.5,
-                    "date": "2025-03-05T12:00:00"
-                }
-                """;
-
+    void postHighScore_withClientSuppliedScore_shouldBeRejected() throws Exception {
+        // Highscores entstehen nur noch aus einer Spiel-Session (/api/game)
         mockMvc.perform(MockMvcRequestBuilders.post("/api/high-score")
                         .contentType("application/json")
-                        .content(highScoreJson))
-                .andExpect(status().isCreated());
+                        .content("""
+                                {
+                                    "playerName": "cheater",
+                                    "githubId": "654321",
+                                    "difficultyEnum": "EASY",
+                                    "categoryEnum": "Kangaroo",
+                                    "wrongAnswerCount": 0,
+                                    "scoreTime": 0.1,
+                                    "date": "2025-03-05T12:00:00"
+                                }
+                                """))
+                .andExpect(status().is4xxClientError());
+
+        highScoreService.flushPendingWrites();
+        Assertions.assertEquals(2, highScoreRepository.count());
+    }
+
+    @Test
+    void addHighScore_shouldPersistScore() {
+        highScoreRepository.deleteAll();
+        highScoreService.reloadLeaderboards();
 
+        highScoreService.addHighScore(new HighScoreModel(
+                null, "player2", "654321", DifficultyEnum.HARD, "Kangaroo", 1, 20.5, LocalDateTime.of(2025, 3, 5, 12, 0)));
+
+        highScoreService.flushPendingWrites();
         List<HighScoreModel> allHighScores = highScoreRepository.findAll();
         Assertions.assertEquals(1, allHighScores.size());
 
@@ -107,7 +141,7 @@ class HighScoreControllerIntegrationTest {
     }
 
     @Test
-    void postHighScore_withHighTime_shouldNotBeSaved_ifNotInTop10() throws Exception {
+    void addHighScore_withHighTime_shouldStayOffTop10_butBeRanked() throws Exception {
 
         highScoreRepository.deleteAll();
 
@@ -126,33 +160,128 @@ class HighScoreControllerIntegrationTest {
                     fixedDate
             ));
         }
+        highScoreService.reloadLeaderboards();
 
-        // Score, der schlechter ist (scoreTime = 20.0)
-        String newScoreJson = """
-        {
-            "playerName": "playerNew",
-            "githubId": "githubNew",
-            "difficultyEnum": "EASY",
-            "categoryEnum": "Kangaroo",
-            "wrongAnswerCount": 0,
-            "scoreTime": 21.0,
-            "date": "2025-03-05T12:00:00"
-        }
-        """;
+        // Score, der schlechter ist (scoreTime = 21.0)
+        Assertions.assertNull(highScoreService.addHighScore(new HighScoreModel(
+                null, "playerNew", "githubNew", DifficultyEnum.EASY, "Kangaroo", 0, 21.0, fixedDate)));
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/high-score")
-                        .contentType("application/json")
-                        .content(newScoreJson))
-                .andExpect(status().isCreated())
-                .andExpect(MockMvcResultMatchers.content().string(""));
+        highScoreService.flushPendingWrites();
+        // Verifizieren: Die Top 10 bleiben unverändert, der neue Score landet in der Kategorie-Historie auf Platz 11
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/EASY"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(10))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.playerName == 'playerNew')]").isEmpty());
 
-        // Verifizieren: Es bleiben nur die 10 alten drin
         List<HighScoreModel> all = highScoreRepository.findAll();
-        Assertions.assertEquals(10, all.size());
+        Assertions.assertEquals(11, all.size());
+        String newId = all.stream()
+                .filter(score -> "playerNew".equals(score.playerName()))
+                .findFirst().orElseThrow().id();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/rank/" + newId))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json("""
+                    {"difficultyEnum": "EASY", "categoryEnum": "Kangaroo", "rank": 11, "total": 11, "listed": true}
+                """));
+    }
+
+    @Test
+    void getHighScoresByDifficultyAndCategory_shouldReturnPage() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/MEDIUM/Kangaroo").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value("2"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/MEDIUM/History"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json("[]"));
+    }
+
+    @Test
+    void getRankFor_shouldReturnRankAScoreWouldGet() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/EASY/Kangaroo/rank")
+                        .param("wrongAnswerCount", "1")
+                        .param("scoreTime", "12.0"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json("""
+                    {"difficultyEnum": "EASY", "categoryEnum": "Kangaroo", "rank": 2, "total": 1, "listed": true}
+                """));
+    }
+
+    @Test
+    void getRankOf_unknownId_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/rank/does-not-exist"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamLeaderboards_shouldSendSnapshotAndThenRankChanges() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/stream")
+                        .param("difficulty", "EASY")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        awaitContent(result, "\"id\":\"1\"");
+        Assertions.assertTrue(result.getResponse().getContentAsString().startsWith("event:leaderboard"));
+
+        highScoreService.addHighScore(new HighScoreModel(
+                null, "speedy", "654321", DifficultyEnum.EASY, "Kangaroo", 0, 3.0, LocalDateTime.of(2025, 3, 5, 12, 0)));
+
+        awaitContent(result, "speedy");
+        String content = result.getResponse().getContentAsString();
+        String lastEvent = content.substring(content.lastIndexOf("data:"));
+        // Der neue Spitzenreiter und der verdrängte Eintrag auf Platz 2, nichts sonst
+        Assertions.assertTrue(lastEvent.contains("\"rank\":1"));
+        Assertions.assertTrue(lastEvent.contains("\"rank\":2"));
+        Assertions.assertTrue(lastEvent.contains("\"size\":2"));
+        Assertions.assertFalse(content.contains("\"difficultyEnum\":\"MEDIUM\""));
+    }
+
+    private static void awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!result.getResponse().getContentAsString().contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                Assertions.fail("Timed out waiting for " + expected + " in " + result.getResponse().getContentAsString());
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void getHighScoresByDifficulty_withWindow_shouldOnlyListRecentScores() throws Exception {
+        highScoreService.addHighScore(new HighScoreModel(
+                null, "recent", "654321", DifficultyEnum.EASY, "Kangaroo", 3, 50.0, LocalDateTime.now().minusMinutes(5)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/EASY").param("window", "DAILY"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].playerName").value("recent"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/EASY"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value("1"));
+
+        highScoreService.flushPendingWrites();
+        List<WindowedHighScoreModel> stored = windowedHighScoreRepository.findAll();
+        Assertions.assertEquals(1, stored.size());
+        Assertions.assertTrue(stored.getFirst().expireAt().isAfter(Instant.now().plus(Duration.ofDays(29))));
+    }
+
+    @Test
+    void getHighScoresByDifficulty_shouldEmbedGithubProfile() throws Exception {
+        appUserRepository.save(new AppUser("123456", "octo-player", "Octo Player",
+                "https://avatars.example/123456.png", "https://github.com/octo-player", List.of()));
+        userProfileService.evict("123456");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/high-score/MEDIUM"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].githubUsername").value("octo-player"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].avatarUrl").value("https://avatars.example/123456.png"));
 
-        boolean containsNewPlayer = all.stream()
-                .anyMatch(score -> "playerNew".equals(score.playerName()));
-        Assertions.assertFalse(containsNewPlayer);
+        appUserRepository.deleteById("123456");
     }
 
     @Test
@@ -0,0 +1,164 @@
+package ropold.backend.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.ImageVariant;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.QuestionRepository;
+import ropold.backend.service.ImageProxyService;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImageControllerIntegrationTest {
+
+    private static final byte[] IMAGE = new byte[100];
+    private static final AtomicInteger originRequests = new AtomicInteger();
+    private static HttpServer origin;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    private String imageUrl;
+    private String variantUrl;
+
+    @BeforeAll
+    static void startOrigin() throws Exception {
+        for (int i = 0; i < IMAGE.length; i++) {
+            IMAGE[i] = (byte) i;
+        }
+        origin = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        origin.createContext("/images/", exchange -> {
+            originRequests.incrementAndGet();
+            exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, IMAGE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(IMAGE);
+            }
+        });
+        origin.start();
+    }
+
+    @AfterAll
+    static void stopOrigin() {
+        origin.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        questionRepository.deleteAll();
+        originRequests.set(0);
+        // Eindeutige URLs, weil der Plattencache über Testläufe hinweg bestehen bleibt
+        String base = "http://localhost:" + origin.getAddress().getPort() + "/images/" + UUID.randomUUID();
+        imageUrl = base + "-640w.jpg";
+        variantUrl = base + "-320w.jpg";
+        questionRepository.save(new QuestionModel("1", "Mathe", DifficultyEnum.EASY, CategoryEnum.MATHEMATICS,
+                "Was ist 2 + 2?", List.of(new AnswerOption("4", true), new AnswerOption("5", false)),
+                "Einfache Addition", true, "user", imageUrl,
+                List.of(new ImageVariant(320, variantUrl), new ImageVariant(640, imageUrl)), false, null));
+    }
+
+    @Test
+    void getImage_shouldServeFromDiskCacheWithImmutableHeaders() throws Exception {
+        String id = ImageProxyService.idFor(imageUrl);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/images/" + id))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "image/jpeg"))
+                    .andExpect(header().string("Content-Length", "100"))
+                    .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                    .andExpect(header().string("Accept-Ranges", "bytes"))
+                    .andExpect(header().exists("ETag"))
+                    .andExpect(content().bytes(IMAGE));
+        }
+        Assertions.assertEquals(1, originRequests.get());
+    }
+
+    @Test
+    void getImage_forVariant_shouldBeProxiedToo() throws Exception {
+        mockMvc.perform(get("/api/images/" + ImageProxyService.idFor(variantUrl)))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void getImage_withMatchingETag_shouldReturnNotModified() throws Exception {
+        String id = ImageProxyService.idFor(imageUrl);
+        String eTag = mockMvc.perform(get("/api/images/" + id))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/images/" + id).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getImage_withRange_shouldReturnPartialContent() throws Exception {
+        String id = ImageProxyService.idFor(imageUrl);
+
+        mockMvc.perform(get("/api/images/" + id).header("Range", "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-19/100"))
+                .andExpect(header().string("Content-Length", "10"))
+                .andExpect(content().bytes(Arrays.copyOfRange(IMAGE, 10, 20)));
+
+        mockMvc.perform(get("/api/images/" + id).header("Range", "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 95-99/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(IMAGE, 95, 100)));
+
+        mockMvc.perform(get("/api/images/" + id).header("Range", "bytes=90-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 90-99/100"));
+    }
+
+    @Test
+    void getImage_withUnsatisfiableRange_shouldReturn416() throws Exception {
+        mockMvc.perform(get("/api/images/" + ImageProxyService.idFor(imageUrl)).header("Range", "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */100"));
+    }
+
+    @Test
+    void getImage_withStaleIfRange_shouldReturnWholeImage() throws Exception {
+        mockMvc.perform(get("/api/images/" + ImageProxyService.idFor(imageUrl))
+                        .header("Range", "bytes=10-19")
+                        .header("If-Range", "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void getImage_forUrlNotUsedByAnyQuestion_shouldReturnNotFound() throws Exception {
+        String foreign = "http://localhost:" + origin.getAddress().getPort() + "/images/foreign.jpg";
+
+        mockMvc.perform(get("/api/images/" + ImageProxyService.idFor(foreign)))
+                .andExpect(status().isNotFound());
+        Assertions.assertEquals(0, originRequests.get());
+    }
+}
@@ -2,6 +2,8 @@ package ropold.backend.controller;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.Uploader;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,27 +12,49 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ropold.backend.model.*;
 import ropold.backend.repository.AppUserRepository;
+import ropold.backend.repository.PendingImageUploadRepository;
 import ropold.backend.repository.QuestionRepository;
-
+import ropold.backend.service.AnswerStatisticsService;
+import ropold.backend.service.ImageDeletionService;
+import ropold.backend.service.PendingImageService;
+import ropold.backend.service.QuestionService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -49,6 +73,24 @@ class QuestionControllerIntegrationTest {
     @Autowired
     private AppUserRepository appUserRepository;
 
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private AnswerStatisticsService answerStatisticsService;
+
+    @Autowired
+    private ImageDeletionService imageDeletionService;
+
+    @Autowired
+    private PendingImageService pendingImageService;
+
+    @Autowired
+    private PendingImageUploadRepository pendingImageUploadRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         questionRepository.deleteAll();
@@ -69,7 +111,10 @@ class QuestionControllerIntegrationTest {
                 "2 + 2 ergibt 4, weil es eine einfache Addition ist.",
                 true,
                 "user",
-                "https://example.com/image.jpg"
+                "https://example.com/image.jpg",
+                null,
+                false,
+                null
         );
 
         QuestionModel questionModel2 = new QuestionModel(
@@ -87,10 +132,14 @@ class QuestionControllerIntegrationTest {
                 "Die Berliner Mauer fiel im Jahr 1989, was das Ende der Teilung Deutschlands einleitete.",
                 false,
                 "user",
-                "https://example.com/image2.jpg"
+                "https://example.com/image2.jpg",
+                null,
+                false,
+                null
         );
 
         questionRepository.saveAll(List.of(questionModel1, questionModel2));
+        questionService.reloadActiveQuestions();
 
         AppUser user = new AppUser(
                 "user",
@@ -108,7 +157,49 @@ class QuestionControllerIntegrationTest {
         mockMvc.perform(get("/api/quiz-hub"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Testfrage Mathe"))
-                .andExpect(jsonPath("$[1].title").value("Testfrage Geschichte"));
+                .andExpect(jsonPath("$[1].title").value("Testfrage Geschichte"))
+                .andExpect(jsonPath("$[0].options[0].isCorrect").doesNotExist());
+    }
+
+    @Test
+    void getQuestionPage_shouldPageThroughQuestionsWithCursor() throws Exception {
+        String response = mockMvc.perform(get("/api/quiz-hub/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.questions.length()").value(1))
+                .andExpect(jsonPath("$.questions[0].id").value("1"))
+                .andExpect(jsonPath("$.questions[0].options[0].isCorrect").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(response, "$.nextCursor");
+
+        mockMvc.perform(get("/api/quiz-hub/page").param("size", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.questions.length()").value(1))
+                .andExpect(jsonPath("$.questions[0].id").value("2"))
+                .andExpect(jsonPath("$.nextCursor").value(Matchers.nullValue()));
+    }
+
+    @Test
+    void getQuestionPage_shouldApplySearchBarFilters() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/page").param("search", "berliner"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.questions.length()").value(1))
+                .andExpect(jsonPath("$.questions[0].id").value("2"));
+
+        mockMvc.perform(get("/api/quiz-hub/page").param("active", "true").param("category", "KANGAROO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.questions.length()").value(1))
+                .andExpect(jsonPath("$.questions[0].id").value("1"));
+
+        mockMvc.perform(get("/api/quiz-hub/page").param("difficulty", "MEDIUM"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.questions.length()").value(0));
+    }
+
+    @Test
+    void getQuestionPage_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/page").param("cursor", "not base64!"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -130,14 +221,183 @@ class QuestionControllerIntegrationTest {
         mockMvc.perform(get("/api/quiz-hub/active-all"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].title").value("Testfrage Mathe"));
+                .andExpect(jsonPath("$[0].title").value("Testfrage Mathe"))
+                .andExpect(jsonPath("$[0].options[1].text").value("4"))
+                .andExpect(jsonPath("$[0].options[1].isCorrect").doesNotExist());
+    }
+
+    @Test
+    void getAllQuestionSummaries_shouldOmitAnswersAndExplanation() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").exists())
+                .andExpect(jsonPath("$[0].categoryEnum").exists())
+                .andExpect(jsonPath("$[0].options").doesNotExist())
+                .andExpect(jsonPath("$[0].questionText").doesNotExist())
+                .andExpect(jsonPath("$[0].answerExplanation").doesNotExist());
+    }
+
+    @Test
+    void getActiveQuestionSummaries_shouldReturnOnlyActiveQuestions() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/summary/active-all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value("1"))
+                .andExpect(jsonPath("$[0].isActive").value(true))
+                .andExpect(jsonPath("$[0].options").doesNotExist());
+
+        mockMvc.perform(get("/api/quiz-hub/summary/active/kangaroo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        mockMvc.perform(get("/api/quiz-hub/summary/active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void getRandomRound_shouldReturnSampledActiveQuestions() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/round").param("difficulty", "KANGAROO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value("1"))
+                .andExpect(jsonPath("$[0].options[1].isCorrect").doesNotExist());
+    }
+
+    @Test
+    void getRandomRound_shouldNotReturnInactiveQuestions() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/round")
+                        .param("difficulty", "HARD")
+                        .param("category", "HISTORY")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void searchQuestions_shouldReturnRankedActiveMatches() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/search").param("q", "addition"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHits").value(1))
+                .andExpect(jsonPath("$.questions[0].id").value("1"))
+                .andExpect(jsonPath("$.questions[0].options[0].isCorrect").doesNotExist());
+
+        // Frage 2 ist inaktiv und taucht nicht im Index auf
+        mockMvc.perform(get("/api/quiz-hub/search").param("q", "mauer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHits").value(0))
+                .andExpect(jsonPath("$.questions.length()").value(0));
+    }
+
+    @Test
+    void searchQuestions_shouldFilterByCategory() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/search")
+                        .param("q", "testfrage")
+                        .param("category", "HISTORY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.questions.length()").value(0));
+    }
+
+    @Test
+    void getActiveQuestions_withMatchingETag_shouldReturnNotModifiedUntilQuestionsChange() throws Exception {
+        String eTag = mockMvc.perform(get("/api/quiz-hub/active-all"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/quiz-hub/active-all").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/quiz-hub/1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/quiz-hub/no-login")
+                        .contentType("application/json")
+                        .content("""
+                        {
+                            "title": "Neue Frage",
+                            "difficultyEnum": "EASY",
+                            "categoryEnum": "ART",
+                            "questionText": "Was ist Kunst?",
+                            "options": [
+                                { "text": "Malerei", "isCorrect": true },
+                                { "text": "Rechnen", "isCorrect": false },
+                                { "text": "Sport", "isCorrect": false },
+                                { "text": "Musik", "isCorrect": false }
+                            ],
+                            "answerExplanation": "Kunst umfasst Malerei.",
+                            "isActive": true,
+                            "githubId": "anonymous"
+                        }
+                        """))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/quiz-hub/active-all").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", Matchers.not(eTag)))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void exportQuestions_withoutLogin_shouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/quiz-hub/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void exportQuestions_shouldStreamOneQuestionPerLine() throws Exception {
+        MvcResult asyncResult = mockMvc.perform(get("/api/quiz-hub/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> lines = body.lines().toList();
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertTrue(body.endsWith("\n"));
+        Assertions.assertEquals("1", JsonPath.read(lines.get(0), "$.id"));
+        Assertions.assertEquals("2", JsonPath.read(lines.get(1), "$.id"));
+        Assertions.assertEquals("1989", JsonPath.read(lines.get(1), "$.options[2].text"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void exportQuestions_withGzip_shouldCompressAndApplyFilter() throws Exception {
+        MvcResult asyncResult = mockMvc.perform(get("/api/quiz-hub/export")
+                        .param("active", "true")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] compressed = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            List<String> lines = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            Assertions.assertEquals(1, lines.size());
+            Assertions.assertEquals("Testfrage Mathe", JsonPath.read(lines.getFirst(), "$.title"));
+        }
     }
 
     @Test
     void getQuestionById_shouldReturnQuestion() throws Exception {
         mockMvc.perform(get("/api/quiz-hub/1"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.title").value("Testfrage Mathe"));
+                .andExpect(jsonPath("$.title").value("Testfrage Mathe"))
+                .andExpect(jsonPath("$.options.length()").value(4))
+                .andExpect(jsonPath("$.options[1].text").value("4"))
+                .andExpect(jsonPath("$.options[1].isCorrect").doesNotExist());
     }
 
     @Test
@@ -152,10 +412,10 @@ class QuestionControllerIntegrationTest {
         questionRepository.deleteAll();
 
         Uploader mockUploader = mock(Uploader.class);
-        when(mockUploader.upload(any(), anyMap())).thenReturn(Map.of("secure_url", "https://www.test.de/"));
+        when(mockUploader.uploadLarge(any(), anyMap(), anyInt())).thenReturn(Map.of("secure_url", "https://www.test.de/"));
         when(cloudinary.uploader()).thenReturn(mockUploader);
 
-        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub")
+        MvcResult pending = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub")
                         .file(new MockMultipartFile("image", "image.jpg", "image/jpeg", "image".getBytes()))
                         .file(new MockMultipartFile("questionModelDto", "", "application/json", """
                     {
@@ -175,6 +435,9 @@ class QuestionControllerIntegrationTest {
                         "imageUrl": "https://example.com/france.jpg"
                     }
                     """.getBytes())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isCreated());
 
         // Validate question was saved
@@ -182,9 +445,12 @@ class QuestionControllerIntegrationTest {
         Assertions.assertEquals(1, allQuestions.size());
 
         QuestionModel savedQuestion = allQuestions.getFirst();
+        Assertions.assertEquals("https://www.test.de/", savedQuestion.imageUrl());
+        // Kein dekodierbares Bild: keine Varianten, das Original wird unverändert abgelegt
+        Assertions.assertEquals(List.of(), savedQuestion.imageVariants());
         org.assertj.core.api.Assertions.assertThat(savedQuestion)
                 .usingRecursiveComparison()
-                .ignoringFields("id", "imageUrl")
+                .ignoringFields("id", "imageUrl", "imageVariants")
                 .isEqualTo(new QuestionModel(
                         null,
                         "Hauptstadt Europas",
@@ -200,10 +466,79 @@ class QuestionControllerIntegrationTest {
                         "Paris ist die Hauptstadt von Frankreich.",
                         true,
                         "user",
+                        null,
+                        null,
+                        false,
                         null
                 ));
     }
 
+    @Test
+    void postQuestion_whenImageStorageFails_shouldSaveQuestionAsImagePendingAndUploadLater() throws Exception {
+        OAuth2User mockOAuth2User = mock(OAuth2User.class);
+        when(mockOAuth2User.getName()).thenReturn("user");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(mockOAuth2User, null,
+                        Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")))
+        );
+        pendingImageUploadRepository.deleteAll();
+        double failuresBefore = meterRegistry.counter("image.storage.calls", "operation", "upload", "outcome", "failure").count();
+
+        Uploader mockUploader = mock(Uploader.class);
+        when(mockUploader.uploadLarge(any(), anyMap(), anyInt())).thenThrow(new IOException("Read timed out"));
+        when(cloudinary.uploader()).thenReturn(mockUploader);
+
+        MvcResult pending = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub")
+                        .file(new MockMultipartFile("image", "image.jpg", "image/jpeg", "image".getBytes()))
+                        .file(new MockMultipartFile("questionModelDto", "", "application/json", """
+                    {
+                        "title": "Hauptstadt Europas",
+                        "difficultyEnum": "MEDIUM",
+                        "categoryEnum": "GEOGRAPHY",
+                        "questionText": "Welche Stadt ist die Hauptstadt von Frankreich?",
+                        "options": [
+                            {"text": "Berlin", "isCorrect": false},
+                            {"text": "Madrid", "isCorrect": false},
+                            {"text": "Paris", "isCorrect": true},
+                            {"text": "Rom", "isCorrect": false}
+                        ],
+                        "answerExplanation": "Paris ist die Hauptstadt von Frankreich.",
+                        "isActive": true,
+                        "githubId": "user",
+                        "imageUrl": null
+                    }
+                    """.getBytes())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imagePending").value(true))
+                .andExpect(jsonPath("$.pendingImageId").doesNotExist())
+                .andExpect(jsonPath("$.imageUrl").value(Matchers.nullValue()));
+
+        QuestionModel saved = questionRepository.findAll().stream()
+                .filter(question -> question.title().equals("Hauptstadt Europas"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertTrue(saved.imagePending());
+        Assertions.assertNotNull(saved.pendingImageId());
+        Assertions.assertEquals(saved.id(), pendingImageUploadRepository.findById(saved.pendingImageId()).orElseThrow().questionId());
+        Assertions.assertEquals(failuresBefore + 1,
+                meterRegistry.counter("image.storage.calls", "operation", "upload", "outcome", "failure").count());
+        Assertions.assertEquals(1.0, meterRegistry.get("image.storage.circuit.state").tag("state", "closed").gauge().value());
+
+        // Speicher wieder erreichbar: der Hintergrundjob lädt das Bild nach
+        doReturn(Map.of("secure_url", "https://www.test.de/")).when(mockUploader).uploadLarge(any(), anyMap(), anyInt());
+        pendingImageService.drain();
+
+        QuestionModel finished = questionRepository.findById(saved.id()).orElseThrow();
+        Assertions.assertFalse(finished.imagePending());
+        Assertions.assertNull(finished.pendingImageId());
+        Assertions.assertEquals("https://www.test.de/", finished.imageUrl());
+        Assertions.assertFalse(pendingImageUploadRepository.existsById(saved.pendingImageId()));
+    }
+
     @Test
     void postQuestionWithNoLogin_shouldReturnCreatedQuestion() throws Exception {
         questionRepository.deleteAll();
@@ -258,6 +593,9 @@ class QuestionControllerIntegrationTest {
                         "Kunst umfasst Malerei und andere kreative Ausdrucksformen.",
                         true,
                         "anonymous",
+                        null,
+                        null,
+                        false,
                         null
                 ));
     }
@@ -274,10 +612,10 @@ class QuestionControllerIntegrationTest {
         );
 
         Uploader mockUploader = mock(Uploader.class);
-        when(mockUploader.upload(any(), anyMap())).thenReturn(Map.of("secure_url", "https://example.com/updated-image.jpg"));
+        when(mockUploader.uploadLarge(any(), anyMap(), anyInt())).thenReturn(Map.of("secure_url", "https://example.com/updated-image.jpg"));
         when(cloudinary.uploader()).thenReturn(mockUploader);
 
-        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub/1")
+        MvcResult pending = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub/1")
                         .file(new MockMultipartFile("image", "image.jpg", "image/jpeg", "image".getBytes()))
                         .file(new MockMultipartFile("questionModelDto", "", "application/json", """
                         {
@@ -302,6 +640,9 @@ class QuestionControllerIntegrationTest {
                             request.setMethod("PUT");
                             return request;
                         }))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value("Testfrage Mathe"))
                 .andExpect(jsonPath("$.questionText").value("Was ist die Hauptstadt von Italien?"))
@@ -324,13 +665,18 @@ class QuestionControllerIntegrationTest {
         );
 
         Uploader mockUploader = mock(Uploader.class);
-        when(mockUploader.upload(any(), anyMap())).thenReturn(Map.of("secure_url", "https://example.com/updated-image.jpg"));
+        when(mockUploader.uploadLarge(any(), anyMap(), anyInt())).thenReturn(Map.of("secure_url", "https://example.com/updated-image.jpg"));
         when(cloudinary.uploader()).thenReturn(mockUploader);
 
         mockMvc.perform(MockMvcRequestBuilders.delete("/api/quiz-hub/1"))
                 .andExpect(status().isNoContent());
 
         Assertions.assertFalse(questionRepository.existsById("1"));
+
+        // Das Bild wird erst vom Outbox-Worker gelöscht, nicht im Request
+        imageDeletionService.drain();
+        // timeout: der Hintergrund-Worker kann den Eintrag schon geholt haben
+        verify(mockUploader, timeout(5_000).times(1)).destroy(eq("image"), anyMap());
     }
 
     @Test
@@ -344,10 +690,10 @@ class QuestionControllerIntegrationTest {
         );
 
         Uploader mockUploader = mock(Uploader.class);
-        when(mockUploader.upload(any(), anyMap())).thenReturn(Map.of("secure_url", "https://example.com/updated-image.jpg"));
+        when(mockUploader.uploadLarge(any(), anyMap(), anyInt())).thenReturn(Map.of("secure_url", "https://example.com/updated-image.jpg"));
         when(cloudinary.uploader()).thenReturn(mockUploader);
 
-        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub/1")
+        MvcResult pending = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub/1")
                         .file(new MockMultipartFile("questionModelDto", "", "application/json", """
                         {
                             "title": "Testfrage Mathe",
@@ -371,6 +717,9 @@ class QuestionControllerIntegrationTest {
                             request.setMethod("PUT");
                             return request;
                         }))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.imageUrl").value(Matchers.nullValue()));
 
@@ -390,10 +739,10 @@ class QuestionControllerIntegrationTest {
         );
 
         Uploader mockUploader = mock(Uploader.class);
-        when(mockUploader.upload(any(), anyMap())).thenReturn(Map.of("secure_url", "https://example.com/image.jpg"));
+        when(mockUploader.uploadLarge(any(), anyMap(), anyInt())).thenReturn(Map.of("secure_url", "https://example.com/image.jpg"));
         when(cloudinary.uploader()).thenReturn(mockUploader);
 
-        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub/1")
+        MvcResult pending = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub/1")
                         // Kein 'image' File, um den else-Zweig zu triggern
                         .file(new MockMultipartFile("questionModelDto", "", "application/json", """
                     {
@@ -418,6 +767,9 @@ class QuestionControllerIntegrationTest {
                             request.setMethod("PUT");
                             return request;
                         }))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.imageUrl").value("https://example.com/image.jpg"))
                 .andExpect(jsonPath("$.questionText").value("Was ist geändert?"));
@@ -427,7 +779,7 @@ class QuestionControllerIntegrationTest {
     }
 
     @Test
-    void postBatchNoLogin_shouldReturnCreatedQuestions() throws Exception {
+    void postBatchNoLogin_shouldImportQuestionsAndReturnReport() throws Exception {
         questionRepository.deleteAll();
 
         String json = """
@@ -469,17 +821,17 @@ class QuestionControllerIntegrationTest {
                         .contentType("application/json")
                         .content(json))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].title").value("Frage 1 ohne Login"))
-                .andExpect(jsonPath("$[0].difficultyEnum").value("EASY"))
-                .andExpect(jsonPath("$[0].categoryEnum").value("ART"))
-                .andExpect(jsonPath("$[0].githubId").value("anonymous"))
-                .andExpect(jsonPath("$[1].title").value("Frage 2 ohne Login"))
-                .andExpect(jsonPath("$[1].difficultyEnum").value("MEDIUM"))
-                .andExpect(jsonPath("$[1].categoryEnum").value("GEOGRAPHY"))
-                .andExpect(jsonPath("$[1].githubId").value("anonymous"));
-
-        List<QuestionModel> savedQuestions = questionRepository.findAll();
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(0))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].index").value(0))
+                .andExpect(jsonPath("$.items[0].success").value(true))
+                .andExpect(jsonPath("$.items[0].id").exists())
+                .andExpect(jsonPath("$.items[1].index").value(1))
+                .andExpect(jsonPath("$.items[1].success").value(true));
+
+        List<QuestionModel> savedQuestions = questionRepository.findAll(Sort.by("title"));
         Assertions.assertEquals(2, savedQuestions.size());
 
         QuestionModel first = savedQuestions.get(0);
@@ -501,6 +853,9 @@ class QuestionControllerIntegrationTest {
                         "Kunst umfasst Malerei und andere kreative Ausdrucksformen.",
                         true,
                         "anonymous",
+                        null,
+                        null,
+                        false,
                         null
                 ));
 
@@ -523,8 +878,135 @@ class QuestionControllerIntegrationTest {
                         "Berlin ist die Hauptstadt von Deutschland.",
                         true,
                         "anonymous",
+                        null,
+                        null,
+                        false,
                         null
                 ));
     }
 
+    @Test
+    void postBatchNoLogin_shouldReportInvalidItemsAndImportTheRest() throws Exception {
+        questionRepository.deleteAll();
+        questionService.reloadActiveQuestions();
+
+        String json = """
+    [
+        {
+            "title": "Gültige Frage",
+            "difficultyEnum": "EASY",
+            "categoryEnum": "ART",
+            "questionText": "Was ist Kunst?",
+            "options": [
+                {"text": "Malerei", "isCorrect": true},
+                {"text": "Rechnen", "isCorrect": false},
+                {"text": "Sport", "isCorrect": false},
+                {"text": "Musik", "isCorrect": false}
+            ],
+            "answerExplanation": "Kunst umfasst Malerei.",
+            "isActive": true,
+            "githubId": "anonymous"
+        },
+        {
+            "title": "Zwei richtige Antworten",
+            "difficultyEnum": "EASY",
+            "categoryEnum": "ART",
+            "questionText": "Was ist Kunst?",
+            "options": [
+                {"text": "Malerei", "isCorrect": true},
+                {"text": "Musik", "isCorrect": true},
+                {"text": "Sport", "isCorrect": false},
+                {"text": "Rechnen", "isCorrect": false}
+            ],
+            "isActive": true
+        },
+        {
+            "title": "Unbekannte Kategorie",
+            "difficultyEnum": "EASY",
+            "categoryEnum": "NOPE"
+        }
+    ]
+    """;
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/quiz-hub/batch-no-login")
+                        .contentType("application/json")
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.items[0].success").value(true))
+                .andExpect(jsonPath("$.items[1].success").value(false))
+                .andExpect(jsonPath("$.items[1].errors[0]").value("options: Exactly one answer option must be marked as correct"))
+                .andExpect(jsonPath("$.items[2].success").value(false))
+                .andExpect(jsonPath("$.items[2].errors.length()").value(1));
+
+        Assertions.assertEquals(1, questionRepository.count());
+        mockMvc.perform(get("/api/quiz-hub/active-all"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Gültige Frage"));
+    }
+
+    @Test
+    void postBatchNoLogin_withMalformedJson_shouldKeepValidPrefixAndReturnBadRequest() throws Exception {
+        questionRepository.deleteAll();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/quiz-hub/batch-no-login")
+                        .contentType("application/json")
+                        .content("{\"title\": \"kein Array\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Request body must be a JSON array of questions"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/quiz-hub/batch-no-login")
+                        .contentType("application/json")
+                        .content("[{\"title\": "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.error").exists());
+
+        Assertions.assertEquals(0, questionRepository.count());
+    }
+
+    @Test
+    void recordedAnswers_shouldBeWrittenOnFlushAndExposeCorrectRate() throws Exception {
+        answerStatisticsService.flush();
+
+        // Antworten kommen nur noch aus Spielsessions, nicht mehr von einem offenen Endpunkt
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/quiz-hub/answers")
+                        .contentType("application/json")
+                        .content("[{\"questionId\": \"1\", \"correct\": true}]"))
+                .andExpect(status().isUnauthorized());
+        answerStatisticsService.recordAnswers(List.of(
+                new AnswerReport("1", true),
+                new AnswerReport("1", false),
+                new AnswerReport("1", true),
+                new AnswerReport("1", true),
+                new AnswerReport("2", true)
+        ));
+
+        // Frage 2 ist inaktiv und wird nicht gezählt
+        Assertions.assertNull(questionRepository.findById("1").orElseThrow().answerStatistics());
+        Assertions.assertEquals(1, answerStatisticsService.flush());
+
+        Assertions.assertEquals(new AnswerStatistics(4, 3), questionRepository.findById("1").orElseThrow().answerStatistics());
+        Assertions.assertNull(questionRepository.findById("2").orElseThrow().answerStatistics());
+        mockMvc.perform(get("/api/quiz-hub/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.answerStatistics.answered").value(4))
+                .andExpect(jsonPath("$.answerStatistics.correct").value(3))
+                .andExpect(jsonPath("$.answerStatistics.correctRate").value(0.75));
+        mockMvc.perform(get("/api/quiz-hub/active/kangaroo"))
+                .andExpect(jsonPath("$[0].answerStatistics.correctRate").value(0.75));
+    }
+
+    @Test
+    void updateQuestion_shouldKeepAnswerStatistics() {
+        answerStatisticsService.recordAnswers(List.of(new AnswerReport("1", true), new AnswerReport("1", false)));
+        answerStatisticsService.flush();
+
+        QuestionModel edited = questionRepository.findById("1").orElseThrow().withAnswerStatistics(null);
+        questionService.updateQuestion(edited);
+
+        Assertions.assertEquals(new AnswerStatistics(2, 1), questionRepository.findById("1").orElseThrow().answerStatistics());
+    }
 }
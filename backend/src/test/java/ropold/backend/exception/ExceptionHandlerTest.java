@@ -18,6 +18,7 @@ import ropold.backend.service.QuestionService;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -53,7 +54,7 @@ class ExceptionHandlerTest {
         questionRepository.deleteAll();
 
         Uploader mockUploader = mock(Uploader.class);
-        when(mockUploader.upload(any(), any())).thenReturn(Map.of("secure_url", "https://example.com/image1.jpg"));
+        when(mockUploader.uploadLarge(any(), any(), anyInt())).thenReturn(Map.of("secure_url", "https://example.com/image1.jpg"));
         when(cloudinary.uploader()).thenReturn(mockUploader);
 
         mockMvc.perform(MockMvcRequestBuilders.multipart("/api/quiz-hub")
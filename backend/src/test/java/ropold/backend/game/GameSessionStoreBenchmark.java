@@ -0,0 +1,79 @@
+package ropold.backend.game;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Retained heap per session of a filled {@link GameSessionStore}, reported as the {@code bytesPerSession} counter.
+ * The measured time is incidental. Run with {@code mvn -Pbenchmark test -Dbenchmark=GameSessionStoreBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseSerialGC"})
+public class GameSessionStoreBenchmark {
+
+    @Param({"100000"})
+    private int sessionCount;
+
+    private List<String> questionIds;
+    private GameSessionStore store;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long bytesPerSession;
+    }
+
+    @Setup(Level.Trial)
+    public void createQuestionIds() {
+        questionIds = IntStream.range(0, 2_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void createStore() {
+        store = new GameSessionStore(sessionCount, Duration.ofMinutes(30), Clock.systemUTC());
+        // Alle IDs vorab internieren, damit nur die Sessions selbst gemessen werden
+        for (int i = 0; i < questionIds.size(); i += 10) {
+            store.remove(store.create(questionIds.subList(i, i + 10), DifficultyEnum.RANDOM, null));
+        }
+    }
+
+    @Benchmark
+    public GameSessionStore fill(Footprint footprint) {
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < sessionCount; i++) {
+            store.create(questionIds.subList(i % 1_990, i % 1_990 + 10), DifficultyEnum.EASY, CategoryEnum.MUSIC);
+        }
+        footprint.bytesPerSession = (usedHeapAfterGc() - before) / sessionCount;
+        return store;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,142 @@
+package ropold.backend.game;
+
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.service.GameService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionStoreTest {
+
+    static final class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2025-03-05T12:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    MutableClock clock = new MutableClock();
+    GameSessionStore store = new GameSessionStore(1_000, Duration.ofMinutes(30), clock);
+
+    @Test
+    void create_shouldKeepQuestionOrderAndRoundSettings() {
+        GameSession session = store.create(List.of("q1", "q2", "q3"), DifficultyEnum.EASY, CategoryEnum.HISTORY);
+
+        assertSame(session, store.get(session.id()));
+        assertEquals(List.of("q1", "q2", "q3"), store.questionIds(session));
+        assertEquals("q2", store.questionId(session, 1));
+        assertEquals(DifficultyEnum.EASY, session.difficultyEnum());
+        assertEquals(CategoryEnum.HISTORY, session.categoryEnum());
+        assertNull(store.create(List.of("q1"), DifficultyEnum.RANDOM, null).categoryEnum());
+    }
+
+    @Test
+    void answer_shouldCountWrongAnswersOnceAndFinishWithLastAnswer() {
+        GameSession session = store.create(List.of("q1", "q2"), DifficultyEnum.EASY, null);
+
+        assertTrue(session.answer(0, false, clock.millis()));
+        assertFalse(session.answer(0, true, clock.millis()));
+        assertFalse(session.isFinished());
+        assertEquals(-1, session.finishedAfterMillis());
+
+        clock.advance(Duration.ofMillis(12_340));
+        assertTrue(session.answer(1, true, clock.millis()));
+
+        assertTrue(session.isFinished());
+        assertEquals(2, session.answeredCount());
+        assertEquals(1, session.wrongAnswerCount());
+        assertEquals(12_340, session.finishedAfterMillis());
+    }
+
+    @Test
+    void get_afterTtl_shouldReturnNull() {
+        GameSession session = store.create(List.of("q1"), DifficultyEnum.EASY, null);
+
+        clock.advance(Duration.ofMinutes(29));
+        assertNotNull(store.get(session.id()));
+        clock.advance(Duration.ofMinutes(1));
+
+        assertNull(store.get(session.id()));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void sweep_shouldRemoveOnlyExpiredSessions() {
+        store.create(List.of("q1"), DifficultyEnum.EASY, null);
+        clock.advance(Duration.ofMinutes(20));
+        GameSession younger = store.create(List.of("q2"), DifficultyEnum.EASY, null);
+        clock.advance(Duration.ofMinutes(15));
+
+        assertEquals(1, store.sweep());
+        assertEquals(1, store.size());
+        assertSame(younger, store.get(younger.id()));
+    }
+
+    @Test
+    void create_whenFull_shouldRejectUntilSessionsExpire() {
+        GameSessionStore small = new GameSessionStore(2, Duration.ofMinutes(30), clock);
+        small.create(List.of("q1"), DifficultyEnum.EASY, null);
+        small.create(List.of("q1"), DifficultyEnum.EASY, null);
+
+        assertNull(small.create(List.of("q1"), DifficultyEnum.EASY, null));
+
+        clock.advance(Duration.ofMinutes(30));
+        assertNotNull(small.create(List.of("q1"), DifficultyEnum.EASY, null));
+        assertEquals(1, small.size());
+    }
+
+    @Test
+    void remove_shouldSucceedOnlyOnce() {
+        GameSession session = store.create(List.of("q1"), DifficultyEnum.EASY, null);
+
+        assertTrue(store.remove(session));
+        assertFalse(store.remove(session));
+    }
+
+    @Test
+    void storeAtSessionCap_shouldHoldAllSessionsAndRejectUntilOneIsRemoved() {
+        int cap = GameService.MAX_SESSIONS;
+        List<String> questionIds = IntStream.range(0, 2_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+        GameSessionStore full = new GameSessionStore(cap, Duration.ofMinutes(30), clock);
+        GameSession first = null;
+        for (int i = 0; i < cap; i++) {
+            GameSession session = full.create(questionIds.subList(i % 1_990, i % 1_990 + 10), DifficultyEnum.EASY, CategoryEnum.MUSIC);
+            assertNotNull(session);
+            first = first == null ? session : first;
+        }
+
+        assertEquals(cap, full.size());
+        assertNull(full.create(questionIds.subList(0, 10), DifficultyEnum.EASY, null));
+        assertEquals(questionIds.subList(0, 10), full.questionIds(first));
+
+        assertTrue(full.remove(first));
+        assertNotNull(full.create(questionIds.subList(0, 10), DifficultyEnum.EASY, null));
+        assertEquals(cap, full.size());
+    }
+}
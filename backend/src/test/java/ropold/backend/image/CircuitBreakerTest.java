@@ -0,0 +1,99 @@
+package ropold.backend.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    MovableClock clock = new MovableClock();
+    CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(30), clock);
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onFailure();
+        }
+    }
+
+    @Test
+    void onFailure_shouldOpenAfterConsecutiveFailuresOnly() {
+        fail(2);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+        fail(2);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void tryAcquirePermission_afterOpenDuration_shouldAllowSingleTrialThatCloses() {
+        fail(3);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onFailure_duringTrial_shouldOpenAgain() {
+        fail(3);
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        clock.advance(Duration.ofSeconds(29));
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onIgnored_duringTrial_shouldAllowNextTrial() {
+        fail(3);
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onIgnored();
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    static final class MovableClock extends Clock {
+        private Instant instant = Instant.parse("2025-03-05T12:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
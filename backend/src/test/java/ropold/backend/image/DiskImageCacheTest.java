@@ -0,0 +1,126 @@
+package ropold.backend.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskImageCacheTest {
+
+    @TempDir
+    Path directory;
+
+    CircuitBreakerTest.MovableClock clock = new CircuitBreakerTest.MovableClock();
+
+    private static DiskImageCache.CachedImage put(DiskImageCache cache, String key, int size) throws IOException {
+        return cache.put(key, "image/jpeg", new ByteArrayInputStream(new byte[size]), 1_000);
+    }
+
+    @Test
+    void put_shouldStoreFileAndServeItFromTheIndex() throws Exception {
+        DiskImageCache cache = new DiskImageCache(directory, 1_000);
+
+        DiskImageCache.CachedImage image = cache.put("a", "image/png; charset=binary", new ByteArrayInputStream(new byte[]{1, 2, 3}), 1_000);
+
+        assertEquals(image, cache.get("a"));
+        assertEquals("image/png", image.contentType());
+        assertEquals(3, image.size());
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(image.path()));
+        assertEquals(3, cache.totalBytes());
+    }
+
+    @Test
+    void put_whenFull_shouldEvictLeastRecentlyUsed() throws Exception {
+        DiskImageCache cache = new DiskImageCache(directory, 250, clock);
+        DiskImageCache.CachedImage a = put(cache, "a", 100);
+        put(cache, "b", 100);
+        cache.get("a");
+
+        put(cache, "c", 100);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(200, cache.totalBytes());
+        assertTrue(Files.exists(a.path()));
+    }
+
+    @Test
+    void evictedFiles_shouldStayReadableUntilGraceHasPassed() throws Exception {
+        DiskImageCache cache = new DiskImageCache(directory, 150, clock);
+        DiskImageCache.CachedImage a = put(cache, "a", 100);
+        put(cache, "b", 100);
+        DiskImageCache.CachedImage c = put(cache, "c", 10);
+        cache.evict("c");
+
+        // Ein Request, der a oder c gerade ausliefert, kann die Dateien noch lesen
+        assertNull(cache.get("a"));
+        assertTrue(Files.exists(a.path()));
+        assertTrue(Files.exists(c.path()));
+
+        clock.advance(DiskImageCache.RETIRED_FILE_GRACE);
+        put(cache, "d", 10);
+
+        assertFalse(Files.exists(a.path()));
+        assertFalse(Files.exists(c.path()));
+        assertEquals(110, cache.totalBytes());
+    }
+
+    @Test
+    void evictedFile_reloadedUnderSameName_shouldNotBeDeletedLater() throws Exception {
+        DiskImageCache cache = new DiskImageCache(directory, 1_000, clock);
+        put(cache, "a", 100);
+        cache.evict("a");
+        DiskImageCache.CachedImage reloaded = put(cache, "a", 100);
+
+        clock.advance(DiskImageCache.RETIRED_FILE_GRACE);
+        put(cache, "b", 10);
+
+        assertEquals(reloaded, cache.get("a"));
+        assertTrue(Files.exists(reloaded.path()));
+    }
+
+    @Test
+    void put_withUnsupportedOrOversizedContent_shouldFailWithoutLeavingFiles() throws Exception {
+        DiskImageCache cache = new DiskImageCache(directory, 10_000);
+
+        assertThrows(IOException.class, () -> cache.put("svg", "image/svg+xml", new ByteArrayInputStream(new byte[1]), 1_000));
+        assertThrows(IOException.class, () -> put(cache, "big", 1_001));
+
+        assertEquals(0, cache.size());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void constructor_shouldRebuildIndexFromDirectoryInModificationOrder() throws Exception {
+        Files.write(directory.resolve("old.jpeg"), new byte[100]);
+        Files.write(directory.resolve("new.webp"), new byte[100]);
+        Files.write(directory.resolve("broken.1234.part"), new byte[50]);
+        Files.setLastModifiedTime(directory.resolve("old.jpeg"), FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(directory.resolve("new.webp"), FileTime.fromMillis(2_000));
+
+        DiskImageCache cache = new DiskImageCache(directory, 150);
+
+        assertNull(cache.get("old"));
+        assertEquals("image/webp", cache.get("new").contentType());
+        assertEquals(100, cache.totalBytes());
+        assertFalse(Files.exists(directory.resolve("broken.1234.part")));
+    }
+
+    @Test
+    void imageType_shouldOnlyAcceptRasterImages() {
+        assertEquals("jpeg", DiskImageCache.imageType("IMAGE/JPEG"));
+        assertEquals("avif", DiskImageCache.imageType("image/avif"));
+        assertNull(DiskImageCache.imageType("image/svg+xml"));
+        assertNull(DiskImageCache.imageType("text/html"));
+        assertNull(DiskImageCache.imageType(null));
+    }
+}
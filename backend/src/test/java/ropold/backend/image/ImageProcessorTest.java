@@ -0,0 +1,86 @@
+package ropold.backend.image;
+
+import org.junit.jupiter.api.Test;
+import ropold.backend.exception.InvalidImageException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageProcessorTest {
+
+    ImageProcessor imageProcessor = new ImageProcessor();
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage readJpeg(byte[] jpeg) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(jpeg))) {
+            ImageReader reader = ImageIO.getImageReaders(input).next();
+            assertEquals("jpeg", reader.getFormatName().toLowerCase());
+            reader.setInput(input);
+            return reader.read(0);
+        }
+    }
+
+    @Test
+    void createVariants_shouldRenderAllWidthsAndKeepAspectRatio() throws Exception {
+        List<ImageProcessor.EncodedVariant> variants = imageProcessor.createVariants(
+                png(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_RGB)));
+
+        assertEquals(List.of(320, 640, 1280), variants.stream().map(ImageProcessor.EncodedVariant::width).toList());
+        assertEquals(List.of(160, 320, 640), variants.stream().map(ImageProcessor.EncodedVariant::height).toList());
+        BufferedImage largest = readJpeg(variants.getLast().jpeg());
+        assertEquals(1280, largest.getWidth());
+        assertEquals(640, largest.getHeight());
+    }
+
+    @Test
+    void createVariants_withSmallImage_shouldNotUpscale() throws Exception {
+        List<ImageProcessor.EncodedVariant> variants = imageProcessor.createVariants(
+                png(new BufferedImage(500, 250, BufferedImage.TYPE_INT_RGB)));
+
+        assertEquals(List.of(320, 500), variants.stream().map(ImageProcessor.EncodedVariant::width).toList());
+    }
+
+    @Test
+    void createVariants_withTransparentImage_shouldFillWithWhite() throws Exception {
+        // Vollständig transparent: ohne Hintergrund würde JPEG hier schwarz
+        List<ImageProcessor.EncodedVariant> variants = imageProcessor.createVariants(
+                png(new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB)));
+
+        BufferedImage decoded = readJpeg(variants.getFirst().jpeg());
+        int rgb = decoded.getRGB(50, 50);
+        assertTrue((rgb & 0xFF) > 240 && ((rgb >> 8) & 0xFF) > 240 && ((rgb >> 16) & 0xFF) > 240);
+    }
+
+    @Test
+    void createVariants_withUnreadableData_shouldReturnEmptyList() throws Exception {
+        assertTrue(imageProcessor.createVariants("no image".getBytes()).isEmpty());
+    }
+
+    @Test
+    void createVariants_withTooManyPixels_shouldThrowBeforeDecoding() throws Exception {
+        // Nur der Header zählt: 10000 x 6000 einfarbig ist als PNG klein, dekodiert aber 240 MB
+        byte[] huge = png(new BufferedImage(10_000, 6_000, BufferedImage.TYPE_BYTE_BINARY));
+
+        assertThrows(InvalidImageException.class, () -> imageProcessor.createVariants(huge));
+    }
+
+    @Test
+    void targetWidths_shouldSkipWidthsAboveTheSource() {
+        assertArrayEquals(new int[]{320, 640, 1280}, ImageProcessor.targetWidths(1280));
+        assertArrayEquals(new int[]{320, 640, 1280}, ImageProcessor.targetWidths(4000));
+        assertArrayEquals(new int[]{200}, ImageProcessor.targetWidths(200));
+    }
+}
@@ -0,0 +1,60 @@
+package ropold.backend.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalImageStorageTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void uploadImage_shouldWriteStreamAndDeleteImage_shouldRemoveIt() throws IOException {
+        LocalImageStorage storage = new LocalImageStorage(directory.resolve("images"));
+
+        String imageUrl = storage.uploadImage(new ByteArrayInputStream("image".getBytes()), "Bild.JPG");
+
+        Path stored = Path.of(URI.create(imageUrl));
+        assertTrue(stored.getFileName().toString().endsWith(".jpg"));
+        assertEquals("image", Files.readString(stored));
+
+        storage.deleteImage(imageUrl);
+        assertFalse(Files.exists(stored));
+    }
+
+    @Test
+    void uploadImage_withBrokenStream_shouldLeaveNoFileBehind() throws IOException {
+        LocalImageStorage storage = new LocalImageStorage(directory);
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+
+        assertThrows(IOException.class, () -> storage.uploadImage(broken, "image.png"));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void deleteImage_outsideOfDirectory_shouldBeIgnored() throws IOException {
+        LocalImageStorage storage = new LocalImageStorage(directory.resolve("images"));
+        Path outside = Files.writeString(directory.resolve("other.jpg"), "keep");
+
+        storage.deleteImage(outside.toUri().toString());
+        storage.deleteImage("https://res.cloudinary.com/demo/image.jpg");
+
+        assertTrue(Files.exists(outside));
+    }
+}
@@ -0,0 +1,176 @@
+package ropold.backend.image;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ropold.backend.exception.ImageStorageUnavailableException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientImageStorageTest {
+
+    SlowImageStorage slowStorage = new SlowImageStorage();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CircuitBreakerTest.MovableClock clock = new CircuitBreakerTest.MovableClock();
+    ResilientImageStorage storage = new ResilientImageStorage(slowStorage, meterRegistry,
+            new CircuitBreaker(3, Duration.ofSeconds(30), clock), 2, Duration.ofMillis(200), Duration.ofMillis(200));
+
+    @AfterEach
+    void tearDown() {
+        slowStorage.release.countDown();
+        storage.close();
+    }
+
+    private static InputStream image() {
+        return new ByteArrayInputStream("image".getBytes());
+    }
+
+    private double state(String state) {
+        return meterRegistry.get("image.storage.circuit.state").tag("state", state).gauge().value();
+    }
+
+    private double calls(String outcome) {
+        return meterRegistry.get("image.storage.calls").tag("outcome", outcome).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    @Test
+    void uploadImage_withHealthyStorage_shouldDelegate() throws IOException {
+        slowStorage.release.countDown();
+
+        assertEquals("https://example.com/a.jpg", storage.uploadImage(image(), "a.jpg"));
+        storage.deleteImage("https://example.com/a.jpg");
+
+        assertEquals(1, slowStorage.deletes.get());
+        assertEquals(2, calls("success"));
+        assertEquals(1, state("closed"));
+        assertEquals(2, meterRegistry.get("image.storage.bulkhead.available").gauge().value());
+    }
+
+    @Test
+    void uploadImage_withHangingStorage_shouldTimeOutAndReleaseSlotWhenCallEnds() throws Exception {
+        long start = System.nanoTime();
+        assertThrows(ImageStorageUnavailableException.class, () -> storage.uploadImage(image(), "a.jpg"));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+        assertEquals(1, calls("timeout"));
+        assertEquals(CircuitBreaker.State.CLOSED, storage.circuitState());
+        // Der Aufruf wird unterbrochen und gibt seinen Platz frei, sobald er tatsächlich endet
+        assertTrue(slowStorage.interrupted.await(2, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (meterRegistry.get("image.storage.bulkhead.available").gauge().value() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, meterRegistry.get("image.storage.bulkhead.available").gauge().value());
+    }
+
+    @Test
+    void bulkhead_whenFull_shouldRejectImmediately() throws Exception {
+        slowStorage.ignoreInterrupts = true;
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = callers.submit(() -> storage.uploadImage(image(), "a.jpg"));
+            Future<?> second = callers.submit(() -> storage.uploadImage(image(), "b.jpg"));
+            assertTrue(slowStorage.started.await(2, TimeUnit.SECONDS));
+            assertEquals(0, meterRegistry.get("image.storage.bulkhead.available").gauge().value());
+
+            assertThrows(ImageStorageUnavailableException.class, () -> storage.uploadImage(image(), "c.jpg"));
+            assertEquals(1, calls("rejected"));
+            assertEquals(2, slowStorage.uploads.get());
+
+            // Nach dem Timeout hängen beide Aufrufe noch, die Plätze bleiben belegt
+            assertThrows(Exception.class, () -> first.get(2, TimeUnit.SECONDS));
+            assertThrows(Exception.class, () -> second.get(2, TimeUnit.SECONDS));
+            assertEquals(0, meterRegistry.get("image.storage.bulkhead.available").gauge().value());
+
+            slowStorage.release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (meterRegistry.get("image.storage.bulkhead.available").gauge().value() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, meterRegistry.get("image.storage.bulkhead.available").gauge().value());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void circuitBreaker_afterRepeatedFailures_shouldShortCircuitAndRecover() throws IOException {
+        slowStorage.release.countDown();
+        slowStorage.failing = true;
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IOException.class, () -> storage.uploadImage(image(), "a.jpg"));
+        }
+        assertEquals(1, state("open"));
+        assertEquals(0, state("closed"));
+
+        assertThrows(ImageStorageUnavailableException.class, () -> storage.uploadImage(image(), "a.jpg"));
+        assertThrows(ImageStorageUnavailableException.class, () -> storage.deleteImage("https://example.com/a.jpg"));
+        assertEquals(3, slowStorage.uploads.get());
+        assertEquals(0, slowStorage.deletes.get());
+        assertEquals(2, calls("short_circuited"));
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(1, state("half_open"));
+        slowStorage.failing = false;
+
+        assertEquals("https://example.com/a.jpg", storage.uploadImage(image(), "a.jpg"));
+        assertEquals(1, state("closed"));
+    }
+
+    // Fake-Bildspeicher, der hängt, bis er freigegeben wird
+    static final class SlowImageStorage implements ImageStorage {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AtomicInteger uploads = new AtomicInteger();
+        final AtomicInteger deletes = new AtomicInteger();
+        volatile boolean ignoreInterrupts;
+        volatile boolean failing;
+
+        @Override
+        public String uploadImage(InputStream content, String filename) throws IOException {
+            uploads.incrementAndGet();
+            started.countDown();
+            awaitRelease();
+            if (failing) {
+                throw new IOException("storage down");
+            }
+            return "https://example.com/" + filename;
+        }
+
+        @Override
+        public void deleteImage(String imageUrl) {
+            deletes.incrementAndGet();
+            awaitRelease();
+        }
+
+        private void awaitRelease() {
+            while (true) {
+                try {
+                    release.await();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    if (!ignoreInterrupts) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
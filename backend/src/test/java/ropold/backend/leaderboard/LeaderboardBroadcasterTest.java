@@ -0,0 +1,189 @@
+package ropold.backend.leaderboard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreEntry;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.LeaderboardUpdate;
+import ropold.backend.model.RankChange;
+import ropold.backend.service.HighScoreService;
+import ropold.backend.service.UserProfileService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardBroadcasterTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+
+    private static HighScoreModel score(String id, double scoreTime) {
+        return new HighScoreModel(id, "player", "123456", DifficultyEnum.EASY, "Kangaroo", 0, scoreTime, DATE);
+    }
+
+    private static List<HighScoreEntry> withoutProfiles(List<HighScoreModel> scores) {
+        return scores.stream().map(score -> HighScoreEntry.of(score, null)).toList();
+    }
+
+    @Test
+    void diff_shouldResolveProfilesOnlyForChangedRanksInOneBatch() {
+        HighScoreModel a = score("a", 1.0);
+        HighScoreModel b = score("b", 2.0);
+        List<List<HighScoreModel>> batches = new ArrayList<>();
+
+        LeaderboardBroadcaster.diff(DifficultyEnum.EASY, List.of(a), List.of(a, b), scores -> {
+            batches.add(scores);
+            return withoutProfiles(scores);
+        });
+
+        assertEquals(List.of(List.of(b)), batches);
+    }
+
+    @Test
+    void diff_fromEmpty_shouldContainWholeBoard() {
+        List<HighScoreModel> board = List.of(score("a", 1.0), score("b", 2.0));
+
+        LeaderboardUpdate update = LeaderboardBroadcaster.diff(DifficultyEnum.EASY, List.of(), board, LeaderboardBroadcasterTest::withoutProfiles);
+
+        assertEquals(new LeaderboardUpdate(DifficultyEnum.EASY,
+                List.of(new RankChange(1, HighScoreEntry.of(board.get(0), null)), new RankChange(2, HighScoreEntry.of(board.get(1), null))), List.of(), 2), update);
+    }
+
+    @Test
+    void diff_shouldOnlyContainMovedAndNewEntries() {
+        HighScoreModel a = score("a", 1.0);
+        HighScoreModel b = score("b", 2.0);
+        HighScoreModel c = score("c", 3.0);
+        HighScoreModel d = score("d", 4.0);
+        HighScoreModel newcomer = score("n", 2.5);
+
+        LeaderboardUpdate update = LeaderboardBroadcaster.diff(DifficultyEnum.EASY,
+                List.of(a, b, c, d), List.of(a, b, newcomer, c), LeaderboardBroadcasterTest::withoutProfiles);
+
+        assertEquals(List.of(new RankChange(3, HighScoreEntry.of(newcomer, null)), new RankChange(4, HighScoreEntry.of(c, null))), update.changes());
+        assertEquals(List.of("d"), update.removedIds());
+        assertEquals(4, update.size());
+    }
+
+    @Test
+    void diff_withoutChanges_shouldBeEmpty() {
+        List<HighScoreModel> board = List.of(score("a", 1.0));
+
+        LeaderboardUpdate update = LeaderboardBroadcaster.diff(DifficultyEnum.EASY, board, board, LeaderboardBroadcasterTest::withoutProfiles);
+
+        assertEquals(List.of(), update.changes());
+        assertEquals(List.of(), update.removedIds());
+    }
+
+    @Test
+    void stalledSubscribers_shouldNotDelayOthersAndBeDroppedAfterSendTimeout() throws Exception {
+        HighScoreService highScoreService = mock(HighScoreService.class);
+        UserProfileService userProfileService = mock(UserProfileService.class);
+        when(highScoreService.getHighScoresByDifficulty(any())).thenReturn(List.of(score("a", 1.0)));
+        when(userProfileService.enrich(anyList())).thenAnswer(invocation -> withoutProfiles(invocation.getArgument(0)));
+        LeaderboardBroadcaster broadcaster = new LeaderboardBroadcaster(highScoreService, userProfileService, Duration.ofMillis(200), 2);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Mehr hängende Clients als der Pool Threads hat; der Watchdog muss die Threads wieder freigeben
+            for (int i = 0; i < 8; i++) {
+                broadcaster.subscribe(new StallingEmitter(release), Set.of(DifficultyEnum.EASY));
+            }
+            RecordingEmitter healthy = new RecordingEmitter();
+            broadcaster.subscribe(healthy, Set.of(DifficultyEnum.EASY));
+
+            assertTrue(healthy.received.await(2, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (broadcaster.subscriberCount() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, broadcaster.subscriberCount());
+        } finally {
+            release.countDown();
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void leaderboardChange_shouldLoadAndEnrichBoardOnceForAllSubscribers() throws Exception {
+        HighScoreService highScoreService = mock(HighScoreService.class);
+        UserProfileService userProfileService = mock(UserProfileService.class);
+        when(highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY))
+                .thenReturn(List.of(score("a", 1.0)))
+                .thenReturn(List.of(score("b", 0.5), score("a", 1.0)));
+        when(userProfileService.enrich(anyList())).thenAnswer(invocation -> withoutProfiles(invocation.getArgument(0)));
+        LeaderboardBroadcaster broadcaster = new LeaderboardBroadcaster(highScoreService, userProfileService, Duration.ofSeconds(10), 2);
+        try {
+            List<RecordingEmitter> emitters = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                broadcaster.subscribe(emitter, Set.of(DifficultyEnum.EASY));
+            }
+            for (RecordingEmitter emitter : emitters) {
+                assertTrue(emitter.sent.tryAcquire(2, TimeUnit.SECONDS));
+            }
+            clearInvocations(highScoreService, userProfileService);
+
+            broadcaster.onLeaderboardChanged(new LeaderboardChangedEvent(DifficultyEnum.EASY));
+
+            for (RecordingEmitter emitter : emitters) {
+                assertTrue(emitter.sent.tryAcquire(2, TimeUnit.SECONDS));
+            }
+            verify(highScoreService, times(1)).getHighScoresByDifficulty(DifficultyEnum.EASY);
+            verify(userProfileService, times(1)).enrich(anyList());
+        } finally {
+            broadcaster.shutdown();
+        }
+    }
+
+    private static final class StallingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+
+        private StallingEmitter(CountDownLatch release) {
+            super(0L);
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch received = new CountDownLatch(1);
+        private final Semaphore sent = new Semaphore(0);
+
+        private RecordingEmitter() {
+            super(0L);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            received.countDown();
+            sent.release();
+        }
+    }
+}
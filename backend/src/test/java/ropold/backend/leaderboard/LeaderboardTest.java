@@ -0,0 +1,113 @@
+package ropold.backend.leaderboard;
+
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+
+    private static HighScoreModel score(String id, int wrongAnswerCount, double scoreTime) {
+        return new HighScoreModel(id, "player", "123456", DifficultyEnum.EASY, "Kangaroo", wrongAnswerCount, scoreTime, DATE);
+    }
+
+    @Test
+    void offer_shouldOrderByWrongAnswersThenTimeAndEvictWorst() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.offer(score("a", 1, 5.0));
+        leaderboard.offer(score("b", 0, 9.0));
+        leaderboard.offer(score("c", 0, 7.0));
+
+        Leaderboard.OfferResult result = leaderboard.offer(score("d", 0, 8.0));
+
+        assertTrue(result.accepted());
+        assertEquals(List.of(score("a", 1, 5.0)), result.evicted());
+        assertEquals(List.of("c", "d", "b"), leaderboard.snapshot().stream().map(HighScoreModel::id).toList());
+    }
+
+    @Test
+    void offer_shouldRejectScoreEqualToOrWorseThanLastPlace() {
+        Leaderboard leaderboard = new Leaderboard(2);
+        leaderboard.offer(score("a", 0, 5.0));
+        leaderboard.offer(score("b", 0, 6.0));
+
+        assertFalse(leaderboard.offer(score("c", 0, 6.0)).accepted());
+        assertFalse(leaderboard.offer(score("d", 1, 1.0)).accepted());
+        assertEquals(List.of("a", "b"), leaderboard.snapshot().stream().map(HighScoreModel::id).toList());
+    }
+
+    @Test
+    void reset_shouldKeepBestAndReturnSurplus() {
+        Leaderboard leaderboard = new Leaderboard(2);
+
+        List<HighScoreModel> surplus = leaderboard.reset(List.of(score("a", 2, 1.0), score("b", 0, 3.0), score("c", 0, 2.0)));
+
+        assertEquals(List.of("c", "b"), leaderboard.snapshot().stream().map(HighScoreModel::id).toList());
+        assertEquals(List.of(score("a", 2, 1.0)), surplus);
+    }
+
+    @Test
+    void offer_underHeavyContention_keepsExactlyTheTopN() throws Exception {
+        int capacity = 10;
+        int threads = 16;
+        int offersPerThread = 20_000;
+        Leaderboard leaderboard = new Leaderboard(capacity);
+        Queue<HighScoreModel> offered = new ConcurrentLinkedQueue<>();
+        Queue<HighScoreModel> accepted = new ConcurrentLinkedQueue<>();
+        Queue<HighScoreModel> evicted = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int seed = thread;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int i = 0; i < offersPerThread; i++) {
+                        // Wenige verschiedene Werte, damit es viele Gleichstände gibt
+                        HighScoreModel score = score(seed + "-" + i, random.nextInt(4), random.nextInt(2_000) / 10.0);
+                        offered.add(score);
+                        Leaderboard.OfferResult result = leaderboard.offer(score);
+                        if (result.accepted()) {
+                            accepted.add(score);
+                        }
+                        evicted.addAll(result.evicted());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        List<HighScoreModel> expectedTop = offered.stream().sorted(Leaderboard.RANKING).limit(capacity).toList();
+        List<HighScoreModel> actual = leaderboard.snapshot();
+        assertEquals(capacity, actual.size());
+        // Gleichstände in (Fehler, Zeit) dürfen in beliebiger Reihenfolge ankommen
+        for (int i = 0; i < capacity; i++) {
+            assertEquals(expectedTop.get(i).wrongAnswerCount(), actual.get(i).wrongAnswerCount());
+            assertEquals(expectedTop.get(i).scoreTime(), actual.get(i).scoreTime());
+        }
+        List<HighScoreModel> stillListed = new ArrayList<>(accepted);
+        stillListed.removeAll(evicted);
+        assertEquals(new HashSet<>(actual), new HashSet<>(stillListed));
+    }
+}
@@ -0,0 +1,83 @@
+package ropold.backend.leaderboard;
+
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedLeaderboardTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+
+    private static HighScoreModel score(String id, int wrongAnswerCount, double scoreTime) {
+        return new HighScoreModel(id, "player", "123456", DifficultyEnum.EASY, "Kangaroo", wrongAnswerCount, scoreTime, DATE);
+    }
+
+    @Test
+    void offer_shouldEvictWorstWhenFull() {
+        RankedLeaderboard leaderboard = new RankedLeaderboard(2);
+        leaderboard.offer(score("a", 0, 5.0));
+        leaderboard.offer(score("b", 0, 6.0));
+
+        Leaderboard.OfferResult result = leaderboard.offer(score("c", 0, 4.0));
+
+        assertTrue(result.accepted());
+        assertEquals(List.of(score("b", 0, 6.0)), result.evicted());
+        assertFalse(leaderboard.offer(score("d", 0, 5.0)).accepted());
+        assertEquals(List.of("c", "a"), leaderboard.page(0, 10).stream().map(HighScoreModel::id).toList());
+    }
+
+    @Test
+    void ranksAndPages_shouldMatchSortedReference() {
+        RankedLeaderboard leaderboard = new RankedLeaderboard(5_000);
+        List<HighScoreModel> reference = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            HighScoreModel score = score("id-" + i, random.nextInt(5), random.nextInt(3_000) / 10.0);
+            leaderboard.offer(score);
+            reference.add(score);
+            if (i % 7 == 0) {
+                // Zwischendurch auch löschen, damit die Teilbaumgrößen nach merge stimmen müssen
+                HighScoreModel victim = reference.get(random.nextInt(reference.size()));
+                leaderboard.remove(victim);
+                reference.remove(victim);
+            }
+        }
+        List<HighScoreModel> expected = reference.stream().sorted(Leaderboard.RANKING).limit(5_000).toList();
+
+        assertEquals(expected.size(), leaderboard.size());
+        assertEquals(expected, leaderboard.page(0, 5_000));
+        assertEquals(expected.subList(1_234, 1_334), leaderboard.page(1_234, 100));
+        assertEquals(List.of(), leaderboard.page(5_000, 10));
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertEquals(i + 1, leaderboard.rankOf(expected.get(i)));
+        }
+        for (int i = 0; i < 200; i++) {
+            int wrong = random.nextInt(5);
+            double time = random.nextInt(3_000) / 10.0;
+            long atLeastAsGood = expected.stream()
+                    .filter(s -> s.wrongAnswerCount() < wrong || (s.wrongAnswerCount() == wrong && s.scoreTime() <= time))
+                    .count();
+            assertEquals(atLeastAsGood + 1, leaderboard.rankFor(wrong, time));
+        }
+        assertEquals(-1, leaderboard.rankOf(score("unknown", 9, 999.0)));
+    }
+
+    @Test
+    void reset_shouldKeepBestAndReturnSurplus() {
+        RankedLeaderboard leaderboard = new RankedLeaderboard(2);
+
+        List<HighScoreModel> surplus = leaderboard.reset(List.of(score("a", 2, 1.0), score("b", 0, 3.0), score("c", 0, 2.0)));
+
+        assertEquals(List.of("c", "b"), leaderboard.page(0, 2).stream().map(HighScoreModel::id).toList());
+        assertEquals(List.of(score("a", 2, 1.0)), surplus);
+        assertEquals(2, leaderboard.rankOf(score("b", 0, 3.0)));
+    }
+}
@@ -0,0 +1,117 @@
+package ropold.backend.leaderboard;
+
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.LeaderboardWindow;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedLeaderboardsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 5, 12, 30, 0);
+
+    private Instant now = START.toInstant(ZoneOffset.UTC);
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    private final WindowedLeaderboards windows = new WindowedLeaderboards(3, clock);
+
+    private static HighScoreModel score(String id, double scoreTime, LocalDateTime date) {
+        return new HighScoreModel(id, "player", "1", DifficultyEnum.EASY, "Kangaroo", 0, scoreTime, date);
+    }
+
+    @Test
+    void dailyWindow_shouldDropScoresOnceTheirHourLeavesTheWindow() {
+        HighScoreModel morning = score("morning", 5.0, START.minusHours(3));
+        windows.offer(morning);
+
+        assertEquals(List.of(morning), windows.top(LeaderboardWindow.DAILY, DifficultyEnum.EASY));
+
+        now = now.plus(Duration.ofHours(20));
+        assertEquals(List.of(morning), windows.top(LeaderboardWindow.DAILY, DifficultyEnum.EASY));
+
+        now = now.plus(Duration.ofHours(1));
+        assertEquals(List.of(), windows.top(LeaderboardWindow.DAILY, DifficultyEnum.EASY));
+        assertTrue(windows.contains(morning));
+        assertEquals(List.of(morning), windows.top(LeaderboardWindow.WEEKLY, DifficultyEnum.EASY));
+    }
+
+    @Test
+    void windowTop_shouldMergeBucketsAndKeepCapacity() {
+        for (int day = 0; day < 5; day++) {
+            for (int i = 0; i < 4; i++) {
+                windows.offer(score(day + "-" + i, 10.0 * i + day, START.minusDays(day)));
+            }
+        }
+
+        List<String> weekly = windows.top(LeaderboardWindow.WEEKLY, DifficultyEnum.EASY).stream().map(HighScoreModel::id).toList();
+        List<String> daily = windows.top(LeaderboardWindow.DAILY, DifficultyEnum.EASY).stream().map(HighScoreModel::id).toList();
+
+        assertEquals(List.of("0-0", "1-0", "2-0"), weekly);
+        assertEquals(List.of("0-0", "0-1", "0-2"), daily);
+    }
+
+    @Test
+    void offer_shouldIgnoreExpiredAndClampFutureDates() {
+        HighScoreModel ancient = score("ancient", 1.0, START.minusDays(40));
+        HighScoreModel future = score("future", 2.0, START.plusHours(2));
+
+        windows.offer(ancient);
+        windows.offer(future);
+
+        assertFalse(windows.contains(ancient));
+        assertEquals(List.of(future), windows.top(LeaderboardWindow.DAILY, DifficultyEnum.EASY));
+        assertEquals(START.toLocalDate().plusDays(30).atStartOfDay().toInstant(ZoneOffset.UTC), windows.expiresAt(future));
+    }
+
+    @Test
+    void remove_afterFutureDateHasPassed_shouldFindTheBucketChosenOnInsert() {
+        HighScoreModel future = score("future", 2.0, START.plusDays(2));
+        windows.offer(future);
+        Instant expiresAt = windows.expiresAt(future);
+
+        now = now.plus(Duration.ofDays(3));
+        assertTrue(windows.contains(future));
+        assertEquals(expiresAt, windows.expiresAt(future));
+
+        windows.remove(future);
+
+        assertFalse(windows.contains(future));
+        assertEquals(List.of(), windows.top(LeaderboardWindow.WEEKLY, DifficultyEnum.EASY));
+    }
+
+    @Test
+    void offer_shouldReportScoresPushedOutOfABucket() {
+        windows.offer(score("a", 1.0, START));
+        windows.offer(score("b", 2.0, START));
+        windows.offer(score("c", 3.0, START));
+
+        List<HighScoreModel> evicted = windows.offer(score("d", 0.5, START));
+
+        assertEquals(List.of(score("c", 3.0, START), score("c", 3.0, START)), evicted);
+        assertFalse(windows.contains(score("c", 3.0, START)));
+    }
+}
@@ -0,0 +1,129 @@
+package ropold.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.AppUser;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.service.AppUserService;
+import ropold.backend.service.QuestionService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AtomicUpdateConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @BeforeEach
+    void setUp() {
+        questionRepository.deleteAll();
+        appUserRepository.deleteAll();
+        questionRepository.save(new QuestionModel(
+                "1",
+                "Testfrage",
+                DifficultyEnum.EASY,
+                CategoryEnum.ART,
+                "Was ist Kunst?",
+                List.of(
+                        new AnswerOption("Malerei", true),
+                        new AnswerOption("Rechnen", false),
+                        new AnswerOption("Sport", false),
+                        new AnswerOption("Musik", false)
+                ),
+                "Kunst umfasst Malerei.",
+                true,
+                "user",
+                null,
+                null,
+                false,
+                null
+        ));
+        appUserRepository.save(new AppUser("user", "username", "Max Mustermann", "avatar", "github", new ArrayList<>(List.of("keep"))));
+        questionService.reloadActiveQuestions();
+    }
+
+    private void hammer(IntConsumerWithThread operation) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadIndex = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operation.accept(threadIndex, i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntConsumerWithThread {
+        void accept(int thread, int operation);
+    }
+
+    @Test
+    void toggleQuestionActive_fromManyThreads_losesNoToggle() throws Exception {
+        // Gerade Anzahl an Umschaltungen: am Ende muss der Ausgangszustand stehen
+        hammer((thread, operation) -> questionService.toggleQuestionActive("1"));
+
+        assertTrue(questionRepository.findById("1").orElseThrow().isActive());
+        assertEquals(List.of("1"), questionService.getAllActiveQuestions().stream().map(QuestionModel::id).toList());
+    }
+
+    @Test
+    void addAndRemoveFavorites_fromManyThreads_keepEveryConcurrentChange() throws Exception {
+        hammer((thread, operation) -> {
+            String questionId = "q-" + thread + "-" + operation;
+            appUserService.addQuestionToFavoriteQuestions("user", questionId);
+            appUserService.addQuestionToFavoriteQuestions("user", questionId);
+            if (operation % 2 == 1) {
+                appUserService.removeQuestionFromFavoriteQuestions("user", questionId);
+            }
+        });
+
+        List<String> favorites = appUserRepository.findById("user").orElseThrow().favoriteQuestions();
+        Set<String> expected = new HashSet<>(Set.of("keep"));
+        IntStream.range(0, THREADS).forEach(thread -> IntStream.range(0, OPERATIONS_PER_THREAD)
+                .filter(operation -> operation % 2 == 0)
+                .forEach(operation -> expected.add("q-" + thread + "-" + operation)));
+
+        assertEquals(expected.size(), favorites.size());
+        assertEquals(expected, new HashSet<>(favorites));
+    }
+}
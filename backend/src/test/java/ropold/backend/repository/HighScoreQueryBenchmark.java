@@ -0,0 +1,109 @@
+package ropold.backend.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard read latency against an embedded mongod, with and without the declared
+ * {@code difficulty_wrong_time} index, for the sorted per-difficulty read that rebuilds the in-memory leaderboards.
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=HighScoreQueryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HighScoreQueryBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000000"})
+    private int storedScores;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private MongoClient client;
+    private HighScoreRepository repository;
+
+    @Setup(Level.Trial)
+    public void startMongoAndSeed() {
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        client = MongoClients.create("mongodb://" + mongod.current().getServerAddress());
+        MongoTemplate mongoTemplate = new MongoTemplate(client, "high-score-benchmark");
+        mongoTemplate.dropCollection(HighScoreModel.class);
+        repository = new MongoRepositoryFactory(mongoTemplate).getRepository(HighScoreRepository.class);
+
+        IndexOperations indexOperations = mongoTemplate.indexOps(HighScoreModel.class);
+        if (indexed) {
+            IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(HighScoreModel.class)
+                    .forEach(indexOperations::ensureIndex);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        DifficultyEnum[] difficulties = DifficultyEnum.values();
+        LocalDateTime date = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+        List<HighScoreModel> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < storedScores; i++) {
+            batch.add(new HighScoreModel(
+                    "score-" + i,
+                    "player" + random.nextInt(10_000),
+                    String.valueOf(random.nextInt(100_000)),
+                    difficulties[random.nextInt(difficulties.length)],
+                    "Kangaroo",
+                    random.nextInt(6),
+                    random.nextInt(6_000) / 10.0,
+                    date.plusSeconds(i)));
+            if (batch.size() == BATCH_SIZE) {
+                mongoTemplate.insert(batch, HighScoreModel.class);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.insert(batch, HighScoreModel.class);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopMongo() {
+        client.close();
+        mongod.close();
+    }
+
+    @Benchmark
+    public List<HighScoreModel> sortedDifficultyRead() {
+        return repository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(DifficultyEnum.EASY);
+    }
+}
@@ -0,0 +1,78 @@
+package ropold.backend.repository;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.service.HighScoreService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Sorts.ascending;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class HighScoreRepositoryIndexTest {
+
+    @Autowired
+    private HighScoreRepository highScoreRepository;
+
+    @Autowired
+    private HighScoreService highScoreService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<HighScoreModel> scores = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        highScoreService.flushPendingWrites();
+        highScoreRepository.deleteAll();
+        scores.clear();
+
+        LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+        for (int i = 0; i < 300; i++) {
+            scores.add(new HighScoreModel(
+                    String.valueOf(i),
+                    "player" + i,
+                    "githubId" + i,
+                    DifficultyEnum.values()[i % DifficultyEnum.values().length],
+                    "Kangaroo",
+                    (i * 7) % 4,
+                    (i * 37) % 200 / 2.0,
+                    fixedDate
+            ));
+        }
+        highScoreRepository.saveAll(scores);
+    }
+
+    @Test
+    void sortedDifficultyQuery_shouldAvoidInMemorySortViaCompoundIndex() {
+        // Abfrage von HighScoreService.reloadLeaderboards
+        String plan = winningPlan(collection().find(eq("difficultyEnum", DifficultyEnum.EASY.name()))
+                .sort(ascending("wrongAnswerCount", "scoreTime")));
+
+        assertTrue(plan.contains("difficulty_wrong_time"), "Expected the compound index but got " + plan);
+        assertFalse(plan.contains("\"SORT\""), "Unexpected blocking sort: " + plan);
+        assertFalse(plan.contains("COLLSCAN"), "Unexpected collection scan: " + plan);
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(HighScoreModel.class));
+    }
+
+    private static String winningPlan(FindIterable<Document> query) {
+        return query.explain().get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+    }
+}
@@ -0,0 +1,46 @@
+package ropold.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ropold.backend.model.ImageDeletion;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ImageDeletionRepositoryCustomImplTest {
+
+    @Autowired
+    private ImageDeletionRepository imageDeletionRepository;
+
+    // Weit in der Zukunft, damit der Hintergrund-Worker die Einträge nicht anfasst
+    private final Instant now = Instant.now().plus(Duration.ofDays(365)).truncatedTo(ChronoUnit.MILLIS);
+
+    @BeforeEach
+    void setUp() {
+        imageDeletionRepository.deleteAll();
+    }
+
+    @Test
+    void claimNextDue_shouldReturnOldestDueEntryAndLeaseIt() {
+        imageDeletionRepository.insert(new ImageDeletion(null, "https://example.com/later.jpg", 0, now.plusSeconds(60), now, null));
+        imageDeletionRepository.insert(new ImageDeletion(null, "https://example.com/second.jpg", 0, now.minusSeconds(10), now, null));
+        imageDeletionRepository.insert(new ImageDeletion(null, "https://example.com/first.jpg", 0, now.minusSeconds(20), now, null));
+        Instant leaseUntil = now.plus(Duration.ofMinutes(5));
+
+        ImageDeletion first = imageDeletionRepository.claimNextDue(now, leaseUntil);
+        ImageDeletion second = imageDeletionRepository.claimNextDue(now, leaseUntil);
+
+        assertEquals("https://example.com/first.jpg", first.imageUrl());
+        assertEquals(leaseUntil, first.nextAttemptAt());
+        assertEquals("https://example.com/second.jpg", second.imageUrl());
+        // Geleaste und noch nicht fällige Einträge bleiben liegen
+        assertNull(imageDeletionRepository.claimNextDue(now, leaseUntil));
+        assertEquals(3, imageDeletionRepository.count());
+    }
+}
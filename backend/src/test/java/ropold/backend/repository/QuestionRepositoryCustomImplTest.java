@@ -0,0 +1,65 @@
+package ropold.backend.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import ropold.backend.model.QuestionModel;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class QuestionRepositoryCustomImplTest {
+
+    MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    QuestionRepositoryCustomImpl questionRepositoryCustom = new QuestionRepositoryCustomImpl(mongoTemplate);
+
+    @Test
+    void toggleActive_negatesIsActiveOnTheServerInOneFindAndModify() {
+        Optional<QuestionModel> result = questionRepositoryCustom.toggleActive("1");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<AggregationUpdate> update = ArgumentCaptor.forClass(AggregationUpdate.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(QuestionModel.class));
+
+        assertTrue(result.isEmpty());
+        assertEquals(new Document("_id", "1"), query.getValue().getQueryObject());
+        assertEquals(
+                List.of(Document.parse("{ $set: { isActive: { $not: ['$isActive'] } } }")),
+                update.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT)
+        );
+        assertTrue(options.getValue().isReturnNew());
+    }
+
+    @Test
+    void finishPendingImage_setsImageOnlyWhileQuestionStillWaitsForThisUpload() {
+        Optional<QuestionModel> result = questionRepositoryCustom.finishPendingImage("1", "upload-1", "https://example.com/image.jpg", List.of());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(QuestionModel.class));
+
+        assertTrue(result.isEmpty());
+        assertEquals(new Document("_id", "1").append("pendingImageId", "upload-1"), query.getValue().getQueryObject());
+        assertEquals(new Document("$set", new Document("imageUrl", "https://example.com/image.jpg")
+                        .append("imageVariants", List.of())
+                        .append("imagePending", false))
+                        .append("$unset", new Document("pendingImageId", 1)),
+                update.getValue().getUpdateObject());
+        assertTrue(options.getValue().isReturnNew());
+    }
+}
@@ -0,0 +1,109 @@
+package ropold.backend.repository;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.QuestionModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.ne;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class QuestionRepositoryIndexTest {
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        questionRepository.deleteAll();
+
+        List<QuestionModel> questions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            questions.add(new QuestionModel(
+                    String.valueOf(i),
+                    "Frage " + i,
+                    DifficultyEnum.values()[i % DifficultyEnum.values().length],
+                    CategoryEnum.values()[i % CategoryEnum.values().length],
+                    "Was ist " + i + "?",
+                    List.of(
+                            new AnswerOption("A", true),
+                            new AnswerOption("B", false),
+                            new AnswerOption("C", false),
+                            new AnswerOption("D", false)
+                    ),
+                    "Erklärung " + i,
+                    i % 4 != 1,
+                    "user" + (i % 7),
+                    null,
+                    null,
+                    false,
+                    null
+            ));
+        }
+        questionRepository.saveAll(questions);
+    }
+
+    @Test
+    void activeQuestionQueries_shouldUseCompoundIndex() {
+        assertUsesIndex(eq("isActive", true));
+        assertUsesIndex(and(eq("isActive", true), eq("categoryEnum", CategoryEnum.KANGAROO.name())));
+        assertUsesIndex(and(eq("isActive", true), ne("categoryEnum", CategoryEnum.KANGAROO.name())));
+    }
+
+    @Test
+    void githubIdQuery_shouldUseIndex() {
+        assertUsesIndex(eq("githubId", "user1"));
+    }
+
+    @Test
+    void imageReferenceQueries_shouldUseIndex() {
+        assertUsesIndex(eq("imageUrl", "https://example.com/a.jpg"));
+        assertUsesIndex(eq("imageVariants.url", "https://example.com/a.jpg"));
+    }
+
+    @Test
+    void sampleActiveQuestions_shouldOnlyReturnMatchingActiveQuestions() {
+        List<QuestionModel> sample = questionRepository.sampleActiveQuestions(DifficultyEnum.EASY, null, 10);
+
+        assertEquals(10, sample.size());
+        assertTrue(sample.stream().allMatch(q -> q.isActive()
+                && q.difficultyEnum() == DifficultyEnum.EASY
+                && q.categoryEnum() != CategoryEnum.KANGAROO));
+
+        List<QuestionModel> kangaroo = questionRepository.sampleActiveQuestions(DifficultyEnum.KANGAROO, null, 50);
+        assertFalse(kangaroo.isEmpty());
+        assertTrue(kangaroo.stream().allMatch(q -> q.isActive() && q.categoryEnum() == CategoryEnum.KANGAROO));
+
+        List<QuestionModel> history = questionRepository.sampleActiveQuestions(DifficultyEnum.RANDOM, CategoryEnum.HISTORY, 50);
+        assertFalse(history.isEmpty());
+        assertTrue(history.stream().allMatch(q -> q.isActive() && q.categoryEnum() == CategoryEnum.HISTORY));
+    }
+
+    private void assertUsesIndex(Bson filter) {
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(QuestionModel.class))
+                .find(filter)
+                .explain();
+        String plan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+        assertTrue(plan.contains("IXSCAN"), "Expected an index scan for " + filter + " but got " + plan);
+        assertFalse(plan.contains("COLLSCAN"), "Unexpected collection scan for " + filter + ": " + plan);
+    }
+}
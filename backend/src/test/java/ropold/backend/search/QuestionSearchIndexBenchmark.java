@@ -0,0 +1,133 @@
+package ropold.backend.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.model.QuestionSearchResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link QuestionSearchIndex} over a synthetic corpus with Zipf-distributed words.
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=QuestionSearchIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class QuestionSearchIndexBenchmark {
+
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final List<AnswerOption> OPTIONS = List.of(
+            new AnswerOption("A", true),
+            new AnswerOption("B", false),
+            new AnswerOption("C", false),
+            new AnswerOption("D", false)
+    );
+
+    @Param({"100000", "1000000"})
+    private int questionCount;
+
+    private QuestionSearchIndex index;
+    private String[] vocabulary;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        SplittableRandom random = new SplittableRandom(42);
+        vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = randomWord(random);
+        }
+        double[] cumulative = new double[VOCABULARY_SIZE];
+        double sum = 0;
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        CategoryEnum[] categories = CategoryEnum.values();
+        DifficultyEnum[] difficulties = DifficultyEnum.values();
+        List<QuestionModel> questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(new QuestionModel(
+                    Integer.toString(i),
+                    sentence(random, cumulative, 4),
+                    difficulties[random.nextInt(difficulties.length)],
+                    categories[random.nextInt(categories.length)],
+                    sentence(random, cumulative, 12),
+                    OPTIONS,
+                    sentence(random, cumulative, 15),
+                    true,
+                    "user",
+                    null,
+                    null,
+                    false,
+                    null
+            ));
+        }
+        index = new QuestionSearchIndex();
+        index.rebuild(questions);
+    }
+
+    @Benchmark
+    public QuestionSearchResult frequentTerm() {
+        return index.search(vocabulary[5], null, null, 0, 20);
+    }
+
+    @Benchmark
+    public QuestionSearchResult rareTerm() {
+        return index.search(vocabulary[20_000], null, null, 0, 20);
+    }
+
+    @Benchmark
+    public QuestionSearchResult twoTerms() {
+        return index.search(vocabulary[50] + " " + vocabulary[300], null, null, 0, 20);
+    }
+
+    @Benchmark
+    public QuestionSearchResult prefix() {
+        return index.search(vocabulary[200].substring(0, 3), null, null, 0, 20);
+    }
+
+    @Benchmark
+    public QuestionSearchResult filteredSecondPage() {
+        return index.search(vocabulary[100], DifficultyEnum.MEDIUM, CategoryEnum.HISTORY, 1, 20);
+    }
+
+    private String sentence(SplittableRandom random, double[] cumulative, int words) {
+        StringBuilder sentence = new StringBuilder();
+        double total = cumulative[cumulative.length - 1];
+        for (int i = 0; i < words; i++) {
+            int position = Arrays.binarySearch(cumulative, random.nextDouble(total));
+            sentence.append(vocabulary[position >= 0 ? position : -position - 1]).append(' ');
+        }
+        return sentence.toString();
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        char[] word = new char[4 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+}
@@ -0,0 +1,147 @@
+package ropold.backend.search;
+
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.model.PublicQuestion;
+import ropold.backend.model.QuestionSearchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionSearchIndexTest {
+
+    private static QuestionModel question(String id, String title, String questionText, String answerExplanation,
+                                          CategoryEnum categoryEnum, DifficultyEnum difficultyEnum, boolean isActive) {
+        return new QuestionModel(
+                id,
+                title,
+                difficultyEnum,
+                categoryEnum,
+                questionText,
+                List.of(
+                        new AnswerOption("A", true),
+                        new AnswerOption("B", false),
+                        new AnswerOption("C", false),
+                        new AnswerOption("D", false)
+                ),
+                answerExplanation,
+                isActive,
+                "user",
+                null,
+                null,
+                false,
+                null
+        );
+    }
+
+    private static List<String> ids(QuestionSearchResult result) {
+        return result.questions().stream().map(PublicQuestion::id).toList();
+    }
+
+    private static QuestionSearchIndex indexWithSampleQuestions() {
+        QuestionSearchIndex index = new QuestionSearchIndex();
+        index.rebuild(List.of(
+                question("1", "Berliner Mauer", "In welchem Jahr fiel die Mauer?", "Die Mauer fiel 1989.",
+                        CategoryEnum.HISTORY, DifficultyEnum.MEDIUM, true),
+                question("2", "Hauptstadt", "Was ist die Hauptstadt von Deutschland?", "Berlin ist seit 1990 Hauptstadt.",
+                        CategoryEnum.GEOGRAPHY, DifficultyEnum.EASY, true),
+                question("3", "Mathe", "Was ist 2 + 2?", "Einfache Addition, Berlin hat damit nichts zu tun.",
+                        CategoryEnum.KANGAROO, DifficultyEnum.KANGAROO, true),
+                question("4", "Berlin inaktiv", "Berlin?", "Berlin.",
+                        CategoryEnum.HISTORY, DifficultyEnum.MEDIUM, false)
+        ));
+        return index;
+    }
+
+    @Test
+    void search_shouldRankTitleMatchesFirstAndSkipInactiveQuestions() {
+        QuestionSearchIndex index = indexWithSampleQuestions();
+
+        QuestionSearchResult result = index.search("mauer", null, null, 0, 10);
+
+        assertEquals(List.of("1"), ids(result));
+        assertEquals(1, result.totalHits());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAndRequireAllTerms() {
+        QuestionSearchIndex index = indexWithSampleQuestions();
+
+        assertEquals(List.of("1", "2", "3"), ids(index.search("berl", null, null, 0, 10)).stream().sorted().toList());
+        assertEquals(List.of("2"), ids(index.search("Berlin Hauptstadt", null, null, 0, 10)));
+        assertTrue(ids(index.search("berlin quantenphysik", null, null, 0, 10)).isEmpty());
+        assertTrue(ids(index.search("   ", null, null, 0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_shouldFilterByCategoryAndDifficulty() {
+        QuestionSearchIndex index = indexWithSampleQuestions();
+
+        assertEquals(List.of("2"), ids(index.search("berlin", null, CategoryEnum.GEOGRAPHY, 0, 10)));
+        assertEquals(List.of("3"), ids(index.search("berlin", DifficultyEnum.KANGAROO, null, 0, 10)));
+        assertTrue(ids(index.search("berlin", DifficultyEnum.HARD, null, 0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_shouldPaginateRankedResults() {
+        QuestionSearchIndex index = new QuestionSearchIndex();
+        List<QuestionModel> questions = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // Weniger Füllwörter -> kürzeres Dokument -> höherer BM25-Score
+            String padding = " füllwort".repeat(i);
+            questions.add(question(String.format("%02d", i), "Quiz", "Frage" + padding, "Erklärung",
+                    CategoryEnum.SCIENCE, DifficultyEnum.EASY, true));
+        }
+        index.rebuild(questions);
+
+        QuestionSearchResult first = index.search("quiz", null, null, 0, 10);
+        QuestionSearchResult third = index.search("quiz", null, null, 2, 10);
+
+        assertEquals(25, first.totalHits());
+        assertEquals(List.of("00", "01", "02", "03", "04", "05", "06", "07", "08", "09"), ids(first));
+        assertEquals(List.of("20", "21", "22", "23", "24"), ids(third));
+        assertTrue(ids(index.search("quiz", null, null, QuestionSearchIndex.MAX_RESULT_WINDOW, 10)).isEmpty());
+    }
+
+    @Test
+    void apply_shouldReindexChangedAndRemoveDeletedOrDeactivatedQuestions() {
+        QuestionSearchIndex index = indexWithSampleQuestions();
+
+        index.apply(List.of(
+                question("1", "Mauerfall", "Wann fiel die Mauer in Berlin?", "1989.",
+                        CategoryEnum.HISTORY, DifficultyEnum.MEDIUM, true),
+                question("2", "Hauptstadt", "Was ist die Hauptstadt von Deutschland?", "Berlin.",
+                        CategoryEnum.GEOGRAPHY, DifficultyEnum.EASY, false),
+                question("5", "Neu", "Ganz neue Frage zu Berlin", "Berlin.",
+                        CategoryEnum.GEOGRAPHY, DifficultyEnum.EASY, true)
+        ), List.of("3"));
+
+        assertEquals(List.of("1", "5"), ids(index.search("berlin", null, null, 0, 10)).stream().sorted().toList());
+        assertEquals(List.of("1"), ids(index.search("mauerfall", null, null, 0, 10)));
+        assertTrue(ids(index.search("addition", null, null, 0, 10)).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void apply_shouldCompactAfterManyRemovals() {
+        QuestionSearchIndex index = new QuestionSearchIndex();
+        List<QuestionModel> questions = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            questions.add(question("q" + i, "Titel " + i, "Frage", "Erklärung",
+                    CategoryEnum.SCIENCE, DifficultyEnum.EASY, true));
+        }
+        index.rebuild(questions);
+
+        index.apply(List.of(), questions.subList(0, 2_000).stream().map(QuestionModel::id).toList());
+
+        assertEquals(1_000, index.size());
+        assertEquals(1_000, index.search("frage", null, null, 0, 10).totalHits());
+        assertEquals(List.of("q2500"), ids(index.search("2500", null, null, 0, 10)));
+    }
+}
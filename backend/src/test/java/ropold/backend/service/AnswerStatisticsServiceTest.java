@@ -0,0 +1,182 @@
+package ropold.backend.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import ropold.backend.cache.ActiveQuestionSnapshot;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.AnswerReport;
+import ropold.backend.model.AnswerStatistics;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.QuestionRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class AnswerStatisticsServiceTest {
+
+    QuestionRepository questionRepository = mock(QuestionRepository.class);
+    QuestionService questionService = mock(QuestionService.class);
+    // Verhindert Flushes im Hintergrund; die Tests rufen flush() selbst auf
+    AnswerStatisticsService answerStatisticsService =
+            new AnswerStatisticsService(questionRepository, questionService, Duration.ofHours(1));
+    Map<String, AnswerStatistics> written = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(questionService.getActiveQuestionSnapshot()).thenReturn(ActiveQuestionSnapshot.of(List.of(question("1"), question("2")), 1));
+        doAnswer(invocation -> {
+            Map<String, AnswerStatistics> deltas = invocation.getArgument(0);
+            deltas.forEach((id, delta) -> written.merge(id, delta, AnswerStatistics::plus));
+            return null;
+        }).when(questionRepository).incrementAnswerStatistics(anyMap());
+    }
+
+    @AfterEach
+    void tearDown() {
+        answerStatisticsService.close();
+    }
+
+    private static QuestionModel question(String id) {
+        return new QuestionModel(id, "Frage " + id, DifficultyEnum.EASY, CategoryEnum.HISTORY, "Text",
+                List.of(new AnswerOption("A", true), new AnswerOption("B", false)), "", true, "user", null, null, false, null);
+    }
+
+    @Test
+    void recordAnswers_shouldIgnoreUnknownQuestions() {
+        int recorded = answerStatisticsService.recordAnswers(List.of(
+                new AnswerReport("1", true),
+                new AnswerReport("unknown", true),
+                new AnswerReport(null, false)
+        ));
+
+        assertEquals(1, recorded);
+        assertEquals(1, answerStatisticsService.pendingAnswers());
+    }
+
+    @Test
+    void flush_shouldWriteDeltasInOneBulkAndRefreshSnapshot() {
+        answerStatisticsService.recordAnswers(List.of(
+                new AnswerReport("1", true),
+                new AnswerReport("1", false),
+                new AnswerReport("2", true)
+        ));
+
+        assertEquals(2, answerStatisticsService.flush());
+
+        verify(questionRepository, times(1)).incrementAnswerStatistics(anyMap());
+        assertEquals(new AnswerStatistics(2, 1), written.get("1"));
+        assertEquals(new AnswerStatistics(1, 1), written.get("2"));
+        verify(questionService).refreshAnswerStatistics(written.keySet());
+        assertEquals(0, answerStatisticsService.pendingAnswers());
+    }
+
+    @Test
+    void flush_withNothingRecorded_shouldNotTouchMongo() {
+        assertEquals(0, answerStatisticsService.flush());
+        verify(questionRepository, never()).incrementAnswerStatistics(anyMap());
+    }
+
+    @Test
+    void flush_whenWriteFails_shouldKeepCountsForNextRun() {
+        answerStatisticsService.recordAnswers(List.of(new AnswerReport("1", true)));
+        doThrow(new RuntimeException("Mongo down"))
+                .doAnswer(invocation -> {
+                    written.putAll(invocation.getArgument(0));
+                    return null;
+                })
+                .when(questionRepository).incrementAnswerStatistics(anyMap());
+
+        assertEquals(0, answerStatisticsService.flush());
+        assertEquals(1, answerStatisticsService.pendingAnswers());
+
+        answerStatisticsService.recordAnswers(List.of(new AnswerReport("1", false)));
+        assertEquals(1, answerStatisticsService.flush());
+        assertEquals(new AnswerStatistics(2, 1), written.get("1"));
+    }
+
+    @Test
+    void flush_whenSomeBulkUpdatesFail_shouldRetryOnlyThose() {
+        answerStatisticsService.recordAnswers(List.of(new AnswerReport("1", true), new AnswerReport("2", false)));
+        doAnswer(invocation -> {
+            Map<String, AnswerStatistics> deltas = invocation.getArgument(0);
+            List<String> ids = new ArrayList<>(deltas.keySet());
+            int failedIndex = ids.indexOf("2");
+            written.put("1", deltas.get("1"));
+            BulkOperationException failure = mock(BulkOperationException.class);
+            when(failure.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "failed", new BsonDocument(), failedIndex)));
+            throw failure;
+        }).when(questionRepository).incrementAnswerStatistics(anyMap());
+
+        assertEquals(1, answerStatisticsService.flush());
+
+        assertEquals(new AnswerStatistics(1, 1), written.get("1"));
+        assertEquals(1, answerStatisticsService.pendingAnswers());
+        verify(questionService).refreshAnswerStatistics(Set.of("1"));
+    }
+
+    @Test
+    void concurrentAnswersDuringFlushes_shouldAllBeWrittenExactlyOnce() throws Exception {
+        int threads = 8;
+        int answersPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread flusher = new Thread(() -> {
+            while (running.get()) {
+                answerStatisticsService.flush();
+            }
+        });
+        flusher.start();
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < answersPerThread; i++) {
+                    answerStatisticsService.recordAnswers(List.of(new AnswerReport(i % 2 == 0 ? "1" : "2", i % 4 == 0)));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        running.set(false);
+        flusher.join();
+        answerStatisticsService.flush();
+
+        long total = (long) threads * answersPerThread;
+        assertEquals(new AnswerStatistics(total / 2, total / 4), written.get("1"));
+        assertEquals(new AnswerStatistics(total / 2, 0), written.get("2"));
+    }
+
+    @Test
+    void close_shouldFlushRemainingAnswers() {
+        answerStatisticsService.recordAnswers(List.of(new AnswerReport("2", true)));
+
+        answerStatisticsService.close();
+
+        assertEquals(new AnswerStatistics(1, 1), written.get("2"));
+    }
+
+    @Test
+    void correctRate_shouldBeNullUntilAnswered() {
+        assertNull(new AnswerStatistics(0, 0).correctRate());
+        assertEquals(0.25, new AnswerStatistics(4, 1).correctRate());
+    }
+}
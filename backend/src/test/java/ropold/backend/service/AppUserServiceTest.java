@@ -63,4 +63,28 @@ class AppUserServiceTest {
         verify(appUserRepository, times(1)).findById(userId);
     }
 
+    @Test
+    void addQuestionToFavoriteQuestions_UsesAtomicUpdateAndBumpsVersion() {
+        when(appUserRepository.addFavoriteQuestion("user", "1")).thenReturn(true);
+        long versionBefore = appUserService.getFavoritesVersion();
+
+        appUserService.addQuestionToFavoriteQuestions("user", "1");
+
+        verify(appUserRepository).addFavoriteQuestion("user", "1");
+        verify(appUserRepository, never()).findById(anyString());
+        verify(appUserRepository, never()).save(any());
+        assertEquals(versionBefore + 1, appUserService.getFavoritesVersion());
+    }
+
+    @Test
+    void removeQuestionFromFavoriteQuestions_WithoutChange_KeepsVersion() {
+        when(appUserRepository.removeFavoriteQuestion("user", "1")).thenReturn(false);
+        long versionBefore = appUserService.getFavoritesVersion();
+
+        appUserService.removeQuestionFromFavoriteQuestions("user", "1");
+
+        verify(appUserRepository).removeFavoriteQuestion("user", "1");
+        assertEquals(versionBefore, appUserService.getFavoritesVersion());
+    }
+
 }
@@ -0,0 +1,129 @@
+package ropold.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.BootstrapResponse;
+import ropold.backend.model.BootstrapSource;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.PublicQuestion;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.model.UserProfile;
+import ropold.backend.repository.AppUserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BootstrapServiceTest {
+
+    QuestionService questionService = mock(QuestionService.class);
+    HighScoreService highScoreService = mock(HighScoreService.class);
+    AppUserService appUserService = mock(AppUserService.class);
+    UserProfileService userProfileService = new UserProfileService(mock(AppUserRepository.class));
+    BootstrapService bootstrapService = new BootstrapService(questionService, highScoreService, appUserService, userProfileService, Duration.ofSeconds(2));
+
+    QuestionModel question = new QuestionModel("1", "Frage", DifficultyEnum.EASY, CategoryEnum.HISTORY, "Text",
+            List.of(new AnswerOption("A", true)), "Erklärung", true, "user", null, null, false, null);
+
+    @AfterEach
+    void tearDown() {
+        bootstrapService.close();
+    }
+
+    private static <T> T slow(T value) {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    @Test
+    void bootstrap_shouldRunPartsConcurrently() {
+        when(questionService.getAllActiveQuestions()).thenAnswer(invocation -> slow(List.of(question)));
+        when(appUserService.getUserFavoriteQuestions("user")).thenAnswer(invocation -> slow(List.of("1")));
+        when(highScoreService.getHighScoresByDifficulty(any())).thenReturn(List.of());
+        when(highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY)).thenAnswer(invocation -> slow(List.of()));
+
+        long start = System.nanoTime();
+        BootstrapResponse response = bootstrapService.bootstrap("user", Map.of("login", "username"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("user", response.user());
+        assertEquals(List.of("1"), response.favorites());
+        assertEquals(List.of(PublicQuestion.of(question)), response.allActiveQuestions());
+        // Nacheinander wären es drei mal 300 ms
+        assertTrue(elapsedMillis < 900, "elapsed: " + elapsedMillis);
+    }
+
+    @Test
+    void bootstrap_shouldReportWhichPartsCameFromCache() {
+        when(questionService.isActiveQuestionSnapshotLoaded()).thenReturn(true);
+        when(highScoreService.isLoaded()).thenReturn(false);
+        when(questionService.getAllActiveQuestions()).thenReturn(List.of(question));
+
+        BootstrapResponse response = bootstrapService.bootstrap("anonymousUser", null);
+
+        assertEquals(BootstrapSource.CACHE, response.sources().get("allActiveQuestions"));
+        assertEquals(BootstrapSource.DATABASE, response.sources().get("highScores"));
+        // Nur aktive Fragen, einmal: Teillisten und alle Fragen lädt der Client selbst
+        assertEquals(List.of("favorites", "allActiveQuestions", "highScores"), List.copyOf(response.sources().keySet()));
+        verify(questionService, never()).getAllQuestions();
+        // Gäste haben keine Favoriten
+        assertEquals(BootstrapSource.SKIPPED, response.sources().get("favorites"));
+        assertEquals(List.of(), response.favorites());
+        verify(appUserService, never()).getUserFavoriteQuestions(anyString());
+    }
+
+    @Test
+    void bootstrap_shouldGroupHighScoresAndResolveProfilesOnce() {
+        UserProfileService profiles = mock(UserProfileService.class);
+        BootstrapService service = new BootstrapService(questionService, highScoreService, appUserService, profiles);
+        HighScoreModel easy = new HighScoreModel("h1", "player", "123", DifficultyEnum.EASY, "HISTORY", 0, 10.0, LocalDateTime.now());
+        HighScoreModel hard = new HighScoreModel("h2", "player", "123", DifficultyEnum.HARD, "HISTORY", 0, 20.0, LocalDateTime.now());
+        when(highScoreService.getHighScoresByDifficulty(any())).thenReturn(List.of());
+        when(highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY)).thenReturn(List.of(easy));
+        when(highScoreService.getHighScoresByDifficulty(DifficultyEnum.HARD)).thenReturn(List.of(hard));
+        when(profiles.enrich(anyList())).thenCallRealMethod();
+        when(profiles.getProfiles(anyList())).thenReturn(Map.of("123", new UserProfile("123", "username", "avatar")));
+
+        BootstrapResponse response = service.bootstrap("anonymousUser", null);
+        service.close();
+
+        assertEquals("h1", response.highScores().get(DifficultyEnum.EASY).getFirst().id());
+        assertEquals("username", response.highScores().get(DifficultyEnum.HARD).getFirst().githubUsername());
+        assertEquals(List.of(), response.highScores().get(DifficultyEnum.KANGAROO));
+        verify(profiles, times(1)).getProfiles(anyList());
+    }
+
+    @Test
+    void bootstrap_withFailingOrSlowPart_shouldReturnTheOtherParts() {
+        BootstrapService service = new BootstrapService(questionService, highScoreService, appUserService, userProfileService, Duration.ofMillis(200));
+        when(highScoreService.getHighScoresByDifficulty(any())).thenThrow(new RuntimeException("Mongo down"));
+        when(questionService.getAllActiveQuestions()).thenReturn(List.of(question));
+        when(appUserService.getUserFavoriteQuestions("user")).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of("1");
+        });
+
+        BootstrapResponse response = service.bootstrap("user", Map.of());
+        service.close();
+
+        assertNull(response.highScores());
+        assertNull(response.favorites());
+        assertEquals(List.of(PublicQuestion.of(question)), response.allActiveQuestions());
+        assertEquals(BootstrapSource.FAILED, response.sources().get("highScores"));
+        assertEquals(BootstrapSource.FAILED, response.sources().get("favorites"));
+    }
+}
@@ -4,19 +4,23 @@ import com.cloudinary.Cloudinary;
 import com.cloudinary.Uploader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.Collections;
+import java.io.InputStream;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
 class CloudinaryServiceTest {
@@ -37,40 +41,39 @@ class CloudinaryServiceTest {
     }
 
     @Test
-    void uploadImage_ValidImage_ReturnsSecureUrl() throws IOException {
-        MultipartFile mockImage = mock(MultipartFile.class);
-        when(mockImage.getOriginalFilename()).thenReturn("image.jpg");
-        doAnswer(invocation -> {
-            ((File) invocation.getArgument(0)).createNewFile();
-            return null;
-        }).when(mockImage).transferTo(any(File.class));
-
-        Map<String, String> mockUploadResult = Map.of("secure_url", "https://example.com/image.jpg");
-        when(uploader.upload(any(File.class), eq(Collections.emptyMap()))).thenReturn(mockUploadResult);
-
-        assertEquals("https://example.com/image.jpg", cloudinaryService.uploadImage(mockImage));
-        verify(uploader, times(1)).upload(any(File.class), eq(Collections.emptyMap()));
+    @SuppressWarnings("unchecked")
+    void uploadImage_ValidImage_StreamsWithoutTempFileAndReturnsSecureUrl() throws IOException {
+        InputStream content = new ByteArrayInputStream("image".getBytes());
+        when(uploader.uploadLarge(same(content), anyMap(), anyInt())).thenReturn(Map.of("secure_url", "https://example.com/image.jpg"));
+
+        assertEquals("https://example.com/image.jpg", cloudinaryService.uploadImage(content, "image.jpg"));
+
+        ArgumentCaptor<Map<String, Object>> options = ArgumentCaptor.forClass(Map.class);
+        verify(uploader, times(1)).uploadLarge(same(content), options.capture(), eq(CloudinaryService.CHUNK_SIZE));
+        assertEquals("image.jpg", options.getValue().get("filename"));
+        assertEquals(CloudinaryService.UPLOAD_TIMEOUT_MILLIS, options.getValue().get("timeout"));
+        verify(uploader, never()).upload(any(File.class), anyMap());
     }
 
     @Test
     void uploadImage_ThrowsIOException_ThrowsException() throws IOException {
-        MultipartFile mockImage = mock(MultipartFile.class);
-        when(mockImage.getOriginalFilename()).thenReturn("image.jpg");
-        doThrow(IOException.class).when(mockImage).transferTo(any(File.class));
+        InputStream content = new ByteArrayInputStream("image".getBytes());
+        when(uploader.uploadLarge(any(), anyMap(), anyInt())).thenThrow(new IOException("Cloudinary down"));
 
-        assertThrows(IOException.class, () -> cloudinaryService.uploadImage(mockImage));
-        verify(uploader, never()).upload(any(File.class), eq(Collections.emptyMap()));
+        assertThrows(IOException.class, () -> cloudinaryService.uploadImage(content, "image.jpg"));
     }
 
     @Test
     void deleteImage_ValidImageUrl_DeletesImage() throws IOException {
         String imageUrl = "https://example.com/image.jpg";
         String publicId = "image";
-        when(cloudinary.uploader().destroy(publicId, Collections.emptyMap())).thenReturn(Map.of("result", "ok"));
+        when(uploader.destroy(eq(publicId), anyMap())).thenReturn(Map.of("result", "ok"));
 
         cloudinaryService.deleteImage(imageUrl);
 
-        verify(cloudinary.uploader(), times(1)).destroy(publicId, Collections.emptyMap());
+        verify(uploader, times(1)).destroy(publicId, Map.of(
+                "connect_timeout", CloudinaryService.CONNECT_TIMEOUT_MILLIS,
+                "timeout", CloudinaryService.DELETE_TIMEOUT_MILLIS));
     }
 
 }
@@ -0,0 +1,231 @@
+package ropold.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import ropold.backend.cache.ActiveQuestionSnapshot;
+import ropold.backend.exception.GameSessionNotFoundException;
+import ropold.backend.exception.InvalidGameActionException;
+import ropold.backend.exception.QuestionNotFoundException;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.AnswerReport;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.GameAnswer;
+import ropold.backend.model.GameAnswerResult;
+import ropold.backend.model.GameQuestion;
+import ropold.backend.model.GameQuestionResult;
+import ropold.backend.model.GameRound;
+import ropold.backend.model.GameRoundResult;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.QuestionModel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GameServiceTest {
+
+    QuestionService questionService = mock(QuestionService.class);
+    HighScoreService highScoreService = mock(HighScoreService.class);
+    AnswerStatisticsService answerStatisticsService = mock(AnswerStatisticsService.class);
+    HighScoreServiceTest.MutableClock clock = new HighScoreServiceTest.MutableClock(LocalDateTime.of(2025, 3, 5, 12, 0));
+    GameService gameService = new GameService(questionService, highScoreService, answerStatisticsService, clock);
+
+    QuestionModel question1 = question("1", 1);
+    QuestionModel question2 = question("2", 3);
+
+    @BeforeEach
+    void setUp() {
+        when(questionService.getRandomRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2)).thenReturn(List.of(question1, question2));
+        when(questionService.getActiveQuestionSnapshot()).thenReturn(ActiveQuestionSnapshot.of(List.of(question1, question2), 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameService.close();
+    }
+
+    private static QuestionModel question(String id, int correctIndex) {
+        List<AnswerOption> options = IntStream.range(0, 4)
+                .mapToObj(i -> new AnswerOption("Option " + i, i == correctIndex))
+                .toList();
+        return new QuestionModel(id, "Frage " + id, DifficultyEnum.EASY, CategoryEnum.HISTORY, "Text " + id,
+                options, "Erklärung " + id, true, "user", null, null, false, null);
+    }
+
+    @Test
+    void startRound_shouldHideCorrectAnswers() {
+        GameRound round = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2);
+
+        assertNotNull(round.sessionId());
+        assertEquals(List.of("1", "2"), round.questions().stream().map(GameQuestion::id).toList());
+        assertEquals(List.of("Option 0", "Option 1", "Option 2", "Option 3"), round.questions().getFirst().options());
+        assertEquals(1, gameService.runningSessions());
+    }
+
+    @Test
+    void startRound_withoutQuestions_shouldThrow() {
+        when(questionService.getRandomRound(DifficultyEnum.HARD, null, 10)).thenReturn(List.of());
+
+        assertThrows(QuestionNotFoundException.class, () -> gameService.startRound(DifficultyEnum.HARD, null, 10));
+        assertEquals(0, gameService.runningSessions());
+    }
+
+    @Test
+    void answer_shouldBeCheckedOnServerAndCountedOnce() {
+        String sessionId = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2).sessionId();
+
+        GameAnswerResult wrong = gameService.answer(sessionId, 0, 2);
+
+        assertFalse(wrong.correct());
+        assertEquals(1, wrong.correctAnswerIndex());
+        assertEquals("Erklärung 1", wrong.answerExplanation());
+        assertEquals(1, wrong.wrongAnswerCount());
+        assertFalse(wrong.finished());
+        verify(answerStatisticsService).recordAnswers(List.of(new AnswerReport("1", false)));
+
+        assertThrows(InvalidGameActionException.class, () -> gameService.answer(sessionId, 0, 1));
+        assertThrows(InvalidGameActionException.class, () -> gameService.answer(sessionId, 2, 1));
+
+        GameAnswerResult right = gameService.answer(sessionId, 1, 3);
+        assertTrue(right.correct());
+        assertEquals(1, right.wrongAnswerCount());
+        assertTrue(right.finished());
+    }
+
+    @Test
+    void submitHighScore_shouldUseSessionResultInsteadOfClientNumbers() {
+        String sessionId = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2).sessionId();
+        gameService.answer(sessionId, 0, 0);
+        clock.advance(Duration.ofMillis(17_260));
+        gameService.answer(sessionId, 1, 3);
+        clock.advance(Duration.ofMinutes(1));
+
+        gameService.submitHighScore(sessionId, "player", "123456");
+
+        ArgumentCaptor<HighScoreModel> captor = ArgumentCaptor.forClass(HighScoreModel.class);
+        verify(highScoreService).addHighScore(captor.capture());
+        HighScoreModel submitted = captor.getValue();
+        assertEquals("player", submitted.playerName());
+        assertEquals("123456", submitted.githubId());
+        assertEquals(DifficultyEnum.EASY, submitted.difficultyEnum());
+        assertEquals("HISTORY", submitted.categoryEnum());
+        assertEquals(1, submitted.wrongAnswerCount());
+        // Zeit bis zur letzten Antwort, nicht bis zum Absenden
+        assertEquals(17.3, submitted.scoreTime());
+        assertEquals(0, gameService.runningSessions());
+    }
+
+    @Test
+    void submitHighScore_beforeRoundIsFinished_shouldThrow() {
+        String sessionId = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2).sessionId();
+        gameService.answer(sessionId, 0, 1);
+
+        assertThrows(InvalidGameActionException.class, () -> gameService.submitHighScore(sessionId, "player", "123456"));
+        verify(highScoreService, never()).addHighScore(any());
+    }
+
+    @Test
+    void submitHighScore_twice_shouldOnlyCountOnce() {
+        String sessionId = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2).sessionId();
+        gameService.answer(sessionId, 0, 1);
+        gameService.answer(sessionId, 1, 3);
+
+        gameService.submitHighScore(sessionId, "player", "123456");
+
+        assertThrows(GameSessionNotFoundException.class, () -> gameService.submitHighScore(sessionId, "player", "123456"));
+        verify(highScoreService, times(1)).addHighScore(any());
+    }
+
+    @Test
+    void answer_afterSessionExpired_shouldThrowNotFound() {
+        String sessionId = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2).sessionId();
+        clock.advance(GameService.SESSION_TTL);
+
+        assertThrows(GameSessionNotFoundException.class, () -> gameService.answer(sessionId, 0, 1));
+        assertThrows(GameSessionNotFoundException.class, () -> gameService.answer("not-a-session!", 0, 1));
+    }
+
+    @Test
+    void restartRound_shouldDrawNewQuestionsInNewSession() {
+        GameRound round = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2);
+        gameService.answer(round.sessionId(), 0, 1);
+        QuestionModel question3 = question("3", 0);
+        when(questionService.getRandomRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2)).thenReturn(List.of(question3, question1));
+        when(questionService.getActiveQuestionSnapshot()).thenReturn(ActiveQuestionSnapshot.of(List.of(question1, question2, question3), 2));
+
+        GameRound restarted = gameService.restartRound(round.sessionId());
+
+        assertNotEquals(round.sessionId(), restarted.sessionId());
+        assertEquals(List.of(GameQuestion.of(question3), GameQuestion.of(question1)), restarted.questions());
+        verify(questionService, times(2)).getRandomRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2);
+        assertThrows(GameSessionNotFoundException.class, () -> gameService.answer(round.sessionId(), 1, 3));
+        assertEquals(1, gameService.runningSessions());
+        assertTrue(gameService.answer(restarted.sessionId(), 0, 0).correct());
+    }
+
+    @Test
+    void submitRound_shouldCheckAllAnswersAndSubmitHighScoreInOneCall() {
+        String sessionId = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2).sessionId();
+        clock.advance(Duration.ofMillis(9_840));
+        HighScoreModel listed = new HighScoreModel("h1", "player", "123456", DifficultyEnum.EASY, "HISTORY", 1, 9.8, LocalDateTime.now(clock));
+        when(highScoreService.addHighScore(any())).thenReturn(listed);
+
+        GameRoundResult result = gameService.submitRound(sessionId,
+                List.of(new GameAnswer(1, 3), new GameAnswer(0, 0)), "player", "123456");
+
+        assertEquals(List.of(
+                new GameQuestionResult(1, "2", true, 3, "Erklärung 2"),
+                new GameQuestionResult(0, "1", false, 1, "Erklärung 1")
+        ), result.results());
+        assertTrue(result.finished());
+        assertEquals(1, result.wrongAnswerCount());
+        assertEquals(9.8, result.scoreTime());
+        assertSame(listed, result.highScore());
+        verify(answerStatisticsService, times(1)).recordAnswers(List.of(new AnswerReport("2", true), new AnswerReport("1", false)));
+        verify(questionService, never()).getQuestionsByIds(anyList());
+        assertEquals(0, gameService.runningSessions());
+    }
+
+    @Test
+    void submitRound_withQuestionsMissingFromSnapshot_shouldLoadThemInOneQuery() {
+        String sessionId = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2).sessionId();
+        when(questionService.getActiveQuestionSnapshot()).thenReturn(ActiveQuestionSnapshot.empty());
+        when(questionService.getQuestionsByIds(List.of("1", "2"))).thenReturn(List.of(question1, question2));
+
+        GameRoundResult result = gameService.submitRound(sessionId, List.of(new GameAnswer(0, 1), new GameAnswer(1, 3)), null, "123456");
+
+        assertEquals(0, result.wrongAnswerCount());
+        assertNull(result.highScore());
+        verify(questionService, times(1)).getQuestionsByIds(List.of("1", "2"));
+        verify(highScoreService, never()).addHighScore(any());
+        // Ohne Namen bleibt die Session für einen späteren Highscore offen
+        assertEquals(1, gameService.runningSessions());
+    }
+
+    @Test
+    void submitRound_withDuplicateOrAnsweredQuestion_shouldApplyNothing() {
+        String sessionId = gameService.startRound(DifficultyEnum.EASY, CategoryEnum.HISTORY, 2).sessionId();
+
+        assertThrows(InvalidGameActionException.class, () -> gameService.submitRound(sessionId,
+                List.of(new GameAnswer(0, 1), new GameAnswer(0, 2)), null, "123456"));
+        assertThrows(InvalidGameActionException.class, () -> gameService.submitRound(sessionId,
+                List.of(new GameAnswer(0, 1)), "player", "123456"));
+
+        gameService.answer(sessionId, 1, 0);
+        assertThrows(InvalidGameActionException.class, () -> gameService.submitRound(sessionId,
+                List.of(new GameAnswer(0, 1), new GameAnswer(1, 3)), null, "123456"));
+
+        GameRoundResult result = gameService.submitRound(sessionId, List.of(new GameAnswer(0, 1)), null, "123456");
+        assertEquals(2, result.answeredCount());
+        assertEquals(1, result.wrongAnswerCount());
+    }
+}
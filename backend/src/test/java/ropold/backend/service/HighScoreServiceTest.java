@@ -2,15 +2,40 @@ package ropold.backend.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import ropold.backend.exception.HighScoreNotFoundException;
+import ropold.backend.leaderboard.Leaderboard;
+import ropold.backend.leaderboard.LeaderboardChangedEvent;
 import ropold.backend.model.DifficultyEnum;
 import ropold.backend.model.HighScoreModel;
+import ropold.backend.model.HighScoreRank;
+import ropold.backend.model.LeaderboardWindow;
+import ropold.backend.model.WindowedHighScoreModel;
 import ropold.backend.repository.HighScoreRepository;
+import ropold.backend.repository.WindowedHighScoreRepository;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 
@@ -18,7 +43,10 @@ class HighScoreServiceTest {
 
     IdService idService = mock(IdService.class);
     HighScoreRepository highScoreRepository = mock(HighScoreRepository.class);
-    HighScoreService highScoreService = new HighScoreService(highScoreRepository, idService);
+    ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    WindowedHighScoreRepository windowedHighScoreRepository = mock(WindowedHighScoreRepository.class);
+    MutableClock clock = new MutableClock(LocalDateTime.of(2025, 3, 5, 12, 30, 0));
+    HighScoreService highScoreService = new HighScoreService(highScoreRepository, windowedHighScoreRepository, idService, eventPublisher, clock);
 
     HighScoreModel highScoreModel1 = new HighScoreModel(
             "1",
@@ -74,9 +102,9 @@ class HighScoreServiceTest {
         when(highScoreRepository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(DifficultyEnum.EASY))
                 .thenReturn(List.of(highScore1, highScore2));
 
-        HighScoreModel newHighScore = new HighScoreModel("3", "Player3", "67890", DifficultyEnum.EASY, "Kangaroo",0,12.0, LocalDateTime.now());
+        HighScoreModel newHighScore = new HighScoreModel(null, "Player3", "67890", DifficultyEnum.EASY, "Kangaroo",0,12.0, LocalDateTime.now());
 
-        when(highScoreRepository.save(any(HighScoreModel.class))).thenReturn(newHighScore);
+        when(idService.generateRandomId()).thenReturn("3");
 
         HighScoreModel result = highScoreService.addHighScore(newHighScore);
 
@@ -84,10 +112,14 @@ class HighScoreServiceTest {
         assertEquals("3", result.id());
         assertEquals("Player3", result.playerName());
         assertEquals(12.0, result.scoreTime(), 0.1);
+
+        highScoreService.flushPendingWrites();
+        verify(highScoreRepository).save(result);
+        verify(highScoreRepository, never()).deleteById(anyString());
     }
 
     @Test
-    void addHighScore_shouldDeleteWorstHighScore_whenNewHighScoreIsBetterThanWorst() {
+    void addHighScore_shouldPushWorstOffTopTen_butKeepItInCategoryHistory() {
         // Arrange
         LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
 
@@ -115,27 +147,287 @@ class HighScoreServiceTest {
                 "Kangaroo",
                 0,
                 11.2,
-                fixedDate
+                fixedDate.plusSeconds(1)
         );
 
-        when(highScoreRepository.save(any(HighScoreModel.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0)); // simulate save returns input
+        when(idService.generateRandomId()).thenReturn("11");
 
         // Act
         HighScoreModel result = highScoreService.addHighScore(newHighScore);
+        highScoreService.flushPendingWrites();
 
         // Assert
         assertNotNull(result);
 
-        verify(highScoreRepository).deleteById("10"); // schlechtester Score (12.5)
+        verify(highScoreRepository, never()).deleteById(anyString());
         verify(highScoreRepository).save(argThat(saved ->
-                saved.id() == null &&
+                saved.id().equals("11") &&
                         saved.playerName().equals("player1") &&
                         saved.githubId().equals("123456") &&
                         saved.difficultyEnum().equals(DifficultyEnum.EASY) &&
                         saved.scoreTime() == 11.2 &&
-                        saved.date().equals(fixedDate)
+                        saved.date().equals(fixedDate.plusSeconds(1))
         ));
+        List<String> topTen = highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY).stream().map(HighScoreModel::id).toList();
+        assertEquals(List.of("1", "2", "3", "4", "5", "11", "6", "7", "8", "9"), topTen);
+        // Gleiche Zeit wie "5": der ältere Eintrag bleibt vorne
+        assertEquals(6, highScoreService.getRankOf("11").rank());
+        assertEquals(11, highScoreService.getRankOf("10").rank());
+    }
+
+    @Test
+    void addHighScore_outsideTopTen_shouldBeStoredButNotReturned() {
+        LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+        List<HighScoreModel> existingScores = IntStream.range(0, 10)
+                .mapToObj(i -> new HighScoreModel(String.valueOf(i), "player", "123456", DifficultyEnum.HARD, "Kangaroo", 0, 10.0 + i, fixedDate))
+                .toList();
+        when(highScoreRepository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(DifficultyEnum.HARD))
+                .thenReturn(existingScores);
+        when(idService.generateRandomId()).thenReturn("slow");
+
+        HighScoreModel result = highScoreService.addHighScore(
+                new HighScoreModel(null, "slowpoke", "1", DifficultyEnum.HARD, "Kangaroo", 0, 19.0, fixedDate));
+        highScoreService.flushPendingWrites();
+
+        assertNull(result);
+        assertEquals(existingScores, highScoreService.getHighScoresByDifficulty(DifficultyEnum.HARD));
+        verify(highScoreRepository).save(argThat(saved -> saved.id().equals("slow")));
+        assertEquals(new HighScoreRank(DifficultyEnum.HARD, "Kangaroo", 11, 11, true), highScoreService.getRankOf("slow"));
+    }
+
+    @Test
+    void addHighScore_shouldRejectLosingScoreWithoutTouchingMongo_whenHistoryIsFull() {
+        LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+        List<HighScoreModel> existingScores = IntStream.range(0, HighScoreService.CATEGORY_LEADERBOARD_SIZE)
+                .mapToObj(i -> new HighScoreModel(String.valueOf(i), "player", "123456", DifficultyEnum.HARD, "Kangaroo", 0, 10.0 + i, fixedDate))
+                .toList();
+        when(highScoreRepository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(DifficultyEnum.HARD))
+                .thenReturn(existingScores);
+        highScoreService.reloadLeaderboards();
+        clearInvocations(highScoreRepository);
+        when(idService.generateRandomId()).thenReturn("loser");
+
+        HighScoreModel result = highScoreService.addHighScore(
+                new HighScoreModel(null, "loser", "1", DifficultyEnum.HARD, "Kangaroo", 1, 0.5, fixedDate));
+        highScoreService.flushPendingWrites();
+
+        assertNull(result);
+        assertEquals(existingScores.subList(0, 10), highScoreService.getHighScoresByDifficulty(DifficultyEnum.HARD));
+        verifyNoInteractions(highScoreRepository);
+    }
+
+    @Test
+    void reloadLeaderboards_shouldKeepCategoryHistoryAndDeleteSurplus() {
+        LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+        int stored = HighScoreService.CATEGORY_LEADERBOARD_SIZE + 2;
+        List<HighScoreModel> storedScores = IntStream.range(0, stored)
+                .mapToObj(i -> new HighScoreModel(String.valueOf(i), "player", "123456", DifficultyEnum.MEDIUM, "Kangaroo", 0, 10.0 + i, fixedDate))
+                .toList();
+        when(highScoreRepository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(DifficultyEnum.MEDIUM))
+                .thenReturn(storedScores);
+
+        highScoreService.reloadLeaderboards();
+        highScoreService.flushPendingWrites();
+
+        assertEquals(storedScores.subList(0, 10), highScoreService.getHighScoresByDifficulty(DifficultyEnum.MEDIUM));
+        assertEquals(HighScoreService.CATEGORY_LEADERBOARD_SIZE,
+                highScoreService.getRankOf(String.valueOf(HighScoreService.CATEGORY_LEADERBOARD_SIZE - 1)).rank());
+        verify(highScoreRepository).deleteById(String.valueOf(stored - 2));
+        verify(highScoreRepository).deleteById(String.valueOf(stored - 1));
+        verify(highScoreRepository, times(2)).deleteById(anyString());
+    }
+
+    @Test
+    void getHighScoresByDifficultyAndCategory_shouldPageAndKeepCategoriesApart() {
+        LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+        List<HighScoreModel> storedScores = IntStream.range(0, 30)
+                .mapToObj(i -> new HighScoreModel(String.valueOf(i), "player", "123456", DifficultyEnum.EASY,
+                        i % 2 == 0 ? "Kangaroo" : "History", i % 3, 10.0 + i, fixedDate))
+                .toList();
+        when(highScoreRepository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(DifficultyEnum.EASY))
+                .thenReturn(storedScores);
+
+        List<HighScoreModel> kangaroo = storedScores.stream()
+                .filter(score -> score.categoryEnum().equals("Kangaroo"))
+                .sorted(Comparator.comparingInt(HighScoreModel::wrongAnswerCount).thenComparingDouble(HighScoreModel::scoreTime))
+                .toList();
+
+        assertEquals(kangaroo.subList(0, 10), highScoreService.getHighScoresByDifficultyAndCategory(DifficultyEnum.EASY, "Kangaroo", 0, 10));
+        assertEquals(kangaroo.subList(10, 15), highScoreService.getHighScoresByDifficultyAndCategory(DifficultyEnum.EASY, "Kangaroo", 1, 10));
+        assertEquals(List.of(), highScoreService.getHighScoresByDifficultyAndCategory(DifficultyEnum.EASY, "Kangaroo", 2, 10));
+        assertEquals(List.of(), highScoreService.getHighScoresByDifficultyAndCategory(DifficultyEnum.EASY, "Music", 0, 10));
+    }
+
+    @Test
+    void getRankFor_shouldPlaceNewScoreBehindTies() {
+        LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+        List<HighScoreModel> storedScores = List.of(
+                new HighScoreModel("1", "player", "1", DifficultyEnum.EASY, "Kangaroo", 0, 10.0, fixedDate),
+                new HighScoreModel("2", "player", "1", DifficultyEnum.EASY, "Kangaroo", 0, 12.0, fixedDate),
+                new HighScoreModel("3", "player", "1", DifficultyEnum.EASY, "Kangaroo", 1, 5.0, fixedDate));
+        when(highScoreRepository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(DifficultyEnum.EASY))
+                .thenReturn(storedScores);
+
+        assertEquals(1, highScoreService.getRankFor(DifficultyEnum.EASY, "Kangaroo", 0, 9.0).rank());
+        assertEquals(3, highScoreService.getRankFor(DifficultyEnum.EASY, "Kangaroo", 0, 12.0).rank());
+        assertEquals(4, highScoreService.getRankFor(DifficultyEnum.EASY, "Kangaroo", 1, 6.0).rank());
+        assertEquals(new HighScoreRank(DifficultyEnum.EASY, "Music", 1, 0, true),
+                highScoreService.getRankFor(DifficultyEnum.EASY, "Music", 2, 60.0));
+    }
+
+    @Test
+    void addHighScore_shouldPublishChangeOnlyWhenTopTenChanges() {
+        LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+        List<HighScoreModel> existingScores = IntStream.range(0, 10)
+                .mapToObj(i -> new HighScoreModel(String.valueOf(i), "player", "123456", DifficultyEnum.HARD, "Kangaroo", 0, 10.0 + i, fixedDate))
+                .toList();
+        when(highScoreRepository.findByDifficultyEnumOrderByWrongAnswerCountAscScoreTimeAsc(DifficultyEnum.HARD))
+                .thenReturn(existingScores);
+        highScoreService.reloadLeaderboards();
+        clearInvocations(eventPublisher);
+        when(idService.generateRandomId()).thenReturn("slow", "fast");
+
+        highScoreService.addHighScore(new HighScoreModel(null, "slowpoke", "1", DifficultyEnum.HARD, "Kangaroo", 0, 30.0, fixedDate));
+        verifyNoInteractions(eventPublisher);
+
+        highScoreService.addHighScore(new HighScoreModel(null, "speedy", "1", DifficultyEnum.HARD, "Kangaroo", 0, 1.0, fixedDate));
+        verify(eventPublisher).publishEvent(new LeaderboardChangedEvent(DifficultyEnum.HARD));
+
+        highScoreService.deleteHighScore("fast");
+        verify(eventPublisher, times(2)).publishEvent(new LeaderboardChangedEvent(DifficultyEnum.HARD));
+    }
+
+    @Test
+    void windowedHighScores_shouldRollWithTheClockWithoutTouchingTheAllTimeBoard() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        AtomicInteger ids = new AtomicInteger();
+        when(idService.generateRandomId()).thenAnswer(invocation -> "w" + ids.incrementAndGet());
+
+        HighScoreModel lastMonth = highScoreService.addHighScore(
+                new HighScoreModel(null, "early", "1", DifficultyEnum.EASY, "Kangaroo", 0, 5.0, now.minusDays(20)));
+        HighScoreModel lastWeek = highScoreService.addHighScore(
+                new HighScoreModel(null, "monday", "1", DifficultyEnum.EASY, "Kangaroo", 0, 8.0, now.minusDays(3)));
+        HighScoreModel today = highScoreService.addHighScore(
+                new HighScoreModel(null, "today", "1", DifficultyEnum.EASY, "Kangaroo", 1, 30.0, now.minusHours(2)));
+
+        assertEquals(List.of(today), highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY, LeaderboardWindow.DAILY));
+        assertEquals(List.of(lastWeek, today), highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY, LeaderboardWindow.WEEKLY));
+        assertEquals(List.of(lastMonth, lastWeek, today), highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY, LeaderboardWindow.MONTHLY));
+
+        clock.advance(Duration.ofDays(12));
+
+        assertEquals(List.of(), highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY, LeaderboardWindow.DAILY));
+        assertEquals(List.of(), highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY, LeaderboardWindow.WEEKLY));
+        assertEquals(List.of(lastWeek, today), highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY, LeaderboardWindow.MONTHLY));
+        assertEquals(List.of(lastMonth, lastWeek, today), highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY, LeaderboardWindow.ALL_TIME));
+    }
+
+    @Test
+    void windowedHighScores_shouldPersistWithTtlAndDropEvictedCopies() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        AtomicInteger ids = new AtomicInteger();
+        when(idService.generateRandomId()).thenAnswer(invocation -> "w" + ids.incrementAndGet());
+        for (int i = 0; i < 10; i++) {
+            highScoreService.addHighScore(new HighScoreModel(null, "player", "1", DifficultyEnum.HARD, "Kangaroo", 0, 10.0 + i, now));
+        }
+
+        highScoreService.addHighScore(new HighScoreModel(null, "best", "1", DifficultyEnum.HARD, "Kangaroo", 0, 1.0, now));
+        highScoreService.flushPendingWrites();
+
+        Instant expectedExpiry = now.truncatedTo(ChronoUnit.DAYS).plusDays(30).atZone(clock.getZone()).toInstant();
+        verify(windowedHighScoreRepository).save(new WindowedHighScoreModel("w11",
+                new HighScoreModel("w11", "best", "1", DifficultyEnum.HARD, "Kangaroo", 0, 1.0, now), expectedExpiry));
+        // Platz 11 ist aus Stunden- und Tages-Bucket gefallen
+        verify(windowedHighScoreRepository).deleteById("w10");
+        assertEquals(10, highScoreService.getHighScoresByDifficulty(DifficultyEnum.HARD, LeaderboardWindow.DAILY).size());
+    }
+
+    @Test
+    void reloadLeaderboards_shouldRebuildWindowsFromUnexpiredCopies() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        HighScoreModel stored = new HighScoreModel("s1", "player", "1", DifficultyEnum.MEDIUM, "Kangaroo", 0, 12.0, now.minusDays(2));
+        when(windowedHighScoreRepository.findByExpireAtAfter(clock.instant()))
+                .thenReturn(List.of(new WindowedHighScoreModel("s1", stored, clock.instant().plusSeconds(60))));
+
+        highScoreService.reloadLeaderboards();
+        highScoreService.flushPendingWrites();
+
+        assertEquals(List.of(stored), highScoreService.getHighScoresByDifficulty(DifficultyEnum.MEDIUM, LeaderboardWindow.WEEKLY));
+        assertEquals(List.of(), highScoreService.getHighScoresByDifficulty(DifficultyEnum.MEDIUM, LeaderboardWindow.DAILY));
+        verify(windowedHighScoreRepository, never()).save(any());
+    }
+
+    @Test
+    void getRankOf_unknownId_shouldThrow() {
+        assertThrows(HighScoreNotFoundException.class, () -> highScoreService.getRankOf("missing"));
+    }
+
+    @Test
+    void addHighScore_underConcurrentSubmissions_persistsExactlyTheListedScores() throws Exception {
+        Map<String, HighScoreModel> database = new ConcurrentHashMap<>();
+        when(highScoreRepository.save(any(HighScoreModel.class))).thenAnswer(invocation -> {
+            HighScoreModel saved = invocation.getArgument(0);
+            database.put(saved.id(), saved);
+            return saved;
+        });
+        doAnswer(invocation -> database.remove(invocation.<String>getArgument(0)))
+                .when(highScoreRepository).deleteById(anyString());
+        AtomicInteger ids = new AtomicInteger();
+        when(idService.generateRandomId()).thenAnswer(invocation -> "id-" + ids.incrementAndGet());
+        LocalDateTime fixedDate = LocalDateTime.of(2025, 3, 5, 12, 0, 0);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                int seed = thread;
+                executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 500; i++) {
+                        highScoreService.addHighScore(new HighScoreModel(null, "player", "1", DifficultyEnum.EASY,
+                                random.nextBoolean() ? "Kangaroo" : "History", random.nextInt(3), random.nextInt(10_000) / 10.0, fixedDate));
+                    }
+                });
+            }
+        }
+        highScoreService.flushPendingWrites();
+
+        List<HighScoreModel> leaderboard = highScoreService.getHighScoresByDifficulty(DifficultyEnum.EASY);
+        assertEquals(database.values().stream().sorted(Leaderboard.RANKING).limit(10).toList(), leaderboard);
+        List<HighScoreModel> listed = new ArrayList<>();
+        for (String category : List.of("Kangaroo", "History")) {
+            List<HighScoreModel> page;
+            for (int pageNumber = 0; !(page = highScoreService.getHighScoresByDifficultyAndCategory(DifficultyEnum.EASY, category, pageNumber, 100)).isEmpty(); pageNumber++) {
+                listed.addAll(page);
+            }
+        }
+        assertEquals(8 * 500, listed.size());
+        assertEquals(new HashSet<>(listed), new HashSet<>(database.values()));
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime start) {
+            this.instant = start.atZone(ZoneId.systemDefault()).toInstant();
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
     }
 
 }
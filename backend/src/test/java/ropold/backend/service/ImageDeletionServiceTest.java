@@ -0,0 +1,172 @@
+package ropold.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import ropold.backend.image.ImageStorage;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.ImageDeletion;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.ImageDeletionRepository;
+import ropold.backend.repository.QuestionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageDeletionServiceTest {
+
+    ImageDeletionRepository imageDeletionRepository = mock(ImageDeletionRepository.class);
+    QuestionRepository questionRepository = mock(QuestionRepository.class);
+    ImageStorage imageStorage = mock(ImageStorage.class);
+    ImageProxyService imageProxyService = mock(ImageProxyService.class);
+    HighScoreServiceTest.MutableClock clock = new HighScoreServiceTest.MutableClock(LocalDateTime.of(2025, 3, 5, 12, 0));
+    ImageDeletionService imageDeletionService = new ImageDeletionService(imageDeletionRepository, questionRepository,
+            imageStorage, imageProxyService, clock, Duration.ofHours(1));
+
+    @AfterEach
+    void tearDown() {
+        imageDeletionService.close();
+    }
+
+    private ImageDeletion due(String id, String imageUrl, int attempts) {
+        return new ImageDeletion(id, imageUrl, attempts, clock.instant(), clock.instant(), null);
+    }
+
+    @Test
+    void scheduleDeletion_shouldOnlyWriteOutboxEntry() {
+        imageDeletionService.scheduleDeletion("https://example.com/image.jpg");
+        imageDeletionService.scheduleDeletion(" ");
+
+        verify(imageDeletionRepository, times(1)).insert(ImageDeletion.of("https://example.com/image.jpg", clock.instant()));
+        verifyNoInteractions(imageStorage);
+    }
+
+    @Test
+    void drain_shouldDeleteImagesAndRemoveEntries() {
+        when(imageDeletionRepository.claimNextDue(any(), any()))
+                .thenReturn(due("d1", "https://example.com/a.jpg", 0), due("d2", "https://example.com/b.jpg", 0), null);
+
+        assertEquals(2, imageDeletionService.drain());
+
+        verify(imageStorage).deleteImage("https://example.com/a.jpg");
+        verify(imageStorage).deleteImage("https://example.com/b.jpg");
+        verify(imageDeletionRepository).deleteById("d1");
+        verify(imageDeletionRepository).deleteById("d2");
+        verify(imageProxyService).evict("https://example.com/a.jpg");
+        verify(imageProxyService).evict("https://example.com/b.jpg");
+        verify(imageDeletionRepository, times(3)).claimNextDue(clock.instant(), clock.instant().plus(ImageDeletionService.LEASE));
+    }
+
+    @Test
+    void drain_withFailure_shouldRetryWithExponentialBackoff() {
+        when(imageDeletionRepository.claimNextDue(any(), any())).thenReturn(due("d1", "https://example.com/a.jpg", 2), (ImageDeletion) null);
+        doThrow(new RuntimeException("Cloudinary down")).when(imageStorage).deleteImage(anyString());
+
+        imageDeletionService.drain();
+
+        ArgumentCaptor<ImageDeletion> captor = ArgumentCaptor.forClass(ImageDeletion.class);
+        verify(imageDeletionRepository).save(captor.capture());
+        ImageDeletion retry = captor.getValue();
+        assertEquals(3, retry.attempts());
+        assertEquals(clock.instant().plus(Duration.ofSeconds(40)), retry.nextAttemptAt());
+        assertEquals("Cloudinary down", retry.lastError());
+        verify(imageDeletionRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void drain_afterLastAttempt_shouldGiveUp() {
+        when(imageDeletionRepository.claimNextDue(any(), any()))
+                .thenReturn(due("d1", "https://example.com/a.jpg", ImageDeletionService.MAX_ATTEMPTS - 1), (ImageDeletion) null);
+        doThrow(new RuntimeException("Cloudinary down")).when(imageStorage).deleteImage(anyString());
+
+        imageDeletionService.drain();
+
+        verify(imageDeletionRepository).deleteById("d1");
+        verify(imageDeletionRepository, never()).save(any());
+    }
+
+    @Test
+    void drain_whenImageIsStillReferenced_shouldCheckAgainLater() {
+        // Die Frage, die das Bild ersetzt, ist vielleicht noch nicht gespeichert
+        when(imageDeletionRepository.claimNextDue(any(), any())).thenReturn(due("d1", "https://example.com/a.jpg", 0), (ImageDeletion) null);
+        when(questionRepository.isImageReferenced("https://example.com/a.jpg")).thenReturn(true);
+
+        imageDeletionService.drain();
+
+        verify(imageStorage, never()).deleteImage(anyString());
+        verify(imageDeletionRepository, never()).deleteById(anyString());
+        ArgumentCaptor<ImageDeletion> captor = ArgumentCaptor.forClass(ImageDeletion.class);
+        verify(imageDeletionRepository).save(captor.capture());
+        assertEquals(clock.instant().plus(Duration.ofSeconds(10)), captor.getValue().nextAttemptAt());
+    }
+
+    @Test
+    void drain_whenImageIsStillReferencedAfterGrace_shouldKeepImageAndDropEntry() {
+        ImageDeletion deletion = due("d1", "https://example.com/a.jpg", 5);
+        clock.advance(ImageDeletionService.REFERENCED_GRACE);
+        when(imageDeletionRepository.claimNextDue(any(), any())).thenReturn(deletion, (ImageDeletion) null);
+        when(questionRepository.isImageReferenced("https://example.com/a.jpg")).thenReturn(true);
+
+        imageDeletionService.drain();
+
+        verify(imageStorage, never()).deleteImage(anyString());
+        verify(imageDeletionRepository).deleteById("d1");
+        verify(imageDeletionRepository, never()).save(any());
+    }
+
+    @Test
+    void failedQuestionWrite_afterOutboxInsert_shouldKeepImageAndDropEntryAfterGrace() {
+        String imageUrl = "https://example.com/a.jpg";
+        QuestionModel question = new QuestionModel("1", "Titel", DifficultyEnum.EASY, CategoryEnum.HISTORY, "Frage?",
+                List.of(new AnswerOption("A", true)), "", true, "user", imageUrl, null, false, null);
+        QuestionService questionService = new QuestionService(mock(IdService.class), questionRepository, imageDeletionService);
+        when(questionRepository.findById("1")).thenReturn(Optional.of(question));
+        doThrow(new IllegalStateException("write failed")).when(questionRepository).deleteById("1");
+
+        assertThrows(IllegalStateException.class, () -> questionService.deleteQuestion("1"));
+
+        InOrder inOrder = inOrder(imageDeletionRepository, questionRepository);
+        inOrder.verify(imageDeletionRepository).insert(ImageDeletion.of(imageUrl, clock.instant()));
+        inOrder.verify(questionRepository).deleteById("1");
+
+        // Die Frage gibt es noch: der Eintrag wird erneut geprüft und nach der Frist verworfen
+        when(questionRepository.isImageReferenced(imageUrl)).thenReturn(true);
+        ImageDeletion stored = due("d1", imageUrl, 0);
+        when(imageDeletionRepository.claimNextDue(any(), any())).thenReturn(stored, (ImageDeletion) null);
+        imageDeletionService.drain();
+        verify(imageDeletionRepository).save(any());
+
+        clock.advance(ImageDeletionService.REFERENCED_GRACE);
+        when(imageDeletionRepository.claimNextDue(any(), any())).thenReturn(stored.retryAt(clock.instant(), "still referenced"), (ImageDeletion) null);
+        imageDeletionService.drain();
+
+        verify(imageDeletionRepository).deleteById("d1");
+        verifyNoInteractions(imageStorage, imageProxyService);
+    }
+
+    @Test
+    void drain_shouldStopAfterOneBatch() {
+        when(imageDeletionRepository.claimNextDue(any(), any())).thenAnswer(invocation -> due("d", "https://example.com/a.jpg", 0));
+
+        assertEquals(ImageDeletionService.BATCH_SIZE, imageDeletionService.drain());
+        verify(imageStorage, times(ImageDeletionService.BATCH_SIZE)).deleteImage("https://example.com/a.jpg");
+    }
+
+    @Test
+    void backoff_shouldDoubleUpToMaximum() {
+        assertEquals(Duration.ofSeconds(10), ImageDeletionService.backoff(1));
+        assertEquals(Duration.ofSeconds(20), ImageDeletionService.backoff(2));
+        assertEquals(Duration.ofHours(1), ImageDeletionService.backoff(10));
+        assertEquals(Duration.ofHours(1), ImageDeletionService.backoff(40));
+    }
+}
@@ -0,0 +1,166 @@
+package ropold.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ropold.backend.exception.ImageNotFoundException;
+import ropold.backend.exception.ImageOriginException;
+import ropold.backend.image.DiskImageCache;
+import ropold.backend.repository.QuestionRepository;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageProxyServiceTest {
+
+    private static final byte[] IMAGE = {(byte) 0xFF, (byte) 0xD8, 1, 2, 3, 4, 5, 6};
+
+    @TempDir
+    Path directory;
+
+    QuestionRepository questionRepository = mock(QuestionRepository.class);
+    HttpClient httpClient = HttpClient.newHttpClient();
+    AtomicInteger originRequests = new AtomicInteger();
+    CountDownLatch releaseOrigin = new CountDownLatch(0);
+    HttpServer origin;
+    ImageProxyService imageProxyService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        origin = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        origin.setExecutor(Executors.newCachedThreadPool());
+        origin.createContext("/image.jpg", exchange -> {
+            originRequests.incrementAndGet();
+            try {
+                releaseOrigin.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, IMAGE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(IMAGE);
+            }
+        });
+        origin.createContext("/page.html", exchange -> {
+            originRequests.incrementAndGet();
+            exchange.getResponseHeaders().set("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, 2);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write("hi".getBytes());
+            }
+        });
+        origin.createContext("/broken.jpg", exchange -> {
+            originRequests.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        origin.start();
+        when(questionRepository.isImageReferenced(anyString())).thenReturn(true);
+        imageProxyService = new ImageProxyService(questionRepository, new DiskImageCache(directory, 1_000_000),
+                httpClient, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        origin.stop(0);
+        httpClient.shutdownNow();
+    }
+
+    private String originUrl(String path) {
+        return "http://localhost:" + origin.getAddress().getPort() + path;
+    }
+
+    @Test
+    void getImage_shouldFetchOnMissAndServeHitsFromDisk() throws Exception {
+        String id = ImageProxyService.idFor(originUrl("/image.jpg"));
+
+        DiskImageCache.CachedImage first = imageProxyService.getImage(id);
+        DiskImageCache.CachedImage second = imageProxyService.getImage(id);
+
+        assertEquals(first, second);
+        assertEquals("image/jpeg", first.contentType());
+        assertArrayEquals(IMAGE, Files.readAllBytes(first.path()));
+        assertEquals(1, originRequests.get());
+        verify(questionRepository, times(1)).isImageReferenced(originUrl("/image.jpg"));
+    }
+
+    @Test
+    void evict_shouldFetchDeletedImageAgainOnlyIfStillReferenced() {
+        String id = ImageProxyService.idFor(originUrl("/image.jpg"));
+        imageProxyService.getImage(id);
+
+        imageProxyService.evict(originUrl("/image.jpg"));
+        when(questionRepository.isImageReferenced(anyString())).thenReturn(false);
+
+        assertThrows(ImageNotFoundException.class, () -> imageProxyService.getImage(id));
+        assertEquals(1, originRequests.get());
+    }
+
+    @Test
+    void getImage_withConcurrentMisses_shouldContactOriginOnce() throws Exception {
+        releaseOrigin = new CountDownLatch(1);
+        String id = ImageProxyService.idFor(originUrl("/image.jpg"));
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<DiskImageCache.CachedImage>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> imageProxyService.getImage(id)));
+            }
+            Thread.sleep(200);
+            releaseOrigin.countDown();
+            for (Future<DiskImageCache.CachedImage> result : results) {
+                assertEquals(IMAGE.length, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, originRequests.get());
+    }
+
+    @Test
+    void getImage_withImageNotUsedByAnyQuestion_shouldNotContactOrigin() {
+        when(questionRepository.isImageReferenced(anyString())).thenReturn(false);
+
+        String id = ImageProxyService.idFor(originUrl("/image.jpg"));
+        assertThrows(ImageNotFoundException.class, () -> imageProxyService.getImage(id));
+        assertEquals(0, originRequests.get());
+    }
+
+    @Test
+    void getImage_withInvalidIdOrScheme_shouldThrowNotFound() {
+        assertThrows(ImageNotFoundException.class, () -> imageProxyService.getImage("%%%"));
+        assertThrows(ImageNotFoundException.class, () -> imageProxyService.getImage(ImageProxyService.idFor("file:///etc/passwd")));
+        verify(questionRepository, never()).isImageReferenced(anyString());
+    }
+
+    @Test
+    void getImage_whenOriginFailsOrSendsNoImage_shouldThrowAndCacheNothing() {
+        String broken = ImageProxyService.idFor(originUrl("/broken.jpg"));
+        String html = ImageProxyService.idFor(originUrl("/page.html"));
+
+        assertThrows(ImageOriginException.class, () -> imageProxyService.getImage(broken));
+        assertThrows(ImageOriginException.class, () -> imageProxyService.getImage(html));
+        // Fehler werden nicht zwischengespeichert, der nächste Request versucht es erneut
+        assertThrows(ImageOriginException.class, () -> imageProxyService.getImage(broken));
+        assertEquals(3, originRequests.get());
+    }
+}
@@ -0,0 +1,138 @@
+package ropold.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import ropold.backend.exception.ImageUploadLimitException;
+import ropold.backend.image.ImageStorage;
+import ropold.backend.image.StoredImage;
+import ropold.backend.model.ImageVariant;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageUploadServiceTest {
+
+    ImageStorage imageStorage = mock(ImageStorage.class);
+    ImageUploadService imageUploadService = new ImageUploadService(imageStorage, 1, 1);
+    MockMultipartFile image = new MockMultipartFile("image", "image.jpg", "image/jpeg", "image".getBytes());
+
+    @AfterEach
+    void tearDown() {
+        imageUploadService.close();
+    }
+
+    @Test
+    void upload_shouldRunOffTheCallingThread() throws Exception {
+        AtomicReference<String> uploadThread = new AtomicReference<>();
+        when(imageStorage.uploadImage(any(), anyString())).thenAnswer(invocation -> {
+            uploadThread.set(Thread.currentThread().getName());
+            return "https://example.com/image.jpg";
+        });
+
+        // Kein von ImageIO lesbares Bild: das Original wird unverändert abgelegt
+        StoredImage stored = imageUploadService.upload(image).get(5, TimeUnit.SECONDS);
+        assertEquals("https://example.com/image.jpg", stored.imageUrl());
+        assertTrue(stored.variants().isEmpty());
+        assertTrue(uploadThread.get().startsWith("image-upload-"));
+        verify(imageStorage).uploadImage(any(), eq("image.jpg"));
+    }
+
+    @Test
+    void uploadAndThen_whenNextStepFails_shouldDeleteUploadedImage() throws Exception {
+        when(imageStorage.uploadImage(any(), anyString())).thenReturn("https://example.com/image.jpg");
+
+        CompletableFuture<String> result = imageUploadService.uploadAndThen(image, stored -> {
+            throw new IllegalStateException("Mongo down");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        verify(imageStorage).deleteImage("https://example.com/image.jpg");
+    }
+
+    private static MockMultipartFile png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return new MockMultipartFile("image", "photo.png", "image/png", out.toByteArray());
+    }
+
+    @Test
+    void upload_withDecodableImage_shouldStoreJpegVariantsAndUseLargestAsImageUrl() throws Exception {
+        when(imageStorage.uploadImage(any(), anyString())).thenAnswer(invocation -> {
+            try (InputStream content = invocation.getArgument(0)) {
+                assertNotNull(ImageIO.read(content));
+            }
+            return "https://example.com/" + invocation.getArgument(1);
+        });
+
+        StoredImage stored = imageUploadService.upload(png(2000, 1000)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(
+                new ImageVariant(320, "https://example.com/photo-320w.jpg"),
+                new ImageVariant(640, "https://example.com/photo-640w.jpg"),
+                new ImageVariant(1280, "https://example.com/photo-1280w.jpg")
+        ), stored.variants());
+        assertEquals("https://example.com/photo-1280w.jpg", stored.imageUrl());
+        verify(imageStorage, times(3)).uploadImage(any(), anyString());
+    }
+
+    @Test
+    void upload_whenVariantUploadFails_shouldDeleteVariantsAlreadyStored() throws Exception {
+        when(imageStorage.uploadImage(any(), anyString()))
+                .thenReturn("https://example.com/photo-320w.jpg")
+                .thenThrow(new IOException("Cloudinary down"));
+
+        CompletableFuture<StoredImage> result = imageUploadService.upload(png(1000, 500));
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        verify(imageStorage).deleteImage("https://example.com/photo-320w.jpg");
+    }
+
+    @Test
+    void upload_whenStorageFails_shouldCompleteExceptionally() throws Exception {
+        when(imageStorage.uploadImage(any(), anyString())).thenThrow(new IOException("Cloudinary down"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> imageUploadService.upload(image).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(UncheckedIOException.class, e.getCause());
+        verify(imageStorage, never()).deleteImage(anyString());
+    }
+
+    @Test
+    void upload_whenPoolAndQueueAreFull_shouldRejectImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(imageStorage.uploadImage(any(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "https://example.com/image.jpg";
+        });
+
+        CompletableFuture<StoredImage> running = imageUploadService.upload(image);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<StoredImage> queued = imageUploadService.upload(image);
+
+        assertThrows(ImageUploadLimitException.class, () -> imageUploadService.upload(image));
+        assertEquals(2, imageUploadService.pendingUploads());
+
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,207 @@
+package ropold.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import ropold.backend.exception.ImageStorageUnavailableException;
+import ropold.backend.exception.InvalidImageException;
+import ropold.backend.image.ImageStorage;
+import ropold.backend.model.PendingImageUpload;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.PendingImageUploadRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class PendingImageServiceTest {
+
+    PendingImageUploadRepository pendingImageUploadRepository = mock(PendingImageUploadRepository.class);
+    QuestionService questionService = mock(QuestionService.class);
+    ImageStorage imageStorage = mock(ImageStorage.class);
+    ImageDeletionService imageDeletionService = mock(ImageDeletionService.class);
+    IdService idService = mock(IdService.class);
+    ImageUploadService imageUploadService = new ImageUploadService(imageStorage, 1, 4);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    HighScoreServiceTest.MutableClock clock = new HighScoreServiceTest.MutableClock(LocalDateTime.of(2025, 3, 5, 12, 0));
+    PendingImageService pendingImageService = new PendingImageService(pendingImageUploadRepository, idService, questionService,
+            imageUploadService, imageDeletionService, meterRegistry, clock, Duration.ofHours(1));
+
+    MockMultipartFile image = new MockMultipartFile("image", "image.jpg", "image/jpeg", "image".getBytes());
+    QuestionModel withImage = question("https://example.com/image.jpg", false);
+    QuestionModel imagePending = question(null, true);
+
+    @AfterEach
+    void tearDown() {
+        pendingImageService.close();
+        imageUploadService.close();
+    }
+
+    private static QuestionModel question(String imageUrl, boolean imagePending) {
+        return new QuestionModel("1", "Mathe", null, null, "Was ist 2 + 2?", List.of(), "", true, "user",
+                imageUrl, null, imagePending, null);
+    }
+
+    private PendingImageUpload due(int attempts) {
+        return new PendingImageUpload("upload-1", "1", "image".getBytes(), "image.jpg", attempts, clock.instant(), clock.instant(), null);
+    }
+
+    @Test
+    void saveWithImage_withHealthyStorage_shouldSaveQuestionWithImage() throws Exception {
+        when(imageStorage.uploadImage(any(InputStream.class), eq("image.jpg"))).thenReturn("https://example.com/image.jpg");
+
+        QuestionModel saved = pendingImageService.saveWithImage(image,
+                stored -> stored.imageUrl().equals(withImage.imageUrl()) ? withImage : null,
+                uploadId -> imagePending).get(5, TimeUnit.SECONDS);
+
+        assertSame(withImage, saved);
+        verifyNoInteractions(pendingImageUploadRepository);
+    }
+
+    @Test
+    void saveWithImage_withUnavailableStorage_shouldSaveQuestionAsImagePendingAndKeepImage() throws Exception {
+        when(imageStorage.uploadImage(any(InputStream.class), anyString()))
+                .thenThrow(new ImageStorageUnavailableException("circuit is open"));
+        when(idService.generateRandomId()).thenReturn("upload-1");
+
+        QuestionModel saved = pendingImageService.saveWithImage(image, stored -> withImage,
+                uploadId -> uploadId.equals("upload-1") ? imagePending : null).get(5, TimeUnit.SECONDS);
+
+        assertSame(imagePending, saved);
+        ArgumentCaptor<PendingImageUpload> captor = ArgumentCaptor.forClass(PendingImageUpload.class);
+        verify(pendingImageUploadRepository).save(captor.capture());
+        assertEquals("upload-1", captor.getValue().id());
+        assertEquals("1", captor.getValue().questionId());
+        assertArrayEquals("image".getBytes(), captor.getValue().data());
+        assertEquals(clock.instant(), captor.getValue().nextAttemptAt());
+    }
+
+    @Test
+    void saveWithImage_withInvalidImage_shouldFailWithoutSaving() {
+        ImageUploadService rejecting = mock(ImageUploadService.class);
+        when(rejecting.uploadAndThen(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new InvalidImageException("not an image")));
+        PendingImageService service = new PendingImageService(pendingImageUploadRepository, idService, questionService,
+                rejecting, imageDeletionService, meterRegistry, clock, Duration.ofHours(1));
+        try {
+            ExecutionException thrown = assertThrows(ExecutionException.class,
+                    () -> service.saveWithImage(image, stored -> withImage, uploadId -> imagePending).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InvalidImageException.class, thrown.getCause());
+            verifyNoInteractions(pendingImageUploadRepository);
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void drain_shouldUploadImageAndFinishQuestion() throws IOException {
+        when(pendingImageUploadRepository.claimNextDue(any(), any())).thenReturn(due(0), (PendingImageUpload) null);
+        when(questionService.isWaitingForImage("1", "upload-1")).thenReturn(true);
+        when(imageStorage.uploadImage(any(InputStream.class), eq("image.jpg"))).thenReturn("https://example.com/image.jpg");
+        when(questionService.finishPendingImage("1", "upload-1", "https://example.com/image.jpg", List.of())).thenReturn(withImage);
+
+        assertEquals(1, pendingImageService.drain());
+
+        verify(questionService).finishPendingImage("1", "upload-1", "https://example.com/image.jpg", List.of());
+        verify(pendingImageUploadRepository).deleteById("upload-1");
+        verifyNoInteractions(imageDeletionService);
+    }
+
+    @Test
+    void drain_whenQuestionChangedDuringUpload_shouldDeleteUploadedImage() throws IOException {
+        when(pendingImageUploadRepository.claimNextDue(any(), any())).thenReturn(due(0), (PendingImageUpload) null);
+        when(questionService.isWaitingForImage("1", "upload-1")).thenReturn(true);
+        when(imageStorage.uploadImage(any(InputStream.class), eq("image.jpg"))).thenReturn("https://example.com/image.jpg");
+
+        pendingImageService.drain();
+
+        verify(imageDeletionService).scheduleDeletion("https://example.com/image.jpg");
+        verify(pendingImageUploadRepository).deleteById("upload-1");
+    }
+
+    @Test
+    void drain_whenNewerUploadReplacedThisOne_shouldDeleteOnlyOwnEntryAndUploadedImage() throws IOException {
+        // Während Upload 1 lief, wurde die Frage mit einem neuen Bild gespeichert, das auf Upload 2 wartet
+        when(pendingImageUploadRepository.claimNextDue(any(), any())).thenReturn(due(0), (PendingImageUpload) null);
+        when(questionService.isWaitingForImage("1", "upload-1")).thenReturn(true);
+        when(imageStorage.uploadImage(any(InputStream.class), eq("image.jpg"))).thenReturn("https://example.com/image.jpg");
+        when(questionService.finishPendingImage("1", "upload-1", "https://example.com/image.jpg", List.of())).thenReturn(null);
+
+        pendingImageService.drain();
+
+        verify(imageDeletionService).scheduleDeletion("https://example.com/image.jpg");
+        verify(pendingImageUploadRepository).deleteById("upload-1");
+        verify(pendingImageUploadRepository, never()).deleteById("1");
+    }
+
+    @Test
+    void drain_whenQuestionNoLongerPending_shouldDiscardEntryWithoutUpload() {
+        when(pendingImageUploadRepository.claimNextDue(any(), any())).thenReturn(due(0), (PendingImageUpload) null);
+        when(questionService.isWaitingForImage("1", "upload-1")).thenReturn(false);
+
+        assertEquals(1, pendingImageService.drain());
+
+        verifyNoInteractions(imageStorage);
+        verify(pendingImageUploadRepository).deleteById("upload-1");
+    }
+
+    @Test
+    void drain_withStorageStillUnavailable_shouldBackOffAndStopBatch() throws IOException {
+        when(pendingImageUploadRepository.claimNextDue(any(), any())).thenReturn(due(2));
+        when(questionService.isWaitingForImage("1", "upload-1")).thenReturn(true);
+        when(imageStorage.uploadImage(any(InputStream.class), anyString()))
+                .thenThrow(new ImageStorageUnavailableException("circuit is open"));
+
+        assertEquals(1, pendingImageService.drain());
+
+        ArgumentCaptor<PendingImageUpload> captor = ArgumentCaptor.forClass(PendingImageUpload.class);
+        verify(pendingImageUploadRepository).save(captor.capture());
+        assertEquals(3, captor.getValue().attempts());
+        assertEquals(clock.instant().plus(Duration.ofMinutes(2)), captor.getValue().nextAttemptAt());
+        assertEquals("circuit is open", captor.getValue().lastError());
+        verify(questionService, never()).finishPendingImage(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void drain_afterLastAttempt_shouldGiveUpAndClearPendingFlag() throws IOException {
+        when(pendingImageUploadRepository.claimNextDue(any(), any()))
+                .thenReturn(due(PendingImageService.MAX_ATTEMPTS - 1), (PendingImageUpload) null);
+        when(questionService.isWaitingForImage("1", "upload-1")).thenReturn(true);
+        when(imageStorage.uploadImage(any(InputStream.class), anyString()))
+                .thenThrow(new ImageStorageUnavailableException("circuit is open"));
+
+        pendingImageService.drain();
+
+        verify(questionService).finishPendingImage(eq("1"), eq("upload-1"), isNull(), isNull());
+        verify(pendingImageUploadRepository).deleteById("upload-1");
+        verify(pendingImageUploadRepository, never()).save(any());
+    }
+
+    @Test
+    void backoff_shouldDoubleUpToCap() {
+        assertEquals(Duration.ofSeconds(30), PendingImageService.backoff(1));
+        assertEquals(Duration.ofMinutes(4), PendingImageService.backoff(4));
+        assertEquals(Duration.ofHours(1), PendingImageService.backoff(11));
+    }
+
+    @Test
+    void pendingUploadsGauge_shouldReportOutboxSize() {
+        when(pendingImageUploadRepository.count()).thenReturn(3L);
+
+        assertEquals(3, meterRegistry.get("image.uploads.pending").gauge().value());
+    }
+}
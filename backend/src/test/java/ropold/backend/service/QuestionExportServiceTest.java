@@ -0,0 +1,80 @@
+package ropold.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.AnswerOption;
+import ropold.backend.model.CategoryEnum;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.QuestionFilter;
+import ropold.backend.model.QuestionModel;
+import ropold.backend.repository.QuestionRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuestionExportServiceTest {
+
+    QuestionRepository questionRepository = mock(QuestionRepository.class);
+    ObjectMapper objectMapper = new ObjectMapper();
+    QuestionExportService questionExportService = new QuestionExportService(questionRepository, objectMapper);
+
+    private static QuestionModel question(String id) {
+        return new QuestionModel(
+                id,
+                "Titel " + id,
+                DifficultyEnum.EASY,
+                CategoryEnum.ART,
+                "Frage " + id,
+                List.of(
+                        new AnswerOption("A", true),
+                        new AnswerOption("B", false),
+                        new AnswerOption("C", false),
+                        new AnswerOption("D", false)
+                ),
+                "Erklärung " + id,
+                true,
+                "user",
+                null,
+                null,
+                false,
+                null
+        );
+    }
+
+    @Test
+    void testExportNdjson_writesOneLinePerQuestionAndClosesCursor() throws IOException {
+        QuestionFilter filter = new QuestionFilter(null, null, null, null);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(questionRepository.streamAll(filter))
+                .thenReturn(Stream.of(question("1"), question("2")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long count = questionExportService.exportNdjson(filter, outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, count);
+        assertEquals(2, lines.size());
+        assertEquals(question("1"), objectMapper.readValue(lines.get(0), QuestionModel.class));
+        assertEquals(question("2"), objectMapper.readValue(lines.get(1), QuestionModel.class));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testExportNdjson_withEmptyBank_writesNothing() throws IOException {
+        QuestionFilter filter = new QuestionFilter(null, null, null, true);
+        when(questionRepository.streamAll(filter)).thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(0, questionExportService.exportNdjson(filter, outputStream));
+        assertEquals(0, outputStream.size());
+    }
+}
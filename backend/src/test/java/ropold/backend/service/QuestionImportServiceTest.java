@@ -0,0 +1,130 @@
+package ropold.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import ropold.backend.model.QuestionImportItem;
+import ropold.backend.model.QuestionImportReport;
+import ropold.backend.model.QuestionModel;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuestionImportServiceTest {
+
+    MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    BulkOperations bulkOperations = mock(BulkOperations.class);
+    IdService idService = mock(IdService.class);
+    QuestionService questionService = mock(QuestionService.class);
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    QuestionImportService questionImportService =
+            new QuestionImportService(new ObjectMapper(), validator, mongoTemplate, idService, questionService);
+
+    @BeforeEach
+    void setup() {
+        AtomicInteger ids = new AtomicInteger();
+        when(idService.generateRandomId()).thenAnswer(invocation -> "id-" + ids.getAndIncrement());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, QuestionModel.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private static String validQuestion(int i) {
+        return """
+                {"title": "Frage %d", "difficultyEnum": "EASY", "categoryEnum": "ART",
+                 "questionText": "Was ist Kunst?", "answerExplanation": "Darum.", "isActive": true, "githubId": "anonymous",
+                 "options": [{"text": "A", "isCorrect": true}, {"text": "B", "isCorrect": false},
+                             {"text": "C", "isCorrect": false}, {"text": "D", "isCorrect": false}]}
+                """.formatted(i);
+    }
+
+    private QuestionImportReport importJson(String json) throws IOException {
+        return questionImportService.importQuestions(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testImportQuestions_writesUnorderedChunks() throws IOException {
+        String json = IntStream.range(0, 2_500)
+                .mapToObj(QuestionImportServiceTest::validQuestion)
+                .collect(Collectors.joining(",", "[", "]"));
+
+        QuestionImportReport report = importJson(json);
+
+        assertEquals(2_500, report.received());
+        assertEquals(2_500, report.imported());
+        assertEquals(0, report.rejected());
+        assertNull(report.error());
+        assertTrue(report.items().stream().allMatch(QuestionImportItem::success));
+        verify(mongoTemplate, times(3)).bulkOps(BulkOperations.BulkMode.UNORDERED, QuestionModel.class);
+        verify(bulkOperations, times(2)).insert(argThat((List<?> chunk) -> chunk.size() == QuestionImportService.CHUNK_SIZE));
+        verify(bulkOperations).insert(argThat((List<?> chunk) -> chunk.size() == 500));
+        verify(questionService, times(3)).registerImportedQuestions(anyList());
+    }
+
+    @Test
+    void testImportQuestions_validatesEachItem() throws IOException {
+        String json = "[" + validQuestion(0) + """
+                , {"title": "x", "difficultyEnum": "EASY", "categoryEnum": "ART", "options": []}
+                , null
+                , 42]
+                """;
+
+        QuestionImportReport report = importJson(json);
+
+        assertEquals(4, report.received());
+        assertEquals(1, report.imported());
+        assertEquals(3, report.rejected());
+        assertEquals(List.of(0, 1, 2, 3), report.items().stream().map(QuestionImportItem::index).toList());
+        assertEquals(List.of(
+                "options: Exactly 4 answer options are required",
+                "options: Exactly one answer option must be marked as correct",
+                "title: Title must be at least 3 characters long"
+        ), report.items().get(1).errors());
+        assertFalse(report.items().get(2).success());
+        assertFalse(report.items().get(3).success());
+    }
+
+    @Test
+    void testImportQuestions_reportsFailedDocumentsOfUnorderedBulkWrite() throws IOException {
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1);
+        MongoBulkWriteException failure = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()),
+                List.of(duplicate), null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("Bulk write failed", failure));
+
+        QuestionImportReport report = importJson("[" + validQuestion(0) + "," + validQuestion(1) + "," + validQuestion(2) + "]");
+
+        assertEquals(2, report.imported());
+        assertEquals(List.of(true, false, true), report.items().stream().map(QuestionImportItem::success).toList());
+        assertEquals(List.of("E11000 duplicate key"), report.items().get(1).errors());
+        verify(questionService).registerImportedQuestions(argThat(questions -> questions.size() == 2));
+    }
+
+    @Test
+    void testImportQuestions_withMalformedJson_keepsImportedPrefix() throws IOException {
+        QuestionImportReport report = importJson("[" + validQuestion(0) + ", {\"title\": ");
+
+        assertEquals(1, report.imported());
+        assertNotNull(report.error());
+        verify(bulkOperations).insert(argThat((List<?> chunk) -> chunk.size() == 1));
+    }
+}
@@ -3,16 +3,31 @@ package ropold.backend.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import ropold.backend.exception.QuestionNotFoundException;
 import ropold.backend.model.AnswerOption;
+import ropold.backend.model.AnswerStatistics;
 import ropold.backend.model.CategoryEnum;
+import ropold.backend.exception.InvalidCursorException;
 import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.ImageVariant;
+import ropold.backend.model.PublicQuestion;
+import ropold.backend.model.QuestionFilter;
 import ropold.backend.model.QuestionModel;
+import ropold.backend.model.QuestionPage;
+import ropold.backend.model.QuestionSearchResult;
+import ropold.backend.model.QuestionSummary;
 import ropold.backend.repository.QuestionRepository;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 
@@ -20,8 +35,8 @@ class QuestionServiceTest {
 
     IdService idService = mock(IdService.class);
     QuestionRepository questionRepository = mock(QuestionRepository.class);
-    CloudinaryService cloudinaryService = mock(CloudinaryService.class);
-    QuestionService questionService = new QuestionService(idService, questionRepository, cloudinaryService);
+    ImageDeletionService imageDeletionService = mock(ImageDeletionService.class);
+    QuestionService questionService = new QuestionService(idService, questionRepository, imageDeletionService);
 
     List<QuestionModel> questionModels;
 
@@ -42,7 +57,10 @@ class QuestionServiceTest {
                 "The capital of France is Paris.",
                 true,
                 "user",
-                "https://example.com/question1.jpg"
+                "https://example.com/question1.jpg",
+                null,
+                false,
+                null
         );
 
         QuestionModel questionModel2 = new QuestionModel(
@@ -60,13 +78,17 @@ class QuestionServiceTest {
                 "The capital of Germany is Berlin.",
                 true,
                 "user",
-                "https://example.com/question2.jpg"
+                "https://example.com/question2.jpg",
+                null,
+                false,
+                null
         );
 
 
         questionModels = List.of(questionModel1, questionModel2);
         // Verhalten des Mocks definieren
         when(questionRepository.findAll()).thenReturn(questionModels);
+        when(questionRepository.findByIsActiveTrue()).thenReturn(questionModels);
     }
 
     @Test
@@ -85,24 +107,237 @@ class QuestionServiceTest {
         List<QuestionModel> result = questionService.getActiveQuestions();
 
         assertEquals(expected, result);
+        verify(questionRepository, never()).findAll();
     }
 
     @Test
     void testGetActiveKangarooQuestions() {
-        List<QuestionModel> result = questionService.getActiveKangarooQuestions();
         List<QuestionModel> expected = questionModels.stream()
                 .filter(q -> q.categoryEnum() == CategoryEnum.KANGAROO && q.isActive())
                 .toList();
+
+        List<QuestionModel> result = questionService.getActiveKangarooQuestions();
+
         assertEquals(expected, result);
+        verify(questionRepository, never()).findAll();
     }
 
     @Test
     void testGetActiveAllQuestions() {
         List<QuestionModel> result = questionService.getAllActiveQuestions();
-        List<QuestionModel> expected = questionModels.stream()
-                .filter(QuestionModel::isActive)
-                .toList();
-        assertEquals(expected, result);
+
+        assertEquals(questionModels.size(), result.size());
+        assertTrue(result.containsAll(questionModels));
+        verify(questionRepository, never()).findAll();
+    }
+
+    @Test
+    void testActiveQuestionSnapshot_isLoadedOnceAndServedFromMemory() {
+        questionService.getActiveQuestions();
+        questionService.getActiveKangarooQuestions();
+        questionService.getAllActiveQuestions();
+
+        verify(questionRepository, times(1)).findByIsActiveTrue();
+    }
+
+    @Test
+    void testActiveQuestionSnapshot_isUpdatedOnWrites() {
+        QuestionModel questionModel = questionModels.getFirst();
+        long versionBefore = questionService.getActiveQuestionSnapshot().version();
+
+        QuestionModel deactivated = new QuestionModel(
+                questionModel.id(),
+                questionModel.title(),
+                questionModel.difficultyEnum(),
+                questionModel.categoryEnum(),
+                questionModel.questionText(),
+                questionModel.options(),
+                questionModel.answerExplanation(),
+                false,
+                questionModel.githubId(),
+                questionModel.imageUrl(),
+                null,
+                false,
+                null
+        );
+        when(questionRepository.toggleActive("1")).thenReturn(Optional.of(deactivated));
+        when(questionRepository.findAllById(List.of("1"))).thenReturn(List.of(deactivated));
+
+        questionService.toggleQuestionActive("1");
+
+        assertFalse(questionService.getActiveQuestions().contains(questionModel));
+        assertTrue(questionService.getActiveQuestionSnapshot().version() > versionBefore);
+
+        when(questionRepository.findById("2")).thenReturn(Optional.of(questionModels.get(1)));
+        questionService.deleteQuestion("2");
+
+        assertTrue(questionService.getAllActiveQuestions().isEmpty());
+        verify(questionRepository, times(1)).findByIsActiveTrue();
+    }
+
+    @Test
+    void testActiveQuestionSnapshot_appliesLatestStoredStateWhenWritesArriveOutOfOrder() {
+        QuestionModel questionModel = questionModels.getFirst();
+        questionService.getActiveQuestionSnapshot();
+        QuestionModel deactivated = new QuestionModel(questionModel.id(), questionModel.title(), questionModel.difficultyEnum(),
+                questionModel.categoryEnum(), questionModel.questionText(), questionModel.options(),
+                questionModel.answerExplanation(), false, questionModel.githubId(), questionModel.imageUrl(), null, false, null);
+        // Zweites Umschalten ist in Mongo schon committet, das erste wendet seinen Stand erst danach an
+        when(questionRepository.toggleActive("1")).thenReturn(Optional.of(deactivated));
+        when(questionRepository.findAllById(List.of("1"))).thenReturn(List.of(questionModel));
+
+        questionService.toggleQuestionActive("1");
+
+        assertTrue(questionService.getActiveQuestions().contains(questionModel));
+        verify(questionRepository).findAllById(List.of("1"));
+    }
+
+    @Test
+    void testRefreshAnswerStatistics_updatesOnlyStatisticsAndChangesOnlyETagsWithStatistics() {
+        QuestionModel questionModel = questionModels.getFirst();
+        questionService.getActiveQuestionSnapshot();
+        String eTagBefore = questionService.getContentETag();
+        String summaryETagBefore = questionService.getSummaryETag();
+        AnswerStatistics statistics = new AnswerStatistics(3, 2);
+        // Der gelesene Stand ist inzwischen inaktiv und umbenannt: nur die Zähler dürfen übernommen werden
+        QuestionModel stored = new QuestionModel(questionModel.id(), "Renamed", questionModel.difficultyEnum(),
+                questionModel.categoryEnum(), questionModel.questionText(), questionModel.options(),
+                questionModel.answerExplanation(), false, questionModel.githubId(), questionModel.imageUrl(), null, false, statistics);
+        when(questionRepository.findAllById(List.of("1"))).thenReturn(List.of(stored));
+
+        questionService.refreshAnswerStatistics(List.of("1"));
+
+        assertEquals(List.of(questionModel.withAnswerStatistics(statistics)),
+                questionService.getActiveQuestions().stream().filter(q -> q.id().equals("1")).toList());
+        assertNotEquals(eTagBefore, questionService.getContentETag());
+        assertEquals(summaryETagBefore, questionService.getSummaryETag());
+    }
+
+    @Test
+    void testRefreshAnswerStatistics_beforeSnapshotIsLoaded_stillChangesETag() {
+        String eTagBefore = questionService.getContentETag();
+
+        questionService.refreshAnswerStatistics(List.of("1"));
+
+        assertNotEquals(eTagBefore, questionService.getContentETag());
+        verify(questionRepository, never()).findAllById(List.of("1"));
+    }
+
+    @Test
+    void testGetRandomRound_beforeSnapshotIsLoaded_usesMongoSample() {
+        when(questionRepository.sampleActiveQuestions(DifficultyEnum.MEDIUM, null, 10)).thenReturn(List.of(questionModels.getFirst()));
+
+        List<QuestionModel> result = questionService.getRandomRound(DifficultyEnum.MEDIUM, null, 10);
+
+        assertEquals(List.of(questionModels.getFirst()), result);
+        verify(questionRepository, never()).findByIsActiveTrue();
+    }
+
+    @Test
+    void testGetRandomRound_withLoadedSnapshot_samplesInMemory() {
+        questionService.reloadActiveQuestions();
+
+        List<QuestionModel> result = questionService.getRandomRound(DifficultyEnum.MEDIUM, null, 10);
+
+        assertEquals(List.of(questionModels.getFirst()), result);
+        assertEquals(List.of(questionModels.get(1)), questionService.getRandomRound(DifficultyEnum.KANGAROO, null, 10));
+        verify(questionRepository, never()).sampleActiveQuestions(any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetRandomRound_clampsRoundSize() {
+        questionService.getRandomRound(DifficultyEnum.RANDOM, null, 10_000);
+
+        verify(questionRepository).sampleActiveQuestions(DifficultyEnum.RANDOM, null, QuestionService.MAX_ROUND_SIZE);
+    }
+
+    @Test
+    void testGetQuestionPage_returnsCursorWhenMoreQuestionsExist() {
+        QuestionFilter filter = new QuestionFilter(null, null, null, true);
+        when(questionRepository.findPageAfter(null, filter, 2)).thenReturn(questionModels);
+
+        QuestionPage firstPage = questionService.getQuestionPage(null, 1, filter);
+
+        assertEquals(List.of(PublicQuestion.of(questionModels.getFirst())), firstPage.questions());
+        assertNotNull(firstPage.nextCursor());
+
+        when(questionRepository.findPageAfter("1", filter, 2)).thenReturn(List.of(questionModels.get(1)));
+
+        QuestionPage secondPage = questionService.getQuestionPage(firstPage.nextCursor(), 1, filter);
+
+        assertEquals(List.of(PublicQuestion.of(questionModels.get(1))), secondPage.questions());
+        assertNull(secondPage.nextCursor());
+    }
+
+    @Test
+    void testGetQuestionPage_clampsPageSize() {
+        QuestionFilter filter = new QuestionFilter(null, null, null, null);
+        when(questionRepository.findPageAfter(null, filter, QuestionService.MAX_PAGE_SIZE + 1)).thenReturn(questionModels);
+
+        QuestionPage page = questionService.getQuestionPage(null, 5_000, filter);
+
+        assertEquals(PublicQuestion.listOf(questionModels), page.questions());
+        verify(questionRepository).findPageAfter(null, filter, QuestionService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void testGetQuestionPage_withInvalidCursor_throwsException() {
+        QuestionFilter filter = new QuestionFilter(null, null, null, null);
+
+        assertThrows(InvalidCursorException.class, () -> questionService.getQuestionPage("not base64!", 10, filter));
+    }
+
+    @Test
+    void testSearchQuestions_usesIndexKeptInSyncWithWrites() {
+        assertEquals(List.of(PublicQuestion.of(questionModels.get(1))), questionService.searchQuestions("germany", null, null, 0, 10).questions());
+
+        when(questionRepository.findById("2")).thenReturn(Optional.of(questionModels.get(1)));
+        questionService.deleteQuestion("2");
+
+        QuestionSearchResult result = questionService.searchQuestions("capital", null, null, 0, 10);
+        assertEquals(List.of(PublicQuestion.of(questionModels.getFirst())), result.questions());
+        assertEquals(1, result.totalHits());
+        verify(questionRepository, times(1)).findByIsActiveTrue();
+    }
+
+    @Test
+    void testSearchQuestions_clampsPaging() {
+        QuestionSearchResult result = questionService.searchQuestions("capital", null, null, -3, 5_000);
+
+        assertEquals(0, result.page());
+        assertEquals(QuestionService.MAX_PAGE_SIZE, result.size());
+        assertEquals(2, result.totalHits());
+    }
+
+    @Test
+    void testGetActiveQuestionSummaries_areMappedFromSnapshot() {
+        List<QuestionSummary> summaries = questionService.getAllActiveQuestionSummaries();
+
+        assertEquals(questionService.getAllActiveQuestions().stream().map(QuestionSummary::of).toList(), summaries);
+        assertEquals(2, summaries.size());
+        assertEquals(List.of(QuestionSummary.of(questionModels.get(1))), questionService.getActiveKangarooQuestionSummaries());
+        verify(questionRepository, never()).findSummaryByIsActiveTrue();
+    }
+
+    @Test
+    void testGetQuestionSummariesByIds() {
+        List<QuestionSummary> summaries = List.of(QuestionSummary.of(questionModels.getFirst()));
+        when(questionRepository.findSummaryByIdIn(List.of("1"))).thenReturn(summaries);
+
+        assertEquals(summaries, questionService.getQuestionSummariesByIds(List.of("1")));
+    }
+
+    @Test
+    void testContentVersion_isBumpedOnEveryWrite() {
+        String eTagBefore = questionService.getContentETag();
+        long versionBefore = questionService.getContentVersion();
+        when(questionRepository.findById("1")).thenReturn(Optional.of(questionModels.getFirst()));
+
+        questionService.deleteQuestion("1");
+
+        assertEquals(versionBefore + 1, questionService.getContentVersion());
+        assertNotEquals(eTagBefore, questionService.getContentETag());
+        assertTrue(questionService.getContentETag().startsWith("\""));
     }
 
     @Test
@@ -138,7 +373,10 @@ class QuestionServiceTest {
                 "The capital of Italy is Rome.",
                 true,
                 "user",
-                "https://example.com/question3.jpg"
+                "https://example.com/question3.jpg",
+                null,
+                false,
+                null
         );
 
         when(idService.generateRandomId()).thenReturn("3");
@@ -168,7 +406,10 @@ class QuestionServiceTest {
                 "The capital of France is Paris.",
                 true,
                 "user",
-                "https://example.com/question1.jpg"
+                "https://example.com/question1.jpg",
+                null,
+                false,
+                null
         );
 
         when(questionRepository.findById("1")).thenReturn(Optional.of(updatedQuestionModel));
@@ -189,7 +430,35 @@ class QuestionServiceTest {
         when(questionRepository.findById("1")).thenReturn(java.util.Optional.of(questionModel));
         questionService.deleteQuestion("1");
         verify(questionRepository, times(1)).deleteById("1");
-        verify(cloudinaryService, times(1)).deleteImage(questionModel.imageUrl());
+        verify(imageDeletionService, times(1)).scheduleDeletion(questionModel.imageUrl());
+    }
+
+    @Test
+    void testUpdateQuestion_withNewImage_schedulesDeletionOfOldVariantsOnly() {
+        QuestionModel existing = questionModels.getFirst();
+        QuestionModel withVariants = new QuestionModel(
+                existing.id(), existing.title(), existing.difficultyEnum(), existing.categoryEnum(),
+                existing.questionText(), existing.options(), existing.answerExplanation(), existing.isActive(),
+                existing.githubId(), "https://example.com/old-640w.jpg",
+                List.of(new ImageVariant(320, "https://example.com/old-320w.jpg"),
+                        new ImageVariant(640, "https://example.com/old-640w.jpg")),
+                false,
+                null);
+        QuestionModel replaced = new QuestionModel(
+                existing.id(), existing.title(), existing.difficultyEnum(), existing.categoryEnum(),
+                existing.questionText(), existing.options(), existing.answerExplanation(), existing.isActive(),
+                existing.githubId(), "https://example.com/new-320w.jpg",
+                List.of(new ImageVariant(320, "https://example.com/new-320w.jpg")),
+                false,
+                null);
+        when(questionRepository.findById("1")).thenReturn(Optional.of(withVariants));
+        when(questionRepository.save(replaced)).thenReturn(replaced);
+
+        questionService.updateQuestion(replaced);
+
+        verify(imageDeletionService).scheduleDeletion("https://example.com/old-640w.jpg");
+        verify(imageDeletionService).scheduleDeletion("https://example.com/old-320w.jpg");
+        verifyNoMoreInteractions(imageDeletionService);
     }
 
     @Test
@@ -199,19 +468,19 @@ class QuestionServiceTest {
                 .filter(questionModel -> questionModel.githubId().equals(githubId))
                 .toList();
 
-        when(questionRepository.findAll()).thenReturn(questionModels);
+        when(questionRepository.findByGithubId(githubId)).thenReturn(expectedQuestions);
 
         List<QuestionModel> result = questionService.getQuestionsForGithubUser(githubId);
 
         assertEquals(expectedQuestions, result);
-        verify(questionRepository, times(1)).findAll();
+        verify(questionRepository, times(1)).findByGithubId(githubId);
+        verify(questionRepository, never()).findAll();
     }
 
 
     @Test
     void testToggleQuestionActive() {
         QuestionModel questionModel = questionModels.getFirst();
-        when(questionRepository.findById("1")).thenReturn(Optional.of(questionModel));
 
         QuestionModel updatedQuestionModel = new QuestionModel(
                 questionModel.id(),
@@ -223,18 +492,28 @@ class QuestionServiceTest {
                 questionModel.answerExplanation(),
                 !questionModel.isActive(),
                 questionModel.githubId(),
-                questionModel.imageUrl()
+                questionModel.imageUrl(),
+                null,
+                false,
+                null
         );
 
-        when(questionRepository.findById("1")).thenReturn(Optional.of(questionModel));
-        when(questionRepository.save(any(QuestionModel.class))).thenReturn(updatedQuestionModel);
+        when(questionRepository.toggleActive("1")).thenReturn(Optional.of(updatedQuestionModel));
 
         QuestionModel expected = questionService.toggleQuestionActive("1");
 
         //then
         assertEquals(updatedQuestionModel, expected);
-        verify(questionRepository, times(1)).findById("1");
-        verify(questionRepository, times(1)).save(updatedQuestionModel);
+        verify(questionRepository, times(1)).toggleActive("1");
+        verify(questionRepository, never()).findById("1");
+        verify(questionRepository, never()).save(any(QuestionModel.class));
+    }
+
+    @Test
+    void testToggleQuestionActive_withUnknownId_throwsException() {
+        when(questionRepository.toggleActive("99")).thenReturn(Optional.empty());
+
+        assertThrows(QuestionNotFoundException.class, () -> questionService.toggleQuestionActive("99"));
     }
 
     @Test
@@ -254,7 +533,10 @@ class QuestionServiceTest {
                 "Explanation 1",
                 true,
                 "user1",
-                "http://image1.jpg"
+                "http://image1.jpg",
+                null,
+                false,
+                null
         );
 
         QuestionModel input2 = new QuestionModel(
@@ -272,7 +554,10 @@ class QuestionServiceTest {
                 "Explanation 2",
                 true,
                 "user2",
-                "http://image2.jpg"
+                "http://image2.jpg",
+                null,
+                false,
+                null
         );
 
         List<QuestionModel> inputQuestions = List.of(input1, input2);
@@ -0,0 +1,105 @@
+package ropold.backend.service;
+
+import org.junit.jupiter.api.Test;
+import ropold.backend.model.AppUser;
+import ropold.backend.model.DifficultyEnum;
+import ropold.backend.model.HighScoreEntry;
+import ropold.backend.model.HighScoreModel;
+import ropold.backend.repository.AppUserRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class UserProfileServiceTest {
+
+    AppUserRepository appUserRepository = mock(AppUserRepository.class);
+    Instant now = Instant.parse("2025-03-05T12:00:00Z");
+    Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+    UserProfileService userProfileService = new UserProfileService(appUserRepository, clock);
+
+    private static HighScoreModel score(String id, String githubId) {
+        return new HighScoreModel(id, "player", githubId, DifficultyEnum.EASY, "Kangaroo", 0, 10.0, LocalDateTime.of(2025, 3, 5, 12, 0));
+    }
+
+    private static AppUser user(String id) {
+        return new AppUser(id, "login-" + id, "Name " + id, "https://avatars.example/" + id, "https://github.com/" + id, List.of());
+    }
+
+    @Test
+    void enrich_shouldResolveAllRowsWithOneBatchedLookup() {
+        when(appUserRepository.findAllById(List.of("1", "2"))).thenReturn(List.of(user("1"), user("2")));
+
+        List<HighScoreEntry> entries = userProfileService.enrich(List.of(
+                score("a", "1"), score("b", "2"), score("c", "1"), score("d", "anonymousUser")));
+
+        verify(appUserRepository, times(1)).findAllById(anyIterable());
+        assertEquals(List.of("login-1", "login-2", "login-1"), entries.subList(0, 3).stream().map(HighScoreEntry::githubUsername).toList());
+        assertEquals("https://avatars.example/2", entries.get(1).avatarUrl());
+        assertNull(entries.get(3).githubUsername());
+    }
+
+    @Test
+    void enrich_shouldServeRepeatedViewsFromCacheUntilExpiry() {
+        when(appUserRepository.findAllById(List.of("1"))).thenReturn(List.of(user("1")));
+
+        userProfileService.enrich(List.of(score("a", "1")));
+        userProfileService.enrich(List.of(score("a", "1")));
+        verify(appUserRepository, times(1)).findAllById(anyIterable());
+
+        now = now.plus(UserProfileService.PROFILE_TTL).plusSeconds(1);
+        userProfileService.enrich(List.of(score("a", "1")));
+        verify(appUserRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    void enrich_shouldRememberUnknownIdsOnlyBriefly() {
+        when(appUserRepository.findAllById(List.of("ghost"))).thenReturn(List.of());
+
+        assertNull(userProfileService.enrich(List.of(score("a", "ghost"))).getFirst().githubUsername());
+        userProfileService.enrich(List.of(score("a", "ghost")));
+        verify(appUserRepository, times(1)).findAllById(anyIterable());
+
+        now = now.plus(UserProfileService.UNKNOWN_PROFILE_TTL).plus(Duration.ofSeconds(1));
+        when(appUserRepository.findAllById(List.of("ghost"))).thenReturn(List.of(user("ghost")));
+        assertEquals("login-ghost", userProfileService.enrich(List.of(score("a", "ghost"))).getFirst().githubUsername());
+    }
+
+    @Test
+    void cache_shouldStayBounded() {
+        List<String> ids = IntStream.range(0, UserProfileService.MAX_CACHED_PROFILES + 50).mapToObj(String::valueOf).toList();
+        when(appUserRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        userProfileService.getProfiles(ids);
+        clearInvocations(appUserRepository);
+
+        // Die ältesten Einträge sind verdrängt und werden erneut geladen, die jüngsten nicht
+        userProfileService.getProfiles(List.of("0", ids.getLast()));
+        verify(appUserRepository).findAllById(List.of("0"));
+    }
+}
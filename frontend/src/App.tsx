@@ -4,7 +4,7 @@ import ProtectedRoute from "./components/ProtectedRoute.tsx";
 import Welcome from "./components/Welcome.tsx";
 import {Route, Routes} from "react-router-dom";
 import Profile from "./components/Profile.tsx";
-import {useEffect, useState} from "react";
+import {useEffect, useMemo, useRef, useState} from "react";
 import type {UserDetails} from "./components/model/UserDetailsModel.ts";
 import axios from "axios";
 import NotFound from "./components/NotFound.tsx";
@@ -15,14 +15,21 @@ import ListOfAllQuestions from "./components/ListOfAllQuestions.tsx";
 import Details from "./components/Details.tsx";
 import type {QuestionModel} from "./components/model/QuestionModel.ts";
 import type {HighScoreModel} from "./components/model/HighScoreModel.ts";
+import type {LeaderboardUpdate} from "./components/model/LeaderboardUpdate.ts";
+import {applyLeaderboardUpdate} from "./components/utils/applyLeaderboardUpdate.ts";
+import type {BootstrapResponse} from "./components/model/Bootstrap.ts";
 
 export default function App() {
     const [user, setUser] = useState<string>("anonymousUser");
     const [userDetails, setUserDetails] = useState<UserDetails | null>(null);
-    const [activeQuestionsWithNoK, setActiveQuestionsWithNoK] = useState<QuestionModel[]>([]);
+    // Alle Fragen inklusive inaktiver lädt erst das Profil (Meine Fragen)
     const [allQuestions, setAllQuestions] = useState<QuestionModel[]>([]);
-    const [allActiveKangarooQuestions, setAllActiveKangarooQuestions] = useState<QuestionModel[]>([]);
     const [allActiveQuestions, setAllActiveQuestions] = useState<QuestionModel[]>([]);
+    // Die Spiel-Listen werden aus den aktiven Fragen abgeleitet statt einzeln geladen
+    const activeQuestionsWithNoK = useMemo(
+        () => allActiveQuestions.filter(question => question.categoryEnum !== "KANGAROO"), [allActiveQuestions]);
+    const allActiveKangarooQuestions = useMemo(
+        () => allActiveQuestions.filter(question => question.categoryEnum === "KANGAROO"), [allActiveQuestions]);
     const [favorites, setFavorites] = useState<string[]>([]);
     const [currentPage, setCurrentPage] = useState<number>(1);
     const [highScoreKangaroo, setHighScoreKangaroo] = useState<HighScoreModel[]>([]);
@@ -30,6 +37,8 @@ export default function App() {
     const [highScoreEasy, setHighScoreEasy] = useState<HighScoreModel[]>([]);
     const [highScoreMedium, setHighScoreMedium] = useState<HighScoreModel[]>([]);
     const [highScoreHard, setHighScoreHard] = useState<HighScoreModel[]>([]);
+    // Nutzer, dessen Details und Favoriten schon mit dem Bootstrap kamen
+    const bootstrappedUser = useRef<string | null>(null);
 
 
     function getUser() {
@@ -85,16 +94,39 @@ export default function App() {
         }
     }
 
+    function bootstrap() {
+        axios.get<BootstrapResponse>("/api/bootstrap")
+            .then((response) => {
+                const data = response.data;
+                bootstrappedUser.current = data.user;
+                setUser(data.user);
+                if (data.user !== "anonymousUser") {
+                    setUserDetails(data.userDetails);
+                    if (data.favorites) setFavorites(data.favorites); else getAppUserFavorites();
+                }
+                // Teile, die der Server nicht liefern konnte, einzeln nachladen
+                if (data.allActiveQuestions) setAllActiveQuestions(data.allActiveQuestions); else getAllActiveQuestions();
+                if (data.highScores) {
+                    setHighScoreEasy(data.highScores.EASY);
+                    setHighScoreMedium(data.highScores.MEDIUM);
+                    setHighScoreHard(data.highScores.HARD);
+                    setHighScoreKangaroo(data.highScores.KANGAROO);
+                    setHighScoreRandom(data.highScores.RANDOM);
+                }
+            })
+            .catch((error) => {
+                console.error("Error fetching bootstrap data: ", error);
+                getUser();
+                getAllActiveQuestions();
+            });
+    }
+
     useEffect(() => {
-        getUser();
-        getActiveQuestionsWithNoK();
-        getAllQuestions();
-        getKangarooQuestions();
-        getAllActiveQuestions();
+        bootstrap();
     }, []);
 
     useEffect(() => {
-        if(user !== "anonymousUser"){
+        if(user !== "anonymousUser" && user !== bootstrappedUser.current){
             getUserDetails();
             getAppUserFavorites();
         }
@@ -104,9 +136,10 @@ export default function App() {
         setAllActiveQuestions((prevQuestions) => [...prevQuestions, newQuestion]);
     }
 
+    // Im Profil braucht es die eigenen Fragen samt richtiger Antworten; die liefert nur dieser Endpunkt
     function getAllQuestions() {
         axios
-            .get("/api/quiz-hub")
+            .get(`/api/users/me/my-questions/${user}`)
             .then((response) => {
                 setAllQuestions(response.data);
             })
@@ -115,17 +148,6 @@ export default function App() {
             });
     }
 
-    function getActiveQuestionsWithNoK() {
-        axios
-            .get("/api/quiz-hub/active")
-            .then((response) => {
-                setActiveQuestionsWithNoK(response.data);
-            })
-            .catch((error) => {
-                console.error("Error fetching active animals: ", error);
-            });
-    }
-
     function getAllActiveQuestions(){
         axios
             .get("/api/quiz-hub/active-all")
@@ -137,17 +159,6 @@ export default function App() {
             });
     }
 
-    function getKangarooQuestions() {
-        axios
-            .get("/api/quiz-hub/active/kangaroo")
-            .then((response) => {
-                setAllActiveKangarooQuestions(response.data);
-            })
-            .catch((error) => {
-                console.error("Error fetching active animals: ", error);
-            });
-    }
-
     function getHighScoreEasy() {
         axios
             .get("/api/high-score/EASY")
@@ -203,6 +214,27 @@ export default function App() {
             });
     }
 
+    function applyHighScoreUpdate(update: LeaderboardUpdate) {
+        const apply = (current: HighScoreModel[]) => applyLeaderboardUpdate(current, update);
+        switch (update.difficultyEnum) {
+            case "EASY":
+                setHighScoreEasy(apply);
+                break;
+            case "MEDIUM":
+                setHighScoreMedium(apply);
+                break;
+            case "HARD":
+                setHighScoreHard(apply);
+                break;
+            case "KANGAROO":
+                setHighScoreKangaroo(apply);
+                break;
+            case "RANDOM":
+                setHighScoreRandom(apply);
+                break;
+        }
+    }
+
   return (
     <>
         <Navbar getUser={getUser} getUserDetails={getUserDetails} user={user}/>
@@ -212,7 +244,7 @@ export default function App() {
             <Route path="/play" element={<Play user={user} activeQuestionsWithNoK={activeQuestionsWithNoK} allActiveKangarooQuestions={allActiveKangarooQuestions} highScoreEasy={highScoreEasy} getHighScoreEasy={getHighScoreEasy} highScoreMedium={highScoreMedium} getHighScoreMedium={getHighScoreMedium} highScoreHard={highScoreHard} getHighScoreHard={getHighScoreHard} highScoreKangaroo={highScoreKangaroo} getHighScoreKangaroo={getHighScoreKangaroo} highScoreRandom={highScoreRandom} getHighScoreRandom={getHighScoreRandom} />} />
             <Route path="/list-of-all-questions" element={<ListOfAllQuestions user={user} favorites={favorites} toggleFavorite={toggleFavorite} currentPage={currentPage} setCurrentPage={setCurrentPage} allActiveQuestions={allActiveQuestions} getAllActiveQuestions={getAllActiveQuestions}/>} />
             <Route path="/question/:id" element={<Details user={user} favorites={favorites} toggleFavorite={toggleFavorite}/>} />
-            <Route path="/high-score" element={<HighScore highScoreEasy={highScoreEasy} getHighScoreEasy={getHighScoreEasy} highScoreMedium={highScoreMedium} getHighScoreMedium={getHighScoreMedium} highScoreHard={highScoreHard} getHighScoreHard={getHighScoreHard} highScoreKangaroo={highScoreKangaroo} getHighScoreKangaroo={getHighScoreKangaroo} highScoreRandom={highScoreRandom} getHighScoreRandom={getHighScoreRandom}/>} />
+            <Route path="/high-score" element={<HighScore highScoreEasy={highScoreEasy} getHighScoreEasy={getHighScoreEasy} highScoreMedium={highScoreMedium} getHighScoreMedium={getHighScoreMedium} highScoreHard={highScoreHard} getHighScoreHard={getHighScoreHard} highScoreKangaroo={highScoreKangaroo} getHighScoreKangaroo={getHighScoreKangaroo} highScoreRandom={highScoreRandom} getHighScoreRandom={getHighScoreRandom} applyHighScoreUpdate={applyHighScoreUpdate}/>} />
 
             <Route element={<ProtectedRoute user={user}/>}>
                 <Route path="/profile/*" element={<Profile user={user} userDetails={userDetails} handleNewQuestionSubmit={handleNewQuestionSubmit} allQuestions={allQuestions} getAllQuestions={getAllQuestions} setAllQuestions={setAllQuestions} favorites={favorites} toggleFavorite={toggleFavorite}/>} />
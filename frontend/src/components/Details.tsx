@@ -5,6 +5,8 @@ import {useParams} from "react-router-dom";
 import axios from "axios";
 import type {CategoryEnum} from "./model/CategoryEnum.ts";
 import {categoryEnumImages} from "./utils/CategoryEnumImages.ts";
+import {getImageSrcSet} from "./model/ImageVariant.ts";
+import {getProxiedImageUrl} from "./utils/getProxiedImageUrl.ts";
 
 type DetailsProps = {
     user: string;
@@ -56,7 +58,6 @@ export default function Details(props: Readonly<DetailsProps>) {
                         {questions.options.map((option, index) => (
                             <li key={index}>
                                 {option.text}
-                                {option.isCorrect && <span className="details-option-correct"> (correct)</span>}
                             </li>
                         ))}
                     </ul>
@@ -67,9 +68,14 @@ export default function Details(props: Readonly<DetailsProps>) {
 
                     <img
                         className="details-image"
-                        src={questions.imageUrl ? questions.imageUrl : categoryEnumImages[questions.categoryEnum as CategoryEnum]}
+                        src={questions.imageUrl ? getProxiedImageUrl(questions.imageUrl) : categoryEnumImages[questions.categoryEnum as CategoryEnum]}
+                        srcSet={questions.imageUrl ? getImageSrcSet(questions.imageVariants) : undefined}
+                        sizes="300px"
                         alt={questions.title}
                     />
+                    {questions.imagePending && (
+                        <p className="image-pending-hint">The image is still being uploaded and will appear shortly.</p>
+                    )}
 
 
                 {props.user !== "anonymousUser" && (
@@ -1,11 +1,14 @@
-import type {QuestionModel} from "./model/QuestionModel.ts";
+import type {GameQuestion, GameQuestionResult, GameRoundResult} from "./model/GameRound.ts";
 import {useEffect, useState} from "react";
+import axios from "axios";
 import "./styles/Game.css"
 
 type GameProps = {
-    currentQuestions: QuestionModel[];
+    sessionId: string;
+    currentQuestions: GameQuestion[];
     setGameFinished: React.Dispatch<React.SetStateAction<boolean>>;
     setWrongAnswerCount: React.Dispatch<React.SetStateAction<number>>;
+    setTime: React.Dispatch<React.SetStateAction<number>>;
     currentQuestionIndex: number;
     setCurrentQuestionIndex: React.Dispatch<React.SetStateAction<number>>;
     setShowWinAnimation: React.Dispatch<React.SetStateAction<boolean>>;
@@ -14,55 +17,86 @@ type GameProps = {
 
 export default function Game(props: Readonly<GameProps>) {
     const [selectedAnswer, setSelectedAnswer] = useState<string | null>(null); // wir speichern index als string
-    const [isAnswerCorrect, setIsAnswerCorrect] = useState<boolean | null>(null);
-    const [showSolution, setShowSolution] = useState<boolean>(false);
+    // Antworten werden gesammelt und am Ende der Runde in einem Request geprüft
+    const [answers, setAnswers] = useState<number[]>([]);
+    const [roundResults, setRoundResults] = useState<GameQuestionResult[] | null>(null);
 
     const currentQuestion = props.currentQuestions[props.currentQuestionIndex];
+    const isLastQuestion = props.currentQuestionIndex === props.currentQuestions.length - 1;
 
     function handleAnswerClick(answerIndex: string) {
         if (selectedAnswer !== null) return;
 
         setSelectedAnswer(answerIndex);
+        const updatedAnswers = [...answers];
+        updatedAnswers[props.currentQuestionIndex] = parseInt(answerIndex);
+        setAnswers(updatedAnswers);
 
-        const selectedOption = currentQuestion.options[parseInt(answerIndex)];
-        setIsAnswerCorrect(selectedOption.isCorrect);
-        setShowSolution(true);
-
-        if (!selectedOption.isCorrect) {
-            props.setWrongAnswerCount((prev) => prev + 1);
+        // 🎯 Runde abschicken, wenn das die letzte Frage war
+        if (isLastQuestion) {
+            submitRound(updatedAnswers);
         }
+    }
 
-        // 🎯 Spiel beenden, wenn das die letzte Frage war
-        const isLastQuestion = props.currentQuestionIndex === props.currentQuestions.length - 1;
-
-        if (isLastQuestion) {
-            setTimeout(() => {
-                props.setShowWinAnimation(true);
-                props.setGameFinished(true);
+    function submitRound(roundAnswers: number[]) {
+        axios.post<GameRoundResult>(`/api/game/sessions/${props.sessionId}/round`, {
+            answers: roundAnswers.map((answerIndex, questionIndex) => ({questionIndex, answerIndex}))
+        })
+            .then((response) => {
+                setRoundResults(response.data.results);
+                props.setWrongAnswerCount(response.data.wrongAnswerCount);
+                const scoreTime = response.data.scoreTime;
                 setTimeout(() => {
-                    props.setShowWinAnimation(false);
-                }, 5000);
-            }, 1000); // Warte, bis Lösung kurz gezeigt wurde
-        }
+                    props.setShowWinAnimation(true);
+                    props.setGameFinished(true);
+                    // Maßgeblich ist die vom Server gemessene Zeit
+                    if (scoreTime !== null) {
+                        props.setTime(scoreTime);
+                    }
+                    setTimeout(() => {
+                        props.setShowWinAnimation(false);
+                    }, 5000);
+                }, 1000); // Warte, bis die Auswertung kurz gezeigt wurde
+            })
+            .catch((error) => {
+                console.error("Error submitting round:", error);
+                setSelectedAnswer(null);
+            });
     }
 
     function handleNextQuestion() {
-        if (props.currentQuestionIndex + 1 >= props.currentQuestions.length) {
-            props.setGameFinished(true);
-        } else {
+        if (props.currentQuestionIndex + 1 < props.currentQuestions.length) {
             props.setCurrentQuestionIndex((prev) => prev + 1);
             setSelectedAnswer(null);
-            setIsAnswerCorrect(null);
-            setShowSolution(false);
         }
     }
 
     useEffect(() => {
         setSelectedAnswer(null);
-        setIsAnswerCorrect(null);
-        setShowSolution(false);
-    }, [props.resetSignal, props.currentQuestionIndex]);
+    }, [props.currentQuestionIndex]);
+
+    useEffect(() => {
+        setSelectedAnswer(null);
+        setAnswers([]);
+        setRoundResults(null);
+    }, [props.resetSignal, props.sessionId]);
 
+    if (roundResults) {
+        return (
+            <div className="game-solution">
+                {roundResults.map((result) => {
+                    const question = props.currentQuestions[result.questionIndex];
+                    return (
+                        <div key={result.questionIndex}>
+                            <h4>{result.correct ? "✅" : "❌"} {question.questionText}</h4>
+                            {!result.correct && <p><strong>Correct answer:</strong> {question.options[result.correctAnswerIndex]}</p>}
+                            <p><strong>Explanation:</strong> {result.answerExplanation}</p>
+                        </div>
+                    );
+                })}
+            </div>
+        );
+    }
 
     return (
         <div>
@@ -70,32 +104,23 @@ export default function Game(props: Readonly<GameProps>) {
             <div className="game-options">
                 {currentQuestion.options.map((option, idx) => {
                     const isSelected = selectedAnswer === idx.toString();
-                    const isCorrect = option.isCorrect;
-                    const showAsCorrect = showSolution && isCorrect;
-                    const showAsWrong = showSolution && isSelected && !isCorrect;
 
                     return (
                         <button
                             key={idx}
-                            className={`game-option
-                                ${isSelected ? "selected" : ""}
-                                ${showAsCorrect ? "correct" : ""}
-                                ${showAsWrong ? "wrong" : ""}
-                            `}
+                            className={`game-option ${isSelected ? "selected" : ""}`}
                             onClick={() => handleAnswerClick(idx.toString())}
                             disabled={selectedAnswer !== null}
                         >
-                            {option.text}
+                            {option}
                         </button>
                     );
                 })}
             </div>
 
-            {showSolution && (
+            {selectedAnswer !== null && !isLastQuestion && (
                 <div className="game-solution">
-                    <h4>{isAnswerCorrect ? "✅ Correct!" : "❌ Wrong!"}</h4>
-                    <p><strong>Explanation:</strong> {currentQuestion.answerExplanation}</p>
-                    <button className="button-group-button margin-top-20" onClick={handleNextQuestion} disabled={props.currentQuestionIndex === 9}>Next Question</button>
+                    <button className="button-group-button margin-top-20" onClick={handleNextQuestion}>Next Question</button>
                 </div>
             )}
         </div>
@@ -1,5 +1,5 @@
 import type {HighScoreModel} from "./model/HighScoreModel.ts";
-import axios from "axios";
+import type {LeaderboardUpdate} from "./model/LeaderboardUpdate.ts";
 import {useEffect, useState} from "react";
 import "./styles/HighScore.css"
 import {formatEnumDisplayName} from "./utils/formatEnumDisplayName.ts";
@@ -15,6 +15,7 @@ type HighScoreProps = {
     getHighScoreKangaroo: () => void;
     highScoreRandom: HighScoreModel[];
     getHighScoreRandom: () => void;
+    applyHighScoreUpdate: (update: LeaderboardUpdate) => void;
 }
 
 const formatDate = (date: string) => {
@@ -30,41 +31,16 @@ const formatDate = (date: string) => {
 
 export default function HighScore(props: Readonly<HighScoreProps>) {
     const [selectedTable, setSelectedTable] = useState<string | null>(null);
-    const [githubUsernames, setGithubUsernames] = useState<Map<string, string>>(new Map());
-
-    function fetchGithubUsernames(highScores: HighScoreModel[]) {
-        const uniqueIds = new Set(
-            highScores
-                .filter(score => score.githubId !== "anonymousUser")
-                .map(score => score.githubId)
-        );
-
-        const newUsernames = new Map(githubUsernames);
-
-        uniqueIds.forEach(async (id) => {
-            if (!newUsernames.has(id)) {
-                axios.get(`https://api.github.com/user/${id}`)
-                    .then((response) => {
-                        newUsernames.set(id, response.data.login);
-                        setGithubUsernames(new Map(newUsernames));
-                    })
-                    .catch((error) => {
-                        console.error(`Error fetching GitHub user ${id}:`, error);
-                    });
-            }
-        });
-    }
-
-    useEffect(() => {
-        fetchGithubUsernames([...props.highScoreKangaroo, ...props.highScoreRandom, ...props.highScoreEasy, ...props.highScoreMedium, ...props.highScoreHard]);
-    }, [props.highScoreEasy, props.highScoreMedium, props.highScoreHard, props.highScoreKangaroo, props.highScoreRandom]);
-
     useEffect(() => {
-        props.getHighScoreEasy();
-        props.getHighScoreMedium();
-        props.getHighScoreHard();
-        props.getHighScoreKangaroo();
-        props.getHighScoreRandom();
+        // Eine Verbindung für alle Bestenlisten: erst der komplette Stand, danach nur geänderte Ränge
+        const source = new EventSource("/api/high-score/stream");
+        source.addEventListener("leaderboard", (event) => {
+            props.applyHighScoreUpdate(JSON.parse((event as MessageEvent).data));
+        });
+        source.onerror = () => {
+            console.error("High score stream interrupted, reconnecting");
+        };
+        return () => source.close();
     }, []);
 
     const handleTableSelect = (tableId: string) => {
@@ -130,7 +106,7 @@ export default function HighScore(props: Readonly<HighScoreProps>) {
                             <td>
                                 {highScore.githubId === "anonymousUser"
                                     ? "Anonymous"
-                                    : `Github-User (${githubUsernames.get(highScore.githubId) || "Loading..."})`}
+                                    : `Github-User (${highScore.githubUsername ?? "Unknown"})`}
                             </td>
                             <td>{highScore.scoreTime}</td>
                         </tr>
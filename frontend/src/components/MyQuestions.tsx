@@ -5,6 +5,7 @@ import QuestionCard from "./QuestionCard.tsx";
 import {ALL_DIFFICULTIES, type DifficultyEnum, getDifficultyEnumDisplayName} from "./model/DifficultyEnum.ts";
 import {ALL_CATEGORIES, type CategoryEnum, getCategoryEnumDisplayName} from "./model/CategoryEnum.ts";
 import {categoryEnumImages} from "./utils/CategoryEnumImages.ts";
+import {getProxiedImageUrl} from "./utils/getProxiedImageUrl.ts";
 import headerLogo from "../assets/quiz-logo-header.jpg"
 
 type MyQuestionsProps = {
@@ -39,7 +40,7 @@ export default function MyQuestions(props: Readonly<MyQuestionsProps>) {
 
             // Nur versuchen, das Bild zu laden, wenn eine URL vorhanden ist
             if (questionToEdit.imageUrl) {
-                fetch(questionToEdit.imageUrl)
+                fetch(getProxiedImageUrl(questionToEdit.imageUrl))
                     .then((response) => response.blob())
                     .then((blob) => {
                         const file = new File([blob], "current-image.jpg", { type: blob.type });
@@ -1,4 +1,5 @@
 import type {QuestionModel} from "./model/QuestionModel.ts";
+import type {GameQuestion, GameRound} from "./model/GameRound.ts";
 import {useEffect, useState} from "react";
 import type {HighScoreModel} from "./model/HighScoreModel.ts";
 import kangarooLogo from "../assets/categoryEnumImages/kangaroo.jpg";
@@ -7,6 +8,8 @@ import "./styles/Play.css"
 import {ALL_CATEGORIES, type CategoryEnum} from "./model/CategoryEnum.ts";
 import type {DifficultyEnum, NullableDifficultyEnum} from "./model/DifficultyEnum.ts";
 import {categoryEnumImages} from "./utils/CategoryEnumImages.ts";
+import {getImageSrcSet} from "./model/ImageVariant.ts";
+import {getProxiedImageUrl} from "./utils/getProxiedImageUrl.ts";
 import headerLogo from "../assets/quiz-logo-header.jpg"
 import {formatEnumDisplayName} from "./utils/formatEnumDisplayName.ts";
 import Game from "./Game.tsx";
@@ -34,7 +37,8 @@ export default function Play(props: Readonly<ListOfAllQuestionsProps>) {
     const [showPreviewMode, setShowPreviewMode] = useState<boolean>(true);
     const [gameFinished, setGameFinished] = useState<boolean>(true);
     const [intervalId, setIntervalId] = useState<number | null>(null);
-    const [currentQuestions, setCurrentQuestion] = useState<QuestionModel[]>([])
+    const [currentQuestions, setCurrentQuestion] = useState<GameQuestion[]>([])
+    const [sessionId, setSessionId] = useState<string>("");
     const [difficultyEnum, setDifficultyEnum] = useState<NullableDifficultyEnum>("");
     const [categoryEnum, setCategoryEnum] = useState<CategoryWithRandom>("RANDOM");
     const [wrongAnswerCount, setWrongAnswerCount] = useState<number>(0);
@@ -92,6 +96,15 @@ export default function Play(props: Readonly<ListOfAllQuestionsProps>) {
 
 
     function handleResetCurrentQuiz() {
+        // Neue Session mit neu gezogenen Fragen und neuer Startzeit
+        axios.post<GameRound>(`/api/game/sessions/${sessionId}/restart`)
+            .then((response) => {
+                setSessionId(response.data.sessionId);
+                setCurrentQuestion(response.data.questions);
+            })
+            .catch((error) => {
+                console.error("Error restarting round: ", error);
+            });
         setCurrentQuestionIndex(0);
         setWrongAnswerCount(0);
         setIsNewHighScore(false);
@@ -109,6 +122,7 @@ export default function Play(props: Readonly<ListOfAllQuestionsProps>) {
         setTime(0);
         setIsNewHighScore(false);
         setCurrentQuestion([]);
+        setSessionId("");
         setWrongAnswerCount(0);
         setCurrentQuestionIndex(0);
         setDifficultyEnum("");
@@ -116,44 +130,27 @@ export default function Play(props: Readonly<ListOfAllQuestionsProps>) {
     }
 
     function selectQuestions(difficulty: DifficultyEnum , category: CategoryEnum | "RANDOM") {
-        let questions: QuestionModel[];
-
-        if (difficulty === "KANGAROO") {
-            questions = [...props.allActiveKangarooQuestions];
-        } else {
-            questions = [...props.activeQuestionsWithNoK];
-
-            if (difficulty !== "RANDOM") {
-                questions = questions.filter(q => q.difficultyEnum === difficulty);
-            }
-
-            if (category !== "RANDOM") {
-                questions = questions.filter(q => q.categoryEnum === category);
-            }
+        const params: Record<string, string> = {difficulty: difficulty, size: "10"};
+        if (difficulty !== "KANGAROO" && category !== "RANDOM") {
+            params.category = category;
         }
 
-        const shuffled = questions.sort(() => 0.5 - Math.random());
-        const selected = shuffled.slice(0, 10);
-
-        setCurrentQuestion(selected);
+        axios.post<GameRound>("/api/game/sessions", null, {params})
+            .then((response) => {
+                setSessionId(response.data.sessionId);
+                setCurrentQuestion(response.data.questions);
+            })
+            .catch((error) => {
+                console.error("Error fetching round: ", error);
+            });
 
         setDifficultyEnum(difficulty);
         setCategoryEnum(category);
     }
 
     function postHighScore() {
-        const highScoreData = {
-            id: null,
-            playerName: playerName,
-            githubId: props.user,
-            difficultyEnum: difficultyEnum,
-            categoryEnum: categoryEnum,
-            wrongAnswerCount: wrongAnswerCount,
-            scoreTime: parseFloat(time.toFixed(1)),
-            date: new Date(Date.now() + 2 * 60 * 60 * 1000).toISOString()
-        }
-
-        axios.post("/api/high-score", highScoreData)
+        // Fehler und Zeit kennt der Server aus der Session
+        axios.post(`/api/game/sessions/${sessionId}/high-score`, {playerName: playerName})
             .then(() => {
                 setShowNameInput(false);
 
@@ -250,7 +247,7 @@ export default function Play(props: Readonly<ListOfAllQuestionsProps>) {
                 <button className="button-group-button" onClick={handleHardResetGame}>Reset Hard</button>
             </div>
 
-            {!showPreviewMode &&
+            {!showPreviewMode && currentQuestion &&
                 <div className="space-between">
                     <p>Question Index {currentQuestionIndex + 1}/10</p>
                     <p>Mistakes {wrongAnswerCount}/10</p>
@@ -259,9 +256,11 @@ export default function Play(props: Readonly<ListOfAllQuestionsProps>) {
                         <img
                             src={
                                 currentQuestion.imageUrl
-                                    ? currentQuestion.imageUrl
+                                    ? getProxiedImageUrl(currentQuestion.imageUrl)
                                     : categoryEnumImages[currentQuestion.categoryEnum]
                             }
+                            srcSet={currentQuestion.imageUrl ? getImageSrcSet(currentQuestion.imageVariants) : undefined}
+                            sizes="60px"
                             alt="Question visual"
                             className="play-question-image"
                         />
@@ -336,7 +335,7 @@ export default function Play(props: Readonly<ListOfAllQuestionsProps>) {
                         <div className="space-between">
                             <div
                                 className={`clickable-header ${difficultyEnum === "KANGAROO" ? "active-button-deck-difficulty" : ""}`}
-                                onClick={()=> selectQuestions("KANGAROO", "KANGAROO")}>
+                                onClick={()=> {setDifficultyEnum("KANGAROO"); setCategoryEnum("KANGAROO");}}>
                                 <h2 className="header-title">Kangaroo</h2>
                                 <img src={kangarooLogo} alt="Kangaroo Logo" className="logo-image" />
                             </div>
@@ -426,7 +425,7 @@ export default function Play(props: Readonly<ListOfAllQuestionsProps>) {
                 </>}
 
             {!showPreviewMode && currentQuestions && currentQuestions.length > 0 && (
-            <Game currentQuestions={currentQuestions} setGameFinished={setGameFinished} setWrongAnswerCount={setWrongAnswerCount} currentQuestionIndex={currentQuestionIndex} setCurrentQuestionIndex={setCurrentQuestionIndex} setShowWinAnimation={setShowWinAnimation} resetSignal={resetSignal}/>
+            <Game sessionId={sessionId} currentQuestions={currentQuestions} setGameFinished={setGameFinished} setWrongAnswerCount={setWrongAnswerCount} setTime={setTime} currentQuestionIndex={currentQuestionIndex} setCurrentQuestionIndex={setCurrentQuestionIndex} setShowWinAnimation={setShowWinAnimation} resetSignal={resetSignal}/>
             )}
         </>
     )
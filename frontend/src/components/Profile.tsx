@@ -29,6 +29,11 @@ export default function Profile(props: Readonly<ProfileProps>) {
         localStorage.setItem("activeTab", activeTab);
     }, [activeTab]);
 
+    // Die eigenen Fragen kommen nicht mit dem Bootstrap, sondern erst hier
+    useEffect(() => {
+        props.getAllQuestions();
+    }, []);
+
     return (
         <div className="profile-container">
             {/* Button-Navigation */}
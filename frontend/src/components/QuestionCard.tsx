@@ -1,6 +1,8 @@
 import type {QuestionModel} from "./model/QuestionModel.ts";
 import {useNavigate} from "react-router-dom";
 import {categoryEnumImages} from "./utils/CategoryEnumImages.ts";
+import {getImageSrcSet} from "./model/ImageVariant.ts";
+import {getProxiedImageUrl} from "./utils/getProxiedImageUrl.ts";
 
 
 type QuestionCardProps = {
@@ -28,10 +30,13 @@ export default function QuestionCard(props: Readonly<QuestionCardProps>) {
         <div className="question-card" onClick={handleCardClick}>
             <h3>{props.question.title}</h3>
             <img
-                src={props.question.imageUrl ? props.question.imageUrl : categoryEnumImages[props.question.categoryEnum]}
+                src={props.question.imageUrl ? getProxiedImageUrl(props.question.imageUrl) : categoryEnumImages[props.question.categoryEnum]}
+                srcSet={props.question.imageUrl ? getImageSrcSet(props.question.imageVariants) : undefined}
+                sizes="260px"
                 alt={props.question.title}
                 className="question-card-image"
             />
+            {props.question.imagePending && <p className="image-pending-hint">Image upload pending</p>}
 
             {props.user !== "anonymousUser" && (
                 <button
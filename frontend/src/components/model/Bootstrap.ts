@@ -0,0 +1,16 @@
+import type {QuestionModel} from "./QuestionModel.ts";
+import type {HighScoreModel} from "./HighScoreModel.ts";
+import type {DifficultyEnum} from "./DifficultyEnum.ts";
+import type {UserDetails} from "./UserDetailsModel.ts";
+
+export type BootstrapSource = "CACHE" | "DATABASE" | "SKIPPED" | "FAILED";
+
+// Fehlgeschlagene Teile kommen als null und werden einzeln nachgeladen
+export type BootstrapResponse = {
+    user: string;
+    userDetails: UserDetails | null;
+    favorites: string[] | null;
+    allActiveQuestions: QuestionModel[] | null;
+    highScores: Record<DifficultyEnum, HighScoreModel[]> | null;
+    sources: Record<string, BootstrapSource>;
+};
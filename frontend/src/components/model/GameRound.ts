@@ -0,0 +1,50 @@
+import type {DifficultyEnum} from "./DifficultyEnum.ts";
+import type {CategoryEnum} from "./CategoryEnum.ts";
+import type {HighScoreModel} from "./HighScoreModel.ts";
+import type {ImageVariant} from "./ImageVariant.ts";
+
+export type GameQuestion = {
+    id: string;
+    title: string;
+    difficultyEnum: DifficultyEnum;
+    categoryEnum: CategoryEnum;
+    questionText: string;
+    options: string[];
+    imageUrl: string | null;
+    imageVariants?: ImageVariant[] | null;
+    imagePending?: boolean;
+};
+
+export type GameRound = {
+    sessionId: string;
+    difficultyEnum: DifficultyEnum;
+    categoryEnum: CategoryEnum | null;
+    questions: GameQuestion[];
+    expiresAt: string;
+};
+
+export type GameAnswerResult = {
+    correct: boolean;
+    correctAnswerIndex: number;
+    answerExplanation: string;
+    answeredCount: number;
+    wrongAnswerCount: number;
+    finished: boolean;
+};
+
+export type GameQuestionResult = {
+    questionIndex: number;
+    questionId: string;
+    correct: boolean;
+    correctAnswerIndex: number;
+    answerExplanation: string;
+};
+
+export type GameRoundResult = {
+    results: GameQuestionResult[];
+    answeredCount: number;
+    wrongAnswerCount: number;
+    finished: boolean;
+    scoreTime: number | null;
+    highScore: HighScoreModel | null;
+};
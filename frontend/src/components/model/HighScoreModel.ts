@@ -9,4 +9,6 @@ export type HighScoreModel = {
     wrongAnswerCount: number;
     scoreTime: number;
     date: string;
+    githubUsername?: string | null;
+    avatarUrl?: string | null;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+import {getProxiedImageUrl} from "../utils/getProxiedImageUrl.ts";
+
+export type ImageVariant = {
+    width: number;
+    url: string;
+};
+
+// Der Browser wählt anhand von "sizes" und Pixeldichte die kleinste passende Variante
+export function getImageSrcSet(imageVariants: ImageVariant[] | null | undefined): string | undefined {
+    if (!imageVariants || imageVariants.length === 0) return undefined;
+    return imageVariants.map((variant) => `${getProxiedImageUrl(variant.url)} ${variant.width}w`).join(", ");
+}
@@ -0,0 +1,14 @@
+import type {DifficultyEnum} from "./DifficultyEnum.ts";
+import type {HighScoreModel} from "./HighScoreModel.ts";
+
+export type RankChange = {
+    rank: number;
+    highScore: HighScoreModel;
+}
+
+export type LeaderboardUpdate = {
+    difficultyEnum: DifficultyEnum;
+    changes: RankChange[];
+    removedIds: string[];
+    size: number;
+}
@@ -1,9 +1,17 @@
 import type {DifficultyEnum} from "./DifficultyEnum.ts";
 import type {CategoryEnum} from "./CategoryEnum.ts";
+import type {ImageVariant} from "./ImageVariant.ts";
 
+// Öffentliche Endpunkte liefern nur den Text; isCorrect kennen nur die eigenen Fragen
 export type AnswerOption = {
     text: string;
-    isCorrect: boolean;
+    isCorrect?: boolean;
+};
+
+export type AnswerStatistics = {
+    answered: number;
+    correct: number;
+    correctRate: number | null;
 };
 
 export type QuestionModel = {
@@ -17,6 +25,9 @@ export type QuestionModel = {
     isActive: boolean;
     githubId: string;
     imageUrl: string | null;
+    imageVariants?: ImageVariant[] | null;
+    imagePending?: boolean;
+    answerStatistics?: AnswerStatistics | null;
 };
 
 export const DefaultQuestion: QuestionModel = {
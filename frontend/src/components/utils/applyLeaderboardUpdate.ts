@@ -0,0 +1,19 @@
+import type {HighScoreModel} from "../model/HighScoreModel.ts";
+import type {LeaderboardUpdate} from "../model/LeaderboardUpdate.ts";
+
+// Unveränderte Einträge behalten ihren Platz, nur geänderte Ränge werden überschrieben
+export function applyLeaderboardUpdate(current: HighScoreModel[], update: LeaderboardUpdate): HighScoreModel[] {
+    const removed = new Set(update.removedIds);
+    const moved = new Set(update.changes.map(change => change.highScore.id));
+    const next: HighScoreModel[] = new Array(update.size);
+
+    current.forEach((score, index) => {
+        if (index < update.size && !removed.has(score.id) && !moved.has(score.id)) {
+            next[index] = score;
+        }
+    });
+    update.changes.forEach(change => {
+        next[change.rank - 1] = change.highScore;
+    });
+    return next.filter(score => score !== undefined);
+}
@@ -0,0 +1,10 @@
+// Bilder kommen über den Plattencache des Backends statt direkt vom Bildhoster.
+// Die Id ist die Bild-URL als Base64url, wie ImageProxyService.idFor im Backend.
+export function getProxiedImageUrl(imageUrl: string): string {
+    let binary = "";
+    new TextEncoder().encode(imageUrl).forEach((byte) => {
+        binary += String.fromCharCode(byte);
+    });
+    const id = btoa(binary).replace(/\+/g, "-").replace(/\//g, "_").replace(/=+$/, "");
+    return `/api/images/${id}`;
+}